@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.BooleanField;
+import org.apache.usergrid.persistence.model.field.DoubleField;
+import org.apache.usergrid.persistence.model.field.EntityObjectField;
+import org.apache.usergrid.persistence.model.field.IntegerField;
+import org.apache.usergrid.persistence.model.field.ListField;
+import org.apache.usergrid.persistence.model.field.LocationField;
+import org.apache.usergrid.persistence.model.field.LongField;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.field.value.EntityObject;
+import org.apache.usergrid.persistence.model.field.value.Location;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+
+/**
+ * In memory fixtures shared by the benchmarks.  Nothing here touches Cassandra or Elasticsearch.
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * The entity type of the fixtures, a registered type so the schema and typed entity paths are exercised
+     */
+    public static final String ENTITY_TYPE = "user";
+
+    public static final String COLLECTION_NAME = "users";
+
+
+    private BenchmarkFixtures() {
+    }
+
+
+    public static ApplicationScope newApplicationScope() {
+        return new ApplicationScopeImpl( new SimpleId( UUIDGenerator.newTimeUUID(), "application" ) );
+    }
+
+
+    /**
+     * Create a user with the mix of field types a typical entity has: strings, numbers, booleans, a list, a nested
+     * object and a location
+     *
+     * @param index Makes the values of each fixture distinct
+     */
+    public static Entity newEntity( final int index ) {
+
+        final Id id = new SimpleId( UUIDGenerator.newTimeUUID(), ENTITY_TYPE );
+        final Entity entity = new Entity( id, UUIDGenerator.newTimeUUID() );
+        final long now = System.currentTimeMillis();
+
+        entity.setField( new StringField( "username", "user" + index, true ) );
+        entity.setField( new StringField( "email", "user" + index + "@example.com", true ) );
+        entity.setField( new StringField( "name", "Benchmark User " + index ) );
+        entity.setField( new BooleanField( "activated", true ) );
+        entity.setField( new BooleanField( "disabled", false ) );
+        entity.setField( new IntegerField( "age", 20 + index % 50 ) );
+        entity.setField( new DoubleField( "score", index * 1.5 ) );
+        entity.setField( new LongField( "created", now ) );
+        entity.setField( new LongField( "modified", now ) );
+        entity.setField( new ListField<String>( "tags", Arrays.asList( "red", "green", "blue", "tag" + index ) ) );
+
+        final EntityObject address = new EntityObject();
+        address.setField( new StringField( "street", index + " Main Street" ) );
+        address.setField( new StringField( "city", "Springfield" ) );
+        address.setField( new StringField( "zip", "0" + ( 10000 + index ) ) );
+        entity.setField( new EntityObjectField( "address", address ) );
+
+        entity.setField( new LocationField( "location", new Location( 37.77 + index * 0.001, -122.41 ) ) );
+
+        return entity;
+    }
+
+
+    public static List<Entity> newEntities( final int count ) {
+        final List<Entity> entities = new ArrayList<>( count );
+
+        for ( int i = 0; i < count; i++ ) {
+            entities.add( newEntity( i ) );
+        }
+
+        return entities;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+
+/**
+ * Metrics kept in a local registry, without the graphite and jmx reporters, so the code under test records metrics
+ * the way it does in production and nothing is reported
+ */
+public class BenchmarkMetricsFactory implements MetricsFactory {
+
+    private final MetricRegistry registry = new MetricRegistry();
+
+
+    @Override
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+
+    @Override
+    public Timer getTimer( final Class<?> klass, final String name ) {
+        return registry.timer( MetricRegistry.name( klass, name + ".timer" ) );
+    }
+
+
+    @Override
+    public Histogram getHistogram( final Class<?> klass, final String name ) {
+        return registry.histogram( MetricRegistry.name( klass, name + ".histogram" ) );
+    }
+
+
+    @Override
+    public Counter getCounter( final Class<?> klass, final String name ) {
+        return registry.counter( MetricRegistry.name( klass, name + ".counter" ) );
+    }
+
+
+    @Override
+    public Meter getMeter( final Class<?> klass, final String name ) {
+        return registry.meter( MetricRegistry.name( klass, name + ".meter" ) );
+    }
+
+
+    @Override
+    public void addGauge( final Class<?> clazz, final String name, final Gauge<?> gauge ) {
+        registry.register( MetricRegistry.name( clazz, name ), gauge );
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+
+/**
+ * Runs the benchmarks with the JMH command line, writing the results as json unless told otherwise, so runs of
+ * different releases can be compared.
+ *
+ * <pre>
+ *     java -jar target/benchmarks.jar                        # everything, results in jmh-result.json
+ *     java -jar target/benchmarks.jar Query -rff query.json  # the query benchmarks only
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT_FORMAT = "json";
+
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+
+    private BenchmarkRunner() {
+    }
+
+
+    public static void main( final String[] args ) throws Exception {
+
+        final List<String> arguments = new ArrayList<>( Arrays.asList( args ) );
+
+        if ( !arguments.contains( "-rf" ) ) {
+            arguments.add( "-rf" );
+            arguments.add( DEFAULT_RESULT_FORMAT );
+        }
+
+        if ( !arguments.contains( "-rff" ) ) {
+            arguments.add( "-rff" );
+            arguments.add( DEFAULT_RESULT_FILE );
+        }
+
+        Main.main( arguments.toArray( new String[arguments.size()] ) );
+    }
+}
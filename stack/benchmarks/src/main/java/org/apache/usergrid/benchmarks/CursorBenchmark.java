@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.usergrid.corepersistence.pipeline.cursor.RequestCursor;
+import org.apache.usergrid.corepersistence.pipeline.cursor.ResponseCursor;
+import org.apache.usergrid.corepersistence.pipeline.read.EdgePath;
+import org.apache.usergrid.corepersistence.pipeline.read.collect.IdCursorSerializer;
+import org.apache.usergrid.corepersistence.pipeline.read.search.ElasticsearchCursorSerializer;
+import org.apache.usergrid.corepersistence.pipeline.read.traverse.EdgeCursorSerializer;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.google.common.base.Optional;
+
+
+/**
+ * Encoding the cursor of a page of results and decoding it on the next request, for a pipeline that traverses a
+ * connection, then searches
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CursorBenchmark {
+
+    private Optional<EdgePath> edgePath;
+    private String encoded;
+
+
+    @Setup
+    public void setup() {
+        final Id sourceId = new SimpleId( UUIDGenerator.newTimeUUID(), BenchmarkFixtures.ENTITY_TYPE );
+        final Id targetId = new SimpleId( UUIDGenerator.newTimeUUID(), BenchmarkFixtures.ENTITY_TYPE );
+
+        final EdgePath<Id> idPath = new EdgePath<>( 0, sourceId, IdCursorSerializer.INSTANCE, Optional.absent() );
+
+        final MarkedEdge edge =
+            new SimpleMarkedEdge( sourceId, "zzzconnzzz-likes", targetId, System.currentTimeMillis(), false );
+        final EdgePath<MarkedEdge> edgeCursor =
+            new EdgePath<>( 1, edge, EdgeCursorSerializer.INSTANCE, Optional.of( idPath ) );
+
+        final EdgePath<Integer> searchPath =
+            new EdgePath<>( 2, 100, ElasticsearchCursorSerializer.INSTANCE, Optional.of( edgeCursor ) );
+
+        edgePath = Optional.of( searchPath );
+        encoded = new ResponseCursor( edgePath ).encodeAsString().get();
+    }
+
+
+    @Benchmark
+    public Optional<String> encode() {
+        return new ResponseCursor( edgePath ).encodeAsString();
+    }
+
+
+    @Benchmark
+    public void decode( final Blackhole blackhole ) {
+        final RequestCursor cursor = new RequestCursor( Optional.of( encoded ) );
+
+        blackhole.consume( cursor.getCursor( 0, IdCursorSerializer.INSTANCE ) );
+        blackhole.consume( cursor.getCursor( 1, EdgeCursorSerializer.INSTANCE ) );
+        blackhole.consume( cursor.getCursor( 2, ElasticsearchCursorSerializer.INSTANCE ) );
+    }
+}
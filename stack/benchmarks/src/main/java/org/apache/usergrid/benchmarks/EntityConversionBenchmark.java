@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.corepersistence.util.CpEntityMapUtils;
+import org.apache.usergrid.persistence.EntityFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.IndexEdge;
+import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.impl.EntityToMapConverter;
+import org.apache.usergrid.persistence.index.impl.IndexEdgeImpl;
+import org.apache.usergrid.persistence.model.entity.Entity;
+
+
+/**
+ * The conversions every entity read and write goes through: to an elasticsearch document, to and from the map the
+ * api returns, and onto the typed usergrid 1.0 entity
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class EntityConversionBenchmark {
+
+    private ApplicationScope applicationScope;
+    private IndexEdge indexEdge;
+    private Entity entity;
+    private Map<String, Object> entityMap;
+
+
+    @Setup
+    @SuppressWarnings( "unchecked" )
+    public void setup() {
+        applicationScope = BenchmarkFixtures.newApplicationScope();
+        indexEdge = new IndexEdgeImpl( applicationScope.getApplication(), BenchmarkFixtures.COLLECTION_NAME,
+            SearchEdge.NodeType.SOURCE, System.currentTimeMillis() );
+        entity = BenchmarkFixtures.newEntity( 1 );
+        entityMap = CpEntityMapUtils.toMap( entity );
+    }
+
+
+    @Benchmark
+    public Map<String, Object> toIndexDocument() {
+        return EntityToMapConverter.convert( applicationScope, indexEdge, entity );
+    }
+
+
+    @Benchmark
+    public Map toMap() {
+        return CpEntityMapUtils.toMap( entity );
+    }
+
+
+    @Benchmark
+    public Entity fromMap() {
+        return CpEntityMapUtils.fromMap( entityMap, BenchmarkFixtures.ENTITY_TYPE, true );
+    }
+
+
+    @Benchmark
+    public org.apache.usergrid.persistence.Entity toTypedEntity() {
+        final org.apache.usergrid.persistence.Entity typed =
+            EntityFactory.newEntity( entity.getId().getUuid(), BenchmarkFixtures.ENTITY_TYPE );
+        CpEntityMapUtils.copyToEntity( entity, typed );
+        return typed;
+    }
+
+
+    @Benchmark
+    public Map<String, Object> typedEntityProperties() {
+        return toTypedEntity().getProperties();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.safehaus.guicyfig.GuicyFigModule;
+
+import org.apache.usergrid.persistence.collection.MvccEntity;
+import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.impl.MvccEntitySerializationStrategyV3Impl;
+import org.apache.usergrid.persistence.collection.serialization.impl.MvccEntitySerializationStrategyV3Impl.EntityWrapper;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.EntityMap;
+
+import com.google.inject.Guice;
+
+
+/**
+ * Serializing and de-serializing the MVCC entity column, the bytes written and read for every entity version
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class MvccSerializationBenchmark {
+
+    private MvccEntitySerializationStrategyV3Impl.EntitySerializer entitySerializer;
+    private MvccEntitySerializationStrategyV3Impl.PartialEntitySerializer partialSerializer;
+
+    private EntityWrapper wrapper;
+    private byte[] serialized;
+
+
+    @Setup
+    public void setup() {
+
+        //the serializers only need the configuration and metrics, no keyspace is ever used
+        final SerializationFig serializationFig =
+            Guice.createInjector( new GuicyFigModule( SerializationFig.class ) ).getInstance( SerializationFig.class );
+        final MetricsFactory metricsFactory = new BenchmarkMetricsFactory();
+
+        final MvccEntitySerializationStrategyV3Impl strategy =
+            new MvccEntitySerializationStrategyV3Impl( null, serializationFig, null, metricsFactory );
+
+        entitySerializer = strategy.new EntitySerializer( serializationFig, metricsFactory );
+        partialSerializer = strategy.new PartialEntitySerializer( new HashSet<>( Arrays.asList( "name", "email" ) ) );
+
+        final Entity entity = BenchmarkFixtures.newEntity( 1 );
+
+        wrapper = new EntityWrapper( entity.getId(), entity.getVersion(), MvccEntity.Status.COMPLETE,
+            EntityMap.fromEntity( entity ), 0 );
+
+        final ByteBuffer buffer = entitySerializer.toByteBuffer( wrapper );
+        serialized = new byte[buffer.remaining()];
+        buffer.get( serialized );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serialize() {
+        //serializing marks the wrapper complete, which it already is
+        return entitySerializer.toByteBuffer( wrapper );
+    }
+
+
+    @Benchmark
+    public EntityWrapper deserialize() {
+        return entitySerializer.fromByteBuffer( ByteBuffer.wrap( serialized ) );
+    }
+
+
+    @Benchmark
+    public EntityWrapper deserializeSelectedFields() {
+        return partialSerializer.fromByteBuffer( ByteBuffer.wrap( serialized ) );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.persistence.core.rx.OrderedMerge;
+
+import rx.Observable;
+
+
+/**
+ * Merging sorted streams, as graph reads do when they merge the rows of several shards
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class OrderedMergeBenchmark {
+
+    private static final Comparator<Long> COMPARATOR = Long::compare;
+
+    @Param( { "2", "8" } )
+    public int streamCount;
+
+    @Param( { "1000" } )
+    public int streamSize;
+
+    @Param( { "100" } )
+    public int maxBufferSize;
+
+    private Observable<Long>[] streams;
+
+
+    @Setup
+    @SuppressWarnings( "unchecked" )
+    public void setup() {
+        streams = new Observable[streamCount];
+
+        //interleave the values so every stream is drawn from throughout the merge
+        for ( int i = 0; i < streamCount; i++ ) {
+            final List<Long> values = new ArrayList<>( streamSize );
+
+            for ( long value = 0; value < streamSize; value++ ) {
+                values.add( value * streamCount + i );
+            }
+
+            streams[i] = Observable.from( values );
+        }
+    }
+
+
+    @Benchmark
+    public long merge() {
+        return OrderedMerge.orderedMerge( COMPARATOR, maxBufferSize, streams ).countLong().toBlocking().last();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.usergrid.persistence.index.impl.EsQueryVistor;
+import org.apache.usergrid.persistence.index.query.ParsedQuery;
+import org.apache.usergrid.persistence.index.query.ParsedQueryBuilder;
+
+
+/**
+ * Parsing a query and visiting it to build the elasticsearch query, the work done before every search
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class QueryBenchmark {
+
+    @Param( {
+        "select * where username = 'user7'",
+        "select name, email where age > 20 and age < 40 and (tags = 'blue' or name contains 'bench*') order by "
+            + "created desc",
+        "select * where location within 1000 of 37.77, -122.41 and activated = true"
+    } )
+    public String ql;
+
+    private ParsedQuery parsedQuery;
+
+
+    @Setup
+    public void setup() throws Exception {
+        parsedQuery = ParsedQueryBuilder.build( ql );
+    }
+
+
+    @Benchmark
+    public ParsedQuery parse() throws Exception {
+        return ParsedQueryBuilder.build( ql );
+    }
+
+
+    @Benchmark
+    public void visit( final Blackhole blackhole ) throws Exception {
+        final EsQueryVistor visitor = new EsQueryVistor();
+        parsedQuery.getRootOperand().visit( visitor );
+
+        blackhole.consume( visitor.getQueryBuilder() );
+        blackhole.consume( visitor.getFilterBuilder() );
+    }
+
+
+    @Benchmark
+    public void parseAndVisit( final Blackhole blackhole ) throws Exception {
+        final EsQueryVistor visitor = new EsQueryVistor();
+        ParsedQueryBuilder.build( ql ).getRootOperand().visit( visitor );
+
+        blackhole.consume( visitor.getQueryBuilder() );
+        blackhole.consume( visitor.getFilterBuilder() );
+    }
+}
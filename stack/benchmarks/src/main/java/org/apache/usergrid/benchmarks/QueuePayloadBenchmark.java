@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.corepersistence.asyncevents.model.EntityIndexEvent;
+import org.apache.usergrid.corepersistence.util.ObjectJsonSerializer;
+import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.IndexEdge;
+import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.impl.IndexEdgeImpl;
+import org.apache.usergrid.persistence.index.impl.IndexOperation;
+import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.queue.util.QakkaMessageCodec;
+
+import com.google.common.base.Optional;
+
+
+/**
+ * Encoding the payloads of the async index queue: the events sent through qakka, and the batches of index
+ * operations stored as json for the index workers
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class QueuePayloadBenchmark {
+
+    private static final String REGION = "us-east-1";
+
+    private static final String WRITE_ALIAS = "usergrid_applications_write_alias";
+
+    @Param( { "1", "100" } )
+    public int operationCount;
+
+    private EntityIndexEvent event;
+    private ByteBuffer encodedEvent;
+
+    private IndexOperationMessage operations;
+    private String encodedOperations;
+
+
+    @Setup
+    public void setup() throws IOException {
+        final ApplicationScope applicationScope = BenchmarkFixtures.newApplicationScope();
+        final IndexEdge indexEdge = new IndexEdgeImpl( applicationScope.getApplication(),
+            BenchmarkFixtures.COLLECTION_NAME, SearchEdge.NodeType.SOURCE, System.currentTimeMillis() );
+
+        final Entity entity = BenchmarkFixtures.newEntity( 1 );
+
+        event = new EntityIndexEvent( REGION, new EntityIdScope( applicationScope, entity.getId() ), 0 );
+        encodedEvent = QakkaMessageCodec.encode( event );
+
+        operations = new IndexOperationMessage();
+
+        for ( Entity operation : BenchmarkFixtures.newEntities( operationCount ) ) {
+            operations.addIndexRequest( new IndexOperation( WRITE_ALIAS, applicationScope, indexEdge, operation,
+                Optional.absent() ) );
+        }
+
+        encodedOperations = ObjectJsonSerializer.INSTANCE.toString( operations );
+    }
+
+
+    @Benchmark
+    public ByteBuffer encodeEvent() throws IOException {
+        return QakkaMessageCodec.encode( event );
+    }
+
+
+    @Benchmark
+    public Object decodeEvent() throws IOException, ClassNotFoundException {
+        return QakkaMessageCodec.decode( encodedEvent.duplicate() );
+    }
+
+
+    @Benchmark
+    public String encodeIndexOperations() {
+        return ObjectJsonSerializer.INSTANCE.toString( operations );
+    }
+
+
+    @Benchmark
+    public IndexOperationMessage decodeIndexOperations() {
+        return ObjectJsonSerializer.INSTANCE.fromString( encodedOperations, IndexOperationMessage.class );
+    }
+}
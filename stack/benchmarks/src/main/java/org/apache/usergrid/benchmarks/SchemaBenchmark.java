@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.usergrid.persistence.Schema;
+import org.apache.usergrid.persistence.entities.User;
+
+
+/**
+ * The schema lookups made for every property of every entity that is written or returned
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class SchemaBenchmark {
+
+    private static final String[] PROPERTIES = { "username", "email", "name", "activated", "age", "address" };
+
+    private Schema schema;
+
+
+    @Setup
+    public void setup() {
+        schema = Schema.getDefaultSchema();
+    }
+
+
+    @Benchmark
+    public void propertyLookups( final Blackhole blackhole ) {
+        for ( String property : PROPERTIES ) {
+            blackhole.consume( schema.hasProperty( BenchmarkFixtures.ENTITY_TYPE, property ) );
+            blackhole.consume( schema.isPropertyMutable( BenchmarkFixtures.ENTITY_TYPE, property ) );
+            blackhole.consume( schema.isPropertyUnique( BenchmarkFixtures.ENTITY_TYPE, property ) );
+            blackhole.consume( schema.isPropertyIndexed( BenchmarkFixtures.ENTITY_TYPE, property ) );
+        }
+    }
+
+
+    @Benchmark
+    public void typeLookups( final Blackhole blackhole ) {
+        blackhole.consume( schema.getEntityClass( BenchmarkFixtures.ENTITY_TYPE ) );
+        blackhole.consume( schema.getEntityType( User.class ) );
+        blackhole.consume( schema.getEntityInfo( BenchmarkFixtures.ENTITY_TYPE ) );
+    }
+
+
+    @Benchmark
+    public void collectionLookups( final Blackhole blackhole ) {
+        blackhole.consume( schema.getCollectionNames( "application" ) );
+        blackhole.consume( schema.getCollection( "application", BenchmarkFixtures.COLLECTION_NAME ) );
+        blackhole.consume( schema.getDictionaryNames( BenchmarkFixtures.ENTITY_TYPE ) );
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.usergrid.corepersistence.migration.CoreMigration;
 import org.apache.usergrid.corepersistence.migration.CoreMigrationPlugin;
 import org.apache.usergrid.corepersistence.migration.DeDupConnectionDataMigration;
 import org.apache.usergrid.corepersistence.pipeline.PipelineModule;
+import org.apache.usergrid.corepersistence.pipeline.read.traverse.GraphTraversalFig;
 import org.apache.usergrid.corepersistence.pipeline.read.traverse.ReadRepairFig;
 import org.apache.usergrid.corepersistence.rx.impl.*;
 import org.apache.usergrid.corepersistence.service.*;
@@ -163,6 +164,8 @@ public class CoreModule extends AbstractModule {
 
         install( new GuicyFigModule( ReadRepairFig.class ) );
 
+        install( new GuicyFigModule( GraphTraversalFig.class ) );
+
         install( new GuicyFigModule( AsyncEventsSchedulerFig.class ) );
 
         install( new GuicyFigModule( ServiceSchedulerFig.class ) );
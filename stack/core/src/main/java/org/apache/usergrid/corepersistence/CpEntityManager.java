@@ -18,8 +18,10 @@ package org.apache.usergrid.corepersistence;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
+import com.datastax.driver.core.Statement;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.beans.*;
 import me.prettyprint.hector.api.factory.HFactory;
@@ -29,6 +31,8 @@ import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.SliceCounterQuery;
 import org.apache.commons.lang.NullArgumentException;
 import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeEvent;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangePublisher;
 import org.apache.usergrid.corepersistence.index.CollectionSettings;
 import org.apache.usergrid.corepersistence.index.CollectionSettingsFactory;
 import org.apache.usergrid.corepersistence.index.CollectionSettingsScopeImpl;
@@ -121,6 +125,11 @@ public class CpEntityManager implements EntityManager {
 
     private final CollectionSettingsFactory collectionSettingsFactory;
 
+    private final EntityTypeCache entityTypeCache;
+
+    private final EntityChangePublisher entityChangePublisher;
+    private final RolePermissionsCache rolePermissionsCache;
+
     private final ApplicationScope applicationScope;
 
     private final CassandraService cass;
@@ -186,6 +195,9 @@ public class CpEntityManager implements EntityManager {
                             final CollectionService collectionService,
                             final ConnectionService connectionService,
                             final CollectionSettingsFactory collectionSettingsFactory,
+                            final EntityTypeCache entityTypeCache,
+                            final EntityChangePublisher entityChangePublisher,
+                            final RolePermissionsCache rolePermissionsCache,
                             final UUID applicationId,
                             final QueueManagerFactory queueManagerFactory) {
 
@@ -201,6 +213,9 @@ public class CpEntityManager implements EntityManager {
         Preconditions.checkNotNull( graphManagerFactory, "graphManagerFactory must not be null" );
         Preconditions.checkNotNull( connectionService, "connectionService must not be null" );
         Preconditions.checkNotNull( collectionService, "collectionService must not be null" );
+        Preconditions.checkNotNull( entityTypeCache, "entityTypeCache must not be null" );
+        Preconditions.checkNotNull( entityChangePublisher, "entityChangePublisher must not be null" );
+        Preconditions.checkNotNull( rolePermissionsCache, "rolePermissionsCache must not be null" );
 
         this.graphManagerFactory = graphManagerFactory;
         this.connectionService = connectionService;
@@ -212,6 +227,9 @@ public class CpEntityManager implements EntityManager {
         this.applicationId = applicationId;
         this.indexService = indexService;
         this.collectionSettingsFactory = collectionSettingsFactory;
+        this.entityTypeCache = entityTypeCache;
+        this.entityChangePublisher = entityChangePublisher;
+        this.rolePermissionsCache = rolePermissionsCache;
 
         applicationScope = CpNamingUtils.getApplicationScope( applicationId );
 
@@ -372,7 +390,7 @@ public class CpEntityManager implements EntityManager {
         Class clazz = Schema.getDefaultSchema().getEntityClass(entity.getId().getType());
 
         Entity oldFormatEntity = EntityFactory.newEntity(entity.getId().getUuid(), entity.getId().getType(), clazz);
-        oldFormatEntity.setProperties(CpEntityMapUtils.toMap(entity));
+        CpEntityMapUtils.copyToEntity(entity, oldFormatEntity);
 
         return oldFormatEntity;
     }
@@ -400,6 +418,9 @@ public class CpEntityManager implements EntityManager {
 
         Entity entity = EntityFactory.newEntity( entityRef.getUuid(), entityRef.getType(), clazz );
         entity.setProperties(  cpEntity  );
+
+        entityTypeCache.put( applicationId, entityRef.getUuid(), entityRef.getType() );
+
         return entity;
     }
 
@@ -555,6 +576,9 @@ public class CpEntityManager implements EntityManager {
             indexEntity(cpEntity, queueIndexingStrategy);
             deIndexOldVersionsOfEntity(cpEntity);
         }
+
+        entityChangePublisher.publish( applicationId, entity.getType(), entity.getUuid(),
+            EntityChangeEvent.Operation.UPDATE );
     }
 
     private void indexEntity(org.apache.usergrid.persistence.model.entity.Entity cpEntity, QueueIndexingStrategy queueIndexingStrategy) {
@@ -649,6 +673,11 @@ public class CpEntityManager implements EntityManager {
         MapManager mm = getMapManagerForTypes();
         mm.delete( entityRef.getUuid().toString() );
 
+        entityTypeCache.invalidate( applicationId, entityRef.getUuid() );
+
+        entityChangePublisher.publish( applicationId, entityRef.getType(), entityRef.getUuid(),
+            EntityChangeEvent.Operation.DELETE );
+
     }
 
 
@@ -1183,15 +1212,8 @@ public class CpEntityManager implements EntityManager {
 
         EntityRef entity = get( entityRef );
 
-        UUID timestampUuid = UUIDUtils.newTimeUUID();
-        Mutator<ByteBuffer> batch = createMutator( cass.getApplicationKeyspace( applicationId ), be );
-
-        batch = batchUpdateDictionary( batch, entity, dictionaryName, elementName, elementValue, false, timestampUuid );
-
-        //Adding graphite metrics
-        Timer.Context timeDictionaryCreation = entAddDictionaryTimer.time();
-        CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
-        timeDictionaryCreation.stop();
+        updateDictionary( entity, dictionaryName, Collections.singletonMap( elementName, elementValue ), false,
+                entAddDictionaryTimer );
     }
 
 
@@ -1205,17 +1227,12 @@ public class CpEntityManager implements EntityManager {
 
         EntityRef entity = get( entityRef );
 
-        UUID timestampUuid = UUIDUtils.newTimeUUID();
-        Mutator<ByteBuffer> batch = createMutator( cass.getApplicationKeyspace( applicationId ), be );
-
+        Map<Object, Object> elements = new LinkedHashMap<>();
         for ( Object elementValue : elementValues ) {
-            batch = batchUpdateDictionary( batch, entity, dictionaryName, elementValue, null, false, timestampUuid );
+            elements.put( elementValue, null );
         }
 
-        //Adding graphite metrics
-        Timer.Context timeAddingSetDictionary = entAddDictionarySetTimer.time();
-        CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
-        timeAddingSetDictionary.stop();
+        updateDictionary( entity, dictionaryName, elements, false, entAddDictionarySetTimer );
     }
 
 
@@ -1229,18 +1246,65 @@ public class CpEntityManager implements EntityManager {
 
         EntityRef entity = get( entityRef );
 
+        updateDictionary( entity, dictionaryName, elementValues, false, entAddDictionaryMapTimer );
+    }
+
+
+    /**
+     * Write the updates of the dictionary in one batch, with the DataStax session when counters and dictionaries
+     * are written with it, otherwise with a Hector mutator
+     *
+     * @param elements The element names and their values, a null value when the dictionary is a set
+     * @param timer The timer of the update
+     */
+    private void updateDictionary( EntityRef entity, String dictionaryName, Map<?, ?> elements,
+                                   boolean removeFromDictionary, Timer timer ) throws Exception {
+
         UUID timestampUuid = UUIDUtils.newTimeUUID();
+
+        if ( cass.useCqlService() ) {
+            final CassandraCqlService cqlService = cass.getCqlService();
+            final List<Statement> writes = new ArrayList<>();
+
+            final DictionaryColumns columns = new DictionaryColumns() {
+                @Override
+                public void insert( ApplicationCF columnFamily, Object key, Object columnName, Object columnValue,
+                                    long timestamp ) {
+                    writes.add( cqlService
+                            .insertColumn( applicationId, columnFamily, key, columnName, columnValue, timestamp ) );
+                }
+
+
+                @Override
+                public void delete( ApplicationCF columnFamily, Object key, Object columnName, long timestamp ) {
+                    writes.add( cqlService.deleteColumn( applicationId, columnFamily, key, columnName, timestamp ) );
+                }
+            };
+
+            for ( Map.Entry<?, ?> element : elements.entrySet() ) {
+                updateDictionary( columns, entity, dictionaryName, element.getKey(), element.getValue(),
+                        removeFromDictionary, timestampUuid );
+            }
+
+            //Adding graphite metrics
+            Timer.Context timeDictionary = timer.time();
+            cqlService.executeWrites( writes ).get();
+            timeDictionary.stop();
+
+            return;
+        }
+
         Mutator<ByteBuffer> batch = createMutator( cass.getApplicationKeyspace( applicationId ), be );
 
-        for ( Map.Entry<?, ?> elementValue : elementValues.entrySet() ) {
-            batch = batchUpdateDictionary( batch, entity, dictionaryName, elementValue.getKey(),
-                    elementValue.getValue(), false, timestampUuid );
+        for ( Map.Entry<?, ?> element : elements.entrySet() ) {
+            batch = batchUpdateDictionary( batch, entity, dictionaryName, element.getKey(), element.getValue(),
+                    removeFromDictionary, timestampUuid );
         }
 
         //Adding graphite metrics
-        Timer.Context timeMapDictionary = entAddDictionaryMapTimer.time();
+        Timer.Context timeDictionary = timer.time();
         CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
-        timeMapDictionary.stop();
+        timeDictionary.stop();
     }
 
 
@@ -1273,16 +1337,15 @@ public class CpEntityManager implements EntityManager {
         Class<?> setCoType = Schema.getDefaultSchema().getDictionaryValueType(entity.getType(), dictionaryName);
         boolean coTypeIsBasic = ClassUtils.isBasicType( setCoType );
 
-        List<HColumn<ByteBuffer, ByteBuffer>> results =
-                cass.getAllColumns(cass.getApplicationKeyspace(applicationId), dictionaryCf,
-                    CassandraPersistenceUtils.key(entity.getUuid(), dictionaryName), be, be);
-        for ( HColumn<ByteBuffer, ByteBuffer> result : results ) {
+        Map<ByteBuffer, ByteBuffer> results =
+                getDictionaryColumns( dictionaryCf, CassandraPersistenceUtils.key( entity.getUuid(), dictionaryName ) );
+        for ( Map.Entry<ByteBuffer, ByteBuffer> result : results.entrySet() ) {
             Object name = null;
             if ( entityHasDictionary ) {
-                name = object( setType, result.getName() );
+                name = object( setType, result.getKey() );
             }
             else {
-                name = CompositeUtils.deserialize( result.getName() );
+                name = CompositeUtils.deserialize( result.getKey() );
             }
             Object value = null;
             if ( entityHasDictionary && coTypeIsBasic ) {
@@ -1337,18 +1400,16 @@ public class CpEntityManager implements EntityManager {
                 Schema.getDefaultSchema().getDictionaryValueType( entity.getType(), dictionaryName );
         boolean coTypeIsBasic = ClassUtils.isBasicType( dictionaryCoType );
 
-        HColumn<ByteBuffer, ByteBuffer> result =
-                cass.getColumn(cass.getApplicationKeyspace(applicationId), dictionaryCf,
+        ByteBuffer result = getDictionaryColumn( dictionaryCf,
                     CassandraPersistenceUtils.key(entity.getUuid(), dictionaryName),
-                    entityHasDictionary ? bytebuffer(elementName) : DynamicComposite.toByteBuffer(elementName), be,
-                    be);
+                    entityHasDictionary ? bytebuffer(elementName) : DynamicComposite.toByteBuffer(elementName) );
 
         if ( result != null ) {
             if ( entityHasDictionary && coTypeIsBasic ) {
-                value = object( dictionaryCoType, result.getValue() );
+                value = object( dictionaryCoType, result );
             }
-            else if ( result.getValue().remaining() > 0 ) {
-                value = Schema.deserializePropertyValueFromJsonBinary( result.getValue().slice(), dictionaryCoType );
+            else if ( result.remaining() > 0 ) {
+                value = Schema.deserializePropertyValueFromJsonBinary( result.slice(), dictionaryCoType );
             }
         }
         else {
@@ -1385,14 +1446,13 @@ public class CpEntityManager implements EntityManager {
                              DynamicComposite.toByteBuffer( elementNames[i] );
         }
 
-        ColumnSlice<ByteBuffer, ByteBuffer> results =
-                cass.getColumns(cass.getApplicationKeyspace(applicationId), dictionaryCf,
-                    CassandraPersistenceUtils.key(entity.getUuid(), dictionaryName), columnNames, be, be);
+        Map<ByteBuffer, ByteBuffer> results = getDictionaryColumns( dictionaryCf,
+                    CassandraPersistenceUtils.key(entity.getUuid(), dictionaryName), columnNames );
         if ( results != null ) {
             values = new HashMap<String, Object>();
-            for ( HColumn<ByteBuffer, ByteBuffer> result : results.getColumns() ) {
-                String name = entityHasDictionary ? string( result.getName() ) :
-                              DynamicComposite.fromByteBuffer( result.getName() ).get( 0, se );
+            for ( Map.Entry<ByteBuffer, ByteBuffer> result : results.entrySet() ) {
+                String name = entityHasDictionary ? string( result.getKey() ) :
+                              DynamicComposite.fromByteBuffer( result.getKey() ).get( 0, se );
                 if ( entityHasDictionary && coTypeIsBasic ) {
                     values.put( name, object( dictionaryCoType, result.getValue() ) );
                 }
@@ -1419,15 +1479,8 @@ public class CpEntityManager implements EntityManager {
 
         EntityRef entity = get(entityRef);
 
-        UUID timestampUuid = UUIDUtils.newTimeUUID();
-        Mutator<ByteBuffer> batch = createMutator( cass.getApplicationKeyspace( applicationId ), be );
-
-        batch = batchUpdateDictionary( batch, entity, dictionaryName, elementName, true, timestampUuid );
-        //Adding graphite metrics
-        Timer.Context timeRemoveDictionary = entRemoveDictionaryTimer.time();
-        CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
-        timeRemoveDictionary.stop();
-
+        updateDictionary( entity, dictionaryName, Collections.singletonMap( elementName, null ), true,
+                entRemoveDictionaryTimer );
     }
 
 
@@ -1891,6 +1944,7 @@ public class CpEntityManager implements EntityManager {
             "role.create_permission").time();
         CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
         timeGrantRolePermission.stop();
+        rolePermissionsCache.invalidate( applicationId, roleName );
     }
 
 
@@ -1909,6 +1963,7 @@ public class CpEntityManager implements EntityManager {
         Timer.Context timeGrantRolePermissions = entCreateRolePermissionsTimer.time();
         CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
         timeGrantRolePermissions.stop();
+        rolePermissionsCache.invalidate( applicationId, roleName );
 
     }
 
@@ -1943,14 +1998,16 @@ public class CpEntityManager implements EntityManager {
         Timer.Context timeRevokeRolePermission = entRevokeRolePermissionsTimer.time();
         CassandraPersistenceUtils.batchExecute( batch, CassandraService.RETRY_COUNT );
         timeRevokeRolePermission.stop();
+        rolePermissionsCache.invalidate( applicationId, roleName );
     }
 
 //TODO: does this need graphite monitoring
     @Override
     public Set<String> getRolePermissions( String roleName ) throws Exception {
-        roleName = roleName.toLowerCase();
-        return cass.getAllColumnNames( cass.getApplicationKeyspace( applicationId ), ApplicationCF.ENTITY_DICTIONARIES,
-            getRolePermissionsKey( roleName ) );
+        final String roleNameLowerCase = roleName.toLowerCase();
+        return rolePermissionsCache.getPermissions( applicationId, roleNameLowerCase,
+            () -> getDictionaryColumnNames( ApplicationCF.ENTITY_DICTIONARIES,
+                getRolePermissionsKey( roleNameLowerCase ) ) );
     }
 
 //TODO: does this need graphite monitoring
@@ -1975,6 +2032,7 @@ public class CpEntityManager implements EntityManager {
         if ( entity != null ) {
             delete( entity );
         }
+        rolePermissionsCache.invalidate( applicationId, roleNameLowerCase );
     }
 
     @Override
@@ -2036,7 +2094,7 @@ public class CpEntityManager implements EntityManager {
     @Override
     public Set<String> getGroupRolePermissions( UUID groupId, String roleName ) throws Exception {
         roleName = roleName.toLowerCase();
-        return cass.getAllColumnNames( cass.getApplicationKeyspace( applicationId ), ApplicationCF.ENTITY_DICTIONARIES,
+        return getDictionaryColumnNames( ApplicationCF.ENTITY_DICTIONARIES,
             getRolePermissionsKey( groupId, roleName ) );
     }
 
@@ -2201,21 +2259,21 @@ public class CpEntityManager implements EntityManager {
         start = resolution.round( start );
         finish = resolution.round( finish );
         long expected_time = start;
-        Keyspace ko = cass.getApplicationKeyspace( applicationId );
-        SliceCounterQuery<String, Long> q = createCounterSliceQuery( ko, se, le );
-        q.setColumnFamily( APPLICATION_AGGREGATE_COUNTERS.toString() );
-        q.setRange( start, finish, false, ALL_COUNT );
+        String row = counterUtils.getAggregateCounterRow( counterName, userId, groupId, queueId, category, resolution );
 
         //Adding graphite metrics
         Timer.Context timeGetAggregateCounters = aggCounterTimer.time();
-        QueryResult<CounterSlice<Long>> r = q.setKey(
-                counterUtils.getAggregateCounterRow( counterName, userId, groupId, queueId, category, resolution ) )
-                                             .execute();
+        Map<Long, Long> columns =
+                getAggregateCounterRows( Collections.singleton( row ), start, finish ).get( row );
         timeGetAggregateCounters.stop();
 
+        if ( columns == null ) {
+            columns = Collections.emptyMap();
+        }
+
         List<AggregateCounter> counters = new ArrayList<AggregateCounter>();
-        for ( HCounterColumn<Long> column : r.get().getColumns() ) {
-            AggregateCounter count = new AggregateCounter( column.getName(), column.getValue() );
+        for ( Map.Entry<Long, Long> column : columns.entrySet() ) {
+            AggregateCounter count = new AggregateCounter( column.getKey(), column.getValue() );
             if ( pad && !( resolution == CounterResolution.ALL ) ) {
                 while ( count.getTimestamp() != expected_time ) {
                     counters.add( new AggregateCounter( expected_time, 0 ) );
@@ -2267,7 +2325,6 @@ public class CpEntityManager implements EntityManager {
         }
         Map<String, CounterUtils.AggregateCounterSelection> selections =
                 new HashMap<String, CounterUtils.AggregateCounterSelection>();
-        Keyspace ko = cass.getApplicationKeyspace( applicationId );
 
         for ( Query.CounterFilterPredicate filter : filters ) {
             CounterUtils.AggregateCounterSelection selection =
@@ -2278,21 +2335,18 @@ public class CpEntityManager implements EntityManager {
             selections.put( selection.getRow( resolution ), selection );
         }
 
-        MultigetSliceCounterQuery<String, Long> q = HFactory.createMultigetSliceCounterQuery( ko, se, le );
-        q.setColumnFamily( APPLICATION_AGGREGATE_COUNTERS.toString() );
-        q.setRange( start, finish, false, ALL_COUNT );
         //Adding graphite metrics
         Timer.Context timeGetAggregateCounters = entGetAggregateCountersQueryTimer.time();
-        QueryResult<CounterRows<String, Long>> rows = q.setKeys( selections.keySet() ).execute();
+        Map<String, Map<Long, Long>> rows = getAggregateCounterRows( selections.keySet(), start, finish );
         timeGetAggregateCounters.stop();
 
 
         List<AggregateCounterSet> countSets = new ArrayList<AggregateCounterSet>();
-        for ( CounterRow<String, Long> r : rows.get() ) {
+        for ( Map.Entry<String, Map<Long, Long>> r : rows.entrySet() ) {
             expected_time = start;
             List<AggregateCounter> counters = new ArrayList<AggregateCounter>();
-            for ( HCounterColumn<Long> column : r.getColumnSlice().getColumns() ) {
-                AggregateCounter count = new AggregateCounter( column.getName(), column.getValue() );
+            for ( Map.Entry<Long, Long> column : r.getValue().entrySet() ) {
+                AggregateCounter count = new AggregateCounter( column.getKey(), column.getValue() );
                 if ( pad && ( resolution != CounterResolution.ALL ) ) {
                     while ( count.getTimestamp() != expected_time ) {
                         counters.add( new AggregateCounter( expected_time, 0 ) );
@@ -2411,12 +2465,24 @@ public class CpEntityManager implements EntityManager {
     @Override
     public Map<String, Long> getEntityCounters( UUID entityId ) throws Exception {
         Map<String, Long> counters = new HashMap<String, Long>();
+        //Adding graphite metrics
+        Timer.Context timeEntityCounters = entGetEntityCountersTimer.time();
+
+        if ( cass.useCqlService() ) {
+            Map<ByteBuffer, Long> columns = cass.getCqlService()
+                .getCounterColumns( applicationId, ENTITY_COUNTERS, entityId, null, null ).get();
+            timeEntityCounters.stop();
+
+            for ( Map.Entry<ByteBuffer, Long> column : columns.entrySet() ) {
+                counters.put( se.fromByteBuffer( column.getKey() ), column.getValue() );
+            }
+            return counters;
+        }
+
         Keyspace ko = cass.getApplicationKeyspace( applicationId );
         SliceCounterQuery<UUID, String> q = createCounterSliceQuery( ko, ue, se );
         q.setColumnFamily( ENTITY_COUNTERS.toString() );
         q.setRange( null, null, false, ALL_COUNT );
-        //Adding graphite metrics
-        Timer.Context timeEntityCounters = entGetEntityCountersTimer.time();
         QueryResult<CounterSlice<String>> r = q.setKey( entityId ).execute();
         timeEntityCounters.stop();
         for ( HCounterColumn<String> column : r.get().getColumns() ) {
@@ -2426,6 +2492,115 @@ public class CpEntityManager implements EntityManager {
     }
 
 
+    /**
+     * Get the aggregate counters of each row between start and finish, in the order of their timestamps
+     */
+    private Map<String, Map<Long, Long>> getAggregateCounterRows( Collection<String> rows, long start,
+                                                                  long finish ) {
+
+        Map<String, Map<Long, Long>> counters = new LinkedHashMap<String, Map<Long, Long>>();
+
+        if ( cass.useCqlService() ) {
+            Map<String, Map<ByteBuffer, Long>> results = Futures.getUnchecked( cass.getCqlService()
+                .getCounterRows( applicationId, APPLICATION_AGGREGATE_COUNTERS, rows, le.toByteBuffer( start ),
+                    le.toByteBuffer( finish ) ) );
+
+            for ( Map.Entry<String, Map<ByteBuffer, Long>> row : results.entrySet() ) {
+                Map<Long, Long> columns = new LinkedHashMap<Long, Long>();
+                for ( Map.Entry<ByteBuffer, Long> column : row.getValue().entrySet() ) {
+                    columns.put( le.fromByteBuffer( column.getKey() ), column.getValue() );
+                }
+                counters.put( row.getKey(), columns );
+            }
+            return counters;
+        }
+
+        Keyspace ko = cass.getApplicationKeyspace( applicationId );
+        MultigetSliceCounterQuery<String, Long> q = HFactory.createMultigetSliceCounterQuery( ko, se, le );
+        q.setColumnFamily( APPLICATION_AGGREGATE_COUNTERS.toString() );
+        q.setRange( start, finish, false, ALL_COUNT );
+        QueryResult<CounterRows<String, Long>> results = q.setKeys( rows ).execute();
+
+        for ( CounterRow<String, Long> row : results.get() ) {
+            Map<Long, Long> columns = new LinkedHashMap<Long, Long>();
+            for ( HCounterColumn<Long> column : row.getColumnSlice().getColumns() ) {
+                columns.put( column.getName(), column.getValue() );
+            }
+            counters.put( row.getKey(), columns );
+        }
+        return counters;
+    }
+
+
+    /**
+     * Get every column of the dictionary row, in column order
+     */
+    private Map<ByteBuffer, ByteBuffer> getDictionaryColumns( ApplicationCF dictionaryCf, Object key )
+            throws Exception {
+
+        if ( cass.useCqlService() ) {
+            return cass.getCqlService().getAllColumns( applicationId, dictionaryCf, key ).get();
+        }
+
+        Map<ByteBuffer, ByteBuffer> columns = new LinkedHashMap<ByteBuffer, ByteBuffer>();
+        for ( HColumn<ByteBuffer, ByteBuffer> column : cass
+            .getAllColumns( cass.getApplicationKeyspace( applicationId ), dictionaryCf, key, be, be ) ) {
+            columns.put( column.getName(), column.getValue() );
+        }
+        return columns;
+    }
+
+
+    /**
+     * Get the named columns of the dictionary row, missing columns are not returned
+     */
+    private Map<ByteBuffer, ByteBuffer> getDictionaryColumns( ApplicationCF dictionaryCf, Object key,
+                                                              ByteBuffer[] columnNames ) throws Exception {
+
+        if ( cass.useCqlService() ) {
+            return cass.getCqlService().getColumns( applicationId, dictionaryCf, key, columnNames ).get();
+        }
+
+        ColumnSlice<ByteBuffer, ByteBuffer> results =
+            cass.getColumns( cass.getApplicationKeyspace( applicationId ), dictionaryCf, key, columnNames, be, be );
+        if ( results == null ) {
+            return null;
+        }
+
+        Map<ByteBuffer, ByteBuffer> columns = new LinkedHashMap<ByteBuffer, ByteBuffer>();
+        for ( HColumn<ByteBuffer, ByteBuffer> column : results.getColumns() ) {
+            columns.put( column.getName(), column.getValue() );
+        }
+        return columns;
+    }
+
+
+    /**
+     * Get the value of a single column of the dictionary row, or null if it does not exist
+     */
+    private ByteBuffer getDictionaryColumn( ApplicationCF dictionaryCf, Object key, ByteBuffer columnName )
+            throws Exception {
+
+        if ( cass.useCqlService() ) {
+            return cass.getCqlService().getColumn( applicationId, dictionaryCf, key, columnName ).get();
+        }
+
+        HColumn<ByteBuffer, ByteBuffer> column =
+            cass.getColumn( cass.getApplicationKeyspace( applicationId ), dictionaryCf, key, columnName, be, be );
+        return column != null ? column.getValue() : null;
+    }
+
+
+    private Set<String> getDictionaryColumnNames( ApplicationCF dictionaryCf, Object key ) throws Exception {
+
+        Set<String> names = new LinkedHashSet<String>();
+        for ( ByteBuffer name : getDictionaryColumns( dictionaryCf, key ).keySet() ) {
+            names.add( se.fromByteBuffer( name ) );
+        }
+        return names;
+    }
+
+
     @Override
     public Map<String, Long> getApplicationCounters() throws Exception {
         return getEntityCounters( applicationId );
@@ -2475,8 +2650,12 @@ public class CpEntityManager implements EntityManager {
     @Override
     public Entity get( UUID uuid ) throws Exception {
 
-        MapManager mm = getMapManagerForTypes();
-        String entityType = mm.getString( uuid.toString() );
+        String entityType = entityTypeCache.getType( applicationId, uuid );
+
+        if ( entityType == null ) {
+            MapManager mm = getMapManagerForTypes();
+            entityType = mm.getString( uuid.toString() );
+        }
 
         final Entity entity;
 
@@ -2871,6 +3050,10 @@ public class CpEntityManager implements EntityManager {
         MapManager mm = getMapManagerForTypes();
         mm.putString( itemId.toString(), entity.getType() );
 
+        entityTypeCache.put( applicationId, itemId, entity.getType() );
+
+        entityChangePublisher.publish( applicationId, entity.getType(), itemId, EntityChangeEvent.Operation.CREATE );
+
         return entity;
     }
 
@@ -2940,11 +3123,50 @@ public class CpEntityManager implements EntityManager {
 
 
     @Override
-    public Mutator<ByteBuffer> batchUpdateDictionary( Mutator<ByteBuffer> batch, EntityRef entity,
+    public Mutator<ByteBuffer> batchUpdateDictionary( final Mutator<ByteBuffer> batch, EntityRef entity,
             String dictionaryName, Object elementValue, Object elementCoValue,
             boolean removeFromDictionary, UUID timestampUuid )
             throws Exception {
 
+        final DictionaryColumns columns = new DictionaryColumns() {
+            @Override
+            public void insert( ApplicationCF columnFamily, Object key, Object columnName, Object columnValue,
+                                long timestamp ) {
+                CassandraPersistenceUtils.addInsertToMutator( batch, columnFamily, key, columnName, columnValue,
+                        timestamp );
+            }
+
+
+            @Override
+            public void delete( ApplicationCF columnFamily, Object key, Object columnName, long timestamp )
+                    throws Exception {
+                CassandraPersistenceUtils.addDeleteToMutator( batch, columnFamily, key, columnName, timestamp );
+            }
+        };
+
+        updateDictionary( columns, entity, dictionaryName, elementValue, elementCoValue, removeFromDictionary,
+                timestampUuid );
+
+        return batch;
+    }
+
+
+    /**
+     * The column writes of a dictionary update, added to a Hector mutator or to a batch of DataStax statements
+     */
+    private interface DictionaryColumns {
+
+        void insert( ApplicationCF columnFamily, Object key, Object columnName, Object columnValue, long timestamp )
+                throws Exception;
+
+        void delete( ApplicationCF columnFamily, Object key, Object columnName, long timestamp ) throws Exception;
+    }
+
+
+    private void updateDictionary( DictionaryColumns columns, EntityRef entity, String dictionaryName,
+            Object elementValue, Object elementCoValue, boolean removeFromDictionary, UUID timestampUuid )
+            throws Exception {
+
         long timestamp = UUIDUtils.getTimestampInMicros( timestampUuid );
 
         // dictionaryName = dictionaryName.toLowerCase();
@@ -2966,25 +3188,23 @@ public class CpEntityManager implements EntityManager {
                 elementCoValue = CassandraPersistenceUtils.toStorableBinaryValue(
                         elementCoValue, !entityHasDictionary );
 
-                CassandraPersistenceUtils.addInsertToMutator( batch, dictionary_cf,
+                columns.insert( dictionary_cf,
                         CassandraPersistenceUtils.key( entity.getUuid(), dictionaryName ),
                         entityHasDictionary ? elementValue : asList( elementValue ),
                         elementCoValue, timestamp );
 
                 if ( !entityHasDictionary ) {
-                    CassandraPersistenceUtils.addInsertToMutator( batch, ENTITY_DICTIONARIES,
+                    columns.insert( ENTITY_DICTIONARIES,
                             CassandraPersistenceUtils.key( entity.getUuid(), DICTIONARY_SETS ),
                             dictionaryName, null, timestamp );
                 }
             }
             else {
-                CassandraPersistenceUtils.addDeleteToMutator( batch, dictionary_cf,
+                columns.delete( dictionary_cf,
                         CassandraPersistenceUtils.key( entity.getUuid(), dictionaryName ),
                         entityHasDictionary ? elementValue : asList( elementValue ), timestamp );
             }
         }
-
-        return batch;
     }
 
 
@@ -3013,16 +3233,8 @@ public class CpEntityManager implements EntityManager {
 
         Set<String> dictionaryNames = new TreeSet<String>( CASE_INSENSITIVE_ORDER );
 
-        List<HColumn<String, ByteBuffer>> results =
-                cass.getAllColumns( cass.getApplicationKeyspace( applicationId ), ENTITY_DICTIONARIES,
-                        CassandraPersistenceUtils.key( entity.getUuid(), DICTIONARY_SETS ) );
-
-        for ( HColumn<String, ByteBuffer> result : results ) {
-            String str = string( result.getName() );
-            if ( str != null ) {
-                dictionaryNames.add( str );
-            }
-        }
+        dictionaryNames.addAll( getDictionaryColumnNames( ENTITY_DICTIONARIES,
+                        CassandraPersistenceUtils.key( entity.getUuid(), DICTIONARY_SETS ) ) );
 
         Set<String> schemaSets = Schema.getDefaultSchema().getDictionaryNames( entity.getType() );
         if ( ( schemaSets != null ) && !schemaSets.isEmpty() ) {
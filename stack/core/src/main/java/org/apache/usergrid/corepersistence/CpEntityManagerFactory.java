@@ -26,6 +26,7 @@ import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 import org.apache.commons.lang.StringUtils;
 import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangePublisher;
 import org.apache.usergrid.corepersistence.index.CollectionSettingsFactory;
 import org.apache.usergrid.corepersistence.index.ReIndexRequestBuilder;
 import org.apache.usergrid.corepersistence.index.ReIndexService;
@@ -117,6 +118,9 @@ public class CpEntityManagerFactory implements EntityManagerFactory, Application
     private final ConnectionService connectionService;
     private final GraphManagerFactory graphManagerFactory;
     private final CollectionSettingsFactory collectionSettingsFactory;
+    private final EntityTypeCache entityTypeCache;
+    private final EntityChangePublisher entityChangePublisher;
+    private final RolePermissionsCache rolePermissionsCache;
     private ActorSystemManager actorSystemManager;
     private final LockManager lockManager;
 
@@ -143,6 +147,9 @@ public class CpEntityManagerFactory implements EntityManagerFactory, Application
         this.collectionService          = injector.getInstance( CollectionService.class );
         this.connectionService          = injector.getInstance( ConnectionService.class );
         this.collectionSettingsFactory  = injector.getInstance( CollectionSettingsFactory.class );
+        this.entityTypeCache            = injector.getInstance( EntityTypeCache.class );
+        this.entityChangePublisher      = injector.getInstance( EntityChangePublisher.class );
+        this.rolePermissionsCache       = injector.getInstance( RolePermissionsCache.class );
 
         Properties properties = cassandraService.getProperties();
         this.entityManagers = createEntityManagerCache( properties );
@@ -391,6 +398,9 @@ public class CpEntityManagerFactory implements EntityManagerFactory, Application
             collectionService,
             connectionService,
             collectionSettingsFactory,
+            entityTypeCache,
+            entityChangePublisher,
+            rolePermissionsCache,
             applicationId,
             queueManagerFactory);
 
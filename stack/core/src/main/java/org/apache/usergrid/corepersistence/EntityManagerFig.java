@@ -46,6 +46,58 @@ public interface EntityManagerFig extends GuicyFig {
     @Default( "true" )
     boolean deindexDeletedWhenCollectionIndexingOff();
 
+    /**
+     * The number of entity UUID to type entries cached for resolving entities by UUID, 0 disables the cache.
+     */
+    @Key( "usergrid.entityManager.type_cache_size" )
+    @Default( "100000" )
+    int getTypeCacheSize();
+
+    /**
+     * The number of recent entity changes kept per application for change feed subscribers that reconnect.
+     */
+    @Key( "usergrid.entityManager.change_feed_backlog" )
+    @Default( "1000" )
+    int getChangeFeedBacklogSize();
+
+    /**
+     * How long the change feed of an application keeps recording after its last subscriber leaves.
+     */
+    @Key( "usergrid.entityManager.change_feed_resume_ms" )
+    @Default( "300000" )
+    long getChangeFeedResumeTimeout();
+
+    /**
+     * Comma-separated names of the queues entity changes are relayed to, one per WebSocket server.  Empty disables
+     * the change feed, writes then don't send anything.
+     */
+    @Key( "usergrid.entityManager.change_feed_queues" )
+    @Default( "" )
+    String getChangeFeedQueues();
+
+    /**
+     * How long the permissions of an application role are cached, 0 disables the cache.  Changes made on other nodes
+     * are seen once the entry expires.
+     */
+    @Key( "usergrid.entityManager.role_permissions_cache_ms" )
+    @Default( "30000" )
+    long getRolePermissionsCacheTimeout();
+
+    /**
+     * The number of application roles whose permissions are cached.
+     */
+    @Key( "usergrid.entityManager.role_permissions_cache_size" )
+    @Default( "10000" )
+    int getRolePermissionsCacheSize();
+
+    /**
+     * How long a node keeps the role permissions version of an application before reading it from the shared cache
+     * again, 0 reads it on every lookup.  Role changes made on other nodes are seen once it expires.
+     */
+    @Key( "usergrid.entityManager.role_permissions_version_cache_ms" )
+    @Default( "1000" )
+    long getRolePermissionsVersionCacheTimeout();
+
     /**
      * Comma-separated list of one or more Amazon regions to use if multiregion
      * is set to true.
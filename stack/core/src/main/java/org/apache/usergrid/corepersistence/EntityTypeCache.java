@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence;
+
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Bounded cache of entity UUID to entity type, so resolving an entity by UUID alone does not read the types map on
+ * every call.  Entries are keyed by the application and the entity, the same UUID can be a different entity in
+ * another application, e.g. the application is an application entity in its own app and an application_info entity in
+ * the management app.
+ * <p>
+ * Entries are kept in primitive arrays: the two longs of the application UUID, the two longs of the entity UUID and an
+ * int id of the interned type name, 36 bytes an entry with no per entry objects.  The arrays are split into segments, each an open addressed table probed over a
+ * short window.  When the window is full an entry of the window is overwritten, so the cache never grows past the
+ * configured size.
+ */
+@Singleton
+public class EntityTypeCache {
+
+    /**
+     * The number of slots probed for a UUID, a power of 2
+     */
+    private static final int PROBE_WINDOW = 4;
+
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * Guards against an unbounded number of distinct types, types past the limit are not cached
+     */
+    private static final int MAX_TYPES = 10000;
+
+    /**
+     * Type id 0 marks an empty slot
+     */
+    private static final int EMPTY = 0;
+
+    private final Segment[] segments;
+
+    private final ConcurrentMap<String, Integer> typeIds = new ConcurrentHashMap<>();
+    private volatile String[] types = new String[] { null };
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+
+    @Inject
+    public EntityTypeCache( final EntityManagerFig entityManagerFig, final MetricsFactory metricsFactory ) {
+
+        Preconditions.checkNotNull( entityManagerFig, "entityManagerFig is required" );
+        Preconditions.checkNotNull( metricsFactory, "metricsFactory is required" );
+
+        final int size = entityManagerFig.getTypeCacheSize();
+
+        if ( size > 0 ) {
+            final int segmentSize = Integer.highestOneBit( Math.max( size / SEGMENT_COUNT, PROBE_WINDOW ) );
+
+            this.segments = new Segment[SEGMENT_COUNT];
+
+            for ( int i = 0; i < SEGMENT_COUNT; i++ ) {
+                segments[i] = new Segment( segmentSize );
+            }
+        }
+        else {
+            this.segments = null;
+        }
+
+        this.hitCounter = metricsFactory.getCounter( EntityTypeCache.class, "entity.type.cache.hit" );
+        this.missCounter = metricsFactory.getCounter( EntityTypeCache.class, "entity.type.cache.miss" );
+
+        metricsFactory.addGauge( EntityTypeCache.class, "entity.type.cache.hit.ratio", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                final long hits = hitCounter.getCount();
+                final long total = hits + missCounter.getCount();
+
+                if ( total == 0 ) {
+                    return 0d;
+                }
+
+                return ( double ) hits / total;
+            }
+        } );
+    }
+
+
+    /**
+     * Get the type of the entity of the application
+     *
+     * @return The type, or null if it is not cached
+     */
+    public String getType( final UUID applicationId, final UUID uuid ) {
+
+        if ( segments == null ) {
+            missCounter.inc();
+            return null;
+        }
+
+        final Key key = new Key( applicationId, uuid );
+
+        final int typeId = segmentFor( key.hash ).get( key );
+
+        if ( typeId == EMPTY ) {
+            missCounter.inc();
+            return null;
+        }
+
+        hitCounter.inc();
+        return types[typeId];
+    }
+
+
+    /**
+     * Cache the type of the entity of the application, replacing any type cached for it
+     */
+    public void put( final UUID applicationId, final UUID uuid, final String type ) {
+
+        if ( segments == null || type == null ) {
+            return;
+        }
+
+        final int typeId = internType( type );
+
+        if ( typeId == EMPTY ) {
+            return;
+        }
+
+        final Key key = new Key( applicationId, uuid );
+
+        segmentFor( key.hash ).put( key, typeId );
+    }
+
+
+    /**
+     * Remove the entity of the application from the cache
+     */
+    public void invalidate( final UUID applicationId, final UUID uuid ) {
+
+        if ( segments == null ) {
+            return;
+        }
+
+        final Key key = new Key( applicationId, uuid );
+
+        segmentFor( key.hash ).remove( key );
+    }
+
+
+    private Segment segmentFor( final int hash ) {
+        //the low bits pick the slot, use the high bits for the segment
+        return segments[( hash >>> 28 ) & ( SEGMENT_COUNT - 1 )];
+    }
+
+
+    /**
+     * Get the id of the type, assigning the next id the first time the type is seen
+     *
+     * @return The id, or EMPTY if there are too many types to cache
+     */
+    private int internType( final String type ) {
+
+        final Integer typeId = typeIds.get( type );
+
+        if ( typeId != null ) {
+            return typeId;
+        }
+
+        synchronized ( typeIds ) {
+            final Integer existing = typeIds.get( type );
+
+            if ( existing != null ) {
+                return existing;
+            }
+
+            final String[] current = types;
+
+            if ( current.length > MAX_TYPES ) {
+                return EMPTY;
+            }
+
+            //publish the name before the id, so a reader that finds the id can always resolve it
+            final String[] grown = Arrays.copyOf( current, current.length + 1 );
+            grown[current.length] = type;
+            types = grown;
+
+            typeIds.put( type, current.length );
+
+            return current.length;
+        }
+    }
+
+
+    /**
+     * The application and entity UUIDs of an entry as longs, with their hash
+     */
+    private static final class Key {
+
+        private final long appMsb;
+        private final long appLsb;
+        private final long msb;
+        private final long lsb;
+        private final int hash;
+
+
+        private Key( final UUID applicationId, final UUID uuid ) {
+            this.appMsb = applicationId.getMostSignificantBits();
+            this.appLsb = applicationId.getLeastSignificantBits();
+            this.msb = uuid.getMostSignificantBits();
+            this.lsb = uuid.getLeastSignificantBits();
+
+            final long combined = msb ^ lsb ^ ( ( appMsb ^ appLsb ) * 31 );
+            final int h = ( int ) ( combined ^ ( combined >>> 32 ) );
+
+            //spread the bits, time uuids differ mostly in a few bits of the most significant long
+            this.hash = h ^ ( h >>> 16 ) ^ ( h * 0x9E3779B9 );
+        }
+    }
+
+
+    /**
+     * A fixed size open addressed table.  Reads are optimistic and only take the read lock if a write raced them.
+     */
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        private final long[] appMsbs;
+        private final long[] appLsbs;
+        private final long[] msbs;
+        private final long[] lsbs;
+        private final int[] typeIds;
+        private final int mask;
+
+        //rotates the slot overwritten when a probe window is full
+        private int victim;
+
+
+        private Segment( final int size ) {
+            this.appMsbs = new long[size];
+            this.appLsbs = new long[size];
+            this.msbs = new long[size];
+            this.lsbs = new long[size];
+            this.typeIds = new int[size];
+            this.mask = size - 1;
+        }
+
+
+        private int get( final Key key ) {
+
+            long stamp = lock.tryOptimisticRead();
+            int typeId = find( key );
+
+            if ( !lock.validate( stamp ) ) {
+                stamp = lock.readLock();
+                try {
+                    typeId = find( key );
+                }
+                finally {
+                    lock.unlockRead( stamp );
+                }
+            }
+
+            return typeId;
+        }
+
+
+        private int find( final Key key ) {
+
+            final int index = indexOf( key );
+
+            return index < 0 ? EMPTY : typeIds[index];
+        }
+
+
+        private void put( final Key key, final int typeId ) {
+
+            final long stamp = lock.writeLock();
+            try {
+                int index = indexOf( key );
+
+                if ( index < 0 ) {
+                    index = freeSlot( key.hash );
+                }
+
+                appMsbs[index] = key.appMsb;
+                appLsbs[index] = key.appLsb;
+                msbs[index] = key.msb;
+                lsbs[index] = key.lsb;
+                typeIds[index] = typeId;
+            }
+            finally {
+                lock.unlockWrite( stamp );
+            }
+        }
+
+
+        private void remove( final Key key ) {
+
+            final long stamp = lock.writeLock();
+            try {
+                final int index = indexOf( key );
+
+                if ( index >= 0 ) {
+                    typeIds[index] = EMPTY;
+                }
+            }
+            finally {
+                lock.unlockWrite( stamp );
+            }
+        }
+
+
+        /**
+         * @return The slot of the key in its probe window, or -1 if it is not cached
+         */
+        private int indexOf( final Key key ) {
+
+            for ( int i = 0; i < PROBE_WINDOW; i++ ) {
+                final int index = ( key.hash + i ) & mask;
+
+                if ( typeIds[index] != EMPTY && msbs[index] == key.msb && lsbs[index] == key.lsb
+                    && appMsbs[index] == key.appMsb && appLsbs[index] == key.appLsb ) {
+                    return index;
+                }
+            }
+
+            return -1;
+        }
+
+
+        /**
+         * @return An empty slot of the probe window, or the slot to overwrite if the window is full.  Called with the
+         * write lock held.
+         */
+        private int freeSlot( final int hash ) {
+
+            for ( int i = 0; i < PROBE_WINDOW; i++ ) {
+                final int index = ( hash + i ) & mask;
+
+                if ( typeIds[index] == EMPTY ) {
+                    return index;
+                }
+            }
+
+            victim = ( victim + 1 ) & ( PROBE_WINDOW - 1 );
+
+            return ( hash + victim ) & mask;
+        }
+    }
+}
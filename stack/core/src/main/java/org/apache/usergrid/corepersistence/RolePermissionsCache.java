@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence;
+
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.cache.CacheFactory;
+import org.apache.usergrid.persistence.cache.CacheScope;
+import org.apache.usergrid.persistence.cache.ScopedCache;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Cache of the permissions of application roles, so building the authorization info of a user does not read the
+ * permissions of the same roles for every user of the application.
+ * <p>
+ * Every entry is stamped with the role permissions version of its application, kept in the application's shared
+ * cache scope.  Changing the permissions of a role on any node writes a new version, as does invalidating the scope
+ * the shared authorization info is cached in, so an entry is never used after a change even though the entries
+ * themselves are node local.  Otherwise a node could rebuild the authorization info of a user from a stale role and
+ * write it back to the shared cache.
+ * <p>
+ * Reading the version is a read of the shared cache, so each node keeps it for a short time instead of reading it for
+ * every role of every authorization it builds.  A change on another node is seen once the version kept here expires,
+ * a change on this node is seen at once.
+ */
+@Singleton
+public class RolePermissionsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger( RolePermissionsCache.class );
+
+    /**
+     * The key of the role permissions version in the shared cache scope of the application
+     */
+    static final String VERSION_KEY = "rolePermissionsVersion";
+
+    private static final TypeReference<String> VERSION_TYPE = new TypeReference<String>() {};
+
+    private final Cache<RoleKey, VersionedPermissions> cache;
+
+    /**
+     * The role permissions versions read from the shared cache, null if they are read on every lookup
+     */
+    private final Cache<UUID, String> versions;
+
+    private final CacheFactory<String, String> cacheFactory;
+
+    private final boolean enabled;
+
+    private final Counter missCounter;
+
+
+    @Inject
+    public RolePermissionsCache( final EntityManagerFig entityManagerFig, final CacheFactory cacheFactory,
+                                 final MetricsFactory metricsFactory ) {
+
+        Preconditions.checkNotNull( entityManagerFig, "entityManagerFig is required" );
+        Preconditions.checkNotNull( cacheFactory, "cacheFactory is required" );
+        Preconditions.checkNotNull( metricsFactory, "metricsFactory is required" );
+
+        this.cacheFactory = cacheFactory;
+
+        final long ttl = entityManagerFig.getRolePermissionsCacheTimeout();
+
+        this.enabled = ttl > 0;
+
+        this.cache = CacheBuilder.newBuilder().maximumSize( entityManagerFig.getRolePermissionsCacheSize() )
+                                 .expireAfterWrite( Math.max( ttl, 1 ), TimeUnit.MILLISECONDS ).build();
+
+        final long versionTtl = entityManagerFig.getRolePermissionsVersionCacheTimeout();
+
+        this.versions = versionTtl > 0 ? CacheBuilder.newBuilder()
+                                                     .maximumSize( entityManagerFig.getRolePermissionsCacheSize() )
+                                                     .expireAfterWrite( versionTtl, TimeUnit.MILLISECONDS )
+                                                     .<UUID, String>build() : null;
+
+        this.missCounter = metricsFactory.getCounter( RolePermissionsCache.class, "role.permissions.cache.miss" );
+    }
+
+
+    /**
+     * Get the permissions of the role, loading them on a miss or when the permissions of the application's roles
+     * changed since they were cached
+     *
+     * @param roleName The lower case name of the role
+     * @param loader Reads the permissions of the role
+     *
+     * @return A copy of the permissions the caller may keep or modify
+     */
+    public Set<String> getPermissions( final UUID applicationId, final String roleName,
+                                       final Callable<Set<String>> loader ) throws Exception {
+
+        if ( !enabled ) {
+            return loader.call();
+        }
+
+        final String version = getVersion( applicationId );
+
+        //without a version a change can't be detected, read through
+        if ( version == null ) {
+            missCounter.inc();
+            return new LinkedHashSet<>( loader.call() );
+        }
+
+        final RoleKey key = new RoleKey( applicationId, roleName );
+
+        try {
+            VersionedPermissions permissions = cache.get( key, () -> load( version, loader ) );
+
+            //cached before the last change, replace it.  A concurrent change writes a newer version, so an entry
+            //loaded before it is never used after it
+            if ( !permissions.version.equals( version ) ) {
+                permissions = load( version, loader );
+                cache.put( key, permissions );
+            }
+
+            return new LinkedHashSet<>( permissions.permissions );
+        }
+        catch ( ExecutionException | UncheckedExecutionException e ) {
+            if ( e.getCause() instanceof Exception ) {
+                throw ( Exception ) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Drop the permissions of the role after they changed, on this node and on every other node
+     */
+    public void invalidate( final UUID applicationId, final String roleName ) {
+        cache.invalidate( new RoleKey( applicationId, roleName ) );
+
+        if ( !enabled ) {
+            return;
+        }
+
+        final String version = UUID.randomUUID().toString();
+
+        try {
+            getScopedCache( applicationId ).put( VERSION_KEY, version, null );
+
+            if ( versions != null ) {
+                versions.put( applicationId, version );
+            }
+        }
+        catch ( RuntimeException e ) {
+            //other nodes would keep using the role until their entries expire
+            logger.error( "Unable to write the role permissions version of application {}", applicationId, e );
+
+            if ( versions != null ) {
+                versions.invalidate( applicationId );
+            }
+        }
+    }
+
+
+    private VersionedPermissions load( final String version, final Callable<Set<String>> loader ) throws Exception {
+        missCounter.inc();
+        return new VersionedPermissions( version, Collections.unmodifiableSet( new LinkedHashSet<>( loader.call() ) ) );
+    }
+
+
+    /**
+     * @return The role permissions version of the application, kept on this node for the version timeout, or null if
+     * it can't be read
+     */
+    private String getVersion( final UUID applicationId ) {
+        if ( versions == null ) {
+            return readVersion( applicationId );
+        }
+
+        String version = versions.getIfPresent( applicationId );
+
+        if ( version == null ) {
+            version = readVersion( applicationId );
+
+            if ( version != null ) {
+                versions.put( applicationId, version );
+            }
+        }
+
+        return version;
+    }
+
+
+    /**
+     * @return The role permissions version of the application in the shared cache, or null if it can't be read.  A
+     * version missing from the shared cache, because it expired or the scope was invalidated, is replaced by a new one.
+     */
+    private String readVersion( final UUID applicationId ) {
+        try {
+            final ScopedCache<String, String> scopedCache = getScopedCache( applicationId );
+
+            final String version = scopedCache.get( VERSION_KEY, VERSION_TYPE );
+
+            if ( version != null ) {
+                return version;
+            }
+
+            final String created = UUID.randomUUID().toString();
+            scopedCache.put( VERSION_KEY, created, null );
+            return created;
+        }
+        catch ( RuntimeException e ) {
+            logger.warn( "Unable to read the role permissions version of application {}", applicationId, e );
+            return null;
+        }
+    }
+
+
+    private ScopedCache<String, String> getScopedCache( final UUID applicationId ) {
+        return cacheFactory.getScopedCache( new CacheScope( CpNamingUtils.generateApplicationId( applicationId ) ) );
+    }
+
+
+    private static final class VersionedPermissions {
+
+        private final String version;
+        private final Set<String> permissions;
+
+
+        private VersionedPermissions( final String version, final Set<String> permissions ) {
+            this.version = version;
+            this.permissions = permissions;
+        }
+    }
+
+
+    private static final class RoleKey {
+
+        private final UUID applicationId;
+        private final String roleName;
+
+
+        private RoleKey( final UUID applicationId, final String roleName ) {
+            this.applicationId = applicationId;
+            this.roleName = roleName;
+        }
+
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof RoleKey ) ) {
+                return false;
+            }
+
+            final RoleKey roleKey = ( RoleKey ) o;
+
+            return applicationId.equals( roleKey.applicationId ) && roleName.equals( roleKey.roleName );
+        }
+
+
+        @Override
+        public int hashCode() {
+            return 31 * applicationId.hashCode() + roleName.hashCode();
+        }
+    }
+}
@@ -488,7 +488,8 @@ public class AsyncEventServiceImpl implements AsyncEventService {
 
                 if( !(event instanceof ElasticsearchIndexEvent)
                     && !(event instanceof InitializeApplicationIndexEvent)
-                      && single.isEmpty() ){
+                      && !(event instanceof EntityDeleteEvent)
+                        && single.isEmpty() ){
                         logger.warn("No index operation messages came back from event processing for eventType: {}, msgId: {}, msgBody: {}",
                             event.getClass().getSimpleName(), message.getMessageId(), message.getStringBody());
                 }
@@ -886,8 +887,11 @@ public class AsyncEventServiceImpl implements AsyncEventService {
                 applicationScope, entityId, isCollectionDelete, updatedBefore);
         }
 
-        return eventBuilder.buildEntityDelete( applicationScope, entityId, isCollectionDelete, updatedBefore );
+        // each page of de-index operations is queued on its own, so no single index message grows with the entity
+        eventBuilder.buildEntityDelete( applicationScope, entityId, isCollectionDelete, updatedBefore )
+            .toBlocking().forEach( deletes -> queueIndexOperationMessage( deletes, AsyncEventQueueType.DELETE ) );
 
+        return new IndexOperationMessage();
     }
 
 
@@ -58,22 +58,22 @@ public interface EventBuilder {
     IndexOperationMessage buildDeleteEdge( ApplicationScope applicationScope, Edge edge );
 
     /**
-     * Return a bin with 2 observable streams for entity delete.
+     * Delete the entity's data, and return its de-index operations, one message a page of index documents.
      * @param applicationScope
      * @param entityId
      * @return
      */
-    IndexOperationMessage buildEntityDelete(ApplicationScope applicationScope, Id entityId);
+    Observable<IndexOperationMessage> buildEntityDelete(ApplicationScope applicationScope, Id entityId);
 
     /**
-     * Return a bin with 2 observable streams for entity delete.
+     * Delete the entity's data, and return its de-index operations, one message a page of index documents.
      * @param applicationScope
      * @param entityId
      * @param isCollectionDelete
      * @param updatedBefore
      * @return
      */
-    IndexOperationMessage buildEntityDelete(ApplicationScope applicationScope, Id entityId,
+    Observable<IndexOperationMessage> buildEntityDelete(ApplicationScope applicationScope, Id entityId,
                                             boolean isCollectionDelete, long updatedBefore);
 
 
@@ -23,6 +23,8 @@ package org.apache.usergrid.corepersistence.asyncevents;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.antlr.misc.Graph;
 import org.apache.usergrid.corepersistence.index.*;
@@ -130,13 +132,15 @@ public class EventBuilderImpl implements EventBuilder {
     //it'll need to be pushed up higher so we can do the marking that isn't async or does it not matter?
 
     @Override
-    public IndexOperationMessage buildEntityDelete(final ApplicationScope applicationScope, final Id entityId) {
+    public Observable<IndexOperationMessage> buildEntityDelete(final ApplicationScope applicationScope,
+                                                               final Id entityId) {
         return buildEntityDelete(applicationScope, entityId, false, Long.MAX_VALUE);
     }
 
     @Override
-    public IndexOperationMessage buildEntityDelete(final ApplicationScope applicationScope, final Id entityId,
-                                                   final boolean isCollectionDelete, final long updatedBefore) {
+    public Observable<IndexOperationMessage> buildEntityDelete(final ApplicationScope applicationScope,
+                                                               final Id entityId, final boolean isCollectionDelete,
+                                                               final long updatedBefore) {
 
         if (logger.isDebugEnabled()) {
             logger.debug("Deleting entity id (marked versions) from index in app scope {} with entityId {}, isCollectionDelete {}, updatedBefore={}",
@@ -169,96 +173,49 @@ public class EventBuilderImpl implements EventBuilder {
             }).toBlocking().firstOrDefault(true);
 
         if (!deleteEntity) {
-            return new IndexOperationMessage();
+            return Observable.empty();
         }
 
 
-        MvccLogEntry mostRecentToDelete =
-            ecm.getVersionsFromMaxToMin( entityId, UUIDUtils.newTimeUUID() )
-                .toBlocking()
-                .firstOrDefault( null, mvccLogEntry -> mvccLogEntry.getState() == MvccLogEntry.State.DELETED );
+        // a single pass over the versions, newest first. everything from the most recent deleted version down
+        // is removed, so skip the versions written after it
+        final AtomicReference<UUID> mostRecentToDelete = new AtomicReference<>();
 
-//        logger.info("mostRecent stage={} entityId={} version={} state={}",
-//            mostRecentToDelete.getStage().name(), mostRecentToDelete.getEntityId(),
-//            mostRecentToDelete.getVersion().toString(), mostRecentToDelete.getState().name());
-
-        if (mostRecentToDelete == null) {
-            logger.info("No entity versions to delete for id {}", entityId.toString());
-        }
-        // if nothing is marked, then abort
-        if(mostRecentToDelete == null){
-            return new IndexOperationMessage();
-        }
-
-        final List<MvccLogEntry> logEntries = new ArrayList<>();
-        Observable<MvccLogEntry> mvccLogEntryListObservable =
-            ecm.getVersionsFromMaxToMin( entityId, UUIDUtils.newTimeUUID() );
-        mvccLogEntryListObservable
-            .filter( mvccLogEntry-> mvccLogEntry.getVersion().timestamp() <= mostRecentToDelete.getVersion().timestamp() )
+        final int versionsToDelete = ecm.getVersionsFromMaxToMin( entityId, UUIDUtils.newTimeUUID() )
+            .skipWhile( mvccLogEntry -> mvccLogEntry.getState() != MvccLogEntry.State.DELETED )
+            .doOnNext( mvccLogEntry -> mostRecentToDelete.compareAndSet( null, mvccLogEntry.getVersion() ) )
             .buffer( serializationFig.getBufferSize() )
             .doOnNext( buffer -> ecm.delete( buffer ) )
-            .doOnNext(mvccLogEntries -> {
-                logEntries.addAll(mvccLogEntries);
-            }).toBlocking().lastOrDefault(null);
-
-        //logger.info("logEntries size={}", logEntries.size());
-
-        IndexOperationMessage combined = new IndexOperationMessage();
-
-        // do the edge deletes and build up de-index messages for each edge deleted
-        // assume we have "server1" and "region1" nodes in the graph with the following relationships (edges/connections):
-        //
-        // region1  -- zzzconnzzz|has -->  server1
-        // server1  -- zzzconnzzz|in  -->  region1
-        //
-        // there will always be a relationship from the appId to each entity based on the entity type (collection):
-        //
-        // application -- zzzcollzzz|servers --> server1
-        // application -- zzzcollzzz|regions --> region1
-        //
-        // When deleting either "server1" or "region1" entity, the connections should get deleted and de-indexed along
-        // with the entry for the entity itself in the collection. The above example should have at minimum 3 things to
-        // be de-indexed. There may be more as either "server1" or "region1" could have multiple versions.
-        //
-        // Further comments using the example of deleting "server1" from the above example.
-        gm.compactNode(entityId).doOnNext(markedEdge -> {
-
-            if (logger.isDebugEnabled()) {
-                logger.debug("Processing deleted edge for de-indexing {}", markedEdge);
-            }
-
-            // if the edge was for a connection where the entity to be deleted is the source node, we need to load
-            // the target node's versions so that all versions of connections to that entity can be de-indexed
-            // server1  -- zzzconnzzz|in  -->  region1
-            if(!markedEdge.getTargetNode().getType().equals(entityId.getType())){
+            .reduce( 0, ( count, buffer ) -> count + buffer.size() )
+            .toBlocking().lastOrDefault( 0 );
 
-                // get ALL versions of the target node as any connection from this source node needs to be removed
-                ecm.getVersionsFromMaxToMin( markedEdge.getTargetNode(), UUIDUtils.newTimeUUID() )
-                    .doOnNext(mvccLogEntry -> {
-                        logger.debug("Adding edge {} mvccLogEntry {} to de-index batch", markedEdge, mvccLogEntry);
-                        combined.ingest(
-                            indexService
-                                .deIndexEdge(applicationScope, markedEdge, mvccLogEntry.getEntityId(), mvccLogEntry.getVersion())
-                                .toBlocking().lastOrDefault(new IndexOperationMessage()));
-
-                    }).toBlocking().lastOrDefault(null);
+        // if nothing is marked, then abort
+        if ( versionsToDelete == 0 ) {
+            logger.info("No entity versions to delete for id {}", entityId.toString());
+            return Observable.empty();
+        }
 
-            }else {
+        // remove the edges to and from the entity. the entity is either the target of these edges
+        // ( application -- zzzcollzzz|servers --> server1 ), ( region1 -- zzzconnzzz|has --> server1 ) or the source
+        // ( server1 -- zzzconnzzz|in --> region1 ), for every version of server1 and region1.
+        final AtomicLong edgesDeleted = new AtomicLong();
 
-                // for each version of the entity being deleted, de-index the connections where the entity is the target
-                // node ( application -- zzzcollzzz|servers --> server1 ) or (region1  -- zzzconnzzz|has -->  server1)
-                logEntries.forEach(logEntry -> {
-                    logger.debug("Adding edge {} mvccLogEntry {} to de-index batch", markedEdge, logEntry);
-                    combined.ingest(
-                        indexService
-                            .deIndexEdge(applicationScope, markedEdge, logEntry.getEntityId(), logEntry.getVersion())
-                            .toBlocking().lastOrDefault(new IndexOperationMessage()));
-                });
-            }
+        final long maxEdgeTimestamp = gm.compactNode( entityId )
+            .doOnNext( markedEdge -> edgesDeleted.incrementAndGet() )
+            .filter( markedEdge -> markedEdge.getSourceNode().equals( entityId ) )
+            .map( markedEdge -> markedEdge.getTimestamp() )
+            .reduce( 0L, Math::max )
+            .toBlocking().lastOrDefault( 0L );
 
-        }).toBlocking().lastOrDefault(null);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleted {} edges and {} versions of entity {}", edgesDeleted.get(), versionsToDelete,
+                entityId);
+        }
 
-        return combined;
+        // the index documents of those versions and edges have either this entity's id or, for edges from this
+        // entity, its node id. one query finds them all instead of a lookup per edge and version, the de-index
+        // operations are returned a page at a time so each page goes through the index queue on its own
+        return indexService.deIndexEntity( applicationScope, entityId, mostRecentToDelete.get(), maxEdgeTimestamp );
     }
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.UUID;
+
+
+/**
+ * A create, update or delete of an entity.  Events only identify the entity, subscribers load it if they need its
+ * properties.
+ */
+public final class EntityChangeEvent {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+
+    private final UUID applicationId;
+    private final String collection;
+    private final String type;
+    private final UUID entityId;
+    private final Operation operation;
+    private final long timestamp;
+    private final String token;
+
+
+    EntityChangeEvent( final UUID applicationId, final String collection, final String type, final UUID entityId,
+                       final Operation operation, final long timestamp, final String token ) {
+        this.applicationId = applicationId;
+        this.collection = collection;
+        this.type = type;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.timestamp = timestamp;
+        this.token = token;
+    }
+
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+
+    public String getCollection() {
+        return collection;
+    }
+
+
+    public String getType() {
+        return type;
+    }
+
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+
+    /**
+     * @return The token a subscriber passes when it reconnects to receive the events after this one
+     */
+    public String getToken() {
+        return token;
+    }
+
+
+    @Override
+    public String toString() {
+        return "EntityChangeEvent{" +
+            "applicationId=" + applicationId +
+            ", collection='" + collection + '\'' +
+            ", entityId=" + entityId +
+            ", operation=" + operation +
+            ", token='" + token + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.EntityManagerFig;
+import org.apache.usergrid.persistence.Schema;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Fans out entity changes to the subscribers of each application and collection.  The changes are written on any node
+ * and reach the feed through {@link EntityChangeQueueReader}.
+ * <p>
+ * An application only has a feed while it has subscribers, and for the resume window after the last one leaves.
+ * Writes to any other application return after a single map lookup.  Each feed keeps a bounded backlog of its latest
+ * events, so a subscriber that reconnects with the token of the last event it received is sent the events it missed.
+ * When the token is from before the backlog, or from before this node restarted, the subscription is marked as reset
+ * and the subscriber has to re-read the collection.
+ */
+@Singleton
+public class EntityChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger( EntityChangeFeed.class );
+
+    private static final char TOKEN_SEPARATOR = '-';
+
+    /**
+     * Tokens of a previous run of the node can't be resumed
+     */
+    private final long epoch = System.currentTimeMillis();
+
+    /**
+     * Tokens of a feed that expired can't be resumed on the application's next feed
+     */
+    private final AtomicLong generations = new AtomicLong();
+
+    private final int backlogSize;
+
+    private final ConcurrentMap<UUID, ApplicationFeed> activeFeeds = new ConcurrentHashMap<>();
+    private final Cache<UUID, ApplicationFeed> idleFeeds;
+
+    private final Meter publishedMeter;
+    private final Counter subscriptionCounter;
+
+
+    @Inject
+    public EntityChangeFeed( final EntityManagerFig entityManagerFig, final MetricsFactory metricsFactory ) {
+
+        Preconditions.checkNotNull( entityManagerFig, "entityManagerFig is required" );
+        Preconditions.checkNotNull( metricsFactory, "metricsFactory is required" );
+
+        this.backlogSize = Math.max( entityManagerFig.getChangeFeedBacklogSize(), 0 );
+
+        this.idleFeeds = CacheBuilder.newBuilder()
+                                     .expireAfterWrite( entityManagerFig.getChangeFeedResumeTimeout(),
+                                         TimeUnit.MILLISECONDS ).build();
+
+        this.publishedMeter = metricsFactory.getMeter( EntityChangeFeed.class, "change.feed.published" );
+        this.subscriptionCounter = metricsFactory.getCounter( EntityChangeFeed.class, "change.feed.subscriptions" );
+    }
+
+
+    /**
+     * Publish a change of an entity to the subscribers of its application
+     */
+    public void publish( final UUID applicationId, final String type, final UUID entityId,
+                         final EntityChangeEvent.Operation operation ) {
+        publish( applicationId, type, entityId, operation, System.currentTimeMillis() );
+    }
+
+
+    /**
+     * Publish a change of an entity, written at the timestamp, to the subscribers of its application
+     */
+    public void publish( final UUID applicationId, final String type, final UUID entityId,
+                         final EntityChangeEvent.Operation operation, final long timestamp ) {
+
+        ApplicationFeed feed = activeFeeds.get( applicationId );
+
+        if ( feed == null ) {
+            //keep recording while subscribers may still come back
+            feed = idleFeeds.getIfPresent( applicationId );
+
+            if ( feed == null ) {
+                return;
+            }
+        }
+
+        feed.publish( Schema.defaultCollectionName( type ), type, entityId, operation, timestamp );
+        publishedMeter.mark();
+    }
+
+
+    /**
+     * Subscribe to the changes of a collection of the application
+     *
+     * @param collection The collection name, or null for every collection of the application
+     * @param token The token of the last event received before reconnecting, or null to only receive new events
+     * @param listener Receives the events
+     */
+    public Subscription subscribe( final UUID applicationId, final String collection, final String token,
+                                   final EntityChangeListener listener ) {
+
+        Preconditions.checkNotNull( applicationId, "applicationId is required" );
+        Preconditions.checkNotNull( listener, "listener is required" );
+
+        while ( true ) {
+            final ApplicationFeed feed = activeFeeds.computeIfAbsent( applicationId, id -> {
+                final ApplicationFeed idle = idleFeeds.getIfPresent( id );
+
+                if ( idle == null ) {
+                    return new ApplicationFeed( id );
+                }
+
+                idleFeeds.invalidate( id );
+                idle.activate();
+                return idle;
+            } );
+
+            final Subscription subscription = feed.subscribe( collection, token, listener );
+
+            //the feed was retired by a concurrent unsubscribe, the next pass finds it in the idle feeds
+            if ( subscription != null ) {
+                subscriptionCounter.inc();
+                return subscription;
+            }
+        }
+    }
+
+
+    /**
+     * A subscription to the feed of an application.  Events are queued to the subscription under the feed's lock and
+     * delivered outside of it, by one thread at a time, so a slow listener doesn't hold up the feed and every listener
+     * still sees the events in order.
+     */
+    public final class Subscription {
+
+        private final ApplicationFeed feed;
+        private final String collection;
+        private final EntityChangeListener listener;
+        private final boolean reset;
+
+        private final Queue<EntityChangeEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger drains = new AtomicInteger();
+        private volatile boolean closed;
+
+
+        private Subscription( final ApplicationFeed feed, final String collection,
+                              final EntityChangeListener listener, final boolean reset ) {
+            this.feed = feed;
+            this.collection = collection;
+            this.listener = listener;
+            this.reset = reset;
+        }
+
+
+        /**
+         * @return True if a token was passed but the events after it are no longer available
+         */
+        public boolean isReset() {
+            return reset;
+        }
+
+
+        /**
+         * Stop receiving events, calling it again has no effect
+         */
+        public void close() {
+            closed = true;
+
+            if ( feed.unsubscribe( this ) ) {
+                subscriptionCounter.dec();
+            }
+        }
+
+
+        private boolean matches( final EntityChangeEvent event ) {
+            return collection == null || collection.equals( event.getCollection() );
+        }
+
+
+        /**
+         * Queue the event if it's for this subscription, must be invoked under the feed's lock
+         */
+        private boolean enqueue( final EntityChangeEvent event ) {
+            if ( !matches( event ) ) {
+                return false;
+            }
+
+            pending.add( event );
+            return true;
+        }
+
+
+        /**
+         * Deliver the queued events.  Only one thread delivers at a time, a thread that finds another delivering
+         * leaves its events to it
+         */
+        private void drain() {
+            if ( drains.getAndIncrement() != 0 ) {
+                return;
+            }
+
+            do {
+                EntityChangeEvent event;
+
+                while ( ( event = pending.poll() ) != null ) {
+                    if ( !closed ) {
+                        deliver( event );
+                    }
+                }
+            }
+            while ( drains.decrementAndGet() != 0 );
+        }
+
+
+        private void deliver( final EntityChangeEvent event ) {
+            try {
+                listener.onChange( event );
+            }
+            catch ( RuntimeException e ) {
+                logger.warn( "Change feed listener failed for {}", event, e );
+            }
+        }
+    }
+
+
+    /**
+     * The subscriptions and backlog of an application.  Publishing, replaying and subscribing share one lock to queue
+     * the events, so every subscriber sees the events of the application in sequence order without gaps.  The
+     * listeners are invoked after the lock is released.
+     */
+    private final class ApplicationFeed {
+
+        private final UUID applicationId;
+        private final String tokenPrefix;
+        private final EntityChangeEvent[] backlog;
+        private final List<Subscription> subscriptions = new ArrayList<>();
+
+        private long sequence;
+        private boolean retired;
+
+
+        private ApplicationFeed( final UUID applicationId ) {
+            this.applicationId = applicationId;
+            this.tokenPrefix = Long.toString( epoch ) + TOKEN_SEPARATOR + generations.incrementAndGet()
+                + TOKEN_SEPARATOR;
+            this.backlog = new EntityChangeEvent[backlogSize];
+        }
+
+
+        /**
+         * @return The sequence of the token, or -1 if it wasn't issued by this feed
+         */
+        private long toSequence( final String token ) {
+            if ( !token.startsWith( tokenPrefix ) ) {
+                return -1;
+            }
+
+            try {
+                return Long.parseLong( token.substring( tokenPrefix.length() ) );
+            }
+            catch ( NumberFormatException e ) {
+                return -1;
+            }
+        }
+
+
+        private synchronized void activate() {
+            retired = false;
+        }
+
+
+        private void publish( final String collection, final String type, final UUID entityId,
+                              final EntityChangeEvent.Operation operation, final long timestamp ) {
+
+            final List<Subscription> receivers = new ArrayList<>();
+
+            synchronized ( this ) {
+                sequence++;
+
+                final EntityChangeEvent event =
+                    new EntityChangeEvent( applicationId, collection, type, entityId, operation, timestamp,
+                        tokenPrefix + sequence );
+
+                if ( backlog.length > 0 ) {
+                    backlog[( int ) ( sequence % backlog.length )] = event;
+                }
+
+                for ( Subscription subscription : subscriptions ) {
+                    if ( subscription.enqueue( event ) ) {
+                        receivers.add( subscription );
+                    }
+                }
+            }
+
+            for ( Subscription receiver : receivers ) {
+                receiver.drain();
+            }
+        }
+
+
+        /**
+         * @return The subscription, or null if the feed was retired and the caller has to look it up again
+         */
+        private Subscription subscribe( final String collection, final String token,
+                                        final EntityChangeListener listener ) {
+
+            final Subscription subscription;
+
+            synchronized ( this ) {
+                if ( retired ) {
+                    return null;
+                }
+
+                final long from = token != null ? toSequence( token ) : sequence;
+                final long oldest = Math.max( sequence - backlog.length, 0 );
+                final boolean resumable = from >= oldest && from <= sequence;
+
+                subscription = new Subscription( this, collection, listener, !resumable );
+
+                if ( resumable ) {
+                    for ( long replay = from + 1; replay <= sequence; replay++ ) {
+                        subscription.enqueue( backlog[( int ) ( replay % backlog.length )] );
+                    }
+                }
+
+                subscriptions.add( subscription );
+            }
+
+            //replay before returning, the events published meanwhile are queued after the replayed ones
+            subscription.drain();
+
+            return subscription;
+        }
+
+
+        private boolean unsubscribe( final Subscription subscription ) {
+
+            synchronized ( this ) {
+                if ( !subscriptions.remove( subscription ) ) {
+                    return false;
+                }
+
+                if ( !subscriptions.isEmpty() ) {
+                    return true;
+                }
+
+                retired = true;
+            }
+
+            //move the feed outside of the lock, subscribers take the map's lock before the feed's
+            idleFeeds.put( applicationId, this );
+            activeFeeds.remove( applicationId, this );
+
+            return true;
+        }
+    }
+}
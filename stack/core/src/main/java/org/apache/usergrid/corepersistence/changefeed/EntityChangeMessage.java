@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+
+/**
+ * A change of an entity as it's relayed from the node that wrote it to the change feeds of the WebSocket servers
+ */
+public class EntityChangeMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty
+    private UUID applicationId;
+    @JsonProperty
+    private String type;
+    @JsonProperty
+    private UUID entityId;
+    @JsonProperty
+    private EntityChangeEvent.Operation operation;
+    @JsonProperty
+    private long timestamp;
+
+
+    public EntityChangeMessage() {
+    }
+
+
+    public EntityChangeMessage( final UUID applicationId, final String type, final UUID entityId,
+                                final EntityChangeEvent.Operation operation, final long timestamp ) {
+        this.applicationId = applicationId;
+        this.type = type;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.timestamp = timestamp;
+    }
+
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+
+    public String getType() {
+        return type;
+    }
+
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+
+    public EntityChangeEvent.Operation getOperation() {
+        return operation;
+    }
+
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
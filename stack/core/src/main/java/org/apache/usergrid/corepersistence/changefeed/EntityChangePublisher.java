@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.EntityManagerFig;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.queue.LegacyQueueManager;
+import org.apache.usergrid.persistence.queue.LegacyQueueManagerFactory;
+import org.apache.usergrid.persistence.queue.LegacyQueueScope;
+import org.apache.usergrid.persistence.queue.impl.LegacyQueueScopeImpl;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Relays the entity changes written through this node to the change feed queue of every WebSocket server.  Each
+ * server reads its own queue, so every server sees the changes written on every node.  Without any queues configured
+ * publishing is a no-op.
+ */
+@Singleton
+public class EntityChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger( EntityChangePublisher.class );
+
+    private final List<LegacyQueueManager> queues;
+    private final Meter relayedMeter;
+    private final Meter failedMeter;
+
+
+    @Inject
+    public EntityChangePublisher( final EntityManagerFig entityManagerFig,
+                                  final LegacyQueueManagerFactory queueManagerFactory,
+                                  final MetricsFactory metricsFactory ) {
+
+        Preconditions.checkNotNull( entityManagerFig, "entityManagerFig is required" );
+        Preconditions.checkNotNull( queueManagerFactory, "queueManagerFactory is required" );
+        Preconditions.checkNotNull( metricsFactory, "metricsFactory is required" );
+
+        final List<LegacyQueueManager> queues = new ArrayList<>();
+
+        for ( String queueName : Splitter.on( ',' ).trimResults().omitEmptyStrings()
+                                         .split( entityManagerFig.getChangeFeedQueues() ) ) {
+            queues.add( queueManagerFactory.getQueueManager( getQueueScope( queueName ) ) );
+        }
+
+        this.queues = Collections.unmodifiableList( queues );
+
+        this.relayedMeter = metricsFactory.getMeter( EntityChangePublisher.class, "change.feed.relayed" );
+        this.failedMeter = metricsFactory.getMeter( EntityChangePublisher.class, "change.feed.relay.failed" );
+    }
+
+
+    /**
+     * The scope of the change feed queue with the name, the queue is only read in the region it's written
+     */
+    public static LegacyQueueScope getQueueScope( final String queueName ) {
+        return new LegacyQueueScopeImpl( queueName, LegacyQueueScope.RegionImplementation.LOCAL );
+    }
+
+
+    /**
+     * Relay a change of an entity.  A change that can't be relayed is logged, it never fails the write
+     */
+    public void publish( final UUID applicationId, final String type, final UUID entityId,
+                         final EntityChangeEvent.Operation operation ) {
+
+        if ( queues.isEmpty() ) {
+            return;
+        }
+
+        final EntityChangeMessage message =
+            new EntityChangeMessage( applicationId, type, entityId, operation, System.currentTimeMillis() );
+
+        for ( LegacyQueueManager queue : queues ) {
+            try {
+                queue.sendMessageToLocalRegion( message, true );
+                relayedMeter.mark();
+            }
+            catch ( Exception e ) {
+                failedMeter.mark();
+                logger.warn( "Unable to relay the {} of entity {} to the change feed", operation, entityId, e );
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.queue.LegacyQueueManager;
+import org.apache.usergrid.persistence.queue.LegacyQueueMessage;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+
+/**
+ * Reads the change feed queue of a WebSocket server and publishes the changes to its {@link EntityChangeFeed}.
+ * Messages are committed once they're published, the feed's subscribers are only sent events, so publishing never
+ * waits on them.
+ */
+public class EntityChangeQueueReader {
+
+    private static final Logger logger = LoggerFactory.getLogger( EntityChangeQueueReader.class );
+
+    private static final int MAX_TAKE = 100;
+
+    private static final long IDLE_SLEEP_MS = 100;
+
+    private static final long ERROR_SLEEP_MS = 1000;
+
+    private final LegacyQueueManager queue;
+    private final EntityChangeFeed changeFeed;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+
+    public EntityChangeQueueReader( final LegacyQueueManager queue, final EntityChangeFeed changeFeed ) {
+        Preconditions.checkNotNull( queue, "queue is required" );
+        Preconditions.checkNotNull( changeFeed, "changeFeed is required" );
+
+        this.queue = queue;
+        this.changeFeed = changeFeed;
+    }
+
+
+    public synchronized void start() {
+        if ( running ) {
+            return;
+        }
+
+        running = true;
+
+        executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat( "change-feed-reader" ).setDaemon( true ).build() );
+
+        executor.execute( () -> {
+            while ( running ) {
+                try {
+                    if ( readMessages() == 0 ) {
+                        sleep( IDLE_SLEEP_MS );
+                    }
+                }
+                catch ( Exception e ) {
+                    logger.error( "Unable to read the change feed queue", e );
+                    sleep( ERROR_SLEEP_MS );
+                }
+            }
+        } );
+    }
+
+
+    public synchronized void stop() {
+        if ( !running ) {
+            return;
+        }
+
+        running = false;
+        executor.shutdown();
+
+        try {
+            if ( !executor.awaitTermination( 10, TimeUnit.SECONDS ) ) {
+                logger.warn( "Change feed reader did not stop in time" );
+            }
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Publish one batch of messages from the queue
+     *
+     * @return The number of messages read
+     */
+    int readMessages() {
+        final List<LegacyQueueMessage> messages = queue.getMessages( MAX_TAKE, EntityChangeMessage.class );
+
+        if ( messages == null || messages.isEmpty() ) {
+            return 0;
+        }
+
+        for ( LegacyQueueMessage message : messages ) {
+            final Object body = message.getBody();
+
+            if ( !( body instanceof EntityChangeMessage ) ) {
+                logger.warn( "Discarding unexpected change feed message {}", message.getMessageId() );
+                continue;
+            }
+
+            final EntityChangeMessage change = ( EntityChangeMessage ) body;
+
+            changeFeed.publish( change.getApplicationId(), change.getType(), change.getEntityId(),
+                change.getOperation(), change.getTimestamp() );
+        }
+
+        queue.commitMessages( messages );
+
+        return messages.size();
+    }
+
+
+    private static void sleep( final long millis ) {
+        try {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
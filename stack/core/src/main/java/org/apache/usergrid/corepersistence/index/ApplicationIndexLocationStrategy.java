@@ -96,6 +96,15 @@ class ApplicationIndexLocationStrategy implements IndexLocationStrategy {
         return indexFig.getNumberOfReplicas();
     }
 
+    /**
+     * Many applications share the bucket index, route the documents of the application with its id when enabled
+     * @return
+     */
+    @Override
+    public String getRouting() {
+        return indexFig.isApplicationRouting() ? applicationScope.getApplication().getUuid().toString() : null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
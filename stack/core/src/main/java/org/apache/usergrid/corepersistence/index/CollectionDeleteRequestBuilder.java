@@ -45,7 +45,7 @@ public interface CollectionDeleteRequestBuilder {
     CollectionDeleteRequestBuilder withCollection(final String collectionName);
 
     /**
-     * Set our cursor to resume processing
+     * Set our cursor to resume processing, the jobId of the collection delete to resume
      * @param cursor
      * @return
      */
@@ -56,14 +56,25 @@ public interface CollectionDeleteService {
         final Status status;
         final long numberProcessed;
         final long lastUpdated;
+        final double percentComplete;
+        final long estimatedTimeRemaining;
 
 
         public CollectionDeleteStatus(final String jobId, final Status status, final long numberProcessed,
                                       final long lastUpdated ) {
+            this( jobId, status, numberProcessed, lastUpdated, -1, -1 );
+        }
+
+
+        public CollectionDeleteStatus(final String jobId, final Status status, final long numberProcessed,
+                                      final long lastUpdated, final double percentComplete,
+                                      final long estimatedTimeRemaining ) {
             this.jobId = jobId;
             this.status = status;
             this.numberProcessed = numberProcessed;
             this.lastUpdated = lastUpdated;
+            this.percentComplete = percentComplete;
+            this.estimatedTimeRemaining = estimatedTimeRemaining;
         }
 
 
@@ -100,6 +111,24 @@ public interface CollectionDeleteService {
         public Status getStatus() {
             return status;
         }
+
+
+        /**
+         * Get the percentage of the collection that was read, -1 if it's unknown
+         * @return
+         */
+        public double getPercentComplete() {
+            return percentComplete;
+        }
+
+
+        /**
+         * Get the estimated time in milliseconds until the delete completes, -1 if it's unknown
+         * @return
+         */
+        public long getEstimatedTimeRemaining() {
+            return estimatedTimeRemaining;
+        }
     }
 
     enum Status{
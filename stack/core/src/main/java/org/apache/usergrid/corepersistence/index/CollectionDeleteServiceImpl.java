@@ -21,36 +21,44 @@ package org.apache.usergrid.corepersistence.index;
 
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 
 import org.apache.usergrid.corepersistence.asyncevents.AsyncEventQueueType;
 import org.apache.usergrid.persistence.index.EntityIndexFactory;
+import org.apache.usergrid.persistence.index.impl.EsIndexProducerImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
 import org.apache.usergrid.corepersistence.pipeline.cursor.CursorSerializerUtil;
-import org.apache.usergrid.corepersistence.pipeline.read.CursorSeek;
 import org.apache.usergrid.corepersistence.rx.impl.AllApplicationsObservable;
-import org.apache.usergrid.corepersistence.rx.impl.AllEntityIdsObservable;
 import org.apache.usergrid.corepersistence.rx.impl.EdgeScope;
 import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.util.StringUtils;
 import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.graph.GraphManager;
+import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.graph.SearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdgeType;
 import org.apache.usergrid.persistence.map.MapManager;
 import org.apache.usergrid.persistence.map.MapManagerFactory;
 import org.apache.usergrid.persistence.map.MapScope;
 import org.apache.usergrid.persistence.map.impl.MapScopeImpl;
+import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 import org.apache.usergrid.utils.InflectionUtils;
 import org.apache.usergrid.utils.JsonUtils;
 
+import com.codahale.metrics.Counter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
@@ -78,55 +86,59 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
     private static final String MAP_COUNT_KEY = "count";
     private static final String MAP_STATUS_KEY = "status";
     private static final String MAP_UPDATED_KEY = "lastUpdated";
+    private static final String MAP_APPLICATION_KEY = "application";
+    private static final String MAP_PARTITIONS_KEY = "partitions";
+    private static final String MAP_DONE_KEY = "done";
+    private static final String MAP_PROGRESS_KEY = "progress";
+    private static final String MAP_REMAINING_KEY = "remaining";
+    private static final String MAP_END_TIMESTAMP_KEY = "endTimestamp";
+
+    //progress is kept in hundredths of a percent
+    private static final long PROGRESS_SCALE = 10000;
 
 
     private final AllApplicationsObservable allApplicationsObservable;
     private final IndexLocationStrategyFactory indexLocationStrategyFactory;
-    private final AllEntityIdsObservable allEntityIdsObservable;
+    private final GraphManagerFactory graphManagerFactory;
     private final IndexProcessorFig indexProcessorFig;
     private final MapManager mapManager;
     private final MapManagerFactory mapManagerFactory;
     private final AsyncEventService indexService;
     private final EntityIndexFactory entityIndexFactory;
     private final CollectionSettingsFactory collectionSettingsFactory;
+    private final Counter rejectedCounter;
 
 
     @Inject
     public CollectionDeleteServiceImpl(final EntityIndexFactory entityIndexFactory,
                                        final IndexLocationStrategyFactory indexLocationStrategyFactory,
-                                       final AllEntityIdsObservable allEntityIdsObservable,
+                                       final GraphManagerFactory graphManagerFactory,
                                        final MapManagerFactory mapManagerFactory,
                                        final AllApplicationsObservable allApplicationsObservable,
                                        final IndexProcessorFig indexProcessorFig,
                                        final CollectionSettingsFactory collectionSettingsFactory,
-                                       final AsyncEventService indexService ) {
+                                       final AsyncEventService indexService,
+                                       final MetricsFactory metricsFactory ) {
         this.entityIndexFactory = entityIndexFactory;
         this.indexLocationStrategyFactory = indexLocationStrategyFactory;
-        this.allEntityIdsObservable = allEntityIdsObservable;
+        this.graphManagerFactory = graphManagerFactory;
         this.allApplicationsObservable = allApplicationsObservable;
         this.indexProcessorFig = indexProcessorFig;
         this.indexService = indexService;
         this.collectionSettingsFactory = collectionSettingsFactory;
         this.mapManagerFactory = mapManagerFactory;
         this.mapManager = mapManagerFactory.createMapManager( RESUME_MAP_SCOPE );
+        this.rejectedCounter =
+            metricsFactory.getCounter( EsIndexProducerImpl.class, EsIndexProducerImpl.REJECTED_COUNTER );
     }
 
 
-    //TODO: optional delay, param.
     @Override
     public CollectionDeleteStatus deleteCollection( final CollectionDeleteRequestBuilder collectionDeleteRequestBuilder) {
 
-        final AtomicInteger count = new AtomicInteger();
-
-        final Optional<EdgeScope> cursor = parseCursor( collectionDeleteRequestBuilder.getCursor() );
-
-        final CursorSeek<Edge> cursorSeek = getResumeEdge( cursor );
-
-        final Optional<Integer> delayTimer = collectionDeleteRequestBuilder.getDelayTimer();
-
-        final Optional<TimeUnit> timeUnitOptional = collectionDeleteRequestBuilder.getTimeUnitOptional();
+        final Optional<String> cursor = collectionDeleteRequestBuilder.getCursor();
 
-        Optional<ApplicationScope> appId = collectionDeleteRequestBuilder.getApplicationScope();
+        final Optional<ApplicationScope> appId = collectionDeleteRequestBuilder.getApplicationScope();
 
         Preconditions.checkArgument(collectionDeleteRequestBuilder.getCollectionName().isPresent(),
             "You must specify a collection name");
@@ -134,20 +146,31 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
 
         Preconditions.checkArgument( !(cursor.isPresent() && appId.isPresent()),
             "You cannot specify an app id and a cursor.  When resuming with cursor you must omit the appid." );
-        Preconditions.checkArgument( cursor.isPresent() || appId.isPresent(),
+
+        // cursors of partitioned deletes are the jobId, older cursors are the key of a single edge
+        final Optional<ApplicationScope> resumedApp = cursor.isPresent() ? getResumeApplication( cursor.get() ) :
+            Optional.absent();
+
+        final Optional<EdgeScope> edgeCursor = cursor.isPresent() && !resumedApp.isPresent() ?
+            parseCursor( cursor ) : Optional.absent();
+
+        Preconditions.checkArgument( appId.isPresent() || resumedApp.isPresent() || edgeCursor.isPresent(),
             "Either application ID or cursor is required.");
 
-        ApplicationScope applicationScope;
+        final ApplicationScope applicationScope;
         if (appId.isPresent()) {
             applicationScope = appId.get();
-        } else { // cursor is present
-            applicationScope = cursor.get().getApplicationScope();
+        } else if ( resumedApp.isPresent() ) {
+            applicationScope = resumedApp.get();
+        } else {
+            applicationScope = edgeCursor.get().getApplicationScope();
         }
 
 
-        final String jobId = StringUtils.sanitizeUUID( UUIDGenerator.newTimeUUID() );
+        final String jobId = resumedApp.isPresent() ? cursor.get() :
+            StringUtils.sanitizeUUID( UUIDGenerator.newTimeUUID() );
 
-        // default to current time
+        // default to current time, a resumed job keeps the end timestamp it was started with
         final long endTimestamp = collectionDeleteRequestBuilder.getEndTimestamp().or( System.currentTimeMillis() );
 
         String pluralizedCollectionName = InflectionUtils.pluralize(CpNamingUtils.getNameFromEdgeType(collectionName));
@@ -168,19 +191,38 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
                 pluralizedCollectionName, JsonUtils.mapToJsonString(jsonMapData ) );
         }
 
-        allEntityIdsObservable.getEdgesToEntities( Observable.just(applicationScope),
-            fromNullable(collectionName), cursorSeek.getSeekValue() )
-            .buffer( indexProcessorFig.getCollectionDeleteBufferSize())
-            .doOnNext( edgeScopes -> {
-                logger.info("Sending batch of {} to be deleted.", edgeScopes.size());
-                indexService.deleteBatch(edgeScopes, endTimestamp, AsyncEventQueueType.DELETE);
-                count.addAndGet(edgeScopes.size() );
-                if( edgeScopes.size() > 0 ) {
-                    writeCursorState(jobId, edgeScopes.get(edgeScopes.size() - 1));
+        final Observable<DeleteJob> job = Observable.create( subscriber -> {
+            try {
+                final DeleteJob deleteJob;
+
+                if ( resumedApp.isPresent() ) {
+                    deleteJob = resumeJob( jobId, applicationScope, collectionName );
                 }
-                writeStateMeta( jobId, Status.INPROGRESS, count.get(), System.currentTimeMillis() ); })
-            .doOnCompleted(() -> writeStateMeta( jobId, Status.COMPLETE, count.get(), System.currentTimeMillis() ))
-            .subscribeOn( Schedulers.io() ).subscribe();
+                else if ( edgeCursor.isPresent() ) {
+                    deleteJob = startJob( jobId, applicationScope, collectionName, endTimestamp,
+                        Collections.singletonList( new Partition( 0, Long.MIN_VALUE, Long.MAX_VALUE ) ) );
+                    deleteJob.resume( 0, edgeCursor.get().getEdge() );
+                }
+                else {
+                    deleteJob = newJob( jobId, applicationScope, collectionName, endTimestamp );
+                }
+
+                subscriber.onNext( deleteJob );
+                subscriber.onCompleted();
+            }
+            catch ( Throwable t ) {
+                subscriber.onError( t );
+            }
+        } );
+
+        job.flatMap( deleteJob -> Observable.merge( Observable.from( deleteJob.partitions )
+                .filter( partition -> !deleteJob.isDone( partition ) )
+                .map( partition -> deletePartition( deleteJob, partition ).subscribeOn( Schedulers.io() ) ),
+            indexProcessorFig.getCollectionDeleteConcurrencyFactor() )
+            .doOnCompleted( () -> writeStateMeta( deleteJob, Status.COMPLETE ) ) )
+            .subscribeOn( Schedulers.io() )
+            .subscribe( edgeScopes -> { },
+                t -> logger.error( "Unable to delete collection {} with jobId {}", collectionName, jobId, t ) );
 
 
         return new CollectionDeleteStatus( jobId, Status.STARTED, 0, 0 );
@@ -201,18 +243,148 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
 
 
     /**
-     * Get the resume edge scope
-     *
-     * @param edgeScope The optional edge scope from the cursor
+     * Delete the edges of one partition, newest first, and record a cursor after every batch.  Each partition paces
+     * its own batches, a throttle shared by the partitions would back off once per partition on every interval
+     */
+    private Observable<List<EdgeScope>> deletePartition( final DeleteJob job, final Partition partition ) {
+
+        final GraphManager gm = graphManagerFactory.createEdgeManager( job.applicationScope );
+        final CollectionDeleteThrottle throttle =
+            new CollectionDeleteThrottle( indexProcessorFig, indexService, rejectedCounter );
+
+        // the first and last partition are open so edges older or newer than the bounds are deleted too
+        final long maxTimestamp = partition.index == job.partitions.size() - 1 ? Long.MAX_VALUE : partition.upper;
+        final long minTimestamp = partition.index == 0 ? Long.MIN_VALUE : partition.lower;
+
+        return gm.loadEdgesFromSource(
+            new SimpleSearchByEdgeType( job.applicationScope.getApplication(), job.edgeType, maxTimestamp,
+                SearchByEdgeType.Order.DESCENDING, job.getResumeEdge( partition ) ) )
+                 .takeWhile( edge -> edge.getTimestamp() >= minTimestamp )
+                 .map( edge -> new EdgeScope( job.applicationScope, edge ) )
+                 .buffer( indexProcessorFig.getCollectionDeleteBufferSize() )
+                 .doOnNext( edgeScopes -> {
+                     throttle.await();
+
+                     logger.info( "Sending batch of {} from partition {} to be deleted.", edgeScopes.size(),
+                         partition.index );
+                     indexService.deleteBatch( edgeScopes, job.endTimestamp, AsyncEventQueueType.DELETE );
+
+                     final EdgeScope last = edgeScopes.get( edgeScopes.size() - 1 );
+
+                     writeCursorState( job.jobId, partition.index, last );
+                     job.resume( partition.index, last.getEdge() );
+                     job.processed( edgeScopes.size() );
+
+                     writeStateMeta( job, Status.INPROGRESS );
+                 } )
+                 .doOnCompleted( () -> {
+                     mapManager.putString( job.jobId + MAP_DONE_KEY + partition.index, Boolean.TRUE.toString(),
+                         CURSOR_TTL );
+                     job.done( partition.index );
+                 } );
+    }
+
+
+    /**
+     * Split the edges of the collection into partitions by their timestamp.  Graph shards are also allocated by edge
+     * time, so the partitions read separate shards once a collection has more than one.
      */
-    private CursorSeek<Edge> getResumeEdge( final Optional<EdgeScope> edgeScope ) {
+    private DeleteJob newJob( final String jobId, final ApplicationScope applicationScope, final String edgeType,
+                              final long endTimestamp ) {
+
+        final GraphManager gm = graphManagerFactory.createEdgeManager( applicationScope );
+        final Id source = applicationScope.getApplication();
+
+        final Edge newest = gm.loadEdgesFromSource(
+            new SimpleSearchByEdgeType( source, edgeType, Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
+                Optional.<Edge>absent() ) ).take( 1 ).toBlocking().firstOrDefault( null );
 
+        final Edge oldest = gm.loadEdgesFromSource(
+            new SimpleSearchByEdgeType( source, edgeType, Long.MAX_VALUE, SearchByEdgeType.Order.ASCENDING,
+                Optional.<Edge>absent() ) ).take( 1 ).toBlocking().firstOrDefault( null );
 
-        if ( edgeScope.isPresent() ) {
-            return new CursorSeek<>( Optional.of( edgeScope.get().getEdge() ) );
+        final List<Partition> partitions = newest == null || oldest == null ? Collections.emptyList() :
+            partition( oldest.getTimestamp(), newest.getTimestamp(),
+                indexProcessorFig.getCollectionDeleteConcurrencyFactor() );
+
+        return startJob( jobId, applicationScope, edgeType, endTimestamp, partitions );
+    }
+
+
+    /**
+     * Persist the partitions of a new job so it can be resumed by its jobId
+     */
+    private DeleteJob startJob( final String jobId, final ApplicationScope applicationScope, final String edgeType,
+                                final long endTimestamp, final List<Partition> partitions ) {
+
+        mapManager.putString( jobId + MAP_APPLICATION_KEY, applicationScope.getApplication().getUuid().toString(),
+            CURSOR_TTL );
+        mapManager.putString( jobId + MAP_PARTITIONS_KEY, serializePartitions( partitions ), CURSOR_TTL );
+        mapManager.putString( jobId + MAP_END_TIMESTAMP_KEY, Long.toString( endTimestamp ), CURSOR_TTL );
+
+        logger.info( "Deleting collection {} with jobId {} in {} partitions", edgeType, jobId, partitions.size() );
+
+        return new DeleteJob( jobId, applicationScope, edgeType, endTimestamp, partitions );
+    }
+
+
+    /**
+     * Load the partitions of a job with the cursor of each, and the end timestamp the job was started with
+     */
+    private DeleteJob resumeJob( final String jobId, final ApplicationScope applicationScope,
+                                 final String edgeType ) {
+
+        final List<Partition> partitions =
+            parsePartitions( mapManager.getString( jobId + MAP_PARTITIONS_KEY ) );
+
+        final String persistedEndTimestamp = mapManager.getString( jobId + MAP_END_TIMESTAMP_KEY );
+
+        Preconditions.checkState( persistedEndTimestamp != null, "No end timestamp persisted for job " + jobId );
+
+        final long endTimestamp = Long.parseLong( persistedEndTimestamp );
+
+        final DeleteJob job = new DeleteJob( jobId, applicationScope, edgeType, endTimestamp, partitions );
+
+        final Long processed = mapManager.getLong( jobId + MAP_COUNT_KEY );
+        if ( processed != null ) {
+            job.processed( processed );
         }
 
-        return new CursorSeek<>( Optional.absent() );
+        for ( final Partition partition : partitions ) {
+            if ( mapManager.getString( jobId + MAP_DONE_KEY + partition.index ) != null ) {
+                job.done( partition.index );
+                continue;
+            }
+
+            final String persistedCursor = mapManager.getString( jobId + MAP_CURSOR_KEY + partition.index );
+
+            if ( persistedCursor != null ) {
+                final JsonNode node = CursorSerializerUtil.fromString( persistedCursor );
+                job.resume( partition.index,
+                    EdgeScopeSerializer.INSTANCE.fromJsonNode( node, CursorSerializerUtil.getMapper() ).getEdge() );
+            }
+        }
+
+        job.started();
+
+        logger.info( "Resuming collection delete {} of {}", jobId, edgeType );
+
+        return job;
+    }
+
+
+    /**
+     * Get the application of a partitioned job to resume
+     */
+    private Optional<ApplicationScope> getResumeApplication( final String jobId ) {
+
+        final String application = mapManager.getString( jobId + MAP_APPLICATION_KEY );
+
+        if ( application == null ) {
+            return Optional.absent();
+        }
+
+        return Optional.of( CpNamingUtils.getApplicationScope( UUID.fromString( application ) ) );
     }
 
 
@@ -241,36 +413,45 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
 
 
     /**
-     * Write the cursor state to the map in cassandra
+     * Write the cursor state of the partition to the map in cassandra
      */
-    private void writeCursorState( final String jobId, final EdgeScope edge ) {
+    private void writeCursorState( final String jobId, final int partition, final EdgeScope edge ) {
 
         final JsonNode node = EdgeScopeSerializer.INSTANCE.toNode( CursorSerializerUtil.getMapper(), edge );
 
         final String serializedState = CursorSerializerUtil.asString( node );
 
-        mapManager.putString( jobId + MAP_CURSOR_KEY, serializedState, CURSOR_TTL);
+        mapManager.putString( jobId + MAP_CURSOR_KEY + partition, serializedState, CURSOR_TTL);
     }
 
 
     /**
      * Write our state meta data into cassandra so everyone can see it
-     * @param jobId
+     * @param job
      * @param status
-     * @param processedCount
-     * @param lastUpdated
      */
-    private void writeStateMeta( final String jobId, final Status status, final long processedCount,
-                                 final long lastUpdated ) {
-
-        if(logger.isDebugEnabled()) {
-            logger.debug( "Flushing state for jobId {}, status {}, processedCount {}, lastUpdated {}",
-                    jobId, status, processedCount, lastUpdated);
+    private void writeStateMeta( final DeleteJob job, final Status status ) {
+
+        // partitions write their state in any order, keep the writes of a job from interleaving
+        synchronized ( job ) {
+            final long processedCount = job.getProcessed();
+            final long lastUpdated = System.currentTimeMillis();
+
+            final double progress = status == Status.COMPLETE ? 1 : job.getProgress();
+            final long remaining = status == Status.COMPLETE ? 0 : job.getRemaining( lastUpdated );
+
+            if(logger.isDebugEnabled()) {
+                logger.debug( "Flushing state for jobId {}, status {}, processedCount {}, lastUpdated {}, progress {}",
+                        job.jobId, status, processedCount, lastUpdated, progress);
+            }
+
+            mapManager.putString( job.jobId + MAP_STATUS_KEY, status.name() );
+            mapManager.putLong( job.jobId + MAP_COUNT_KEY, processedCount );
+            mapManager.putLong( job.jobId + MAP_UPDATED_KEY, lastUpdated );
+            mapManager.putLong( job.jobId + MAP_PROGRESS_KEY,
+                progress < 0 ? -1 : ( long ) ( progress * PROGRESS_SCALE ) );
+            mapManager.putLong( job.jobId + MAP_REMAINING_KEY, remaining );
         }
-
-        mapManager.putString( jobId + MAP_STATUS_KEY, status.name() );
-        mapManager.putLong( jobId + MAP_COUNT_KEY, processedCount );
-        mapManager.putLong( jobId + MAP_UPDATED_KEY, lastUpdated );
     }
 
 
@@ -292,8 +473,208 @@ public class CollectionDeleteServiceImpl implements CollectionDeleteService {
         final long processedCount = mapManager.getLong( jobId + MAP_COUNT_KEY );
         final long lastUpdated = mapManager.getLong( jobId + MAP_UPDATED_KEY );
 
-        return new CollectionDeleteStatus( jobId, status, processedCount, lastUpdated );
+        final Long progress = mapManager.getLong( jobId + MAP_PROGRESS_KEY );
+        final Long remaining = mapManager.getLong( jobId + MAP_REMAINING_KEY );
+
+        final double percentComplete = progress == null || progress < 0 ? -1 : progress * 100d / PROGRESS_SCALE;
+
+        return new CollectionDeleteStatus( jobId, status, processedCount, lastUpdated, percentComplete,
+            remaining == null ? -1 : remaining );
     }
-}
 
 
+    /**
+     * Split the timestamps from oldest to newest into at most count partitions of the same width
+     */
+    static List<Partition> partition( final long oldest, final long newest, final int count ) {
+
+        final long span = newest - oldest + 1;
+        final int size = ( int ) Math.max( 1, Math.min( count, span ) );
+        final long width = span / size;
+
+        final List<Partition> partitions = new ArrayList<>( size );
+
+        long lower = oldest;
+
+        for ( int i = 0; i < size; i++ ) {
+            final long upper = i == size - 1 ? newest : lower + width - 1;
+            partitions.add( new Partition( i, lower, upper ) );
+            lower = upper + 1;
+        }
+
+        return partitions;
+    }
+
+
+    static String serializePartitions( final List<Partition> partitions ) {
+        final StringBuilder builder = new StringBuilder();
+
+        for ( final Partition partition : partitions ) {
+            if ( builder.length() > 0 ) {
+                builder.append( ',' );
+            }
+            builder.append( partition.lower ).append( ':' ).append( partition.upper );
+        }
+
+        return builder.toString();
+    }
+
+
+    static List<Partition> parsePartitions( final String serialized ) {
+        final List<Partition> partitions = new ArrayList<>();
+
+        if ( serialized == null || serialized.isEmpty() ) {
+            return partitions;
+        }
+
+        for ( final String bounds : serialized.split( "," ) ) {
+            final int separator = bounds.indexOf( ':' );
+            partitions.add( new Partition( partitions.size(), Long.parseLong( bounds.substring( 0, separator ) ),
+                Long.parseLong( bounds.substring( separator + 1 ) ) ) );
+        }
+
+        return partitions;
+    }
+
+
+    /**
+     * The edges of a collection between two timestamps, inclusive
+     */
+    static final class Partition {
+        final int index;
+        final long lower;
+        final long upper;
+
+
+        Partition( final int index, final long lower, final long upper ) {
+            this.index = index;
+            this.lower = lower;
+            this.upper = upper;
+        }
+    }
+
+
+    /**
+     * The state of a running collection delete.  The position of each partition is the timestamp of its last deleted
+     * edge, the progress is the share of the partitions' timestamps that were read.
+     */
+    static final class DeleteJob {
+        final String jobId;
+        final ApplicationScope applicationScope;
+        final String edgeType;
+        final long endTimestamp;
+        final List<Partition> partitions;
+
+        // partitions with unknown bounds can't estimate their progress
+        private final boolean estimable;
+        private final Edge[] resumeEdges;
+        private final boolean[] done;
+        private final AtomicLongArray positions;
+        private final AtomicLong processed = new AtomicLong();
+
+        private long startTime;
+        private double startProgress;
+
+
+        DeleteJob( final String jobId, final ApplicationScope applicationScope, final String edgeType,
+                   final long endTimestamp, final List<Partition> partitions ) {
+            this.jobId = jobId;
+            this.applicationScope = applicationScope;
+            this.edgeType = edgeType;
+            this.endTimestamp = endTimestamp;
+            this.partitions = partitions;
+            this.estimable = partitions.isEmpty() || partitions.get( partitions.size() - 1 ).upper != Long.MAX_VALUE;
+            this.resumeEdges = new Edge[partitions.size()];
+            this.done = new boolean[partitions.size()];
+            this.positions = new AtomicLongArray( partitions.size() );
+
+            for ( final Partition partition : partitions ) {
+                positions.set( partition.index, partition.upper == Long.MAX_VALUE ? Long.MAX_VALUE :
+                    partition.upper + 1 );
+            }
+
+            started();
+        }
+
+
+        /**
+         * Start timing the estimate from the current progress
+         */
+        void started() {
+            this.startTime = System.currentTimeMillis();
+            this.startProgress = getProgress();
+        }
+
+
+        void resume( final int partition, final Edge edge ) {
+            resumeEdges[partition] = edge;
+            positions.set( partition, Math.max( partitions.get( partition ).lower,
+                Math.min( positions.get( partition ), edge.getTimestamp() ) ) );
+        }
+
+
+        void done( final int partition ) {
+            done[partition] = true;
+            positions.set( partition, partitions.get( partition ).lower );
+        }
+
+
+        void processed( final long count ) {
+            processed.addAndGet( count );
+        }
+
+
+        long getProcessed() {
+            return processed.get();
+        }
+
+
+        Optional<Edge> getResumeEdge( final Partition partition ) {
+            return fromNullable( resumeEdges[partition.index] );
+        }
+
+
+        boolean isDone( final Partition partition ) {
+            return done[partition.index];
+        }
+
+
+        /**
+         * @return The share of the timestamps that were read from 0 to 1, -1 if it's unknown
+         */
+        double getProgress() {
+            if ( !estimable ) {
+                return -1;
+            }
+
+            if ( partitions.isEmpty() ) {
+                return 1;
+            }
+
+            double total = 0;
+            double read = 0;
+
+            for ( final Partition partition : partitions ) {
+                total += ( double ) partition.upper - partition.lower + 1;
+                read += ( double ) partition.upper - positions.get( partition.index ) + 1;
+            }
+
+            return Math.min( 1, Math.max( 0, read / total ) );
+        }
+
+
+        /**
+         * @return The estimated time until the job completes from the progress since it started, -1 if it's unknown
+         */
+        long getRemaining( final long now ) {
+            final double progress = getProgress();
+            final double rate = ( progress - startProgress ) / Math.max( 1, now - startTime );
+
+            if ( progress < 0 || rate <= 0 ) {
+                return -1;
+            }
+
+            return ( long ) ( ( 1 - progress ) / rate );
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+
+import com.codahale.metrics.Counter;
+
+
+/**
+ * Paces the batches of collection deletes so they don't starve live traffic.  The pause between batches doubles
+ * while the event queue is deeper than the configured maximum or elasticsearch rejected bulk requests since the last
+ * batch, and halves while neither happens, so deletes run at full speed on an idle system.
+ */
+public class CollectionDeleteThrottle {
+
+    /**
+     * The first pause once the deletes are throttled
+     */
+    static final long MIN_DELAY = 100;
+
+    private final AsyncEventService indexService;
+    private final Counter rejectedCounter;
+    private final long maxQueueDepth;
+    private final long maxDelay;
+
+    private long delay;
+    private long lastRejected;
+
+
+    public CollectionDeleteThrottle( final IndexProcessorFig indexProcessorFig, final AsyncEventService indexService,
+                                     final Counter rejectedCounter ) {
+        this.indexService = indexService;
+        this.rejectedCounter = rejectedCounter;
+        this.maxQueueDepth = indexProcessorFig.getCollectionDeleteMaxQueueDepth();
+        this.maxDelay = indexProcessorFig.getCollectionDeleteMaxThrottle();
+        this.lastRejected = rejectedCounter.getCount();
+    }
+
+
+    /**
+     * Get the pause before the next batch from the current queue depth and rejections
+     *
+     * @return The pause in milliseconds, 0 when the batch can be sent right away
+     */
+    public synchronized long nextDelay() {
+
+        final long rejected = rejectedCounter.getCount();
+        final boolean overloaded = rejected > lastRejected || indexService.getQueueDepth() > maxQueueDepth;
+
+        lastRejected = rejected;
+
+        if ( overloaded ) {
+            delay = Math.min( Math.max( delay * 2, MIN_DELAY ), maxDelay );
+        }
+        else {
+            delay = delay / 2 < MIN_DELAY ? 0 : delay / 2;
+        }
+
+        return delay;
+    }
+
+
+    /**
+     * Pause the calling thread before the next batch
+     */
+    public void await() {
+
+        final long pause = nextDelay();
+
+        if ( pause == 0 ) {
+            return;
+        }
+
+        try {
+            Thread.sleep( pause );
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -58,6 +58,12 @@ public interface IndexProcessorFig extends GuicyFig {
 
     String COLLECTION_DELETE_BUFFER_SIZE = "elasticsearch.collection_delete.buffer_size";
 
+    String COLLECTION_DELETE_CONCURRENCY_FACTOR = "elasticsearch.collection_delete.concurrency_factor";
+
+    String COLLECTION_DELETE_MAX_QUEUE_DEPTH = "elasticsearch.collection_delete.max_queue_depth";
+
+    String COLLECTION_DELETE_MAX_THROTTLE = "elasticsearch.collection_delete.max_throttle_ms";
+
     String REINDEX_CONCURRENCY_FACTOR = "elasticsearch.reindex.concurrency.factor";
 
 
@@ -165,6 +171,27 @@ public interface IndexProcessorFig extends GuicyFig {
     @Key(COLLECTION_DELETE_BUFFER_SIZE)
     int getCollectionDeleteBufferSize();
 
+    /**
+     * The number of partitions of the collection edges that are deleted in parallel
+     */
+    @Default("8")
+    @Key(COLLECTION_DELETE_CONCURRENCY_FACTOR)
+    int getCollectionDeleteConcurrencyFactor();
+
+    /**
+     * The queue depth above which collection deletes slow down to let the queue drain
+     */
+    @Default("10000")
+    @Key(COLLECTION_DELETE_MAX_QUEUE_DEPTH)
+    long getCollectionDeleteMaxQueueDepth();
+
+    /**
+     * The longest pause in milliseconds between the batches of a collection delete when it's throttled
+     */
+    @Default("30000")
+    @Key(COLLECTION_DELETE_MAX_THROTTLE)
+    long getCollectionDeleteMaxThrottle();
+
     /**
      * Flag to resolve the LOCAL queue implementation service synchronously.
      */
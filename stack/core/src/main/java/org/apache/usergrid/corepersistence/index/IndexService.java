@@ -92,4 +92,18 @@ public interface IndexService {
     Observable<IndexOperationMessage> deIndexOldVersions(final ApplicationScope applicationScope, final Id entityId,
                                                          final List<UUID> versions);
 
+
+    /**
+     * De-index every document of the entity up to the marked version, and the documents of the edges from the entity up
+     * to the max edge timestamp.  The documents are found with a single query instead of per edge and version
+     *
+     * @param applicationScope
+     * @param entityId
+     * @param markedVersion
+     * @param maxEdgeTimestamp
+     * @return
+     */
+    Observable<IndexOperationMessage> deIndexEntity(final ApplicationScope applicationScope, final Id entityId,
+                                                    final UUID markedVersion, final long maxEdgeTimestamp);
+
 }
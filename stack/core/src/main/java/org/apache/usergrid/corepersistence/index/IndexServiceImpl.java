@@ -299,6 +299,17 @@ public class IndexServiceImpl implements IndexService {
 
     }
 
+    @Override
+    public Observable<IndexOperationMessage> deIndexEntity( final ApplicationScope applicationScope,
+                                                            final Id entityId, final UUID markedVersion,
+                                                            final long maxEdgeTimestamp ) {
+
+        final EntityIndex ei = entityIndexFactory.
+            createEntityIndex(indexLocationStrategyFactory.getIndexLocationStrategy(applicationScope) );
+
+        return ei.deleteEntity( entityId, markedVersion, maxEdgeTimestamp );
+    }
+
     /**
      * Takes in candidate results and uses the iterator to create batch commands
      */
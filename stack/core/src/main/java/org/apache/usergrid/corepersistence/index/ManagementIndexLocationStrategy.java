@@ -79,6 +79,15 @@ class ManagementIndexLocationStrategy implements IndexLocationStrategy {
         return coreIndexFig.getManagementNumberOfReplicas();
     }
 
+    /**
+     * The management index only holds the management application, routing would put it all on one shard
+     * @return
+     */
+    @Override
+    public String getRouting() {
+        return null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
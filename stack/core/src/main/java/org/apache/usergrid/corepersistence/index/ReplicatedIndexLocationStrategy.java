@@ -38,6 +38,7 @@ public class ReplicatedIndexLocationStrategy implements IndexLocationStrategy {
     private ApplicationScope applicationScope;
     private int numberShards;
     private int numberReplicas;
+    private String routing;
 
     public ReplicatedIndexLocationStrategy(){
 
@@ -50,6 +51,7 @@ public class ReplicatedIndexLocationStrategy implements IndexLocationStrategy {
         numberShards = indexLocationStrategy.getNumberOfShards();
         numberReplicas = indexLocationStrategy.getNumberOfReplicas();
         alias = new ReplicatedIndexAlias( indexLocationStrategy.getAlias() );
+        routing = indexLocationStrategy.getRouting();
     }
 
     @Override
@@ -112,6 +114,17 @@ public class ReplicatedIndexLocationStrategy implements IndexLocationStrategy {
     public void setNumberOfReplicas(int replicas) {
         numberReplicas = replicas;
     }
+
+    @Override
+    @JsonSerialize()
+    public String getRouting() {
+        return routing;
+    }
+
+    public void setRouting(String routing) {
+        this.routing = routing;
+    }
+
     public static class ReplicatedIndexAlias implements IndexAlias, Serializable {
 
         private String readAlias;
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline;
+
+
+import org.apache.usergrid.corepersistence.pipeline.read.ResultsPage;
+
+import com.google.common.base.Optional;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+
+/**
+ * Reads the next page of a pipeline ahead of time.  When a page with a response cursor is emitted, the page for that
+ * cursor is loaded in the background and held for a short time so the client's next request doesn't wait on it.
+ */
+public interface PagePrefetcher {
+
+    /**
+     * Load the page for the cursor, using a prefetched page if one exists, and start loading the page after it
+     *
+     * @param queryKey A key that uniquely identifies the query being paged, excluding the cursor
+     * @param cursor The cursor of the page requested
+     * @param pageLoader The function that builds the pipeline for a given cursor
+     *
+     * @return An observable of the requested page
+     */
+    <T> Observable<ResultsPage<T>> loadPage( final String queryKey, final Optional<String> cursor,
+                                             final Func1<Optional<String>, Observable<ResultsPage<T>>> pageLoader );
+}
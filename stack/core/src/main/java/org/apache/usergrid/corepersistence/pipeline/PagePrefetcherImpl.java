@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline;
+
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.pipeline.read.ResultsPage;
+import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+
+/**
+ * Prefetches pages on a bounded pool.  Pages are keyed by the query key and the response cursor, and are weighed by
+ * the number of results they hold so the cache can never hold more than the configured number of results.  Each
+ * prefetched page is handed out once, then removed.
+ */
+@Singleton
+public class PagePrefetcherImpl implements PagePrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger( PagePrefetcherImpl.class );
+
+    private final PipelinePrefetchFig pipelinePrefetchFig;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, PrefetchedPage> pages;
+    private final Meter hitMeter;
+    private final Meter missMeter;
+    private final Meter rejectedMeter;
+
+
+    @Inject
+    public PagePrefetcherImpl( final PipelinePrefetchFig pipelinePrefetchFig, final MetricsFactory metricsFactory ) {
+        this.pipelinePrefetchFig = pipelinePrefetchFig;
+
+        //abort so we skip the prefetch when we're saturated, the client will load the page itself
+        this.executor = TaskExecutorFactory
+            .createTaskExecutor( "pipelinePrefetch", pipelinePrefetchFig.getPrefetchThreads(), 0,
+                TaskExecutorFactory.RejectionAction.ABORT );
+
+        this.pages = CacheBuilder.newBuilder().maximumWeight( pipelinePrefetchFig.getPrefetchMaxEntities() )
+                                 .weigher( ( String key, PrefetchedPage page ) -> page.weight )
+                                 .expireAfterWrite( pipelinePrefetchFig.getPrefetchTimeout(), TimeUnit.MILLISECONDS )
+                                 .build();
+
+        this.hitMeter = metricsFactory.getMeter( PagePrefetcherImpl.class, "prefetch.hit" );
+        this.missMeter = metricsFactory.getMeter( PagePrefetcherImpl.class, "prefetch.miss" );
+        this.rejectedMeter = metricsFactory.getMeter( PagePrefetcherImpl.class, "prefetch.rejected" );
+    }
+
+
+    @Override
+    public <T> Observable<ResultsPage<T>> loadPage( final String queryKey, final Optional<String> cursor,
+                                                    final Func1<Optional<String>, Observable<ResultsPage<T>>>
+                                                        pageLoader ) {
+
+        if ( !pipelinePrefetchFig.getPrefetchEnabled() ) {
+            return pageLoader.call( cursor );
+        }
+
+        return Observable.defer( () -> {
+
+            Observable<ResultsPage<T>> page = null;
+
+            if ( cursor.isPresent() ) {
+                page = getPrefetched( getKey( queryKey, cursor.get() ) );
+            }
+
+            if ( page == null ) {
+                missMeter.mark();
+                page = pageLoader.call( cursor );
+            }
+            else {
+                hitMeter.mark();
+            }
+
+            //once we have our page, start reading the next one
+            return page.doOnNext( resultsPage -> prefetch( queryKey, resultsPage, pageLoader ) );
+        } );
+    }
+
+
+    /**
+     * Remove the prefetched page and wait for it to load.  Returns null if it isn't present or couldn't be loaded
+     */
+    private <T> Observable<ResultsPage<T>> getPrefetched( final String key ) {
+
+        final PrefetchedPage prefetched = pages.asMap().remove( key );
+
+        if ( prefetched == null ) {
+            return null;
+        }
+
+        try {
+            final Optional<ResultsPage<?>> loaded =
+                prefetched.page.get( pipelinePrefetchFig.getPrefetchWaitTimeout(), TimeUnit.MILLISECONDS );
+
+            if ( !loaded.isPresent() ) {
+                return Observable.empty();
+            }
+
+            return Observable.just( ( ResultsPage<T> ) loaded.get() );
+        }
+        catch ( Exception e ) {
+            logger.debug( "Unable to use prefetched page {}, loading it instead", key, e );
+            return null;
+        }
+    }
+
+
+    /**
+     * Start loading the page after the one given, if there is one
+     */
+    private <T> void prefetch( final String queryKey, final ResultsPage<T> resultsPage,
+                               final Func1<Optional<String>, Observable<ResultsPage<T>>> pageLoader ) {
+
+        if ( !resultsPage.hasMoreResults() ) {
+            return;
+        }
+
+        final Optional<String> nextCursor = resultsPage.getResponseCursor().encodeAsString();
+
+        if ( !nextCursor.isPresent() ) {
+            return;
+        }
+
+        final String key = getKey( queryKey, nextCursor.get() );
+        final SettableFuture<Optional<ResultsPage<?>>> future = SettableFuture.create();
+
+        //the next page is at most the size of this one
+        if ( pages.asMap().putIfAbsent( key, new PrefetchedPage( resultsPage.getEntityList().size(), future ) )
+            != null ) {
+            return;
+        }
+
+        try {
+            executor.execute( () -> {
+                try {
+                    final ResultsPage<T> nextPage = pageLoader.call( nextCursor ).toBlocking().firstOrDefault( null );
+                    future.set( Optional.<ResultsPage<?>>fromNullable( nextPage ) );
+                }
+                catch ( Throwable t ) {
+                    pages.invalidate( key );
+                    future.setException( t );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException ree ) {
+            rejectedMeter.mark();
+            pages.invalidate( key );
+            future.setException( ree );
+        }
+    }
+
+
+    private static String getKey( final String queryKey, final String cursor ) {
+        return queryKey + ":" + cursor;
+    }
+
+
+    /**
+     * A page that is loading or has been loaded, with the weight it holds in the cache
+     */
+    private static final class PrefetchedPage {
+        private final int weight;
+        private final SettableFuture<Optional<ResultsPage<?>>> page;
+
+
+        private PrefetchedPage( final int weight, final SettableFuture<Optional<ResultsPage<?>>> page ) {
+            this.weight = weight;
+            this.page = page;
+        }
+    }
+}
@@ -23,6 +23,8 @@ package org.apache.usergrid.corepersistence.pipeline;
 import org.apache.usergrid.corepersistence.pipeline.builder.PipelineBuilderFactory;
 import org.apache.usergrid.corepersistence.pipeline.read.FilterFactory;
 
+import org.safehaus.guicyfig.GuicyFigModule;
+
 import com.google.inject.AbstractModule;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 
@@ -40,5 +42,9 @@ public class PipelineModule extends AbstractModule {
         install( new FactoryModuleBuilder().build( FilterFactory.class ) );
 
         install( new FactoryModuleBuilder().build( PipelineBuilderFactory.class ) );
+
+        install( new GuicyFigModule( PipelinePrefetchFig.class ) );
+
+        bind( PagePrefetcher.class ).to( PagePrefetcherImpl.class );
     }
 }
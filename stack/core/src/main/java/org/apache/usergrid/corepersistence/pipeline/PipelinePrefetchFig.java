@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline;
+
+
+import org.safehaus.guicyfig.Default;
+import org.safehaus.guicyfig.FigSingleton;
+import org.safehaus.guicyfig.GuicyFig;
+import org.safehaus.guicyfig.Key;
+
+
+/**
+ * Configuration for reading the next page of a pipeline ahead of the client's cursor request
+ */
+@FigSingleton
+public interface PipelinePrefetchFig extends GuicyFig {
+
+    String PREFETCH_ENABLED = "usergrid.pipeline.prefetch.enabled";
+
+    String PREFETCH_MAX_ENTITIES = "usergrid.pipeline.prefetch.max.entities";
+
+    String PREFETCH_TIMEOUT = "usergrid.pipeline.prefetch.timeout";
+
+    String PREFETCH_WAIT_TIMEOUT = "usergrid.pipeline.prefetch.wait.timeout";
+
+    String PREFETCH_THREADS = "usergrid.pipeline.prefetch.threads";
+
+
+    /**
+     * Opt in to reading the next page when a page with a cursor is returned
+     */
+    @Key( PREFETCH_ENABLED )
+    @Default( "false" )
+    boolean getPrefetchEnabled();
+
+    /**
+     * The max number of results held across all prefetched pages on this node.  Bounds the memory used
+     */
+    @Key( PREFETCH_MAX_ENTITIES )
+    @Default( "10000" )
+    long getPrefetchMaxEntities();
+
+    /**
+     * How long (in millis) a prefetched page is kept for a client to request it
+     */
+    @Key( PREFETCH_TIMEOUT )
+    @Default( "30000" )
+    long getPrefetchTimeout();
+
+    /**
+     * How long (in millis) a request will wait for an in flight prefetch before loading the page itself
+     */
+    @Key( PREFETCH_WAIT_TIMEOUT )
+    @Default( "10000" )
+    long getPrefetchWaitTimeout();
+
+    /**
+     * The number of threads loading pages ahead.  When all are busy the prefetch is skipped
+     */
+    @Key( PREFETCH_THREADS )
+    @Default( "20" )
+    int getPrefetchThreads();
+}
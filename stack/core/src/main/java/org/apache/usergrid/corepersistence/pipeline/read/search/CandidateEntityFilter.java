@@ -30,10 +30,7 @@ import org.apache.usergrid.persistence.index.impl.IndexProducer;
 import org.apache.usergrid.persistence.index.query.ParsedQuery;
 import org.apache.usergrid.persistence.model.entity.SimpleId;
 import org.apache.usergrid.persistence.model.field.DistanceField;
-import org.apache.usergrid.persistence.model.field.EntityObjectField;
-import org.apache.usergrid.persistence.model.field.Field;
 import org.apache.usergrid.persistence.model.field.StringField;
-import org.apache.usergrid.persistence.model.field.value.EntityObject;
 import org.apache.usergrid.utils.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -126,10 +123,14 @@ public class CandidateEntityFilter extends AbstractFilter<FilterResult<Candidate
                 //load the ids
                 final Observable<FilterResult<Entity>> entitySetObservable =
                     candidates.flatMap(candidatesList -> {
-                        Collection<SelectFieldMapping> mappings = candidatesList.get(0).getFields();
+                        //compile the select once for the page, and only read the fields it needs
+                        final SelectFieldMapper selectFieldMapper =
+                            new SelectFieldMapper( candidatesList.get( 0 ).getFields() );
                         Observable<EntitySet> entitySets = Observable.from(candidatesList)
                             .map(candidateEntry -> candidateEntry.getCandidateResult().getId()).toList()
-                            .flatMap(idList -> entityCollectionManager.load(idList));
+                            .flatMap(idList -> selectFieldMapper.hasMappings()
+                                ? entityCollectionManager.load( idList, selectFieldMapper.getTopLevelFields() )
+                                : entityCollectionManager.load( idList ));
                         //now we have a collection, validate our candidate set is correct.
                         return entitySets.map(
                             entitySet -> new EntityVerifier(
@@ -138,35 +139,7 @@ public class CandidateEntityFilter extends AbstractFilter<FilterResult<Candidate
                             .doOnNext(entityCollector -> entityCollector.merge(keepStaleEntries, query,
                                 isDirectQuery))
                             .flatMap(entityCollector -> Observable.from(entityCollector.getResults()))
-                            .map(entityFilterResult -> {
-                                final Entity entity = entityFilterResult.getValue();
-                                if (mappings.size() > 0) {
-                                    Map<String,Field> fieldMap = new HashMap<String, Field>(mappings.size());
-                                    rx.Observable.from(mappings)
-
-                                        .filter(mapping -> {
-                                            if ( entity.getFieldMap().containsKey(mapping.getSourceFieldName())) {
-                                                return true;
-                                            }
-                                            String[] parts = mapping.getSourceFieldName().split("\\.");
-                                            return nestedFieldCheck( parts, entity.getFieldMap() );
-                                        })
-
-                                        .doOnNext(mapping -> {
-                                            Field field = entity.getField(mapping.getSourceFieldName());
-                                            if ( field != null ) {
-                                                field.setName( mapping.getTargetFieldName() );
-                                                fieldMap.put( mapping.getTargetFieldName(), field );
-                                            } else {
-                                                String[] parts = mapping.getSourceFieldName().split("\\.");
-                                                nestedFieldSet( fieldMap, parts, entity.getFieldMap() );
-                                            }
-                                        }).toBlocking().lastOrDefault(null);
-
-                                    entity.setFieldMap(fieldMap);
-                                }
-                                return entityFilterResult;
-                            });
+                            .doOnNext(entityFilterResult -> selectFieldMapper.apply( entityFilterResult.getValue() ));
                     });
                 return entitySetObservable;
 
@@ -178,62 +151,6 @@ public class CandidateEntityFilter extends AbstractFilter<FilterResult<Candidate
     }
 
 
-    /**
-     * Sets field in result map with support for nested fields via recursion.
-     *
-     * @param result The result map of filtered fields
-     * @param parts The parts of the field name (more than one if field is nested)
-     * @param fieldMap Map of fields of the object
-     */
-    private void nestedFieldSet( Map<String, Field> result, String[] parts, Map<String, Field> fieldMap) {
-        if ( parts.length > 0 ) {
-
-            if ( fieldMap.containsKey( parts[0] )) {
-                Field field = fieldMap.get( parts[0] );
-                if ( field instanceof EntityObjectField ) {
-                    EntityObjectField eof = (EntityObjectField)field;
-                    result.putIfAbsent( parts[0], new EntityObjectField( parts[0], new EntityObject() ) );
-
-                    // recursion
-                    nestedFieldSet(
-                        ((EntityObjectField)result.get( parts[0] )).getValue().getFieldMap(),
-                        Arrays.copyOfRange(parts, 1, parts.length),
-                        eof.getValue().getFieldMap());
-
-                } else {
-                    result.put( parts[0], field );
-                }
-            }
-        }
-    }
-
-
-    /**
-     * Check to see if field should be included in filtered result with support for nested fields via recursion.
-     *
-     * @param parts The parts of the field name (more than one if field is nested)
-     * @param fieldMap Map of fields of the object
-     */
-    private boolean nestedFieldCheck( String[] parts, Map<String, Field> fieldMap) {
-        if ( parts.length > 0 ) {
-
-            if ( fieldMap.containsKey( parts[0] )) {
-                Field field = fieldMap.get( parts[0] );
-                if ( field instanceof EntityObjectField ) {
-                    EntityObjectField eof = (EntityObjectField)field;
-
-                    // recursion
-                    return nestedFieldCheck( Arrays.copyOfRange(parts, 1, parts.length), eof.getValue().getFieldMap());
-
-                } else {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-
     /**
      * Update direct query candidates to add IDs.
      */
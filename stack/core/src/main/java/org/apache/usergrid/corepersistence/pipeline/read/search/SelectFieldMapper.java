@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline.read.search;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.usergrid.persistence.index.SelectFieldMapping;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.field.EntityObjectField;
+import org.apache.usergrid.persistence.model.field.Field;
+import org.apache.usergrid.persistence.model.field.value.EntityObject;
+
+
+/**
+ * The select clause of a query, compiled once per query.  The field names are split a single time and the top level
+ * fields are known up front, so only those need to be read from storage.
+ */
+public class SelectFieldMapper {
+
+    private final List<CompiledMapping> mappings;
+    private final Set<String> topLevelFields;
+
+
+    public SelectFieldMapper( final Collection<SelectFieldMapping> selectFieldMappings ) {
+
+        final List<CompiledMapping> compiled = new ArrayList<>( selectFieldMappings.size() );
+        final Set<String> fields = new HashSet<>();
+
+        for ( final SelectFieldMapping mapping : selectFieldMappings ) {
+
+            final CompiledMapping compiledMapping = new CompiledMapping( mapping );
+
+            compiled.add( compiledMapping );
+
+            //the source may be a field with a '.' in its name, or a path into a nested object
+            fields.add( compiledMapping.sourceFieldName );
+            fields.add( compiledMapping.parts[0] );
+        }
+
+        this.mappings = Collections.unmodifiableList( compiled );
+        this.topLevelFields = Collections.unmodifiableSet( fields );
+    }
+
+
+    /**
+     * @return True if the query selects specific fields, false if the entire entity should be returned
+     */
+    public boolean hasMappings() {
+        return !mappings.isEmpty();
+    }
+
+
+    /**
+     * @return The names of the top level fields that must be loaded to apply this select
+     */
+    public Set<String> getTopLevelFields() {
+        return topLevelFields;
+    }
+
+
+    /**
+     * Replace the fields of the entity with only the selected fields, renaming them when requested
+     */
+    public void apply( final Entity entity ) {
+
+        if ( !hasMappings() ) {
+            return;
+        }
+
+        final Map<String, Field> entityFields = entity.getFieldMap();
+        final Map<String, Field> fieldMap = new HashMap<>( mappings.size() );
+
+        for ( final CompiledMapping mapping : mappings ) {
+
+            final Field field = entityFields.get( mapping.sourceFieldName );
+
+            if ( field != null ) {
+                field.setName( mapping.targetFieldName );
+                fieldMap.put( mapping.targetFieldName, field );
+            }
+            else if ( nestedFieldCheck( mapping.parts, entityFields ) ) {
+                nestedFieldSet( fieldMap, mapping.parts, entityFields );
+            }
+        }
+
+        entity.setFieldMap( fieldMap );
+    }
+
+
+    /**
+     * Sets field in result map with support for nested fields via recursion.
+     *
+     * @param result The result map of filtered fields
+     * @param parts The parts of the field name (more than one if field is nested)
+     * @param fieldMap Map of fields of the object
+     */
+    private static void nestedFieldSet( Map<String, Field> result, String[] parts, Map<String, Field> fieldMap ) {
+        if ( parts.length > 0 ) {
+
+            if ( fieldMap.containsKey( parts[0] ) ) {
+                Field field = fieldMap.get( parts[0] );
+                if ( field instanceof EntityObjectField ) {
+                    EntityObjectField eof = ( EntityObjectField ) field;
+                    result.putIfAbsent( parts[0], new EntityObjectField( parts[0], new EntityObject() ) );
+
+                    // recursion
+                    nestedFieldSet( ( ( EntityObjectField ) result.get( parts[0] ) ).getValue().getFieldMap(),
+                        Arrays.copyOfRange( parts, 1, parts.length ), eof.getValue().getFieldMap() );
+                }
+                else {
+                    result.put( parts[0], field );
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Check to see if field should be included in filtered result with support for nested fields via recursion.
+     *
+     * @param parts The parts of the field name (more than one if field is nested)
+     * @param fieldMap Map of fields of the object
+     */
+    private static boolean nestedFieldCheck( String[] parts, Map<String, Field> fieldMap ) {
+        if ( parts.length > 0 ) {
+
+            if ( fieldMap.containsKey( parts[0] ) ) {
+                Field field = fieldMap.get( parts[0] );
+                if ( field instanceof EntityObjectField ) {
+                    EntityObjectField eof = ( EntityObjectField ) field;
+
+                    // recursion
+                    return nestedFieldCheck( Arrays.copyOfRange( parts, 1, parts.length ),
+                        eof.getValue().getFieldMap() );
+                }
+                else {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * A select mapping with its source path split up front
+     */
+    private static final class CompiledMapping {
+
+        private final String sourceFieldName;
+        private final String targetFieldName;
+        private final String[] parts;
+
+
+        private CompiledMapping( final SelectFieldMapping mapping ) {
+            this.sourceFieldName = mapping.getSourceFieldName();
+            this.targetFieldName = mapping.getTargetFieldName();
+            this.parts = sourceFieldName.split( "\\." );
+        }
+    }
+}
@@ -20,12 +20,10 @@
 package org.apache.usergrid.corepersistence.pipeline.read.traverse;
 
 
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventQueueType;
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilderImpl;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
-import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,8 +55,8 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
 
     private final GraphManagerFactory graphManagerFactory;
     private final RxTaskScheduler rxTaskScheduler;
-    private final EventBuilder eventBuilder;
-    private final AsyncEventService asyncEventService;
+    private final ReadRepairService readRepairService;
+    private final GraphTraversalFig graphTraversalFig;
 
 
     /**
@@ -66,12 +64,12 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
      */
     public AbstractReadGraphFilter( final GraphManagerFactory graphManagerFactory,
                                     final RxTaskScheduler rxTaskScheduler,
-                                    final EventBuilder eventBuilder,
-                                    final AsyncEventService asyncEventService ) {
+                                    final ReadRepairService readRepairService,
+                                    final GraphTraversalFig graphTraversalFig ) {
         this.graphManagerFactory = graphManagerFactory;
         this.rxTaskScheduler = rxTaskScheduler;
-        this.eventBuilder = eventBuilder;
-        this.asyncEventService = asyncEventService;
+        this.readRepairService = readRepairService;
+        this.graphTraversalFig = graphTraversalFig;
     }
 
 
@@ -90,8 +88,13 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
         final EdgeState edgeCursorState = new EdgeState();
 
 
-        //return all ids that are emitted from this edge
-        return previousIds.flatMap( previousFilterValue -> {
+        final int maxConcurrentSources = graphTraversalFig.getMaxConcurrentSources();
+        final int distinctWindow = graphTraversalFig.getDistinctWindow();
+
+
+        //return all ids that are emitted from this edge.  Only a bounded number of source nodes are read at once, the
+        //next is read when one completes, so a multi hop traversal stops reading once the page has been collected
+        return Observable.merge( previousIds.map( previousFilterValue -> {
 
             //set our our constant state
             final Optional<MarkedEdge> startFromCursor = getSeekValue();
@@ -109,6 +112,9 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
                 new SimpleSearchByEdgeType( id, edgeName, Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
                     typeWrapper, false );
 
+            //the repairs of this source node run in the background once its edges have been read
+            final ReadRepairService.Batch repairs = readRepairService.newBatch( applicationScope );
+
             /**
              * TODO, pass a message with pointers to our cursor values to be generated later
              */
@@ -122,8 +128,7 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
                 if (isDeleted) {
 
                     logger.info("Edge {} is deleted when seeking, deleting the edge", markedEdge);
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildDeleteEdge(applicationScope, markedEdge);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEdge( markedEdge );
 
                 }
 
@@ -132,8 +137,7 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
                     final Id sourceNodeId = markedEdge.getSourceNode();
                     logger.info("Edge {} has a deleted source node, deleting the entity for id {}", markedEdge, sourceNodeId);
 
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildEntityDelete(applicationScope, sourceNodeId);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEntity( sourceNodeId );
 
                 }
 
@@ -142,8 +146,7 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
                     final Id targetNodeId = markedEdge.getTargetNode();
                     logger.info("Edge {} has a deleted target node, deleting the entity for id {}", markedEdge, targetNodeId);
 
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildEntityDelete(applicationScope, targetNodeId);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEntity( targetNodeId );
                 }
 
 
@@ -151,8 +154,8 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
                 return !isDeleted && !isSourceNodeDeleted && !isTargetNodeDelete;
 
 
-            })  // any non-deleted edges should be de-duped here so the results are unique
-                .distinct( new EdgeDistinctKey() )
+            })  // any non-deleted edges should be de-duped here so the results are unique, within a bounded window
+                .filter( new WindowedDistinct( distinctWindow ) )
                 //set the edge state for cursors
                 .doOnNext( edge -> {
                     if (logger.isTraceEnabled()) {
@@ -163,8 +166,12 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
 
                     //map our id from the target edge  and set our cursor every edge we traverse
                 .map( edge -> createFilterResult( edge.getTargetNode(), edgeCursorState.getCursorEdge(),
-                    previousFilterValue.getPath() ) );
-        } );
+                    previousFilterValue.getPath() ) )
+
+                //flush the repairs when the edges are read, or when the traversal is stopped early
+                .doAfterTerminate( repairs::flush )
+                .doOnUnsubscribe( repairs::flush );
+        } ), maxConcurrentSources );
     }
 
 
@@ -228,33 +235,46 @@ public abstract class AbstractReadGraphFilter extends AbstractPathFilter<Id, Id,
         }
     }
 
-    private Observable.Transformer<IndexOperationMessage, IndexOperationMessage> applyCollector(AsyncEventQueueType queueType) {
-
-        return observable -> observable
-            .collect(() -> new IndexOperationMessage(), (collector, single) -> collector.ingest(single))
-            .filter(msg -> !msg.isEmpty())
-            .doOnNext(indexOperation -> {
-                asyncEventService.queueIndexOperationMessage(indexOperation, queueType);
-            });
-
-    }
-
     /**
      *  Return a key that Rx can use for determining a distinct edge.  Build a string containing the UUID
      *  of the source and target nodes, with the type to ensure uniqueness rather than the int sum of the hash codes.
      *  Edge timestamp is specifically left out as edges with the same source,target,type but different timestamps
      *  are considered duplicates.
      */
-    private class EdgeDistinctKey implements Func1<Edge,String> {
+    private static String distinctKey( final Edge edge ) {
+
+        return buildDistinctKey(edge.getSourceNode().getUuid().toString(), edge.getTargetNode().getUuid().toString(),
+            edge.getType().toLowerCase());
+    }
 
-        @Override
-        public String call(Edge edge) {
 
-            return buildDistinctKey(edge.getSourceNode().getUuid().toString(), edge.getTargetNode().getUuid().toString(),
-                edge.getType().toLowerCase());
+    /**
+     * Drops edges whose distinct key was seen among the most recent keys.  Unlike distinct() the keys seen are not
+     * kept for the life of the traversal, the oldest are forgotten once the window is full, so a duplicate read more
+     * than the window's number of edges after the first version is emitted again.
+     */
+    private static final class WindowedDistinct implements Func1<MarkedEdge, Boolean> {
+
+        private final Map<String, Boolean> seen;
+
+
+        private WindowedDistinct( final int window ) {
+            this.seen = new LinkedHashMap<String, Boolean>( 16, 0.75f, true ) {
+                @Override
+                protected boolean removeEldestEntry( final Map.Entry<String, Boolean> eldest ) {
+                    return size() > window;
+                }
+            };
+        }
+
+
+        @Override
+        public Boolean call( final MarkedEdge edge ) {
+            return seen.put( distinctKey( edge ), Boolean.TRUE ) == null;
         }
     }
 
+
     protected static String buildDistinctKey(final String sourceNode, final String targetNode, final String type){
 
         final String DISTINCT_KEY_SEPARATOR = ":";
@@ -20,12 +20,7 @@
 package org.apache.usergrid.corepersistence.pipeline.read.traverse;
 
 
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventQueueType;
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilderImpl;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
-import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,8 +52,7 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
 
     private final GraphManagerFactory graphManagerFactory;
     private final RxTaskScheduler rxTaskScheduler;
-    private final EventBuilder eventBuilder;
-    private final AsyncEventService asyncEventService;
+    private final ReadRepairService readRepairService;
 
 
     /**
@@ -66,12 +60,10 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
      */
     public AbstractReadReverseGraphFilter( final GraphManagerFactory graphManagerFactory,
                                     final RxTaskScheduler rxTaskScheduler,
-                                    final EventBuilder eventBuilder,
-                                    final AsyncEventService asyncEventService ) {
+                                    final ReadRepairService readRepairService ) {
         this.graphManagerFactory = graphManagerFactory;
         this.rxTaskScheduler = rxTaskScheduler;
-        this.eventBuilder = eventBuilder;
-        this.asyncEventService = asyncEventService;
+        this.readRepairService = readRepairService;
     }
 
 
@@ -109,6 +101,9 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
                 new SimpleSearchByEdgeType( id, edgeName, Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
                     typeWrapper, false );
 
+            //the repairs of this target node run in the background once its edges have been read
+            final ReadRepairService.Batch repairs = readRepairService.newBatch( applicationScope );
+
             /**
              * TODO, pass a message with pointers to our cursor values to be generated later
              */
@@ -122,8 +117,7 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
                 if (isDeleted) {
 
                     logger.info("Edge {} is deleted when seeking, deleting the edge", markedEdge);
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildDeleteEdge(applicationScope, markedEdge);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEdge( markedEdge );
 
                 }
 
@@ -132,8 +126,7 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
                     final Id sourceNodeId = markedEdge.getSourceNode();
                     logger.info("Edge {} has a deleted source node, deleting the entity for id {}", markedEdge, sourceNodeId);
 
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildEntityDelete(applicationScope, sourceNodeId);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEntity( sourceNodeId );
 
                 }
 
@@ -142,8 +135,7 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
                     final Id targetNodeId = markedEdge.getTargetNode();
                     logger.info("Edge {} has a deleted target node, deleting the entity for id {}", markedEdge, targetNodeId);
 
-                    final IndexOperationMessage indexOperationMessage = eventBuilder.buildEntityDelete(applicationScope, targetNodeId);
-                    asyncEventService.queueIndexOperationMessage(indexOperationMessage, AsyncEventQueueType.DELETE);
+                    repairs.deleteEntity( targetNodeId );
 
                 }
 
@@ -164,7 +156,11 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
 
                 //map our id from the target edge  and set our cursor every edge we traverse
                 .map( edge -> createFilterResult( edge.getSourceNode(), edgeCursorState.getCursorEdge(),
-                    previousFilterValue.getPath() ) );
+                    previousFilterValue.getPath() ) )
+
+                //flush the repairs when the edges are read, or when the traversal is stopped early
+                .doAfterTerminate( repairs::flush )
+                .doOnUnsubscribe( repairs::flush );
         } );
     }
 
@@ -222,17 +218,6 @@ public abstract class AbstractReadReverseGraphFilter extends AbstractPathFilter<
         }
     }
 
-    private Observable.Transformer<IndexOperationMessage, IndexOperationMessage> applyCollector(AsyncEventQueueType queueType) {
-
-        return observable -> observable
-            .collect(() -> new IndexOperationMessage(), (collector, single) -> collector.ingest(single))
-            .filter(msg -> !msg.isEmpty())
-            .doOnNext(indexOperation -> {
-                asyncEventService.queueIndexOperationMessage(indexOperation, queueType);
-            });
-
-    }
-
     /**
      *  Return a key that Rx can use for determining a distinct edge.  Build a string containing the UUID
      *  of the source and target nodes, with the type to ensure uniqueness rather than the int sum of the hash codes.
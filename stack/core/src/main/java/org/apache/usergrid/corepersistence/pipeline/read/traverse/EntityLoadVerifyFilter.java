@@ -23,11 +23,7 @@ package org.apache.usergrid.corepersistence.pipeline.read.traverse;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.usergrid.corepersistence.util.CpNamingUtils;
-import org.apache.usergrid.persistence.Schema;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
-import org.apache.usergrid.persistence.graph.*;
-import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,17 +53,14 @@ public class EntityLoadVerifyFilter extends AbstractFilter<FilterResult<Id>, Fil
     private static final Logger logger = LoggerFactory.getLogger( EntityLoadVerifyFilter.class );
 
     private final EntityCollectionManagerFactory entityCollectionManagerFactory;
-    private final GraphManagerFactory graphManagerFactory;
-    private final ReadRepairFig readRepairFig;
+    private final ReadRepairService readRepairService;
 
 
     @Inject
     public EntityLoadVerifyFilter( final EntityCollectionManagerFactory entityCollectionManagerFactory,
-                                   final GraphManagerFactory graphManagerFactory,
-                                   final ReadRepairFig readRepairFig) {
+                                   final ReadRepairService readRepairService ) {
         this.entityCollectionManagerFactory = entityCollectionManagerFactory;
-        this.graphManagerFactory = graphManagerFactory;
-        this.readRepairFig = readRepairFig;
+        this.readRepairService = readRepairService;
     }
 
 
@@ -92,11 +85,14 @@ public class EntityLoadVerifyFilter extends AbstractFilter<FilterResult<Id>, Fil
                               .flatMap( ids -> entityCollectionManager.load( ids ) );
 
 
-                //now we have a collection, validate our candidate set is correct.
-                GraphManager graphManager = graphManagerFactory.createEdgeManager(applicationScope);
-                return entitySetObservable.map( entitySet -> new EntityVerifier( applicationScope, graphManager,
-                    entitySet, bufferedIds, readRepairFig ) )
-                                          .doOnNext( entityCollector -> entityCollector.merge() ).flatMap(
+                //now we have a collection, validate our candidate set is correct.  The orphaned edges of missing
+                //entities are repaired in the background once the page is verified
+                final ReadRepairService.Batch repairs = readRepairService.newBatch( applicationScope );
+
+                return entitySetObservable.map( entitySet -> new EntityVerifier( entitySet, bufferedIds, repairs ) )
+                                          .doOnNext( entityCollector -> entityCollector.merge() )
+                                          .doAfterTerminate( repairs::flush )
+                                          .doOnUnsubscribe( repairs::flush ).flatMap(
                         entityCollector -> Observable.from( entityCollector.getResults() ) );
             } );
 
@@ -110,25 +106,19 @@ public class EntityLoadVerifyFilter extends AbstractFilter<FilterResult<Id>, Fil
      */
     private static final class EntityVerifier {
 
-        private static final Logger logger = LoggerFactory.getLogger( EntityVerifier.class );
         private List<FilterResult<Entity>> results = new ArrayList<>();
 
         private final List<FilterResult<Id>> candidateResults;
         private final EntitySet entitySet;
-        private final GraphManager graphManager;
-        private final ApplicationScope applicationScope;
-        private final ReadRepairFig readRepairFig;
+        private final ReadRepairService.Batch repairs;
 
 
-        public EntityVerifier( final ApplicationScope applicationScope, final GraphManager graphManager,
-                               final EntitySet entitySet, final List<FilterResult<Id>> candidateResults,
-                               final ReadRepairFig readRepairFig) {
-            this.applicationScope = applicationScope;
-            this.graphManager = graphManager;
+        public EntityVerifier( final EntitySet entitySet, final List<FilterResult<Id>> candidateResults,
+                               final ReadRepairService.Batch repairs ) {
             this.entitySet = entitySet;
             this.candidateResults = candidateResults;
             this.results = new ArrayList<>( entitySet.size() );
-            this.readRepairFig = readRepairFig;
+            this.repairs = repairs;
         }
 
 
@@ -159,51 +149,8 @@ public class EntityLoadVerifyFilter extends AbstractFilter<FilterResult<Id>, Fil
             //doesn't exist warn and drop
             if ( entity == null || !entity.getEntity().isPresent() ) {
 
-                // look for orphaned edges
-                String edgeTypeName = CpNamingUtils.getEdgeTypeFromCollectionName(Schema.defaultCollectionName(candidateId.getType()));
-                final SearchByEdge searchByEdge =
-                    new SimpleSearchByEdge( applicationScope.getApplication(), edgeTypeName, candidateId, Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
-                        Optional.absent() );
-
-                int edgesDeleted = 0;
-                List<MarkedEdge> edgeList = graphManager.loadEdgeVersions(searchByEdge).toList().toBlocking().last();
-                boolean timestampAllowsDelete = false;
-                if (edgeList.size() > 0) {
-                    MarkedEdge firstEdge = edgeList.get(0);
-                    long currentTimestamp = CpNamingUtils.createGraphOperationTimestamp();
-                    long edgeTimestamp = firstEdge.getTimestamp();
-                    long timestampDiff = currentTimestamp - edgeTimestamp;
-                    long orphanDelaySecs = readRepairFig.getEdgeOrphanDelaySecs();
-                    // timestamps are in 100 nanoseconds, convert from seconds
-                    long allowedDiff = orphanDelaySecs * 1000L * 1000L * 10L;
-                    if (timestampDiff > allowedDiff) {
-                        timestampAllowsDelete = true;
-                        // edges must be orphans, delete edges
-                        for (MarkedEdge edge: edgeList) {
-                            graphManager.markEdge(edge).toBlocking().lastOrDefault(null);
-                            edgesDeleted++;
-                        }
-                        graphManager.deleteEdge(firstEdge).toBlocking().lastOrDefault(null);
-                    }
-                }
-
-                if (edgesDeleted > 0) {
-                    logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
-                        + "  Deleted at least {} edges.", candidateId, applicationScope.getApplication().getUuid().toString(), edgesDeleted);
-                } else if (edgeList.size() == 0) {
-                    logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
-                            + "  No edges were deleted (loadEdgeVersions returned 0 edges)",
-                        candidateId, applicationScope.getApplication().getUuid().toString());
-                } else if (timestampAllowsDelete) {
-                    logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
-                        + "  Timestamp is old enough to delete, but no edges were deleted (loadEdgeVersions returned {} edges)",
-                        candidateId, applicationScope.getApplication().getUuid().toString(), edgeList.size());
-                } else {
-                    logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
-                        + "  Ignoring since this could be a region sync issue", candidateId, applicationScope.getApplication().getUuid().toString());
-                }
-
-
+                // look for orphaned edges once the page is verified
+                repairs.deleteOrphanedEdges( candidateId );
 
                 return;
             }
@@ -0,0 +1,49 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  *  contributor license agreements.  The ASF licenses this file to You
+ *  * under the Apache License, Version 2.0 (the "License"); you may not
+ *  * use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.  For additional information regarding
+ *  * copyright in this work, please see the NOTICE file in the top level
+ *  * directory of this distribution.
+ *
+ */
+package org.apache.usergrid.corepersistence.pipeline.read.traverse;
+
+
+import org.safehaus.guicyfig.Default;
+import org.safehaus.guicyfig.FigSingleton;
+import org.safehaus.guicyfig.GuicyFig;
+import org.safehaus.guicyfig.Key;
+
+/**
+ * Graph traversal fig
+ */
+@FigSingleton
+public interface GraphTraversalFig extends GuicyFig {
+
+    /**
+     * The most source nodes whose edges are read at once when a traversal fans out from the previous hop
+     */
+    @Key( "usergrid.traverse.max_concurrent_sources" )
+    @Default( "10" )
+    int getMaxConcurrentSources();
+
+    /**
+     * The number of recent edges remembered per source node to drop duplicate edge versions, older edges are
+     * forgotten so memory stays bounded on large fan outs
+     */
+    @Key( "usergrid.traverse.distinct_window" )
+    @Default( "10000" )
+    int getDistinctWindow();
+
+}
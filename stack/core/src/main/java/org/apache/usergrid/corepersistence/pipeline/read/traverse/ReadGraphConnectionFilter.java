@@ -20,8 +20,6 @@
 package org.apache.usergrid.corepersistence.pipeline.read.traverse;
 
 
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
 import org.apache.usergrid.corepersistence.rx.impl.AsyncRepair;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.graph.GraphManagerFactory;
@@ -46,10 +44,10 @@ public class ReadGraphConnectionFilter extends AbstractReadGraphFilter {
     @Inject
     public ReadGraphConnectionFilter( final GraphManagerFactory graphManagerFactory,
                                       @AsyncRepair final RxTaskScheduler rxTaskScheduler,
-                                      final EventBuilder eventBuilder,
-                                      final AsyncEventService asyncEventService,
+                                      final ReadRepairService readRepairService,
+                                      final GraphTraversalFig graphTraversalFig,
                                       @Assisted final String connectionName ) {
-        super( graphManagerFactory, rxTaskScheduler, eventBuilder, asyncEventService );
+        super( graphManagerFactory, rxTaskScheduler, readRepairService, graphTraversalFig );
         this.connectionName = connectionName;
     }
 
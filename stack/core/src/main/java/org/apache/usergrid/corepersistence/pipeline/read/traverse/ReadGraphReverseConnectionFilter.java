@@ -21,8 +21,6 @@ package org.apache.usergrid.corepersistence.pipeline.read.traverse;
 
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
-import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
 import org.apache.usergrid.corepersistence.rx.impl.AsyncRepair;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.graph.GraphManagerFactory;
@@ -41,10 +39,9 @@ public class ReadGraphReverseConnectionFilter extends AbstractReadReverseGraphFi
     @Inject
     public ReadGraphReverseConnectionFilter( final GraphManagerFactory graphManagerFactory,
                                       @AsyncRepair final RxTaskScheduler rxTaskScheduler,
-                                      final EventBuilder eventBuilder,
-                                      final AsyncEventService asyncEventService,
+                                      final ReadRepairService readRepairService,
                                       @Assisted final String connectionName ) {
-        super( graphManagerFactory, rxTaskScheduler, eventBuilder, asyncEventService );
+        super( graphManagerFactory, rxTaskScheduler, readRepairService );
         this.connectionName = connectionName;
     }
     @Override
@@ -35,4 +35,18 @@ public interface ReadRepairFig extends GuicyFig {
     @Default( "86400" ) // 1 day
     long getEdgeOrphanDelaySecs();
 
+    /**
+     * The repairs per second read repair may run for an application on this node, 0 for no limit
+     */
+    @Key( "usergrid.read.repair.max_per_second" )
+    @Default( "100" )
+    double getRepairsPerSecond();
+
+    /**
+     * The most repairs collected by a single read, the others are found again by later reads
+     */
+    @Key( "usergrid.read.repair.max_per_read" )
+    @Default( "1000" )
+    int getMaxRepairsPerRead();
+
 }
@@ -0,0 +1,359 @@
+/*
+ *
+ *  * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  *  contributor license agreements.  The ASF licenses this file to You
+ *  * under the Apache License, Version 2.0 (the "License"); you may not
+ *  * use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.  For additional information regarding
+ *  * copyright in this work, please see the NOTICE file in the top level
+ *  * directory of this distribution.
+ *
+ */
+package org.apache.usergrid.corepersistence.pipeline.read.traverse;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventQueueType;
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
+import org.apache.usergrid.corepersistence.rx.impl.AsyncRepair;
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.Schema;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.graph.GraphManager;
+import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.SearchByEdge;
+import org.apache.usergrid.persistence.graph.SearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdge;
+import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import rx.Observable;
+
+
+/**
+ * Repairs the deleted edges, deleted nodes and orphaned edges found on the read path.  A read collects its repairs
+ * into a {@link Batch}, duplicates are dropped, and the batch is flushed on the repair scheduler as a single queue
+ * message, so the read doesn't wait on the repairs.  Repairs are rate limited per application, the repairs over the
+ * limit are dropped and are found again by a later read.
+ */
+@Singleton
+public class ReadRepairService {
+
+    private static final Logger logger = LoggerFactory.getLogger( ReadRepairService.class );
+
+    private final ReadRepairFig readRepairFig;
+    private final EventBuilder eventBuilder;
+    private final AsyncEventService asyncEventService;
+    private final GraphManagerFactory graphManagerFactory;
+    private final RxTaskScheduler rxTaskScheduler;
+
+    private final Cache<UUID, RateLimiter> rateLimiters;
+
+    private final Meter repairMeter;
+    private final Meter droppedMeter;
+
+
+    @Inject
+    public ReadRepairService( final ReadRepairFig readRepairFig, final EventBuilder eventBuilder,
+                              final AsyncEventService asyncEventService,
+                              final GraphManagerFactory graphManagerFactory,
+                              @AsyncRepair final RxTaskScheduler rxTaskScheduler,
+                              final MetricsFactory metricsFactory ) {
+        this.readRepairFig = readRepairFig;
+        this.eventBuilder = eventBuilder;
+        this.asyncEventService = asyncEventService;
+        this.graphManagerFactory = graphManagerFactory;
+        this.rxTaskScheduler = rxTaskScheduler;
+
+        //limiters of applications that stop needing repairs are dropped
+        this.rateLimiters = CacheBuilder.newBuilder().expireAfterAccess( 10, TimeUnit.MINUTES ).build();
+
+        this.repairMeter = metricsFactory.getMeter( ReadRepairService.class, "read.repair" );
+        this.droppedMeter = metricsFactory.getMeter( ReadRepairService.class, "read.repair.dropped" );
+    }
+
+
+    /**
+     * Start collecting the repairs of a read
+     */
+    public Batch newBatch( final ApplicationScope applicationScope ) {
+        return new Batch( applicationScope );
+    }
+
+
+    /**
+     * Take permits for as many of the repairs as the application's rate allows
+     *
+     * @return The number of repairs that may run
+     */
+    private int acquire( final ApplicationScope applicationScope, final int repairs ) {
+        final double repairsPerSecond = readRepairFig.getRepairsPerSecond();
+
+        if ( repairsPerSecond <= 0 ) {
+            return repairs;
+        }
+
+        final RateLimiter rateLimiter;
+
+        try {
+            rateLimiter = rateLimiters.get( applicationScope.getApplication().getUuid(),
+                () -> RateLimiter.create( repairsPerSecond ) );
+        }
+        catch ( ExecutionException e ) {
+            throw new RuntimeException( "Unable to create the read repair rate limiter", e );
+        }
+
+        int permitted = 0;
+
+        while ( permitted < repairs && rateLimiter.tryAcquire() ) {
+            permitted++;
+        }
+
+        return permitted;
+    }
+
+
+    /**
+     * Run the repairs on the repair scheduler
+     */
+    private void repair( final ApplicationScope applicationScope, final List<Repair> repairs ) {
+
+        final int permitted = acquire( applicationScope, repairs.size() );
+
+        if ( permitted < repairs.size() ) {
+            droppedMeter.mark( repairs.size() - permitted );
+
+            if ( logger.isDebugEnabled() ) {
+                logger.debug( "Dropping {} read repairs of application {}, over the rate limit",
+                    repairs.size() - permitted, applicationScope.getApplication().getUuid() );
+            }
+        }
+
+        if ( permitted == 0 ) {
+            return;
+        }
+
+        final List<Repair> toRun = repairs.subList( 0, permitted );
+
+        Observable.just( toRun ).doOnNext( batch -> {
+
+            final IndexOperationMessage deletes = new IndexOperationMessage();
+
+            for ( final Repair repair : batch ) {
+                repair.run( applicationScope, deletes );
+            }
+
+            if ( !deletes.isEmpty() ) {
+                asyncEventService.queueIndexOperationMessage( deletes, AsyncEventQueueType.DELETE );
+            }
+
+            repairMeter.mark( batch.size() );
+        } ).doOnError( t -> logger.error( "Unable to repair application {}",
+            applicationScope.getApplication().getUuid(), t ) ).onErrorResumeNext( Observable.empty() )
+                  .subscribeOn( rxTaskScheduler.getAsyncIOScheduler() ).subscribe();
+    }
+
+
+    /**
+     * Delete edges to an entity that doesn't exist, once they are older than the orphan delay
+     */
+    private void deleteOrphanedEdges( final ApplicationScope applicationScope, final Id entityId ) {
+
+        final GraphManager graphManager = graphManagerFactory.createEdgeManager( applicationScope );
+
+        // look for orphaned edges
+        String edgeTypeName = CpNamingUtils.getEdgeTypeFromCollectionName(Schema.defaultCollectionName(entityId.getType()));
+        final SearchByEdge searchByEdge =
+            new SimpleSearchByEdge( applicationScope.getApplication(), edgeTypeName, entityId, Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
+                Optional.absent() );
+
+        int edgesDeleted = 0;
+        List<MarkedEdge> edgeList = graphManager.loadEdgeVersions(searchByEdge).toList().toBlocking().last();
+        boolean timestampAllowsDelete = false;
+        if (edgeList.size() > 0) {
+            MarkedEdge firstEdge = edgeList.get(0);
+            long currentTimestamp = CpNamingUtils.createGraphOperationTimestamp();
+            long edgeTimestamp = firstEdge.getTimestamp();
+            long timestampDiff = currentTimestamp - edgeTimestamp;
+            long orphanDelaySecs = readRepairFig.getEdgeOrphanDelaySecs();
+            // timestamps are in 100 nanoseconds, convert from seconds
+            long allowedDiff = orphanDelaySecs * 1000L * 1000L * 10L;
+            if (timestampDiff > allowedDiff) {
+                timestampAllowsDelete = true;
+                // edges must be orphans, delete edges
+                for (MarkedEdge edge: edgeList) {
+                    graphManager.markEdge(edge).toBlocking().lastOrDefault(null);
+                    edgesDeleted++;
+                }
+                graphManager.deleteEdge(firstEdge).toBlocking().lastOrDefault(null);
+            }
+        }
+
+        if (edgesDeleted > 0) {
+            logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
+                + "  Deleted at least {} edges.", entityId, applicationScope.getApplication().getUuid().toString(), edgesDeleted);
+        } else if (edgeList.size() == 0) {
+            logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
+                    + "  No edges were deleted (loadEdgeVersions returned 0 edges)",
+                entityId, applicationScope.getApplication().getUuid().toString());
+        } else if (timestampAllowsDelete) {
+            logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
+                + "  Timestamp is old enough to delete, but no edges were deleted (loadEdgeVersions returned {} edges)",
+                entityId, applicationScope.getApplication().getUuid().toString(), edgeList.size());
+        } else {
+            logger.warn("Read graph edge and received candidate with entityId {} (application {}), yet was not found in cassandra."
+                + "  Ignoring since this could be a region sync issue", entityId, applicationScope.getApplication().getUuid().toString());
+        }
+    }
+
+
+    /**
+     * A single repair, run on the repair scheduler
+     */
+    private interface Repair {
+
+        /**
+         * Run the repair, adding the index deletes it needs to the message. Deletes that can be large are queued on
+         * their own instead
+         */
+        void run( ApplicationScope applicationScope, IndexOperationMessage deletes );
+    }
+
+
+    /**
+     * The repairs found by one read.  Adding is cheap and doesn't perform I/O, the repairs run once the batch is
+     * flushed.  A repair found after the flush, by an edge still being read when the traversal stopped, runs on its
+     * own.
+     */
+    public final class Batch {
+
+        private final ApplicationScope applicationScope;
+
+        //keyed so the same repair found on several edges runs once
+        private final Map<String, Repair> repairs = new LinkedHashMap<>();
+
+        //the keys of every repair taken by this batch, flushed or not
+        private final Set<String> added = new HashSet<>();
+
+        private boolean flushed = false;
+
+
+        private Batch( final ApplicationScope applicationScope ) {
+            this.applicationScope = applicationScope;
+        }
+
+
+        /**
+         * Delete an edge that was marked deleted
+         */
+        public void deleteEdge( final MarkedEdge edge ) {
+            add( "edge:" + edge.getSourceNode() + ":" + edge.getType() + ":" + edge.getTargetNode() + ":"
+                    + edge.getTimestamp(),
+                ( scope, deletes ) -> deletes.ingest( eventBuilder.buildDeleteEdge( scope, edge ) ) );
+        }
+
+
+        /**
+         * Delete an entity that was marked deleted
+         */
+        public void deleteEntity( final Id entityId ) {
+            add( "entity:" + entityId,
+                ( scope, deletes ) -> eventBuilder.buildEntityDelete( scope, entityId ).toBlocking().forEach(
+                    page -> asyncEventService.queueIndexOperationMessage( page, AsyncEventQueueType.DELETE ) ) );
+        }
+
+
+        /**
+         * Delete the edges to an entity that was read from the graph but doesn't exist
+         */
+        public void deleteOrphanedEdges( final Id entityId ) {
+            add( "orphan:" + entityId, ( scope, deletes ) -> ReadRepairService.this.deleteOrphanedEdges( scope, entityId ) );
+        }
+
+
+        private void add( final String key, final Repair repair ) {
+
+            synchronized ( this ) {
+                if ( added.contains( key ) ) {
+                    return;
+                }
+
+                //bound what a single read holds on to, what's left is found again on a later read
+                if ( added.size() >= readRepairFig.getMaxRepairsPerRead() ) {
+                    droppedMeter.mark();
+
+                    if ( logger.isDebugEnabled() ) {
+                        logger.debug( "Dropping read repair {}, over {} repairs for a read", key,
+                            readRepairFig.getMaxRepairsPerRead() );
+                    }
+
+                    return;
+                }
+
+                added.add( key );
+
+                if ( !flushed ) {
+                    repairs.put( key, repair );
+                    return;
+                }
+            }
+
+            repair( applicationScope, Collections.singletonList( repair ) );
+        }
+
+
+        /**
+         * Run the repairs collected so far in the background.  Repairs added later run as they are added.
+         */
+        public void flush() {
+            final List<Repair> toRun;
+
+            synchronized ( this ) {
+                if ( flushed ) {
+                    return;
+                }
+
+                flushed = true;
+                toRun = new ArrayList<>( repairs.values() );
+                repairs.clear();
+            }
+
+            if ( !toRun.isEmpty() ) {
+                repair( applicationScope, toRun );
+            }
+        }
+    }
+}
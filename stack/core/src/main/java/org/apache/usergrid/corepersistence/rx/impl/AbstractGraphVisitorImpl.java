@@ -22,6 +22,7 @@ package org.apache.usergrid.corepersistence.rx.impl;
 
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
 import org.apache.usergrid.persistence.core.migration.data.MigrationDataProvider;
+import org.apache.usergrid.persistence.core.migration.data.MigrationPartition;
 
 import com.google.inject.Inject;
 
@@ -54,6 +55,14 @@ public abstract class AbstractGraphVisitorImpl<T> implements MigrationDataProvid
     }
 
 
+    @Override
+    public Observable<MigrationPartition<T>> getPartitions() {
+        return allEntityIdsObservable.getEntityPartitions( applicationObservable.getData() ).map(
+            partition -> new MigrationPartition<>( partition.getKey(),
+                partition.getData().map( entityIdScope -> generateData( entityIdScope ) ) ) );
+    }
+
+
     /**
      * Generate the data for the observable stream from the scope and the node id
      * @param entityIdScope
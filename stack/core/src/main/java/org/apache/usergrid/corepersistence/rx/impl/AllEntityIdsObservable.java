@@ -23,6 +23,7 @@ package org.apache.usergrid.corepersistence.rx.impl;
 import  com.google.common.base.Optional;
 
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
+import org.apache.usergrid.persistence.core.migration.data.MigrationPartition;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.graph.Edge;
 
@@ -41,6 +42,14 @@ public interface AllEntityIdsObservable {
      */
     Observable<EntityIdScope> getEntities( final Observable<ApplicationScope> appScopes );
 
+    /**
+     * Return the same entities as getEntities, split into a partition for the application node and a partition for
+     * each edge type from the application node
+     * @param appScopes
+     * @return An observable of partitions of entityId scopes
+     */
+    Observable<MigrationPartition<EntityIdScope>> getEntityPartitions( final Observable<ApplicationScope> appScopes );
+
     /**
      * Get all edges that represent edges to entities in the system
      * @param appScopes
@@ -27,10 +27,14 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
+import org.apache.usergrid.persistence.core.migration.data.MigrationPartition;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.graph.Edge;
 import org.apache.usergrid.persistence.graph.GraphManager;
 import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.graph.SearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleSearchEdgeType;
 import org.apache.usergrid.persistence.graph.serialization.EdgesObservable;
 import org.apache.usergrid.persistence.graph.serialization.TargetIdObservable;
 import org.apache.usergrid.persistence.model.entity.Id;
@@ -81,6 +85,32 @@ public class AllEntityIdsObservableImpl implements AllEntityIdsObservable {
     }
 
 
+    @Override
+    public Observable<MigrationPartition<EntityIdScope>> getEntityPartitions(
+        final Observable<ApplicationScope> appScopes ) {
+
+        return appScopes.flatMap( applicationScope -> {
+            final GraphManager gm = graphManagerFactory.createEdgeManager( applicationScope );
+            final Id applicationId = applicationScope.getApplication();
+            final String applicationKey = applicationId.getUuid().toString();
+
+            //the application node is an entity as well
+            final MigrationPartition<EntityIdScope> applicationPartition = new MigrationPartition<>( applicationKey,
+                Observable.just( new EntityIdScope( applicationScope, applicationId ) ) );
+
+            //the entities of each edge type are read on their own, so large applications are split up
+            final Observable<MigrationPartition<EntityIdScope>> edgeTypePartitions =
+                gm.getEdgeTypesFromSource( new SimpleSearchEdgeType( applicationId, null, null ) ).map(
+                    edgeType -> new MigrationPartition<>( applicationKey + "/" + edgeType, gm.loadEdgesFromSource(
+                        new SimpleSearchByEdgeType( applicationId, edgeType, Long.MAX_VALUE,
+                            SearchByEdgeType.Order.DESCENDING, Optional.<Edge>absent(), true ) )
+                        .map( edge -> new EntityIdScope( applicationScope, edge.getTargetNode() ) ) ) );
+
+            return Observable.concat( Observable.just( applicationPartition ), edgeTypePartitions );
+        } );
+    }
+
+
     @Override
     public Observable<EdgeScope> getEdgesToEntities( final Observable<ApplicationScope> appScopes, final Optional<String> edgeType, final Optional<Edge> lastEdge) {
 
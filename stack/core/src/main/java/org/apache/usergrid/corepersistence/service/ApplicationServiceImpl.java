@@ -21,6 +21,7 @@ package org.apache.usergrid.corepersistence.service;
 
 import com.google.common.base.Optional;
 import com.google.inject.Inject;
+import org.apache.usergrid.corepersistence.EntityTypeCache;
 import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
 import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
 import org.apache.usergrid.corepersistence.index.CollectionSettings;
@@ -63,6 +64,7 @@ public class ApplicationServiceImpl  implements ApplicationService{
     private final GraphManagerFactory graphManagerFactory;
     private final CollectionSettingsFactory collectionSettingsFactory;
     private final ActorSystemFig actorSystemFig;
+    private final EntityTypeCache entityTypeCache;
 
 
     @Inject
@@ -73,7 +75,8 @@ public class ApplicationServiceImpl  implements ApplicationService{
                                   MapManagerFactory mapManagerFactory,
                                   GraphManagerFactory graphManagerFactory,
                                   CollectionSettingsFactory collectionSettingsFactory,
-                                  ActorSystemFig actorSystemFig
+                                  ActorSystemFig actorSystemFig,
+                                  EntityTypeCache entityTypeCache
     ){
 
         this.allEntityIdsObservable = allEntityIdsObservable;
@@ -84,6 +87,7 @@ public class ApplicationServiceImpl  implements ApplicationService{
         this.graphManagerFactory = graphManagerFactory;
         this.collectionSettingsFactory = collectionSettingsFactory;
         this.actorSystemFig = actorSystemFig;
+        this.entityTypeCache = entityTypeCache;
     }
 
 
@@ -141,6 +145,7 @@ public class ApplicationServiceImpl  implements ApplicationService{
             //Step 6
             //delete from our UUID index
             mapManager.delete(entityId.getUuid().toString());
+            entityTypeCache.invalidate(applicationScope.getApplication().getUuid(), entityId.getUuid());
             return entityId;
         }catch (Exception e){
             throw new RuntimeException(e);
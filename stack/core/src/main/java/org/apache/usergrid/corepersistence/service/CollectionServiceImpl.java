@@ -18,6 +18,7 @@
 package org.apache.usergrid.corepersistence.service;
 
 
+import org.apache.usergrid.corepersistence.pipeline.PagePrefetcher;
 import org.apache.usergrid.corepersistence.pipeline.builder.EntityBuilder;
 import org.apache.usergrid.corepersistence.pipeline.builder.IdBuilder;
 import org.apache.usergrid.corepersistence.pipeline.builder.PipelineBuilderFactory;
@@ -42,17 +43,40 @@ public class CollectionServiceImpl implements CollectionService {
 
 
     private final PipelineBuilderFactory pipelineBuilderFactory;
+    private final PagePrefetcher pagePrefetcher;
 
 
     @Inject
-    public CollectionServiceImpl( final PipelineBuilderFactory pipelineBuilderFactory ) {
+    public CollectionServiceImpl( final PipelineBuilderFactory pipelineBuilderFactory,
+                                  final PagePrefetcher pagePrefetcher ) {
         this.pipelineBuilderFactory = pipelineBuilderFactory;
+        this.pagePrefetcher = pagePrefetcher;
     }
 
 
     @Override
     public Observable<ResultsPage<Entity>> searchCollection( final CollectionSearch search ) {
 
+        //analyze and return query requests aren't paged by clients, don't read ahead
+        if ( search.getAnalyzeOnly() || search.getReturnQuery() ) {
+            return buildCollectionPage( search, search.getCursor() );
+        }
+
+        final String queryKey =
+            "collection:" + search.getApplicationScope().getApplication().getUuid() + ":" + search
+                .getCollectionOwnerId().getUuid() + ":" + search.getCollectionName() + ":" + search.getLimit() + ":"
+                + search.getKeepStaleEntries() + ":" + search.getQuery().or( "" );
+
+        return pagePrefetcher
+            .loadPage( queryKey, search.getCursor(), cursor -> buildCollectionPage( search, cursor ) );
+    }
+
+
+    /**
+     * Build the pipeline for the page of the search at the given cursor
+     */
+    private Observable<ResultsPage<Entity>> buildCollectionPage( final CollectionSearch search,
+                                                                 final Optional<String> cursor ) {
 
         final ApplicationScope applicationScope = search.getApplicationScope();
         final String collectionName = search.getCollectionName();
@@ -60,7 +84,7 @@ public class CollectionServiceImpl implements CollectionService {
 
         final IdBuilder pipelineBuilder =
             pipelineBuilderFactory.create( applicationScope )
-                .withCursor( search.getCursor() )
+                .withCursor( cursor )
                 .withLimit( search.getLimit() )
                 .keepStaleEntries(search.getKeepStaleEntries())
                 .query(query)
@@ -21,6 +21,7 @@ package org.apache.usergrid.corepersistence.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.usergrid.corepersistence.pipeline.PagePrefetcher;
 import org.apache.usergrid.corepersistence.pipeline.builder.EntityBuilder;
 import org.apache.usergrid.corepersistence.pipeline.builder.IdBuilder;
 import org.apache.usergrid.corepersistence.pipeline.builder.PipelineBuilderFactory;
@@ -56,20 +57,44 @@ public class ConnectionServiceImpl implements ConnectionService {
     private final PipelineBuilderFactory pipelineBuilderFactory;
     private final AllEntityIdsObservable allEntityIdsObservable;
     private final GraphManagerFactory graphManagerFactory;
+    private final PagePrefetcher pagePrefetcher;
 
 
     @Inject
     public ConnectionServiceImpl( final PipelineBuilderFactory pipelineBuilderFactory,
                                   final AllEntityIdsObservable allEntityIdsObservable,
-                                  final GraphManagerFactory graphManagerFactory ) {
+                                  final GraphManagerFactory graphManagerFactory,
+                                  final PagePrefetcher pagePrefetcher ) {
         this.pipelineBuilderFactory = pipelineBuilderFactory;
         this.allEntityIdsObservable = allEntityIdsObservable;
         this.graphManagerFactory = graphManagerFactory;
+        this.pagePrefetcher = pagePrefetcher;
     }
 
 
     @Override
     public Observable<ResultsPage<Entity>> searchConnection( final ConnectionSearch search ) {
+
+        //analyze and return query requests aren't paged by clients, don't read ahead
+        if ( search.getAnalyzeOnly() || search.getReturnQuery() ) {
+            return buildConnectionPage( search, search.getCursor() );
+        }
+
+        final String queryKey =
+            "connection:" + search.getApplicationScope().getApplication().getUuid() + ":" + search.getSourceNodeId()
+                .getUuid() + ":" + search.getConnectionName() + ":" + search.getEntityType().or( "" ) + ":" + search
+                .getIsConnecting() + ":" + search.getLimit() + ":" + search.getQuery().or( "" );
+
+        return pagePrefetcher
+            .loadPage( queryKey, search.getCursor(), cursor -> buildConnectionPage( search, cursor ) );
+    }
+
+
+    /**
+     * Build the pipeline for the page of the search at the given cursor
+     */
+    private Observable<ResultsPage<Entity>> buildConnectionPage( final ConnectionSearch search,
+                                                                 final Optional<String> cursor ) {
         //set startid -- graph | es query filter -- load entities filter (verifies exists) --> results page collector
         // -> 1.0 results
 
@@ -85,7 +110,7 @@ public class ConnectionServiceImpl implements ConnectionService {
 
         final IdBuilder pipelineBuilder =
             pipelineBuilderFactory.create( search.getApplicationScope() )
-            	.withCursor( search.getCursor() )
+            	.withCursor( cursor )
             	.withLimit( search.getLimit() )
             	.query(query)
             	.fromId( search.getSourceNodeId() );
@@ -33,6 +33,7 @@ import java.util.UUID;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import org.apache.usergrid.persistence.Schema;
+import org.apache.usergrid.persistence.TypedEntityAccessor;
 import org.apache.usergrid.persistence.model.collection.SchemaManager;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.EntityToMapConverter;
@@ -105,4 +106,34 @@ public class CpEntityMapUtils {
 
     }
 
+
+    /**
+     * Copy the fields of a CP entity onto a usergrid 1.0 entity. Each field is converted and set on the entity
+     * through its resolved accessor, without building a map of the whole entity first.
+     */
+    public static void copyToEntity( EntityObject cpEntity, org.apache.usergrid.persistence.Entity entity ) {
+
+        final Schema schema = Schema.getDefaultSchema();
+        final TypedEntityAccessor accessor = schema.getEntityAccessor( entity.getClass() );
+
+        Map<String, Object> metadata = null;
+
+        for ( Field field : cpEntity.getFields() ) {
+            if ( field instanceof DistanceField ) {
+                //distance is not a value of the entity, it is returned in the metadata
+                if ( metadata == null ) {
+                    metadata = new HashMap<>();
+                }
+                metadata.put( DistanceField.NAME, field.getValue() );
+            }
+            else if ( !entityConverter.isSkipped( field ) ) {
+                schema.setEntityProperty( accessor, entity, field.getName(), entityConverter.toValue( field ) );
+            }
+        }
+
+        if ( metadata != null ) {
+            schema.setEntityProperty( accessor, entity, "metadata", metadata );
+        }
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.count;
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.count.common.Count;
+import org.apache.usergrid.persistence.cassandra.CassandraCqlService;
+
+import com.datastax.driver.core.ResultSet;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+
+
+/**
+ * Counter writes to Cassandra with the shared DataStax session.  The batch is written asynchronously, so the batch
+ * submitter isn't held up waiting on Cassandra.
+ */
+public class DataStaxCounterStore implements CounterStore {
+    private static final Logger logger = LoggerFactory.getLogger( DataStaxCounterStore.class );
+
+    // keep track of exceptions thrown writing counters so we can reduce noise in logs
+    private final ConcurrentMap<String, AtomicInteger> counterInsertFailures = new ConcurrentHashMap<>();
+
+    private final CassandraCqlService cqlService;
+
+
+    public DataStaxCounterStore( CassandraCqlService cqlService ) {
+        this.cqlService = cqlService;
+    }
+
+
+    public void save( Count count ) {
+        this.save( Arrays.asList( count ) );
+    }
+
+
+    public void save( Collection<Count> counts ) {
+        Map<String, Count> countHolder = new HashMap<String, Count>();
+        for ( Count count : counts ) {
+            Count c = countHolder.get( count.getCounterName() );
+            if ( c != null ) {
+                c.apply( count );
+            }
+            else {
+                countHolder.put( count.getCounterName(), count );
+            }
+        }
+
+        if ( countHolder.isEmpty() ) {
+            return;
+        }
+
+        Futures.addCallback( cqlService.incrementCounters( countHolder.values() ), new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess( final ResultSet result ) {
+                if ( logger.isTraceEnabled() ) {
+                    logger.trace( "Incremented {} counters", countHolder.size() );
+                }
+            }
+
+
+            @Override
+            public void onFailure( final Throwable t ) {
+
+                // errors here happen a lot on shutdown, don't fill the logs with them
+                String error = t.getClass().getCanonicalName();
+                int count = counterInsertFailures.computeIfAbsent( error, e -> new AtomicInteger() )
+                                                 .incrementAndGet();
+
+                if ( count == 1 ) {
+                    logger.error( "CounterStore insert failed, first instance", t );
+                }
+                else {
+                    logger.error( "{} caused CounterStore insert failure, count = {}", error, count, t );
+                }
+            }
+        } );
+    }
+}
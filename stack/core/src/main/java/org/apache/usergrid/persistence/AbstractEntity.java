@@ -185,7 +185,8 @@ public abstract class AbstractEntity implements Entity {
 
     @Override
     public void setProperties(org.apache.usergrid.persistence.model.entity.Entity cpEntity){
-        setProperties( CpEntityMapUtils.toMap(cpEntity) );
+        dynamic_properties = new TreeMap<String, Object>( String.CASE_INSENSITIVE_ORDER );
+        CpEntityMapUtils.copyToEntity( cpEntity, this );
         this.setSize(cpEntity.getSize());
     }
 
@@ -72,7 +72,12 @@ public class EntityFactory {
         }
         else {
             try {
-                A entity = entityClass.newInstance();
+                // registered classes are created through their resolved constructor
+                TypedEntityAccessor accessor = Schema.getDefaultSchema().getEntityAccessor( entityClass );
+                A entity = accessor != null ? accessor.newInstance() : null;
+                if ( entity == null ) {
+                    entity = entityClass.newInstance();
+                }
                 entity.setUuid( id );
                 entity.setType( type );
                 return entity;
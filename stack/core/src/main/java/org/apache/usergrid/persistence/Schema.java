@@ -216,6 +216,9 @@ public class Schema implements SchemaManager {
     private final Map<Class<? extends Entity>, Map<String, PropertyDescriptor>> entityClassPropertyToDescriptor =
             new ConcurrentHashMap<Class<? extends Entity>, Map<String, PropertyDescriptor>>();
 
+    private final Map<Class<? extends Entity>, TypedEntityAccessor> entityClassAccessors =
+            new ConcurrentHashMap<Class<? extends Entity>, TypedEntityAccessor>();
+
     private final Map<Class<? extends Entity>, EntityInfo> registeredEntityClasses =
             new ConcurrentHashMap<Class<? extends Entity>, EntityInfo>();
 
@@ -416,6 +419,9 @@ public class Schema implements SchemaManager {
 
             entityClassPropertyToDescriptor.put( entityClass, propertyDescriptors );
 
+            // resolve the constructor and property accessors once, instead of reflecting on every get and set
+            entityClassAccessors.put( entityClass, TypedEntityAccessor.create( entityClass, propertyDescriptors ) );
+
             registeredEntityClasses.put( entityClass, entity );
         }
     }
@@ -1469,41 +1475,60 @@ public class Schema implements SchemaManager {
     }
 
 
+    /**
+     * @return The accessors of the entity class, or null if the class has not been registered
+     */
+    public TypedEntityAccessor getEntityAccessor( Class<? extends Entity> entityClass ) {
+        return entityClassAccessors.get( entityClass );
+    }
+
+
     public void setEntityProperty( Entity entity, String property, Object value ) {
-        PropertyDescriptor descriptor = getDescriptorForEntityProperty( entity.getClass(), property );
-        if ( descriptor != null ) {
-            Class<?> cls = descriptor.getPropertyType();
-            if ( cls != null ) {
-                if ( ( value == null ) || ( cls.isAssignableFrom( value.getClass() ) ) ) {
-                    try {
-                        descriptor.getWriteMethod().invoke( entity, value );
-                        return;
-                    }
-                    catch ( Exception e ) {
-                        logger.error( "Unable to set entity property {}", property, e );
-                    }
-                }
+        setEntityProperty( getEntityAccessor( entity.getClass() ), entity, property, value );
+    }
+
+
+    /**
+     * Set the property with the accessors already resolved for the entity class, for callers setting many
+     * properties of the same entity
+     */
+    public void setEntityProperty( TypedEntityAccessor accessor, Entity entity, String property, Object value ) {
+        TypedEntityAccessor.PropertyAccessor propertyAccessor =
+                accessor != null ? accessor.getProperty( property ) : null;
+        if ( ( propertyAccessor != null ) && propertyAccessor.isWritable() ) {
+            if ( propertyAccessor.isAssignable( value ) ) {
                 try {
-                    descriptor.getWriteMethod().invoke( entity, mapper.convertValue( value, cls ) );
+                    propertyAccessor.set( entity, value );
                     return;
                 }
-                catch ( Exception e ) {
+                catch ( Throwable e ) {
                     logger.error( "Unable to set entity property {}", property, e );
                 }
             }
+            try {
+                propertyAccessor.set( entity, mapper.convertValue( value, propertyAccessor.getType() ) );
+                return;
+            }
+            catch ( Throwable e ) {
+                logger.error( "Unable to set entity property {}", property, e );
+            }
         }
         entity.setDynamicProperty( property, value );
     }
 
 
     public Object getEntityProperty( Entity entity, String property ) {
-        PropertyDescriptor descriptor = getDescriptorForEntityProperty( entity.getClass(), property );
-        if ( descriptor != null ) {
-            try {
-                return descriptor.getReadMethod().invoke( entity );
-            }
-            catch ( Exception e ) {
-                logger.error( "Unable to get entity property {}", property, e );
+        TypedEntityAccessor accessor = entityClassAccessors.get( entity.getClass() );
+        TypedEntityAccessor.PropertyAccessor propertyAccessor =
+                accessor != null ? accessor.getProperty( property ) : null;
+        if ( propertyAccessor != null ) {
+            if ( propertyAccessor.isReadable() ) {
+                try {
+                    return propertyAccessor.get( entity );
+                }
+                catch ( Throwable e ) {
+                    logger.error( "Unable to get entity property {}", property, e );
+                }
             }
             return null;
         }
@@ -1517,25 +1542,23 @@ public class Schema implements SchemaManager {
 
     public Map<String, Object> getEntityProperties( Entity entity ) {
         Map<String, Object> properties = new LinkedHashMap<String, Object>();
-        Map<String, PropertyDescriptor> propertyDescriptors = entityClassPropertyToDescriptor.get( entity.getClass() );
+        TypedEntityAccessor accessor = entityClassAccessors.get( entity.getClass() );
 
-        if ( propertyDescriptors == null ) {
+        if ( accessor == null ) {
             registerEntity( entity.getClass() );
-            propertyDescriptors = entityClassPropertyToDescriptor.get( entity.getClass() );
+            accessor = entityClassAccessors.get( entity.getClass() );
         }
 
-        for ( Entry<String, PropertyDescriptor> propertyEntry : propertyDescriptors.entrySet() ) {
-            String property = propertyEntry.getKey();
-            PropertyDescriptor descriptor = propertyEntry.getValue();
-            if ( descriptor != null ) {
+        for ( TypedEntityAccessor.PropertyAccessor propertyAccessor : accessor.getProperties() ) {
+            if ( propertyAccessor.isReadable() ) {
                 try {
-                    Object value = descriptor.getReadMethod().invoke( entity );
+                    Object value = propertyAccessor.get( entity );
                     if ( value != null ) {
-                        properties.put( property, value );
+                        properties.put( propertyAccessor.getName(), value );
                     }
                 }
-                catch ( Exception e ) {
-                    logger.error( "Unable to get entity property {}", property, e );
+                catch ( Throwable e ) {
+                    logger.error( "Unable to get entity property {}", propertyAccessor.getName(), e );
                 }
             }
         }
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.primitives.Primitives;
+
+
+/**
+ * The constructor and property accessors of a registered entity class, resolved once when the class is registered
+ * with the {@link Schema}. The method handles are adapted to a generic signature, so reading and writing a property
+ * is a direct call instead of a reflective lookup and invoke.
+ */
+public class TypedEntityAccessor {
+
+    private static final Logger logger = LoggerFactory.getLogger( TypedEntityAccessor.class );
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType( Object.class );
+    private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+    private static final MethodType SETTER_TYPE = MethodType.methodType( void.class, Object.class, Object.class );
+
+    private final Class<? extends Entity> entityClass;
+    private final MethodHandle constructor;
+    private final Map<String, PropertyAccessor> properties;
+
+
+    private TypedEntityAccessor( final Class<? extends Entity> entityClass, final MethodHandle constructor,
+                                 final Map<String, PropertyAccessor> properties ) {
+        this.entityClass = entityClass;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+
+    /**
+     * Resolve the accessors of the entity class for the properties the schema found on it
+     *
+     * @param entityClass The entity class
+     * @param propertyDescriptors The entity properties by name
+     */
+    public static TypedEntityAccessor create( final Class<? extends Entity> entityClass,
+                                              final Map<String, PropertyDescriptor> propertyDescriptors ) {
+
+        MethodHandle constructor = null;
+        try {
+            constructor = LOOKUP.findConstructor( entityClass, MethodType.methodType( void.class ) )
+                                .asType( CONSTRUCTOR_TYPE );
+        }
+        catch ( NoSuchMethodException | IllegalAccessException e ) {
+            logger.debug( "No accessible default constructor for {}, falling back to reflection", entityClass );
+        }
+
+        final Map<String, PropertyAccessor> properties = new LinkedHashMap<>( propertyDescriptors.size() );
+
+        for ( Map.Entry<String, PropertyDescriptor> entry : propertyDescriptors.entrySet() ) {
+            final PropertyDescriptor descriptor = entry.getValue();
+
+            properties.put( entry.getKey(),
+                new PropertyAccessor( entry.getKey(), descriptor.getPropertyType(),
+                    unreflect( descriptor.getReadMethod(), GETTER_TYPE ),
+                    unreflect( descriptor.getWriteMethod(), SETTER_TYPE ) ) );
+        }
+
+        return new TypedEntityAccessor( entityClass, constructor, Collections.unmodifiableMap( properties ) );
+    }
+
+
+    private static MethodHandle unreflect( final Method method, final MethodType type ) {
+        if ( method == null ) {
+            return null;
+        }
+
+        try {
+            return LOOKUP.unreflect( method ).asType( type );
+        }
+        catch ( IllegalAccessException e ) {
+            logger.warn( "Unable to access {}, property will not be available", method );
+            return null;
+        }
+    }
+
+
+    public Class<? extends Entity> getEntityClass() {
+        return entityClass;
+    }
+
+
+    /**
+     * Create a new instance of the entity class
+     *
+     * @return The new entity, or null if the class has no accessible default constructor
+     */
+    @SuppressWarnings( "unchecked" )
+    public <A extends Entity> A newInstance() {
+        if ( constructor == null ) {
+            return null;
+        }
+
+        try {
+            return ( A ) ( Object ) constructor.invokeExact();
+        }
+        catch ( RuntimeException | Error e ) {
+            throw e;
+        }
+        catch ( Throwable t ) {
+            throw new RuntimeException( "Unable to instantiate " + entityClass, t );
+        }
+    }
+
+
+    /**
+     * @return The accessor of the named property, or null if it is not a property of the entity class
+     */
+    public PropertyAccessor getProperty( final String name ) {
+        return properties.get( name );
+    }
+
+
+    public Collection<PropertyAccessor> getProperties() {
+        return properties.values();
+    }
+
+
+    /**
+     * Reads and writes a single property of the entity
+     */
+    public static final class PropertyAccessor {
+
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> boxedType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+
+        private PropertyAccessor( final String name, final Class<?> type, final MethodHandle getter,
+                                  final MethodHandle setter ) {
+            this.name = name;
+            this.type = type;
+            this.boxedType = type != null ? Primitives.wrap( type ) : null;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+
+        public String getName() {
+            return name;
+        }
+
+
+        /**
+         * @return The declared type of the property
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+
+        /**
+         * @return True if the value can be set as is, without converting it to the property type first
+         */
+        public boolean isAssignable( final Object value ) {
+            return value == null ? !type.isPrimitive() : boxedType.isInstance( value );
+        }
+
+
+        public boolean isReadable() {
+            return getter != null;
+        }
+
+
+        public boolean isWritable() {
+            return setter != null && type != null;
+        }
+
+
+        public Object get( final Entity entity ) throws Throwable {
+            return ( Object ) getter.invokeExact( ( Object ) entity );
+        }
+
+
+        public void set( final Entity entity, final Object value ) throws Throwable {
+            setter.invokeExact( ( Object ) entity, value );
+        }
+    }
+}
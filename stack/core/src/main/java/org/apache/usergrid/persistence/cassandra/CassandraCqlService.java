@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.cassandra;
+
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.count.common.Count;
+import org.apache.usergrid.persistence.core.CassandraConfig;
+import org.apache.usergrid.persistence.core.datastax.CQLUtils;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import me.prettyprint.hector.api.beans.DynamicComposite;
+
+import static org.apache.usergrid.utils.ConversionUtils.bytebuffer;
+
+
+/**
+ * Reads and writes the legacy counter and dictionary column families with the shared DataStax session.  The column
+ * families were created through thrift, so CQL sees each of them as a compact table with the columns key, column1
+ * and value, and the rows written by Hector are read and written in place.
+ * <p>
+ * Hector prefixes the row keys of an application with the application id, the same prefix is added here.
+ */
+public class CassandraCqlService {
+
+    private static final Logger logger = LoggerFactory.getLogger( CassandraCqlService.class );
+
+    private static final String SELECT_ROW =
+        "SELECT column1, value FROM %s WHERE key = ? LIMIT " + CassandraService.ALL_COUNT;
+
+    private static final String SELECT_COLUMN = "SELECT column1, value FROM %s WHERE key = ? AND column1 = ?";
+
+    private static final String SELECT_RANGE =
+        "SELECT column1, value FROM %s WHERE key = ? AND column1 >= ? AND column1 <= ? LIMIT "
+            + CassandraService.ALL_COUNT;
+
+    private static final String INCREMENT_COUNTER = "UPDATE %s SET value = value + ? WHERE key = ? AND column1 = ?";
+
+    private static final String INSERT_COLUMN =
+        "INSERT INTO %s (key, column1, value) VALUES (?, ?, ?) USING TIMESTAMP ?";
+
+    private static final String DELETE_COLUMN = "DELETE FROM %s USING TIMESTAMP ? WHERE key = ? AND column1 = ?";
+
+    private static final int UUID_LENGTH = 16;
+
+    private final Session session;
+    private final CassandraConfig cassandraConfig;
+
+    private final ConcurrentMap<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+
+    public CassandraCqlService( final Session session, final CassandraConfig cassandraConfig ) {
+        this.session = session;
+        this.cassandraConfig = cassandraConfig;
+    }
+
+
+    /**
+     * Increment the counters in a single counter batch.  The key names of the counts are already prefixed.
+     */
+    public ListenableFuture<ResultSet> incrementCounters( final Collection<Count> counts ) {
+
+        final BatchStatement batch = new BatchStatement( BatchStatement.Type.COUNTER );
+
+        for ( Count count : counts ) {
+            final BoundStatement statement = prepare( INCREMENT_COUNTER, count.getTableName() ).bind();
+            statement.setLong( 0, count.getValue() );
+            statement.setBytesUnsafe( 1, count.getKeyNameBytes() );
+            statement.setBytesUnsafe( 2, count.getColumnNameBytes() );
+            batch.add( statement );
+        }
+
+        batch.setConsistencyLevel( cassandraConfig.getDataStaxWriteCl() );
+
+        return session.executeAsync( batch );
+    }
+
+
+    /**
+     * Execute the column writes in a single unlogged batch, the same way Hector sends a mutator's batch
+     */
+    public ListenableFuture<ResultSet> executeWrites( final Collection<? extends Statement> writes ) {
+
+        final BatchStatement batch = new BatchStatement( BatchStatement.Type.UNLOGGED );
+        batch.addAll( writes );
+        batch.setConsistencyLevel( cassandraConfig.getDataStaxWriteCl() );
+
+        return session.executeAsync( batch );
+    }
+
+
+    /**
+     * The insert of a column of the application's row.  List names and values are written as dynamic composites,
+     * the way {@link CassandraPersistenceUtils#addInsertToMutator} writes them.
+     */
+    public Statement insertColumn( final UUID applicationId, final Object columnFamily, final Object key,
+                                   final Object columnName, final Object columnValue, final long timestamp ) {
+
+        final BoundStatement statement = prepare( INSERT_COLUMN, columnFamily ).bind();
+        statement.setBytesUnsafe( 0, rowKey( applicationId, key ) );
+        statement.setBytesUnsafe( 1, toBytes( columnName ) );
+        statement.setBytesUnsafe( 2, toBytes( columnValue ) );
+        statement.setLong( 3, timestamp );
+
+        return statement;
+    }
+
+
+    /**
+     * The delete of a column of the application's row, see {@link CassandraPersistenceUtils#addDeleteToMutator}
+     */
+    public Statement deleteColumn( final UUID applicationId, final Object columnFamily, final Object key,
+                                   final Object columnName, final long timestamp ) {
+
+        final BoundStatement statement = prepare( DELETE_COLUMN, columnFamily ).bind();
+        statement.setLong( 0, timestamp );
+        statement.setBytesUnsafe( 1, rowKey( applicationId, key ) );
+        statement.setBytesUnsafe( 2, toBytes( columnName ) );
+
+        return statement;
+    }
+
+
+    /**
+     * Get every column of the application's row, in column order
+     */
+    public ListenableFuture<Map<ByteBuffer, ByteBuffer>> getAllColumns( final UUID applicationId,
+                                                                        final Object columnFamily,
+                                                                        final Object key ) {
+
+        final BoundStatement statement = prepare( SELECT_ROW, columnFamily ).bind();
+        statement.setBytesUnsafe( 0, rowKey( applicationId, key ) );
+
+        return Futures.transform( execute( statement ), CassandraCqlService::toColumns );
+    }
+
+
+    /**
+     * Get a single column of the application's row
+     *
+     * @return The value of the column, or null if it does not exist
+     */
+    public ListenableFuture<ByteBuffer> getColumn( final UUID applicationId, final Object columnFamily,
+                                                   final Object key, final ByteBuffer column ) {
+
+        final BoundStatement statement = prepare( SELECT_COLUMN, columnFamily ).bind();
+        statement.setBytesUnsafe( 0, rowKey( applicationId, key ) );
+        statement.setBytesUnsafe( 1, column );
+
+        return Futures.transform( execute( statement ), ( ResultSet resultSet ) -> {
+            final Row row = resultSet.one();
+            return row != null ? row.getBytesUnsafe( "value" ) : null;
+        } );
+    }
+
+
+    /**
+     * Get the named columns of the application's row.  Each column is read in parallel, missing columns are not in
+     * the returned map.
+     */
+    public ListenableFuture<Map<ByteBuffer, ByteBuffer>> getColumns( final UUID applicationId,
+                                                                     final Object columnFamily, final Object key,
+                                                                     final ByteBuffer... columns ) {
+
+        final List<ListenableFuture<ByteBuffer>> values = new ArrayList<>( columns.length );
+
+        for ( ByteBuffer column : columns ) {
+            values.add( getColumn( applicationId, columnFamily, key, column ) );
+        }
+
+        return Futures.transform( Futures.allAsList( values ), ( List<ByteBuffer> results ) -> {
+            final Map<ByteBuffer, ByteBuffer> found = new LinkedHashMap<>( columns.length );
+
+            for ( int i = 0; i < columns.length; i++ ) {
+                if ( results.get( i ) != null ) {
+                    found.put( columns[i], results.get( i ) );
+                }
+            }
+
+            return found;
+        } );
+    }
+
+
+    /**
+     * Get the counters of the application's row, in column order
+     *
+     * @param start The first column of the range, or null to read the whole row
+     * @param finish The last column of the range, or null to read the whole row
+     */
+    public ListenableFuture<Map<ByteBuffer, Long>> getCounterColumns( final UUID applicationId,
+                                                                      final Object columnFamily, final Object key,
+                                                                      final ByteBuffer start,
+                                                                      final ByteBuffer finish ) {
+
+        final BoundStatement statement;
+
+        if ( start == null || finish == null ) {
+            statement = prepare( SELECT_ROW, columnFamily ).bind();
+        }
+        else {
+            statement = prepare( SELECT_RANGE, columnFamily ).bind();
+            statement.setBytesUnsafe( 1, start );
+            statement.setBytesUnsafe( 2, finish );
+        }
+
+        statement.setBytesUnsafe( 0, rowKey( applicationId, key ) );
+
+        return Futures.transform( execute( statement ), ( ResultSet resultSet ) -> {
+            final Map<ByteBuffer, Long> counters = new LinkedHashMap<>();
+
+            for ( Row row : resultSet ) {
+                counters.put( row.getBytesUnsafe( "column1" ), row.getLong( "value" ) );
+            }
+
+            return counters;
+        } );
+    }
+
+
+    /**
+     * Get the counters of several rows of the application in parallel
+     *
+     * @return The counters of each row, by key, in the order of the keys
+     */
+    public <K> ListenableFuture<Map<K, Map<ByteBuffer, Long>>> getCounterRows( final UUID applicationId,
+                                                                               final Object columnFamily,
+                                                                               final Collection<K> keys,
+                                                                               final ByteBuffer start,
+                                                                               final ByteBuffer finish ) {
+
+        final List<K> rowKeys = new ArrayList<>( keys );
+        final List<ListenableFuture<Map<ByteBuffer, Long>>> rows = new ArrayList<>( rowKeys.size() );
+
+        for ( K key : rowKeys ) {
+            rows.add( getCounterColumns( applicationId, columnFamily, key, start, finish ) );
+        }
+
+        return Futures.transform( Futures.allAsList( rows ), ( List<Map<ByteBuffer, Long>> results ) -> {
+            final Map<K, Map<ByteBuffer, Long>> counters = new LinkedHashMap<>( rowKeys.size() );
+
+            for ( int i = 0; i < rowKeys.size(); i++ ) {
+                counters.put( rowKeys.get( i ), results.get( i ) );
+            }
+
+            return counters;
+        } );
+    }
+
+
+    /**
+     * Rows are read in a single page, the same limit Hector slices with, so building the results in the callback
+     * never blocks the driver's threads fetching another page
+     */
+    private ListenableFuture<ResultSet> execute( final BoundStatement statement ) {
+        statement.setConsistencyLevel( cassandraConfig.getDataStaxReadCl() );
+        statement.setFetchSize( CassandraService.ALL_COUNT );
+        return session.executeAsync( statement );
+    }
+
+
+    /**
+     * Prepare the statement for the column family once, the statements are cached for the life of the session
+     */
+    private PreparedStatement prepare( final String cql, final Object columnFamily ) {
+
+        final String query = String.format( cql, CQLUtils.quote( columnFamily.toString() ) );
+
+        PreparedStatement statement = statements.get( query );
+
+        if ( statement == null ) {
+            if ( logger.isDebugEnabled() ) {
+                logger.debug( "Preparing {}", query );
+            }
+
+            statement = session.prepare( query );
+
+            final PreparedStatement existing = statements.putIfAbsent( query, statement );
+
+            if ( existing != null ) {
+                statement = existing;
+            }
+        }
+
+        return statement;
+    }
+
+
+    /**
+     * The row key as Hector writes it to the application's virtual keyspace, the application id followed by the key
+     */
+    private static ByteBuffer rowKey( final UUID applicationId, final Object key ) {
+
+        final ByteBuffer keyBytes = bytebuffer( key );
+        final ByteBuffer rowKey = ByteBuffer.allocate( UUID_LENGTH + keyBytes.remaining() );
+
+        rowKey.put( bytebuffer( applicationId ) ).put( keyBytes.duplicate() );
+        rowKey.rewind();
+
+        return rowKey;
+    }
+
+
+    private static ByteBuffer toBytes( final Object value ) {
+
+        if ( value instanceof List<?> ) {
+            return DynamicComposite.toByteBuffer( ( List<?> ) value );
+        }
+
+        return bytebuffer( value );
+    }
+
+
+    private static Map<ByteBuffer, ByteBuffer> toColumns( final ResultSet resultSet ) {
+
+        final Map<ByteBuffer, ByteBuffer> columns = new LinkedHashMap<>();
+
+        for ( Row row : resultSet ) {
+            columns.put( row.getBytesUnsafe( "column1" ), row.getBytesUnsafe( "value" ) );
+        }
+
+        return columns;
+    }
+}
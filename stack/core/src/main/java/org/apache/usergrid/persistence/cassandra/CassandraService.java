@@ -17,6 +17,7 @@
 package org.apache.usergrid.persistence.cassandra;
 
 
+import com.datastax.driver.core.Session;
 import com.google.inject.Injector;
 import me.prettyprint.cassandra.connection.HConnectionManager;
 import me.prettyprint.cassandra.model.ConfigurableConsistencyLevel;
@@ -34,7 +35,11 @@ import me.prettyprint.hector.api.mutation.Mutator;
 import me.prettyprint.hector.api.query.ColumnQuery;
 import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.SliceQuery;
+import org.apache.usergrid.count.CassandraCounterStore;
+import org.apache.usergrid.count.CounterStore;
+import org.apache.usergrid.count.DataStaxCounterStore;
 import org.apache.usergrid.locking.LockManager;
+import org.apache.usergrid.persistence.core.CassandraConfig;
 import org.apache.usergrid.persistence.core.CassandraFig;
 import org.apache.usergrid.persistence.hector.CountingMutator;
 import org.apache.usergrid.utils.MapUtils;
@@ -94,6 +99,11 @@ public class CassandraService {
 
     private Map<String, String> accessMap;
 
+    /**
+     * Set when the legacy counters and dictionaries are read and written with the shared DataStax session
+     */
+    private final CassandraCqlService cqlService;
+
     public static final StringSerializer se = new StringSerializer();
     public static final ByteBufferSerializer be = new ByteBufferSerializer();
     public static final UUIDSerializer ue = new UUIDSerializer();
@@ -113,7 +123,16 @@ public class CassandraService {
         lockManager = injector.getInstance( LockManager.class );
         db_logger.info( "{}", cluster.getKnownPoolHosts( false ) );
         //getInjector
-        applicationKeyspace  = injector.getInstance( CassandraFig.class ).getApplicationKeyspace();
+        final CassandraFig cassandraFig = injector.getInstance( CassandraFig.class );
+        applicationKeyspace  = cassandraFig.getApplicationKeyspace();
+
+        if ( cassandraFig.useDataStaxForLegacy() ) {
+            cqlService = new CassandraCqlService( injector.getInstance( Session.class ),
+                injector.getInstance( CassandraConfig.class ) );
+        }
+        else {
+            cqlService = null;
+        }
     }
 
 
@@ -235,6 +254,35 @@ public class CassandraService {
     }
 
 
+    /**
+     * @return True if counters and dictionaries are read and written with the shared DataStax session
+     */
+    public boolean useCqlService() {
+        return cqlService != null;
+    }
+
+
+    /**
+     * @return The service to read and write counters and dictionaries with the shared DataStax session, or null if
+     * they are still read and written with Hector
+     */
+    public CassandraCqlService getCqlService() {
+        return cqlService;
+    }
+
+
+    /**
+     * @return The store the batched counters are written to
+     */
+    public CounterStore getCounterStore() {
+        if ( cqlService != null ) {
+            return new DataStaxCounterStore( cqlService );
+        }
+
+        return new CassandraCounterStore( getUsergridApplicationKeyspace() );
+    }
+
+
     /** The Usergrid_Applications keyspace directly */
     public Keyspace getUsergridApplicationKeyspace() {
         return getKeyspace( getApplicationKeyspace(),  null );
@@ -24,4 +24,6 @@ public class ServerEnvironmentProps {
     public static final String REDIRECT_ROOT = "usergrid.redirect_root";
 
     public static final String API_URL_BASE = "usergrid.api.url.base";
+
+    public static final String API_RESPONSE_STREAMING = "usergrid.api.response.streaming";
 }
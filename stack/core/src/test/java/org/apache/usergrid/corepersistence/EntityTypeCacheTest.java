@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.codahale.metrics.Counter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the entity type cache without cassandra
+ */
+public class EntityTypeCacheTest {
+
+    private static final UUID APPLICATION = UUIDGenerator.newTimeUUID();
+
+
+    @Test
+    public void putAndGet() {
+        final EntityTypeCache cache = newCache( 1000 );
+
+        final UUID user = UUIDGenerator.newTimeUUID();
+        final UUID group = UUIDGenerator.newTimeUUID();
+
+        assertNull( "Not cached yet", cache.getType( APPLICATION, user ) );
+
+        cache.put( APPLICATION, user, "user" );
+        cache.put( APPLICATION, group, "group" );
+
+        assertEquals( "user", cache.getType( APPLICATION, user ) );
+        assertEquals( "group", cache.getType( APPLICATION, group ) );
+
+        //a put replaces the cached type
+        cache.put( APPLICATION, user, "activity" );
+
+        assertEquals( "activity", cache.getType( APPLICATION, user ) );
+    }
+
+
+    @Test
+    public void invalidate() {
+        final EntityTypeCache cache = newCache( 1000 );
+
+        final UUID user = UUIDGenerator.newTimeUUID();
+
+        cache.put( APPLICATION, user, "user" );
+        cache.invalidate( APPLICATION, user );
+
+        assertNull( "Removed", cache.getType( APPLICATION, user ) );
+
+        //invalidating an entity that isn't cached is a no-op
+        cache.invalidate( APPLICATION, UUIDGenerator.newTimeUUID() );
+    }
+
+
+    @Test
+    public void keyedByApplication() {
+        final EntityTypeCache cache = newCache( 1000 );
+
+        //the application's UUID is an application entity in the app and an application_info in the management app
+        final UUID managementApplication = UUIDGenerator.newTimeUUID();
+
+        cache.put( APPLICATION, APPLICATION, "application" );
+
+        assertEquals( "application", cache.getType( APPLICATION, APPLICATION ) );
+        assertNull( "Not cached for another application", cache.getType( managementApplication, APPLICATION ) );
+
+        cache.put( managementApplication, APPLICATION, "application_info" );
+
+        assertEquals( "application", cache.getType( APPLICATION, APPLICATION ) );
+        assertEquals( "application_info", cache.getType( managementApplication, APPLICATION ) );
+
+        cache.invalidate( managementApplication, APPLICATION );
+
+        assertNull( "Removed", cache.getType( managementApplication, APPLICATION ) );
+        assertEquals( "Only removed from its application", "application", cache.getType( APPLICATION, APPLICATION ) );
+    }
+
+
+    @Test
+    public void bounded() {
+        final int size = 1024;
+        final EntityTypeCache cache = newCache( size );
+
+        final List<UUID> uuids = new ArrayList<>();
+
+        for ( int i = 0; i < size * 10; i++ ) {
+            final UUID uuid = UUIDGenerator.newTimeUUID();
+            uuids.add( uuid );
+            cache.put( APPLICATION, uuid, "type" + ( i % 10 ) );
+        }
+
+        int cached = 0;
+
+        for ( int i = 0; i < uuids.size(); i++ ) {
+            final String type = cache.getType( APPLICATION, uuids.get( i ) );
+
+            if ( type != null ) {
+                assertEquals( "Evicted slots never return another entity's type", "type" + ( i % 10 ), type );
+                cached++;
+            }
+        }
+
+        assertTrue( "Never holds more than its size", cached <= size );
+        assertTrue( "Holds recent entries", cached > 0 );
+    }
+
+
+    @Test
+    public void disabled() {
+        final EntityTypeCache cache = newCache( 0 );
+
+        final UUID user = UUIDGenerator.newTimeUUID();
+
+        cache.put( APPLICATION, user, "user" );
+
+        assertNull( "Nothing is cached", cache.getType( APPLICATION, user ) );
+    }
+
+
+    private EntityTypeCache newCache( final int size ) {
+        final EntityManagerFig entityManagerFig = mock( EntityManagerFig.class );
+        when( entityManagerFig.getTypeCacheSize() ).thenReturn( size );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Counter() );
+
+        return new EntityTypeCache( entityManagerFig, metricsFactory );
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence;
+
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.cache.CacheFactory;
+import org.apache.usergrid.persistence.cache.CacheScope;
+import org.apache.usergrid.persistence.cache.ScopedCache;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.codahale.metrics.Counter;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the role permissions cache without cassandra
+ */
+public class RolePermissionsCacheTest {
+
+    /**
+     * The shared cache scopes, as every node sees them
+     */
+    private Map<CacheScope, Map<String, String>> sharedCache;
+
+    /**
+     * The reads of the shared cache, by every node
+     */
+    private AtomicInteger sharedReads;
+
+
+    @Before
+    public void setup() {
+        sharedCache = new ConcurrentHashMap<>();
+        sharedReads = new AtomicInteger();
+    }
+
+
+    @Test
+    public void loadsOnce() throws Exception {
+        final RolePermissionsCache cache = newCache( 30000 );
+        final AtomicInteger reads = new AtomicInteger();
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        for ( int i = 0; i < 3; i++ ) {
+            final Set<String> permissions = cache.getPermissions( applicationId, "admin", () -> {
+                reads.incrementAndGet();
+                return Collections.singleton( "get:/users/*" );
+            } );
+
+            assertEquals( Collections.singleton( "get:/users/*" ), permissions );
+        }
+
+        assertEquals( 1, reads.get() );
+
+        //the same role of another application is read on its own
+        cache.getPermissions( UUIDGenerator.newTimeUUID(), "admin", () -> {
+            reads.incrementAndGet();
+            return Collections.emptySet();
+        } );
+
+        assertEquals( 2, reads.get() );
+    }
+
+
+    @Test
+    public void invalidate() throws Exception {
+        final RolePermissionsCache cache = newCache( 30000 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        cache.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) );
+        cache.invalidate( applicationId, "admin" );
+
+        assertEquals( Collections.singleton( "*:/**" ),
+            cache.getPermissions( applicationId, "admin", () -> Collections.singleton( "*:/**" ) ) );
+    }
+
+
+    @Test
+    public void disabled() throws Exception {
+        final RolePermissionsCache cache = newCache( 0 );
+        final AtomicInteger reads = new AtomicInteger();
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        for ( int i = 0; i < 3; i++ ) {
+            cache.getPermissions( applicationId, "admin", () -> {
+                reads.incrementAndGet();
+                return Collections.emptySet();
+            } );
+        }
+
+        assertEquals( 3, reads.get() );
+    }
+
+
+    @Test
+    public void readErrorsAreNotCached() throws Exception {
+        final RolePermissionsCache cache = newCache( 30000 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        try {
+            cache.getPermissions( applicationId, "admin", () -> {
+                throw new IllegalStateException( "unavailable" );
+            } );
+            fail( "The read error is thrown" );
+        }
+        catch ( IllegalStateException e ) {
+            //expected
+        }
+
+        assertEquals( Collections.singleton( "get:/users/*" ),
+            cache.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) ) );
+    }
+
+
+    @Test
+    public void changedOnAnotherNode() throws Exception {
+        final RolePermissionsCache node = newCache( 30000 );
+        final RolePermissionsCache otherNode = newCache( 30000 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        node.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) );
+
+        //revoked on the other node, this node must not rebuild an authorization info from its entry
+        otherNode.invalidate( applicationId, "admin" );
+
+        assertEquals( Collections.<String>emptySet(),
+            node.getPermissions( applicationId, "admin", () -> Collections.<String>emptySet() ) );
+    }
+
+
+    @Test
+    public void sharedScopeInvalidated() throws Exception {
+        final RolePermissionsCache cache = newCache( 30000 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        cache.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) );
+
+        //the services invalidate the whole scope of the shared authorization info when roles change
+        for ( Map<String, String> scope : sharedCache.values() ) {
+            scope.clear();
+        }
+
+        assertEquals( Collections.singleton( "*:/**" ),
+            cache.getPermissions( applicationId, "admin", () -> Collections.singleton( "*:/**" ) ) );
+    }
+
+
+    @Test
+    public void versionKeptLocally() throws Exception {
+        final RolePermissionsCache node = newCache( 30000, 200 );
+        final RolePermissionsCache otherNode = newCache( 30000, 200 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        //the roles of an authorization share one read of the version
+        node.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) );
+        node.getPermissions( applicationId, "default", () -> Collections.singleton( "get:/users/me" ) );
+        node.getPermissions( applicationId, "admin", () -> Collections.singleton( "get:/users/*" ) );
+
+        assertEquals( 1, sharedReads.get() );
+
+        //a change on another node is seen once the version kept here expires
+        otherNode.invalidate( applicationId, "admin" );
+
+        assertEquals( Collections.singleton( "get:/users/*" ),
+            node.getPermissions( applicationId, "admin", () -> Collections.singleton( "*:/**" ) ) );
+
+        Thread.sleep( 300 );
+
+        assertEquals( Collections.singleton( "*:/**" ),
+            node.getPermissions( applicationId, "admin", () -> Collections.singleton( "*:/**" ) ) );
+
+        //a change on this node is seen at once
+        node.invalidate( applicationId, "default" );
+
+        assertEquals( Collections.<String>emptySet(),
+            node.getPermissions( applicationId, "default", () -> Collections.<String>emptySet() ) );
+    }
+
+
+    @Test
+    public void callersGetCopies() throws Exception {
+        final RolePermissionsCache cache = newCache( 30000 );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+
+        final Set<String> first = cache.getPermissions( applicationId, "admin",
+            () -> Collections.singleton( "get:/users/*" ) );
+
+        first.add( "*:/**" );
+
+        final Set<String> second = cache.getPermissions( applicationId, "admin", () -> Collections.emptySet() );
+
+        assertEquals( Collections.singleton( "get:/users/*" ), second );
+        assertTrue( first != second );
+    }
+
+
+    private RolePermissionsCache newCache( final long ttl ) {
+        //the version is read from the shared cache on every lookup
+        return newCache( ttl, 0 );
+    }
+
+
+    private RolePermissionsCache newCache( final long ttl, final long versionTtl ) {
+        final EntityManagerFig entityManagerFig = mock( EntityManagerFig.class );
+        when( entityManagerFig.getRolePermissionsCacheTimeout() ).thenReturn( ttl );
+        when( entityManagerFig.getRolePermissionsCacheSize() ).thenReturn( 1000 );
+        when( entityManagerFig.getRolePermissionsVersionCacheTimeout() ).thenReturn( versionTtl );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenReturn( new Counter() );
+
+        final CacheFactory cacheFactory = mock( CacheFactory.class );
+        when( cacheFactory.getScopedCache( any( CacheScope.class ) ) ).thenAnswer(
+            invocation -> new MapScopedCache( sharedReads, sharedCache.computeIfAbsent( ( CacheScope ) invocation.getArguments()[0],
+                scope -> new ConcurrentHashMap<>() ) ) );
+
+        return new RolePermissionsCache( entityManagerFig, cacheFactory, metricsFactory );
+    }
+
+
+    /**
+     * A shared cache scope in memory
+     */
+    private static final class MapScopedCache implements ScopedCache<String, String> {
+
+        private final AtomicInteger reads;
+        private final Map<String, String> values;
+
+
+        private MapScopedCache( final AtomicInteger reads, final Map<String, String> values ) {
+            this.reads = reads;
+            this.values = values;
+        }
+
+
+        @Override
+        public String put( final String key, final String value, final Integer ttl ) {
+            values.put( key, value );
+            return value;
+        }
+
+
+        @Override
+        public String get( final String key, final TypeReference typeRef ) {
+            reads.incrementAndGet();
+            return values.get( key );
+        }
+
+
+        @Override
+        public void remove( final String key ) {
+            values.remove( key );
+        }
+
+
+        @Override
+        public void invalidate() {
+            values.clear();
+        }
+    }
+}
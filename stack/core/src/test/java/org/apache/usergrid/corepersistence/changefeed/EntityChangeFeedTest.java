@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.EntityManagerFig;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the change feed without cassandra
+ */
+public class EntityChangeFeedTest {
+
+    private static final int BACKLOG = 5;
+
+    private EntityChangeFeed feed;
+    private UUID applicationId;
+
+
+    @Before
+    public void setup() {
+        final EntityManagerFig entityManagerFig = mock( EntityManagerFig.class );
+        when( entityManagerFig.getChangeFeedBacklogSize() ).thenReturn( BACKLOG );
+        when( entityManagerFig.getChangeFeedResumeTimeout() ).thenReturn( 60000l );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Counter() );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Meter() );
+
+        feed = new EntityChangeFeed( entityManagerFig, metricsFactory );
+        applicationId = UUIDGenerator.newTimeUUID();
+    }
+
+
+    @Test
+    public void collectionSubscription() {
+        final List<EntityChangeEvent> users = new ArrayList<>();
+        final List<EntityChangeEvent> all = new ArrayList<>();
+
+        feed.subscribe( applicationId, "users", null, users::add );
+        feed.subscribe( applicationId, null, null, all::add );
+
+        final UUID user = UUIDGenerator.newTimeUUID();
+
+        feed.publish( applicationId, "user", user, EntityChangeEvent.Operation.CREATE );
+        feed.publish( applicationId, "group", UUIDGenerator.newTimeUUID(), EntityChangeEvent.Operation.CREATE );
+        feed.publish( applicationId, "user", user, EntityChangeEvent.Operation.DELETE );
+
+        //another application's changes are not seen
+        feed.publish( UUIDGenerator.newTimeUUID(), "user", user, EntityChangeEvent.Operation.UPDATE );
+
+        assertEquals( 2, users.size() );
+        assertEquals( user, users.get( 0 ).getEntityId() );
+        assertEquals( "users", users.get( 0 ).getCollection() );
+        assertEquals( EntityChangeEvent.Operation.CREATE, users.get( 0 ).getOperation() );
+        assertEquals( EntityChangeEvent.Operation.DELETE, users.get( 1 ).getOperation() );
+
+        assertEquals( 3, all.size() );
+    }
+
+
+    @Test
+    public void resume() {
+        final List<EntityChangeEvent> events = new ArrayList<>();
+
+        final EntityChangeFeed.Subscription subscription = feed.subscribe( applicationId, "users", null, events::add );
+
+        feed.publish( applicationId, "user", UUIDGenerator.newTimeUUID(), EntityChangeEvent.Operation.CREATE );
+
+        final String token = events.get( 0 ).getToken();
+
+        subscription.close();
+
+        //the feed keeps recording after the last subscriber leaves
+        final UUID missed = UUIDGenerator.newTimeUUID();
+        feed.publish( applicationId, "user", missed, EntityChangeEvent.Operation.CREATE );
+
+        final List<EntityChangeEvent> resumed = new ArrayList<>();
+
+        final EntityChangeFeed.Subscription resumedSubscription =
+            feed.subscribe( applicationId, "users", token, resumed::add );
+
+        assertFalse( "Resumed", resumedSubscription.isReset() );
+        assertEquals( 1, resumed.size() );
+        assertEquals( missed, resumed.get( 0 ).getEntityId() );
+
+        //new events follow the replayed ones
+        feed.publish( applicationId, "user", UUIDGenerator.newTimeUUID(), EntityChangeEvent.Operation.UPDATE );
+
+        assertEquals( 2, resumed.size() );
+    }
+
+
+    @Test
+    public void resetPastBacklog() {
+        final List<EntityChangeEvent> events = new ArrayList<>();
+
+        feed.subscribe( applicationId, null, null, events::add );
+
+        for ( int i = 0; i < BACKLOG + 2; i++ ) {
+            feed.publish( applicationId, "user", UUIDGenerator.newTimeUUID(), EntityChangeEvent.Operation.CREATE );
+        }
+
+        final List<EntityChangeEvent> resumed = new ArrayList<>();
+
+        //the events after the first one are no longer all in the backlog
+        assertTrue( feed.subscribe( applicationId, null, events.get( 0 ).getToken(), resumed::add ).isReset() );
+        assertTrue( resumed.isEmpty() );
+
+        //the events after the last one are
+        assertFalse( feed.subscribe( applicationId, null, events.get( BACKLOG ).getToken(), resumed::add ).isReset() );
+        assertEquals( 1, resumed.size() );
+
+        assertTrue( "Not issued by this feed", feed.subscribe( applicationId, null, "bogus", resumed::add ).isReset() );
+    }
+
+
+    @Test
+    public void noSubscribers() {
+        //nothing is recorded for an application nobody subscribed to
+        feed.publish( applicationId, "user", UUIDGenerator.newTimeUUID(), EntityChangeEvent.Operation.CREATE );
+
+        final List<EntityChangeEvent> events = new ArrayList<>();
+
+        assertTrue( feed.subscribe( applicationId, null, "0-1-1", events::add ).isReset() );
+        assertTrue( events.isEmpty() );
+    }
+
+
+    @Test
+    public void slowListenerDoesNotBlockPublish() throws Exception {
+        final CountDownLatch received = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final List<EntityChangeEvent> slow = Collections.synchronizedList( new ArrayList<>() );
+        final List<EntityChangeEvent> fast = Collections.synchronizedList( new ArrayList<>() );
+
+        feed.subscribe( applicationId, null, null, event -> {
+            slow.add( event );
+            received.countDown();
+
+            try {
+                release.await();
+            }
+            catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+        } );
+
+        feed.subscribe( applicationId, null, null, fast::add );
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //the first publish delivers to the slow listener and waits in it
+            final Future<?> first = executor.submit(
+                () -> feed.publish( applicationId, "user", UUIDGenerator.newTimeUUID(),
+                    EntityChangeEvent.Operation.CREATE ) );
+
+            assertTrue( received.await( 5, TimeUnit.SECONDS ) );
+
+            //a write meanwhile isn't held up, and the other subscriber still gets it
+            final UUID second = UUIDGenerator.newTimeUUID();
+            feed.publish( applicationId, "user", second, EntityChangeEvent.Operation.CREATE );
+
+            assertEquals( 2, fast.size() );
+            assertEquals( 1, slow.size() );
+
+            //the slow listener catches up in order once it returns
+            release.countDown();
+            first.get( 5, TimeUnit.SECONDS );
+
+            assertEquals( 2, slow.size() );
+            assertEquals( second, slow.get( 1 ).getEntityId() );
+        }
+        finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.corepersistence.changefeed;
+package org.apache.usergrid.corepersistence.changefeed;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.EntityManagerFig;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+import org.apache.usergrid.persistence.queue.LegacyQueueManager;
+import org.apache.usergrid.persistence.queue.LegacyQueueManagerFactory;
+import org.apache.usergrid.persistence.queue.LegacyQueueScope;
+import org.apache.usergrid.persistence.queue.LocalQueueManager;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the changes written on one node reach the change feed of every WebSocket server through its queue
+ */
+public class EntityChangeQueueReaderTest {
+
+    private EntityManagerFig entityManagerFig;
+    private MetricsFactory metricsFactory;
+    private LegacyQueueManager firstQueue;
+    private LegacyQueueManager secondQueue;
+    private LegacyQueueManagerFactory queueManagerFactory;
+
+
+    @Before
+    public void setup() {
+        entityManagerFig = mock( EntityManagerFig.class );
+        when( entityManagerFig.getChangeFeedBacklogSize() ).thenReturn( 10 );
+        when( entityManagerFig.getChangeFeedResumeTimeout() ).thenReturn( 60000l );
+
+        metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Counter() );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Meter() );
+
+        final LegacyQueueScope firstScope = EntityChangePublisher.getQueueScope( "changes_ws1" );
+        final LegacyQueueScope secondScope = EntityChangePublisher.getQueueScope( "changes_ws2" );
+
+        firstQueue = new LocalQueueManager( firstScope );
+        secondQueue = new LocalQueueManager( secondScope );
+
+        queueManagerFactory = mock( LegacyQueueManagerFactory.class );
+        when( queueManagerFactory.getQueueManager( any( LegacyQueueScope.class ) ) ).thenAnswer(
+            invocation -> "changes_ws1".equals( ( ( LegacyQueueScope ) invocation.getArguments()[0] ).getName() )
+                          ? firstQueue : secondQueue );
+    }
+
+
+    @Test
+    public void relayedToEveryServer() {
+        when( entityManagerFig.getChangeFeedQueues() ).thenReturn( "changes_ws1, changes_ws2" );
+
+        final EntityChangePublisher publisher =
+            new EntityChangePublisher( entityManagerFig, queueManagerFactory, metricsFactory );
+
+        final EntityChangeFeed firstFeed = new EntityChangeFeed( entityManagerFig, metricsFactory );
+        final EntityChangeFeed secondFeed = new EntityChangeFeed( entityManagerFig, metricsFactory );
+
+        final UUID applicationId = UUIDGenerator.newTimeUUID();
+        final List<EntityChangeEvent> firstEvents = new ArrayList<>();
+        final List<EntityChangeEvent> secondEvents = new ArrayList<>();
+
+        firstFeed.subscribe( applicationId, "users", null, firstEvents::add );
+        secondFeed.subscribe( applicationId, "users", null, secondEvents::add );
+
+        final UUID user = UUIDGenerator.newTimeUUID();
+
+        //written on a node without any subscribers of its own
+        publisher.publish( applicationId, "user", user, EntityChangeEvent.Operation.CREATE );
+
+        assertEquals( 1, new EntityChangeQueueReader( firstQueue, firstFeed ).readMessages() );
+        assertEquals( 1, new EntityChangeQueueReader( secondQueue, secondFeed ).readMessages() );
+
+        assertEquals( 1, firstEvents.size() );
+        assertEquals( user, firstEvents.get( 0 ).getEntityId() );
+        assertEquals( EntityChangeEvent.Operation.CREATE, firstEvents.get( 0 ).getOperation() );
+
+        assertEquals( 1, secondEvents.size() );
+        assertEquals( user, secondEvents.get( 0 ).getEntityId() );
+
+        //nothing is left to read
+        assertEquals( 0, new EntityChangeQueueReader( firstQueue, firstFeed ).readMessages() );
+    }
+
+
+    @Test
+    public void disabledWithoutQueues() {
+        when( entityManagerFig.getChangeFeedQueues() ).thenReturn( "" );
+
+        final EntityChangePublisher publisher =
+            new EntityChangePublisher( entityManagerFig, queueManagerFactory, metricsFactory );
+
+        publisher.publish( UUIDGenerator.newTimeUUID(), "user", UUIDGenerator.newTimeUUID(),
+            EntityChangeEvent.Operation.CREATE );
+
+        verifyZeroInteractions( queueManagerFactory );
+        assertEquals( 0, firstQueue.getQueueDepth() );
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventQueueType;
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.rx.impl.AllApplicationsObservable;
+import org.apache.usergrid.corepersistence.rx.impl.EdgeScope;
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.graph.GraphManager;
+import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.SearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.index.EntityIndexFactory;
+import org.apache.usergrid.persistence.map.MapManager;
+import org.apache.usergrid.persistence.map.MapManagerFactory;
+import org.apache.usergrid.persistence.map.MapScope;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Optional;
+
+import rx.Observable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests partitioned collection deletes without cassandra
+ */
+public class CollectionDeleteServiceImplTest {
+
+    private static final int EDGE_COUNT = 100;
+
+    private final Map<String, Object> map = new ConcurrentHashMap<>();
+    private final List<Long> deletedTimestamps = Collections.synchronizedList( new ArrayList<>() );
+    private final List<Long> updatedBefore = Collections.synchronizedList( new ArrayList<>() );
+
+    private ApplicationScope applicationScope;
+    private UUID applicationId;
+    private String edgeType;
+    private List<MarkedEdge> edges;
+
+    private IndexProcessorFig indexProcessorFig;
+    private AsyncEventService indexService;
+    private CollectionDeleteService collectionDeleteService;
+
+
+    @Before
+    public void setup() {
+        applicationId = UUIDGenerator.newTimeUUID();
+        applicationScope = CpNamingUtils.getApplicationScope( applicationId );
+        edgeType = CpNamingUtils.getEdgeTypeFromCollectionName( "things" );
+
+        edges = new ArrayList<>();
+        for ( int i = 1; i <= EDGE_COUNT; i++ ) {
+            edges.add( new SimpleMarkedEdge( applicationScope.getApplication(), edgeType, new SimpleId( "thing" ), i,
+                false ) );
+        }
+
+        final GraphManager gm = mock( GraphManager.class );
+        when( gm.loadEdgesFromSource( any( SearchByEdgeType.class ) ) ).thenAnswer(
+            invocation -> loadEdges( ( SearchByEdgeType ) invocation.getArguments()[0] ) );
+
+        final GraphManagerFactory graphManagerFactory = mock( GraphManagerFactory.class );
+        when( graphManagerFactory.createEdgeManager( any( ApplicationScope.class ) ) ).thenReturn( gm );
+
+        final MapManagerFactory mapManagerFactory = mock( MapManagerFactory.class );
+        when( mapManagerFactory.createMapManager( any( MapScope.class ) ) ).thenReturn( newMapManager() );
+
+        final CollectionSettings collectionSettings = mock( CollectionSettings.class );
+        when( collectionSettings.getCollectionSettings( anyString() ) )
+            .thenReturn( Optional.<Map<String, Object>>absent() );
+
+        final CollectionSettingsFactory collectionSettingsFactory = mock( CollectionSettingsFactory.class );
+        when( collectionSettingsFactory.getInstance( any( CollectionSettingsScope.class ) ) )
+            .thenReturn( collectionSettings );
+
+        indexProcessorFig = mock( IndexProcessorFig.class );
+        when( indexProcessorFig.getCollectionDeleteConcurrencyFactor() ).thenReturn( 4 );
+        when( indexProcessorFig.getCollectionDeleteBufferSize() ).thenReturn( 10 );
+        when( indexProcessorFig.getCollectionDeleteMaxQueueDepth() ).thenReturn( 1000L );
+        when( indexProcessorFig.getCollectionDeleteMaxThrottle() ).thenReturn( 1000L );
+
+        indexService = mock( AsyncEventService.class );
+        doAnswer( invocation -> {
+            recordDeletes( invocation.getArguments() );
+            return null;
+        } ).when( indexService ).deleteBatch( any( List.class ), anyLong(), any( AsyncEventQueueType.class ) );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Counter() );
+
+        collectionDeleteService =
+            new CollectionDeleteServiceImpl( mock( EntityIndexFactory.class ), mock( IndexLocationStrategyFactory.class ),
+                graphManagerFactory, mapManagerFactory, mock( AllApplicationsObservable.class ), indexProcessorFig,
+                collectionSettingsFactory, indexService, metricsFactory );
+    }
+
+
+    @Test
+    public void partitions() {
+        final List<CollectionDeleteServiceImpl.Partition> partitions =
+            CollectionDeleteServiceImpl.partition( 100, 199, 4 );
+
+        assertEquals( 4, partitions.size() );
+
+        long lower = 100;
+        for ( int i = 0; i < partitions.size(); i++ ) {
+            assertEquals( i, partitions.get( i ).index );
+            assertEquals( lower, partitions.get( i ).lower );
+            assertEquals( lower + 24, partitions.get( i ).upper );
+            lower += 25;
+        }
+
+        //never more partitions than timestamps
+        assertEquals( 1, CollectionDeleteServiceImpl.partition( 100, 100, 4 ).size() );
+
+        //the partitions survive a resume
+        final List<CollectionDeleteServiceImpl.Partition> parsed = CollectionDeleteServiceImpl
+            .parsePartitions( CollectionDeleteServiceImpl.serializePartitions( partitions ) );
+
+        assertEquals( partitions.size(), parsed.size() );
+        for ( int i = 0; i < partitions.size(); i++ ) {
+            assertEquals( partitions.get( i ).lower, parsed.get( i ).lower );
+            assertEquals( partitions.get( i ).upper, parsed.get( i ).upper );
+        }
+    }
+
+
+    @Test( timeout = 30000 )
+    public void parallelDelete() throws InterruptedException {
+
+        final CollectionDeleteService.CollectionDeleteStatus status = collectionDeleteService.deleteCollection(
+            collectionDeleteService.getBuilder().withApplicationId( applicationId ).withCollection( "things" )
+                                   .withEndTimestamp( 1000L ) );
+
+        awaitComplete( status.getJobId() );
+
+        //every edge deleted exactly once, across the partitions
+        assertEquals( EDGE_COUNT, deletedTimestamps.size() );
+        assertEquals( EDGE_COUNT, new HashSet<>( deletedTimestamps ).size() );
+
+        for ( final Long timestamp : updatedBefore ) {
+            assertEquals( 1000L, timestamp.longValue() );
+        }
+
+        assertEquals( EDGE_COUNT,
+            collectionDeleteService.getStatus( status.getJobId() ).getNumberProcessed() );
+    }
+
+
+    @Test( timeout = 30000 )
+    public void resume() throws InterruptedException {
+        when( indexProcessorFig.getCollectionDeleteConcurrencyFactor() ).thenReturn( 2 );
+
+        //fail from the third batch on, as if the node stopped
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final CountDownLatch failed = new CountDownLatch( 1 );
+
+        doAnswer( invocation -> {
+            if ( stopped.get() || batches.incrementAndGet() == 3 ) {
+                stopped.set( true );
+                failed.countDown();
+                throw new RuntimeException( "Node stopped" );
+            }
+
+            recordDeletes( invocation.getArguments() );
+            return null;
+        } ).when( indexService ).deleteBatch( any( List.class ), anyLong(), any( AsyncEventQueueType.class ) );
+
+        final CollectionDeleteService.CollectionDeleteStatus status = collectionDeleteService.deleteCollection(
+            collectionDeleteService.getBuilder().withApplicationId( applicationId ).withCollection( "things" )
+                                   .withEndTimestamp( 1000L ) );
+
+        failed.await();
+
+        assertTrue( "Stopped before every edge was deleted", deletedTimestamps.size() < EDGE_COUNT );
+
+        stopped.set( false );
+
+        //resume without an end timestamp, the job keeps the one it was started with
+        collectionDeleteService.deleteCollection(
+            collectionDeleteService.getBuilder().withCursor( status.getJobId() ).withCollection( "things" ) );
+
+        awaitComplete( status.getJobId() );
+
+        assertEquals( "Every edge deleted", EDGE_COUNT, new HashSet<>( deletedTimestamps ).size() );
+
+        for ( final Long timestamp : updatedBefore ) {
+            assertEquals( 1000L, timestamp.longValue() );
+        }
+    }
+
+
+    private void awaitComplete( final String jobId ) throws InterruptedException {
+        while ( collectionDeleteService.getStatus( jobId ).getStatus() != CollectionDeleteService.Status.COMPLETE ) {
+            Thread.sleep( 10 );
+        }
+    }
+
+
+    private void recordDeletes( final Object[] arguments ) {
+        @SuppressWarnings( "unchecked" )
+        final List<EdgeScope> edgeScopes = ( List<EdgeScope> ) arguments[0];
+
+        for ( final EdgeScope edgeScope : edgeScopes ) {
+            deletedTimestamps.add( edgeScope.getEdge().getTimestamp() );
+        }
+
+        updatedBefore.add( ( Long ) arguments[1] );
+    }
+
+
+    /**
+     * Load the edges in the order of the search, after the resume edge
+     */
+    private Observable<MarkedEdge> loadEdges( final SearchByEdgeType search ) {
+        final List<MarkedEdge> loaded = new ArrayList<>();
+
+        for ( final MarkedEdge edge : edges ) {
+            if ( edge.getTimestamp() > search.getMaxTimestamp() ) {
+                continue;
+            }
+
+            if ( search.last().isPresent() && ( search.getOrder() == SearchByEdgeType.Order.DESCENDING ?
+                edge.getTimestamp() >= search.last().get().getTimestamp() :
+                edge.getTimestamp() <= search.last().get().getTimestamp() ) ) {
+                continue;
+            }
+
+            loaded.add( edge );
+        }
+
+        if ( search.getOrder() == SearchByEdgeType.Order.DESCENDING ) {
+            Collections.reverse( loaded );
+        }
+
+        return Observable.from( loaded );
+    }
+
+
+    private MapManager newMapManager() {
+        final MapManager mapManager = mock( MapManager.class );
+
+        when( mapManager.getString( anyString() ) )
+            .thenAnswer( invocation -> ( String ) map.get( invocation.getArguments()[0] ) );
+        when( mapManager.getLong( anyString() ) )
+            .thenAnswer( invocation -> ( Long ) map.get( invocation.getArguments()[0] ) );
+
+        doAnswer( invocation -> map.put( ( String ) invocation.getArguments()[0], invocation.getArguments()[1] ) )
+            .when( mapManager ).putString( anyString(), anyString() );
+        doAnswer( invocation -> map.put( ( String ) invocation.getArguments()[0], invocation.getArguments()[1] ) )
+            .when( mapManager ).putString( anyString(), anyString(), anyInt() );
+        doAnswer( invocation -> map.put( ( String ) invocation.getArguments()[0], invocation.getArguments()[1] ) )
+            .when( mapManager ).putLong( anyString(), anyLong() );
+
+        return mapManager;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+
+import com.codahale.metrics.Counter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the pacing of collection deletes without cassandra
+ */
+public class CollectionDeleteThrottleTest {
+
+
+    @Test
+    public void slowsDownWhileQueueIsDeep() {
+        final AsyncEventService indexService = mock( AsyncEventService.class );
+        final CollectionDeleteThrottle throttle = newThrottle( indexService, new Counter() );
+
+        when( indexService.getQueueDepth() ).thenReturn( 0L );
+        assertEquals( 0, throttle.nextDelay() );
+
+        when( indexService.getQueueDepth() ).thenReturn( 2000L );
+        assertEquals( CollectionDeleteThrottle.MIN_DELAY, throttle.nextDelay() );
+        assertEquals( CollectionDeleteThrottle.MIN_DELAY * 2, throttle.nextDelay() );
+        assertEquals( CollectionDeleteThrottle.MIN_DELAY * 4, throttle.nextDelay() );
+
+        //bounded by the max delay
+        for ( int i = 0; i < 10; i++ ) {
+            throttle.nextDelay();
+        }
+        assertEquals( 1000, throttle.nextDelay() );
+
+        //speeds back up once the queue drains
+        when( indexService.getQueueDepth() ).thenReturn( 10L );
+        assertEquals( 500, throttle.nextDelay() );
+        assertEquals( 250, throttle.nextDelay() );
+        assertEquals( 125, throttle.nextDelay() );
+        assertEquals( 0, throttle.nextDelay() );
+    }
+
+
+    @Test
+    public void slowsDownOnRejections() {
+        final AsyncEventService indexService = mock( AsyncEventService.class );
+        final Counter rejected = new Counter();
+        rejected.inc( 5 );
+
+        final CollectionDeleteThrottle throttle = newThrottle( indexService, rejected );
+
+        //rejections before the throttle was created are ignored
+        assertEquals( 0, throttle.nextDelay() );
+
+        rejected.inc();
+        assertEquals( CollectionDeleteThrottle.MIN_DELAY, throttle.nextDelay() );
+
+        //no new rejections
+        assertEquals( 0, throttle.nextDelay() );
+    }
+
+
+    private static CollectionDeleteThrottle newThrottle( final AsyncEventService indexService,
+                                                         final Counter rejected ) {
+        final IndexProcessorFig indexProcessorFig = mock( IndexProcessorFig.class );
+        when( indexProcessorFig.getCollectionDeleteMaxQueueDepth() ).thenReturn( 1000L );
+        when( indexProcessorFig.getCollectionDeleteMaxThrottle() ).thenReturn( 1000L );
+
+        return new CollectionDeleteThrottle( indexProcessorFig, indexService, rejected );
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.pipeline.cursor.ResponseCursor;
+import org.apache.usergrid.corepersistence.pipeline.read.EdgePath;
+import org.apache.usergrid.corepersistence.pipeline.read.ResultsPage;
+import org.apache.usergrid.corepersistence.pipeline.read.search.ElasticsearchCursorSerializer;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests reading pages ahead without cassandra or elasticsearch
+ */
+public class PagePrefetcherImplTest {
+
+    private PipelinePrefetchFig fig;
+    private MetricsFactory metricsFactory;
+
+
+    @Before
+    public void setup() {
+        fig = mock( PipelinePrefetchFig.class );
+        when( fig.getPrefetchEnabled() ).thenReturn( true );
+        when( fig.getPrefetchMaxEntities() ).thenReturn( 100l );
+        when( fig.getPrefetchTimeout() ).thenReturn( 30000l );
+        when( fig.getPrefetchWaitTimeout() ).thenReturn( 10000l );
+        when( fig.getPrefetchThreads() ).thenReturn( 2 );
+
+        metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Meter() );
+    }
+
+
+    @Test
+    public void nextPageIsPrefetched() {
+
+        final PagePrefetcher prefetcher = new PagePrefetcherImpl( fig, metricsFactory );
+
+        final AtomicInteger loads = new AtomicInteger();
+
+        //the first page has a cursor to the next, the next page is the last one
+        final Func1<Optional<String>, Observable<ResultsPage<String>>> loader = cursor -> {
+            loads.incrementAndGet();
+
+            if ( !cursor.isPresent() ) {
+                return Observable.just( new ResultsPage<String>( Arrays.asList( "1", "2" ), cursor( 2 ), 2 ) );
+            }
+
+            return Observable.just( new ResultsPage<String>( Collections.singletonList( "3" ), cursor( 3 ), 2 ) );
+        };
+
+        final ResultsPage<String> first =
+            prefetcher.loadPage( "query", Optional.absent(), loader ).toBlocking().first();
+
+        assertEquals( Arrays.asList( "1", "2" ), first.getEntityList() );
+
+        final Optional<String> nextCursor = first.getResponseCursor().encodeAsString();
+
+        final ResultsPage<String> second = prefetcher.loadPage( "query", nextCursor, loader ).toBlocking().first();
+
+        assertEquals( Collections.singletonList( "3" ), second.getEntityList() );
+
+        //the second page came from the prefetch, and nothing was loaded after the last page
+        assertEquals( 2, loads.get() );
+
+        //the prefetched page is only handed out once
+        prefetcher.loadPage( "query", nextCursor, loader ).toBlocking().first();
+
+        assertEquals( 3, loads.get() );
+    }
+
+
+    @Test
+    public void disabled() {
+
+        when( fig.getPrefetchEnabled() ).thenReturn( false );
+
+        final PagePrefetcher prefetcher = new PagePrefetcherImpl( fig, metricsFactory );
+
+        final AtomicInteger loads = new AtomicInteger();
+
+        final Func1<Optional<String>, Observable<ResultsPage<String>>> loader = cursor -> {
+            loads.incrementAndGet();
+            return Observable.just( new ResultsPage<String>( Arrays.asList( "1", "2" ), cursor( 2 ), 2 ) );
+        };
+
+        prefetcher.loadPage( "query", Optional.absent(), loader ).toBlocking().first();
+
+        assertEquals( 1, loads.get() );
+    }
+
+
+    private static ResponseCursor cursor( final int value ) {
+        return new ResponseCursor(
+            Optional.of( new EdgePath<>( 0, value, ElasticsearchCursorSerializer.INSTANCE, Optional.absent() ) ) );
+    }
+}
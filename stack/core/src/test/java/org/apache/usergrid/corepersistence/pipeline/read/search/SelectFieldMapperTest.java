@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline.read.search;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.index.SelectFieldMapping;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.field.EntityObjectField;
+import org.apache.usergrid.persistence.model.field.IntegerField;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.field.value.EntityObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class SelectFieldMapperTest {
+
+
+    @Test
+    public void noMappings() {
+
+        final SelectFieldMapper mapper = new SelectFieldMapper( Collections.<SelectFieldMapping>emptyList() );
+
+        assertFalse( mapper.hasMappings() );
+        assertTrue( mapper.getTopLevelFields().isEmpty() );
+
+        final Entity entity = new Entity( "test" );
+        entity.setField( new StringField( "name", "foo" ) );
+
+        mapper.apply( entity );
+
+        assertEquals( "foo", entity.getField( "name" ).getValue() );
+    }
+
+
+    @Test
+    public void topLevelFields() {
+
+        final SelectFieldMapper mapper = new SelectFieldMapper(
+            Arrays.asList( new SelectFieldMapping( "name", "name" ), new SelectFieldMapping( "address.city", "city" ) ) );
+
+        assertTrue( mapper.hasMappings() );
+        assertEquals( 3, mapper.getTopLevelFields().size() );
+        assertTrue( mapper.getTopLevelFields().contains( "name" ) );
+        assertTrue( mapper.getTopLevelFields().contains( "address" ) );
+        assertTrue( mapper.getTopLevelFields().contains( "address.city" ) );
+    }
+
+
+    @Test
+    public void renameAndNested() {
+
+        final SelectFieldMapper mapper = new SelectFieldMapper(
+            Arrays.asList( new SelectFieldMapping( "name", "title" ), new SelectFieldMapping( "address.city", "city" ) ) );
+
+        final EntityObject address = new EntityObject();
+        address.setField( new StringField( "city", "Boston" ) );
+        address.setField( new StringField( "street", "Main" ) );
+
+        final Entity entity = new Entity( "test" );
+        entity.setField( new StringField( "name", "foo" ) );
+        entity.setField( new IntegerField( "count", 5 ) );
+        entity.setField( new EntityObjectField( "address", address ) );
+
+        mapper.apply( entity );
+
+        assertEquals( "foo", entity.getField( "title" ).getValue() );
+        assertNull( entity.getField( "name" ) );
+        assertNull( entity.getField( "count" ) );
+
+        final EntityObject selectedAddress = ( EntityObject ) entity.getField( "address" ).getValue();
+
+        assertEquals( "Boston", selectedAddress.getField( "city" ).getValue() );
+        assertNull( selectedAddress.getField( "street" ) );
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline.read.traverse;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
+import org.apache.usergrid.corepersistence.pipeline.PipelineContext;
+import org.apache.usergrid.corepersistence.pipeline.cursor.CursorSerializer;
+import org.apache.usergrid.corepersistence.pipeline.read.FilterResult;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.graph.GraphManager;
+import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.SearchByEdgeType;
+import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static org.apache.usergrid.corepersistence.util.CpNamingUtils.getEdgeTypeFromCollectionName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the fan out and the de-duplication of a graph traversal without cassandra
+ */
+public class ReadGraphCollectionFilterTest {
+
+    private static final int MAX_CONCURRENT_SOURCES = 2;
+    private static final int DISTINCT_WINDOW = 3;
+
+    private final String edgeType = getEdgeTypeFromCollectionName( "users" );
+
+    private GraphManager graphManager;
+    private ReadGraphCollectionFilter filter;
+
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setup() {
+        final ApplicationScope applicationScope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        graphManager = mock( GraphManager.class );
+
+        final GraphManagerFactory graphManagerFactory = mock( GraphManagerFactory.class );
+        when( graphManagerFactory.createEdgeManager( applicationScope ) ).thenReturn( graphManager );
+
+        final GraphTraversalFig graphTraversalFig = mock( GraphTraversalFig.class );
+        when( graphTraversalFig.getMaxConcurrentSources() ).thenReturn( MAX_CONCURRENT_SOURCES );
+        when( graphTraversalFig.getDistinctWindow() ).thenReturn( DISTINCT_WINDOW );
+
+        final RxTaskScheduler rxTaskScheduler = mock( RxTaskScheduler.class );
+        when( rxTaskScheduler.getAsyncIOScheduler() ).thenReturn( Schedulers.immediate() );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Meter() );
+
+        final ReadRepairFig readRepairFig = mock( ReadRepairFig.class );
+        when( readRepairFig.getMaxRepairsPerRead() ).thenReturn( 1000 );
+
+        final ReadRepairService readRepairService =
+            new ReadRepairService( readRepairFig, mock( EventBuilder.class ), mock( AsyncEventService.class ),
+                graphManagerFactory, rxTaskScheduler, metricsFactory );
+
+        final PipelineContext pipelineContext = mock( PipelineContext.class );
+        when( pipelineContext.getApplicationScope() ).thenReturn( applicationScope );
+        when( pipelineContext.getCursor( any( CursorSerializer.class ) ) ).thenReturn( Optional.absent() );
+
+        filter = new ReadGraphCollectionFilter( graphManagerFactory, rxTaskScheduler, readRepairService,
+            graphTraversalFig, "users" );
+        filter.setContext( pipelineContext );
+    }
+
+
+    @Test
+    public void boundedConcurrentSources() {
+        final AtomicInteger reading = new AtomicInteger();
+        final AtomicInteger maxReading = new AtomicInteger();
+
+        //each source's edges are read asynchronously, so unbounded sources would all be read at once
+        when( graphManager.loadEdgesFromSource( any( SearchByEdgeType.class ) ) ).thenAnswer( invocation -> {
+            final Id source = ( ( SearchByEdgeType ) invocation.getArguments()[0] ).getNode();
+
+            final List<MarkedEdge> edges = new ArrayList<>();
+            for ( int i = 0; i < 5; i++ ) {
+                edges.add( new SimpleMarkedEdge( source, edgeType, new SimpleId( "user" ), i, false ) );
+            }
+
+            return Observable.timer( 10, TimeUnit.MILLISECONDS, Schedulers.io() )
+                             .flatMap( tick -> Observable.from( edges ) ).doOnSubscribe( () -> {
+                    final int current = reading.incrementAndGet();
+                    maxReading.accumulateAndGet( current, Math::max );
+                } ).doOnTerminate( reading::decrementAndGet );
+        } );
+
+        final List<FilterResult<Id>> sources = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            sources.add( new FilterResult<Id>( new SimpleId( "group" ), Optional.absent() ) );
+        }
+
+        final List<FilterResult<Id>> results =
+            filter.call( Observable.from( sources ) ).toList().toBlocking().single();
+
+        assertEquals( 50, results.size() );
+        assertTrue( "Sources read at once " + maxReading.get(), maxReading.get() <= MAX_CONCURRENT_SOURCES );
+        assertTrue( "Sources read concurrently", maxReading.get() > 1 );
+    }
+
+
+    @Test
+    public void windowedDistinct() {
+        final Id source = new SimpleId( "group" );
+        final Id first = new SimpleId( "user" );
+        final Id second = new SimpleId( "user" );
+        final Id third = new SimpleId( "user" );
+        final Id fourth = new SimpleId( "user" );
+
+        //versions of the same edge differ by timestamp only
+        when( graphManager.loadEdgesFromSource( any( SearchByEdgeType.class ) ) ).thenReturn( Observable.just(
+            edge( source, first, 10 ), edge( source, first, 9 ), edge( source, second, 8 ), edge( source, third, 7 ),
+            edge( source, fourth, 6 ), edge( source, first, 5 ) ) );
+
+        final List<Id> targets = filter.call( Observable.just( new FilterResult<Id>( source, Optional.absent() ) ) )
+                                       .map( FilterResult::getValue ).toList().toBlocking().single();
+
+        //the duplicate within the window is dropped, the one read after the window moved on is emitted again
+        assertEquals( Arrays.asList( first, second, third, fourth, first ), targets );
+    }
+
+
+    private MarkedEdge edge( final Id source, final Id target, final long timestamp ) {
+        return new SimpleMarkedEdge( source, edgeType, target, timestamp, false );
+    }
+}
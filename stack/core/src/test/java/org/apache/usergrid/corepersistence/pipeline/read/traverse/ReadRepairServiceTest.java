@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline.read.traverse;
+
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.asyncevents.AsyncEventService;
+import org.apache.usergrid.corepersistence.asyncevents.EventBuilder;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.graph.GraphManagerFactory;
+import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+
+import com.codahale.metrics.Meter;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests collecting read repairs without cassandra or elasticsearch
+ */
+public class ReadRepairServiceTest {
+
+    private ReadRepairFig readRepairFig;
+    private EventBuilder eventBuilder;
+    private ReadRepairService readRepairService;
+    private ApplicationScope applicationScope;
+
+
+    @Before
+    public void setup() {
+        readRepairFig = mock( ReadRepairFig.class );
+        when( readRepairFig.getRepairsPerSecond() ).thenReturn( 0d );
+        when( readRepairFig.getMaxRepairsPerRead() ).thenReturn( 1000 );
+
+        eventBuilder = mock( EventBuilder.class );
+        when( eventBuilder.buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) ) )
+            .thenAnswer( invocation -> Observable.just( new IndexOperationMessage() ) );
+
+        //run the repairs on the calling thread
+        final RxTaskScheduler rxTaskScheduler = mock( RxTaskScheduler.class );
+        when( rxTaskScheduler.getAsyncIOScheduler() ).thenReturn( Schedulers.immediate() );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Meter() );
+
+        readRepairService =
+            new ReadRepairService( readRepairFig, eventBuilder, mock( AsyncEventService.class ),
+                mock( GraphManagerFactory.class ), rxTaskScheduler, metricsFactory );
+
+        applicationScope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+    }
+
+
+    @Test
+    public void deduplicated() {
+        final Id user = new SimpleId( "user" );
+        final Id group = new SimpleId( "group" );
+
+        final ReadRepairService.Batch batch = readRepairService.newBatch( applicationScope );
+
+        batch.deleteEntity( user );
+        batch.deleteEntity( group );
+        batch.deleteEntity( user );
+
+        //nothing runs until the batch is flushed
+        verify( eventBuilder, never() ).buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) );
+
+        batch.flush();
+        batch.flush();
+
+        verify( eventBuilder, times( 1 ) ).buildEntityDelete( applicationScope, user );
+        verify( eventBuilder, times( 1 ) ).buildEntityDelete( applicationScope, group );
+
+        //repairs found after the flush run on their own, repairs already run are not repeated
+        final Id late = new SimpleId( "user" );
+
+        batch.deleteEntity( user );
+        batch.deleteEntity( late );
+
+        verify( eventBuilder, times( 1 ) ).buildEntityDelete( applicationScope, late );
+        verify( eventBuilder, times( 3 ) ).buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) );
+
+        batch.flush();
+
+        verify( eventBuilder, times( 3 ) ).buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) );
+    }
+
+
+    @Test
+    public void boundedPerRead() {
+        when( readRepairFig.getMaxRepairsPerRead() ).thenReturn( 2 );
+
+        final ReadRepairService.Batch batch = readRepairService.newBatch( applicationScope );
+
+        for ( int i = 0; i < 5; i++ ) {
+            batch.deleteEntity( new SimpleId( "user" ) );
+        }
+
+        batch.flush();
+
+        verify( eventBuilder, times( 2 ) ).buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) );
+    }
+
+
+    @Test
+    public void rateLimited() {
+        //a single permit is available right away, the others are dropped
+        when( readRepairFig.getRepairsPerSecond() ).thenReturn( 0.001d );
+
+        final ReadRepairService.Batch batch = readRepairService.newBatch( applicationScope );
+
+        for ( int i = 0; i < 5; i++ ) {
+            batch.deleteEntity( new SimpleId( "user" ) );
+        }
+
+        batch.flush();
+
+        verify( eventBuilder, times( 1 ) ).buildEntityDelete( any( ApplicationScope.class ), any( Id.class ) );
+    }
+}
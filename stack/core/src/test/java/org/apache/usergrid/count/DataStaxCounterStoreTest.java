@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.count;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.usergrid.count.common.Count;
+import org.apache.usergrid.persistence.cassandra.CassandraCqlService;
+
+import com.datastax.driver.core.ResultSet;
+import com.google.common.util.concurrent.Futures;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the counts of a batch are combined into a single counter batch
+ */
+public class DataStaxCounterStoreTest {
+
+    private CassandraCqlService cqlService;
+    private DataStaxCounterStore counterStore;
+
+
+    @Before
+    public void setup() {
+        cqlService = mock( CassandraCqlService.class );
+        counterStore = new DataStaxCounterStore( cqlService );
+    }
+
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void countsCombined() {
+        when( cqlService.incrementCounters( any( Collection.class ) ) )
+            .thenReturn( Futures.<ResultSet>immediateFuture( null ) );
+
+        counterStore.save( Arrays.asList( new Count( "Counter", "k1", "c1", 1 ), new Count( "Counter", "k1", "c1", 2 ),
+            new Count( "Counter", "k1", "c2", 5 ), new Count( "Counter", "k2", "c1", 1 ) ) );
+
+        final ArgumentCaptor<Collection> counts = ArgumentCaptor.forClass( Collection.class );
+        verify( cqlService ).incrementCounters( counts.capture() );
+
+        final Map<String, Long> values = new HashMap<>();
+        for ( Count count : new ArrayList<Count>( counts.getValue() ) ) {
+            values.put( count.getKeyName() + ":" + count.getColumnName(), count.getValue() );
+        }
+
+        assertEquals( 3, values.size() );
+        assertEquals( 3L, ( long ) values.get( "k1:c1" ) );
+        assertEquals( 5L, ( long ) values.get( "k1:c2" ) );
+        assertEquals( 1L, ( long ) values.get( "k2:c1" ) );
+    }
+
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void emptyBatchNotWritten() {
+        counterStore.save( Collections.<Count>emptyList() );
+
+        verify( cqlService, never() ).incrementCounters( any( Collection.class ) );
+    }
+
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void failureNotThrown() {
+        when( cqlService.incrementCounters( any( Collection.class ) ) )
+            .thenReturn( Futures.<ResultSet>immediateFailedFuture( new RuntimeException( "timed out" ) ) );
+
+        //the failure is logged, the submitter carries on with its next batch
+        counterStore.save( new Count( "Counter", "k1", "c1", 1 ) );
+        counterStore.save( new Count( "Counter", "k1", "c1", 1 ) );
+
+        verify( cqlService, times( 2 ) ).incrementCounters( any( Collection.class ) );
+    }
+}
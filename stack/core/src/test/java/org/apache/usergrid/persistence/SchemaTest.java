@@ -26,9 +26,16 @@ import org.slf4j.LoggerFactory;
 import org.usergrid.Simple;
 
 import org.apache.usergrid.persistence.entities.SampleEntity;
+import org.apache.usergrid.persistence.entities.User;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.IntegerField;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.utils.UUIDUtils;
 
 import static org.apache.usergrid.utils.JsonUtils.mapToFormattedJsonString;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -125,4 +132,32 @@ public class SchemaTest {
 
         assertTrue( Schema.getDefaultSchema().isPropertyIndexed( "things", "foo" ) );
     }
+
+
+    @Test
+    public void typedEntityConversion() {
+
+        assertNotNull( Schema.getDefaultSchema().getEntityAccessor( User.class ) );
+
+        org.apache.usergrid.persistence.model.entity.Entity cpEntity =
+            new org.apache.usergrid.persistence.model.entity.Entity(
+                new SimpleId( UUIDUtils.newTimeUUID(), "user" ) );
+
+        cpEntity.setField( new StringField( "username", "edanuff" ) );
+        cpEntity.setField( new IntegerField( "created", 5 ) );
+        cpEntity.setField( new StringField( "color", "blue" ) );
+
+        User user = EntityFactory.newEntity( cpEntity.getId().getUuid(), "user", User.class );
+        user.setProperties( cpEntity );
+
+        // typed properties are set through their accessors, converted to the property type when needed
+        assertEquals( "edanuff", user.getUsername() );
+        assertEquals( Long.valueOf( 5 ), user.getCreated() );
+
+        // anything else is a dynamic property
+        assertEquals( "blue", user.getDynamicProperties().get( "color" ) );
+
+        assertEquals( "edanuff", Schema.getDefaultSchema().getEntityProperties( user ).get( "username" ) );
+        assertEquals( "blue", Schema.getDefaultSchema().getEntityProperty( user, "color" ) );
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.cassandra;
+
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.AbstractCoreIT;
+import org.apache.usergrid.count.common.Count;
+import org.apache.usergrid.persistence.core.CassandraConfig;
+import org.apache.usergrid.utils.UUIDUtils;
+
+import com.datastax.driver.core.Session;
+
+import me.prettyprint.cassandra.serializers.PrefixedSerializer;
+import me.prettyprint.hector.api.beans.DynamicComposite;
+import me.prettyprint.hector.api.beans.HColumn;
+
+import static org.apache.usergrid.persistence.cassandra.ApplicationCF.ENTITY_COUNTERS;
+import static org.apache.usergrid.persistence.cassandra.ApplicationCF.ENTITY_DICTIONARIES;
+import static org.apache.usergrid.persistence.cassandra.CassandraPersistenceUtils.key;
+import static org.apache.usergrid.persistence.cassandra.CassandraService.ue;
+import static org.apache.usergrid.utils.ConversionUtils.bytebuffer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests the CQL service reads and writes the legacy column families the way Hector does
+ */
+public class CassandraCqlServiceIT extends AbstractCoreIT {
+
+    private CassandraCqlService cqlService;
+    private UUID applicationId;
+
+
+    @Before
+    public void setupCqlService() {
+        cqlService = new CassandraCqlService( setup.getInjector().getInstance( Session.class ),
+            setup.getInjector().getInstance( CassandraConfig.class ) );
+        applicationId = app.getId();
+    }
+
+
+    @Test
+    public void counterRoundTrip() throws Exception {
+
+        final UUID entityId = UUIDUtils.newTimeUUID();
+        final ByteBuffer keyName = new PrefixedSerializer<>( applicationId, ue, ue ).toByteBuffer( entityId );
+
+        cqlService.incrementCounters(
+            Arrays.asList( new Count( ENTITY_COUNTERS.toString(), keyName, "visits", 5 ),
+                new Count( ENTITY_COUNTERS.toString(), keyName, "likes", 1 ) ) ).get();
+
+        cqlService.incrementCounters(
+            Arrays.asList( new Count( ENTITY_COUNTERS.toString(), keyName, "visits", 3 ) ) ).get();
+
+        final Map<ByteBuffer, Long> counters =
+            cqlService.getCounterColumns( applicationId, ENTITY_COUNTERS, entityId, null, null ).get();
+
+        assertEquals( 2, counters.size() );
+        assertEquals( 8L, ( long ) counters.get( bytebuffer( "visits" ) ) );
+        assertEquals( 1L, ( long ) counters.get( bytebuffer( "likes" ) ) );
+
+        //a range of the row
+        final Map<ByteBuffer, Long> range = cqlService
+            .getCounterColumns( applicationId, ENTITY_COUNTERS, entityId, bytebuffer( "v" ), bytebuffer( "w" ) )
+            .get();
+
+        assertEquals( 1, range.size() );
+        assertEquals( 8L, ( long ) range.get( bytebuffer( "visits" ) ) );
+    }
+
+
+    @Test
+    public void dictionaryRoundTrip() throws Exception {
+
+        final Object key = key( UUIDUtils.newTimeUUID(), "settings" );
+        final long timestamp = UUIDUtils.getTimestampInMicros( UUIDUtils.newTimeUUID() );
+
+        cqlService.executeWrites( Arrays.asList(
+            cqlService.insertColumn( applicationId, ENTITY_DICTIONARIES, key, "color", "blue", timestamp ),
+            cqlService.insertColumn( applicationId, ENTITY_DICTIONARIES, key, "size", "large", timestamp ) ) )
+                  .get();
+
+        assertEquals( bytebuffer( "blue" ),
+            cqlService.getColumn( applicationId, ENTITY_DICTIONARIES, key, bytebuffer( "color" ) ).get() );
+
+        final Map<ByteBuffer, ByteBuffer> columns =
+            cqlService.getColumns( applicationId, ENTITY_DICTIONARIES, key, bytebuffer( "size" ),
+                bytebuffer( "missing" ) ).get();
+
+        assertEquals( 1, columns.size() );
+        assertEquals( bytebuffer( "large" ), columns.get( bytebuffer( "size" ) ) );
+
+        //the columns are where Hector reads them
+        final List<HColumn<String, ByteBuffer>> hectorColumns = setup.getCassSvc().getAllColumns(
+            setup.getCassSvc().getApplicationKeyspace( applicationId ), ENTITY_DICTIONARIES, key );
+
+        assertEquals( 2, hectorColumns.size() );
+        assertEquals( "color", hectorColumns.get( 0 ).getName() );
+        assertEquals( bytebuffer( "blue" ), hectorColumns.get( 0 ).getValue() );
+
+        //a delete at a later timestamp removes the column
+        cqlService.executeWrites( Arrays.asList(
+            cqlService.deleteColumn( applicationId, ENTITY_DICTIONARIES, key, "color", timestamp + 1 ) ) ).get();
+
+        assertNull( cqlService.getColumn( applicationId, ENTITY_DICTIONARIES, key, bytebuffer( "color" ) ).get() );
+        assertEquals( 1, cqlService.getAllColumns( applicationId, ENTITY_DICTIONARIES, key ).get().size() );
+    }
+
+
+    @Test
+    public void compositeColumnNames() throws Exception {
+
+        final Object key = key( UUIDUtils.newTimeUUID(), "composite" );
+        final long timestamp = UUIDUtils.getTimestampInMicros( UUIDUtils.newTimeUUID() );
+
+        cqlService.executeWrites( Arrays.asList(
+            cqlService.insertColumn( applicationId, ENTITY_DICTIONARIES, key, Arrays.asList( "element" ), "value",
+                timestamp ) ) ).get();
+
+        final Map<ByteBuffer, ByteBuffer> columns =
+            cqlService.getAllColumns( applicationId, ENTITY_DICTIONARIES, key ).get();
+
+        final ByteBuffer compositeName = DynamicComposite.toByteBuffer( Arrays.asList( "element" ) );
+
+        assertTrue( "Written as a dynamic composite", columns.containsKey( compositeName ) );
+        assertEquals( bytebuffer( "value" ), columns.get( compositeName ) );
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.usergrid.persistence.collection;
 
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.usergrid.persistence.core.util.Health;
@@ -101,6 +102,16 @@ public interface EntityCollectionManager {
      */
     Observable<EntitySet> load( Collection<Id> entityIds );
 
+    /**
+     * @param entityIds The entityIds for loading a collection
+     * @param fieldNames The top level fields to load, all other fields are omitted from the returned entities
+     * Load the requested fields of all the entityIds into the observable entity set.  The entities returned are
+     * partial and must never be written back
+     *
+     * @return An EntitySet with the latest data of every entity that could be located
+     */
+    Observable<EntitySet> load( Collection<Id> entityIds, Set<String> fieldNames );
+
     /**
      * Get all versions of the log entry, from min to max
      * @param entityId
@@ -274,6 +274,19 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
     }
 
 
+    @Override
+    public Observable<EntitySet> load( final Collection<Id> entityIds, final Set<String> fieldNames ) {
+
+        Preconditions.checkNotNull( entityIds, "entityIds cannot be null" );
+        Preconditions.checkNotNull( fieldNames, "fieldNames cannot be null" );
+
+        final Observable<EntitySet> entitySetObservable = Observable.defer( () -> Observable.just(
+            entitySerializationStrategy.load( applicationScope, entityIds, UUIDGenerator.newTimeUUID(), fieldNames ) ) );
+
+        return ObservableTimer.time( entitySetObservable, loadTimer );
+    }
+
+
     @Override
     public Observable<MvccLogEntry> getVersions( final Id entityId ) {
         ValidationUtils.verifyIdentity( entityId );
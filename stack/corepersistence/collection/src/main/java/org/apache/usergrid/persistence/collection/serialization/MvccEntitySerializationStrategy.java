@@ -21,6 +21,7 @@ package org.apache.usergrid.persistence.collection.serialization;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.usergrid.persistence.collection.EntitySet;
@@ -57,6 +58,19 @@ public interface MvccEntitySerializationStrategy extends Migration, VersionedDat
      */
     EntitySet load( ApplicationScope scope, Collection<Id> entityIds, UUID maxVersion );
 
+    /**
+     * Load the entities into the entitySet from the specified Ids, only decoding the top level fields given.  Loads
+     * versions <= the maxVersion.  The entities returned are partial and must never be written back.  Serialization
+     * formats that can't decode partially return the full entities
+     *
+     * @param scope
+     * @param entityIds
+     * @param maxVersion
+     * @param fieldNames The top level field names to decode
+     * @return
+     */
+    EntitySet load( ApplicationScope scope, Collection<Id> entityIds, UUID maxVersion, Set<String> fieldNames );
+
     /**
      * Load a list, from highest to lowest of the entity with versions <= version up to maxSize elements
      *
@@ -1,19 +1,23 @@
 package org.apache.usergrid.persistence.collection.serialization.impl;
 
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.netflix.astyanax.serializers.StringSerializer;
 import org.apache.usergrid.persistence.core.datastax.TableDefinition;
@@ -125,6 +129,25 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
     @Override
     public EntitySet load( final ApplicationScope applicationScope, final Collection<Id> entityIds,
                            final UUID maxVersion ) {
+        return load( applicationScope, entityIds, maxVersion, entitySerializer );
+    }
+
+
+    @Override
+    public EntitySet load( final ApplicationScope applicationScope, final Collection<Id> entityIds,
+                           final UUID maxVersion, final Set<String> fieldNames ) {
+
+        Preconditions.checkNotNull( fieldNames, "fieldNames is required" );
+
+        return load( applicationScope, entityIds, maxVersion, new PartialEntitySerializer( fieldNames ) );
+    }
+
+
+    /**
+     * Load the entities, de-serializing each column with the serializer given
+     */
+    private EntitySet load( final ApplicationScope applicationScope, final Collection<Id> entityIds,
+                            final UUID maxVersion, final AbstractSerializer<EntityWrapper> serializer ) {
 
 
         Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
@@ -220,7 +243,7 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
                     final Column<Boolean> column = columns.getColumnByIndex( 0 );
 
                     final MvccEntity parsedEntity =
-                        new MvccColumnParser( entityId, entitySerializer ).parseColumn( column );
+                        new MvccColumnParser( entityId, serializer ).parseColumn( column );
 
 
                     entitySet.addEntity( parsedEntity );
@@ -491,6 +514,115 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
         }
     }
 
+    /**
+     * De-serializes only the id, version and the requested top level fields of the entity map.  Every other field is
+     * skipped in the token stream without being decoded.  Read only, the partial entities must never be written back
+     */
+    public final class PartialEntitySerializer extends AbstractSerializer<EntityWrapper> {
+
+        private static final String ID = "id";
+        private static final String VERSION = "version";
+        private static final String ENTITY_MAP = "entityMap";
+
+        private final Set<String> fieldNames;
+
+
+        public PartialEntitySerializer( final Set<String> fieldNames ) {
+            this.fieldNames = fieldNames;
+        }
+
+
+        @Override
+        public ByteBuffer toByteBuffer( final EntityWrapper wrapper ) {
+            throw new UnsupportedOperationException( "Partial entities cannot be serialized" );
+        }
+
+
+        @Override
+        public EntityWrapper fromByteBuffer( final ByteBuffer byteBuffer ) {
+
+            final ObjectMapper mapper = entitySerializer.MAPPER;
+
+            final EntityWrapper entityWrapper = new EntityWrapper();
+
+            try {
+                final byte[] arr = byteBuffer.array();
+
+                try ( final JsonParser parser = mapper.getFactory().createParser( arr ) ) {
+
+                    if ( parser.nextToken() != JsonToken.START_OBJECT ) {
+                        throw new DataCorruptionException( "Entity data is not a json object", null );
+                    }
+
+                    while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+
+                        final String name = parser.getCurrentName();
+
+                        parser.nextToken();
+
+                        if ( ID.equals( name ) ) {
+                            entityWrapper.id = mapper.readValue( parser, Id.class );
+                        }
+                        else if ( VERSION.equals( name ) ) {
+                            entityWrapper.version = mapper.readValue( parser, UUID.class );
+                        }
+                        else if ( ENTITY_MAP.equals( name ) && parser.getCurrentToken() == JsonToken.START_OBJECT ) {
+                            entityWrapper.entityMap = readFields( mapper, parser );
+                        }
+                        else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+
+                entityWrapper.size = arr.length;
+            }
+            catch ( DataCorruptionException dce ) {
+                throw dce;
+            }
+            catch ( Exception e ) {
+                throw new DataCorruptionException( "Unable to read entity data", e );
+            }
+
+            // it's been deleted, remove it
+            if ( entityWrapper.getEntityMap() == null ) {
+                return new EntityWrapper( entityWrapper.getId(), entityWrapper.getVersion(), MvccEntity.Status.DELETED,
+                    null, 0 );
+            }
+
+            entityWrapper.setStatus( MvccEntity.Status.COMPLETE );
+
+            return entityWrapper;
+        }
+
+
+        /**
+         * Read the requested fields of the entity map, the parser must be on the start of the map
+         */
+        private EntityMap readFields( final ObjectMapper mapper, final JsonParser parser ) throws IOException {
+
+            final EntityMap entityMap = new EntityMap();
+
+            while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+
+                final String name = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if ( fieldNames.contains( name ) ) {
+                    //values are typed as objects, the root deserializer applies our default typing to them
+                    entityMap.put( name, mapper.readValue( parser, Object.class ) );
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+
+            return entityMap;
+        }
+    }
+
+
     /**
      * Simple bean wrapper for state and entity
      */
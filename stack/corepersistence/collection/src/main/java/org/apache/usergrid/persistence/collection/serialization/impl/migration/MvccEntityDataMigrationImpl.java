@@ -43,6 +43,7 @@ import org.apache.usergrid.persistence.core.migration.data.DataMigration;
 import org.apache.usergrid.persistence.core.migration.data.DataMigrationException;
 import org.apache.usergrid.persistence.core.migration.data.MigrationDataProvider;
 import org.apache.usergrid.persistence.core.migration.data.MigrationRelationship;
+import org.apache.usergrid.persistence.core.migration.data.PartitionedMigrationRunner;
 import org.apache.usergrid.persistence.core.migration.data.ProgressObserver;
 import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
@@ -79,6 +80,7 @@ public class MvccEntityDataMigrationImpl implements DataMigration{
     private final UniqueValueSerializationStrategy uniqueValueSerializationStrategy;
     private final MvccLogEntrySerializationStrategy mvccLogEntrySerializationStrategy;
     private final MigrationDataProvider<EntityIdScope> migrationDataProvider;
+    private final PartitionedMigrationRunner partitionedMigrationRunner;
 
 
     @Inject
@@ -88,7 +90,8 @@ public class MvccEntityDataMigrationImpl implements DataMigration{
                                         final MvccEntitySerializationStrategyV3Impl mvccEntitySerializationStrategyV3,
                                         final UniqueValueSerializationStrategy uniqueValueSerializationStrategy,
                                         final MvccLogEntrySerializationStrategy mvccLogEntrySerializationStrategy,
-                                        final MigrationDataProvider<EntityIdScope> migrationDataProvider ) {
+                                        final MigrationDataProvider<EntityIdScope> migrationDataProvider,
+                                        final PartitionedMigrationRunner partitionedMigrationRunner ) {
         this.keyspace = keyspace;
         this.session = session;
         this.allVersions = allVersions;
@@ -96,6 +99,7 @@ public class MvccEntityDataMigrationImpl implements DataMigration{
         this.uniqueValueSerializationStrategy = uniqueValueSerializationStrategy;
         this.mvccLogEntrySerializationStrategy = mvccLogEntrySerializationStrategy;
         this.migrationDataProvider = migrationDataProvider;
+        this.partitionedMigrationRunner = partitionedMigrationRunner;
     }
 
 
@@ -125,8 +129,24 @@ public class MvccEntityDataMigrationImpl implements DataMigration{
             allVersions.getMigrationRelationship( currentVersion );
 
 
-        final Observable<List<EntityToSaveMessage>> migrated =
-            migrationDataProvider.getData().subscribeOn( Schedulers.io() ).flatMap( entityToSaveList -> Observable.just( entityToSaveList ).flatMap( entityIdScope -> {
+        partitionedMigrationRunner.migrate(
+            MvccEntityDataMigrationImpl.class.getSimpleName() + ":" + migration.to.getImplementationVersion(),
+            migrationDataProvider.getPartitions(),
+            partition -> migratePartition( partition.getData(), migration, startTime, atomicLong, observer )
+                .map( List::size ) );
+
+        return migration.to.getImplementationVersion();
+    }
+
+
+    /**
+     * Migrate the entities of a partition, emitting the batches of entity versions as they are written
+     */
+    private Observable<List<EntityToSaveMessage>> migratePartition(
+        final Observable<EntityIdScope> data, final MigrationRelationship<MvccEntitySerializationStrategy> migration,
+        final UUID startTime, final AtomicLong atomicLong, final ProgressObserver observer ) {
+
+        return data.subscribeOn( Schedulers.io() ).flatMap( entityToSaveList -> Observable.just( entityToSaveList ).flatMap( entityIdScope -> {
 
                 //load the entity
                 final ApplicationScope currentScope = entityIdScope.getApplicationScope();
@@ -248,10 +268,6 @@ public class MvccEntityDataMigrationImpl implements DataMigration{
                     } ).subscribeOn(Schedulers.io());
 
             }, 10) );
-
-        migrated.toBlocking().lastOrDefault(null);
-
-        return migration.to.getImplementationVersion();
     }
 
 
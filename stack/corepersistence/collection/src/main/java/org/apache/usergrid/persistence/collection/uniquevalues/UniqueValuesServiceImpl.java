@@ -43,6 +43,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.concurrent.Await;
 import scala.concurrent.Future;
+import scala.concurrent.duration.Duration;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -95,23 +96,19 @@ public class UniqueValuesServiceImpl implements UniqueValuesService {
         ready();
 
         try {
+            List<UniqueValueActor.Request> requests = new ArrayList<>();
+
             for (Field field : entity.getFields()) {
                 if (field.isUnique()) {
-                    reserveUniqueField( scope, entity, version, field, region );
+                    requests.add( createReservation( scope, entity, version, field ) );
                 }
             }
 
-        } catch ( UniqueValueException e ) {
+            // reserve every field at once
+            sendUniqueValueRequests( entity, region, requests );
 
-            for (Field field : entity.getFields()) {
-                if (field.isUnique()) {
-                    try {
-                        cancelUniqueField( scope, entity, version, field, region );
-                    } catch (Throwable ignored) {
-                        logger.error( "Error canceling unique field", ignored );
-                    }
-                }
-            }
+        } catch ( UniqueValueException | RuntimeException e ) {
+            cancelUniqueFields( scope, entity, version, region );
             throw e;
         }
     }
@@ -124,31 +121,27 @@ public class UniqueValuesServiceImpl implements UniqueValuesService {
         ready();
 
         try {
+            List<UniqueValueActor.Request> requests = new ArrayList<>();
+
             for (Field field : entity.getFields()) {
                 if (field.isUnique()) {
-                    confirmUniqueField( scope, entity, version, field, region );
+                    requests.add( new UniqueValueActor.Confirmation( scope, entity.getId(), version, field ) );
                 }
             }
 
-        } catch ( UniqueValueException e ) {
+            // confirm every field at once
+            sendUniqueValueRequests( entity, region, requests );
 
-            for (Field field : entity.getFields()) {
-                if (field.isUnique()) {
-                    try {
-                        cancelUniqueField( scope, entity, version, field, region );
-                    } catch (Throwable ex ) {
-                        logger.error( "Error canceling unique field", ex );
-                    }
-                }
-            }
+        } catch ( UniqueValueException | RuntimeException e ) {
+            cancelUniqueFields( scope, entity, version, region );
             throw e;
         }
 
     }
 
 
-    private void reserveUniqueField(
-        ApplicationScope scope, Entity entity, UUID version, Field field, String region ) throws UniqueValueException {
+    private UniqueValueActor.Request createReservation(
+        ApplicationScope scope, Entity entity, UUID version, Field field ) throws UniqueValueException {
 
         UniqueValueActor.Request request = new UniqueValueActor.Reservation(
             scope, entity.getId(), version, field );
@@ -161,17 +154,24 @@ public class UniqueValuesServiceImpl implements UniqueValuesService {
             throw new UniqueValueException( "Error property not unique (cache)", field);
         }
 
-        sendUniqueValueRequest( entity, region, request );
+        return request;
     }
 
 
-    private void confirmUniqueField(
-        ApplicationScope scope, Entity entity, UUID version, Field field, String region) throws UniqueValueException {
-
-        UniqueValueActor.Confirmation request = new UniqueValueActor.Confirmation(
-            scope, entity.getId(), version, field );
+    /**
+     * Roll back all unique fields of the entity, fields that were never reserved are ignored by the actors.
+     */
+    private void cancelUniqueFields( ApplicationScope scope, Entity entity, UUID version, String region ) {
 
-        sendUniqueValueRequest( entity, region, request );
+        for (Field field : entity.getFields()) {
+            if (field.isUnique()) {
+                try {
+                    cancelUniqueField( scope, entity, version, field, region );
+                } catch (Throwable ex ) {
+                    logger.error( "Error canceling unique field", ex );
+                }
+            }
+        }
     }
 
 
@@ -217,70 +217,108 @@ public class UniqueValuesServiceImpl implements UniqueValuesService {
     }
 
 
-    private void sendUniqueValueRequest(
-        Entity entity, String region, UniqueValueActor.Request request ) throws UniqueValueException {
+    /**
+     * Send all requests in parallel and wait for them with a single timeout per attempt. Requests that time out or
+     * fail are retried together.  A field found not to be unique fails the whole set, once every other request of
+     * the attempt has answered or timed out, so the caller's cancellations don't race reservations still in flight.
+     */
+    private void sendUniqueValueRequests(
+        Entity entity, String region, List<UniqueValueActor.Request> requests ) throws UniqueValueException {
 
         int maxRetries = uniqueValuesFig.getRequestRetryCount();
         int retries = 0;
 
-        UniqueValueActor.Response response = null;
-        while ( retries++ < maxRetries ) {
-            try {
-                Timeout t = new Timeout( uniqueValuesFig.getRequestTimeout(), TimeUnit.MILLISECONDS );
+        List<UniqueValueActor.Request> pending = requests;
 
-                Future<Object> fut;
+        while ( !pending.isEmpty() && retries++ < maxRetries ) {
 
-                if ( actorSystemManager.getCurrentRegion().equals( region ) ) {
+            Timeout t = new Timeout( uniqueValuesFig.getRequestTimeout(), TimeUnit.MILLISECONDS );
 
-                    // sending to current region, use local clientActor
-                    ActorRef clientActor = actorSystemManager.getClientActor();
-                    fut = Patterns.ask( clientActor, request, t );
+            List<Future<Object>> futures = new ArrayList<>( pending.size() );
+            for ( UniqueValueActor.Request request : pending ) {
+                futures.add( askUniqueValueRequest( region, request, t ) );
+            }
 
-                } else {
+            // one deadline for the whole set of requests
+            long deadline = System.nanoTime() + t.duration().toNanos();
+
+            List<UniqueValueActor.Request> failed = new ArrayList<>();
+
+            UniqueValueActor.Request notUnique = null;
+
+            for ( int i = 0; i < pending.size(); i++ ) {
 
-                    // sending to remote region, send via cluster client for that region
-                    ActorRef clusterClient = actorSystemManager.getClusterClient( region );
-                    fut = Patterns.ask( clusterClient, new ClusterClient.Send("/user/clientActor", request), t );
+                UniqueValueActor.Request request = pending.get( i );
+                UniqueValueActor.Response response = null;
+
+                try {
+                    long remaining = Math.max( deadline - System.nanoTime(), 0L );
+
+                    // wait (up to what is left of the timeout) for response
+                    response = (UniqueValueActor.Response) Await.result(
+                        futures.get( i ), Duration.create( remaining, TimeUnit.NANOSECONDS ) );
+
+                } catch ( Exception e ) {
+                    logger.error("{} caused retry {} for entity {} rowkey {}",
+                        e.getClass().getSimpleName(), retries, entity.getId().getUuid(), request.getConsistentHashKey());
                 }
 
-                // wait (up to timeout) for response
-                response = (UniqueValueActor.Response) Await.result( fut, t.duration() );
+                if ( response != null && response.getStatus().equals( UniqueValueActor.Response.Status.NOT_UNIQUE )) {
 
-                if ( response != null && (
-                        response.getStatus().equals( UniqueValueActor.Response.Status.IS_UNIQUE )
-                                || response.getStatus().equals( UniqueValueActor.Response.Status.NOT_UNIQUE ))) {
+                    // keep waiting on the rest, they're cancelled along with this one
+                    if ( notUnique == null ) {
+                        notUnique = request;
+                    }
+
+                } else if ( response != null && response.getStatus().equals( UniqueValueActor.Response.Status.IS_UNIQUE )) {
                     if ( retries > 1 ) {
                         logger.debug("IS_UNIQUE after retrying {} for entity {} rowkey {}",
                                 retries, entity.getId().getUuid(), request.getConsistentHashKey());
                     }
-                    break;
 
-                } else if ( response != null  ) {
-                    logger.warn("ERROR status retrying {} entity {} rowkey {}",
-                            retries, entity.getId().getUuid(), request.getConsistentHashKey());
                 } else {
-                    logger.warn("Timed-out retrying {} entity {} rowkey",
-                            retries, entity.getId().getUuid(), request.getConsistentHashKey());
+                    if ( response != null ) {
+                        logger.warn("ERROR status retrying {} entity {} rowkey {}",
+                                retries, entity.getId().getUuid(), request.getConsistentHashKey());
+                    } else {
+                        logger.warn("Timed-out retrying {} entity {} rowkey {}",
+                                retries, entity.getId().getUuid(), request.getConsistentHashKey());
+                    }
+                    failed.add( request );
                 }
+            }
 
-            } catch ( Exception e ) {
-                logger.error("{} caused retry {} for entity {} rowkey {}",
-                    e.getClass().getSimpleName(), retries, entity.getId().getUuid(), request.getConsistentHashKey());
+            if ( notUnique != null ) {
+                // should result in an HTTP 409 (conflict)
+                throw new UniqueValueException( "Error property not unique", notUnique.getField() );
             }
+
+            pending = failed;
         }
 
-        if ( response == null || response.getStatus().equals( UniqueValueActor.Response.Status.ERROR )) {
-            logger.debug("ERROR after retrying {} for entity {} rowkey {}",
-                    retries, entity.getId().getUuid(), request.getConsistentHashKey());
+        if ( !pending.isEmpty() ) {
+            logger.debug("ERROR after retrying {} for entity {} with {} requests pending",
+                    retries, entity.getId().getUuid(), pending.size());
 
             // should result in an HTTP 503
             throw new RuntimeException( "Error verifying unique value after " + retries + " retries");
         }
+    }
 
-        if ( response.getStatus().equals( UniqueValueActor.Response.Status.NOT_UNIQUE )) {
 
-            // should result in an HTTP 409 (conflict)
-            throw new UniqueValueException( "Error property not unique", request.getField() );
+    private Future<Object> askUniqueValueRequest( String region, UniqueValueActor.Request request, Timeout t ) {
+
+        if ( actorSystemManager.getCurrentRegion().equals( region ) ) {
+
+            // sending to current region, use local clientActor
+            ActorRef clientActor = actorSystemManager.getClientActor();
+            return Patterns.ask( clientActor, request, t );
+
+        } else {
+
+            // sending to remote region, send via cluster client for that region
+            ActorRef clusterClient = actorSystemManager.getClusterClient( region );
+            return Patterns.ask( clusterClient, new ClusterClient.Send("/user/clientActor", request), t );
         }
     }
 
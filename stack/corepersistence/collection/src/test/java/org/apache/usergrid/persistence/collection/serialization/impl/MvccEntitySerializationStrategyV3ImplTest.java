@@ -1,24 +1,47 @@
 package org.apache.usergrid.persistence.collection.serialization.impl;
 
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import org.apache.usergrid.persistence.collection.MvccEntity;
 import org.apache.usergrid.persistence.collection.guice.TestCollectionModule;
+import org.apache.usergrid.persistence.collection.mvcc.entity.impl.MvccEntityImpl;
 import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerializationStrategy;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
 import org.apache.usergrid.persistence.core.test.ITRunner;
 import org.apache.usergrid.persistence.core.test.UseModules;
+import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.ArrayField;
+import org.apache.usergrid.persistence.model.field.BooleanField;
+import org.apache.usergrid.persistence.model.field.EntityObjectField;
+import org.apache.usergrid.persistence.model.field.Field;
+import org.apache.usergrid.persistence.model.field.IntegerField;
+import org.apache.usergrid.persistence.model.field.ListField;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.field.UUIDField;
+import org.apache.usergrid.persistence.model.field.value.EntityObject;
+import org.apache.usergrid.persistence.model.util.EntityUtils;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 
+import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
 
 /**
  * Same tests as v2, we just override some methods to ensure they throw the correct exceptions
@@ -65,5 +88,135 @@ public class MvccEntitySerializationStrategyV3ImplTest extends MvccEntitySeriali
 
         serializationStrategy.loadDescendingHistory( context, entityId, version1, 20 );
     }
-}
 
+
+    @Test
+    public void loadSelectedFields() throws ConnectionException {
+        final ApplicationScope context = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        final Entity full = writeEntity( context );
+
+        final Entity partial = loadPartial( context, full, "name", "uuid", "boolean" );
+
+        assertEquals( 3, partial.getFields().size() );
+        assertSameField( full, partial, "name" );
+        assertSameField( full, partial, "uuid" );
+        assertSameField( full, partial, "boolean" );
+    }
+
+
+    @Test
+    public void loadMissingFields() throws ConnectionException {
+        final ApplicationScope context = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        final Entity full = writeEntity( context );
+
+        final Entity partial = loadPartial( context, full, "name", "missing", "other" );
+
+        assertEquals( 1, partial.getFields().size() );
+        assertSameField( full, partial, "name" );
+        assertNull( partial.getField( "missing" ) );
+        assertNull( partial.getField( "other" ) );
+    }
+
+
+    @Test
+    public void loadNestedFields() throws ConnectionException {
+        final ApplicationScope context = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        final Entity full = writeEntity( context );
+
+        final Entity partial = loadPartial( context, full, "address", "array", "list", "int" );
+
+        assertEquals( 4, partial.getFields().size() );
+        assertSameField( full, partial, "address" );
+        assertSameField( full, partial, "array" );
+        assertSameField( full, partial, "list" );
+        assertSameField( full, partial, "int" );
+    }
+
+
+    @Test
+    public void loadNoFields() throws ConnectionException {
+        final ApplicationScope context = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        final Entity full = writeEntity( context );
+
+        final Entity partial = loadPartial( context, full );
+
+        assertTrue( partial.getFields().isEmpty() );
+    }
+
+
+    /**
+     * Write an entity with flat, nested and collection fields and return it as the full deserializer reads it back
+     */
+    private Entity writeEntity( final ApplicationScope context ) throws ConnectionException {
+        final Id id = new SimpleId( UUIDGenerator.newTimeUUID(), "test" );
+        final UUID version = UUIDGenerator.newTimeUUID();
+
+        final Entity entity = new Entity( id );
+        EntityUtils.setVersion( entity, version );
+
+        entity.setField( new StringField( "name", "test" ) );
+        entity.setField( new UUIDField( "uuid", UUIDGenerator.newTimeUUID() ) );
+        entity.setField( new BooleanField( "boolean", true ) );
+        entity.setField( new IntegerField( "int", 42 ) );
+
+        final EntityObject address = new EntityObject();
+        address.setField( new StringField( "street", "1 main st" ) );
+        address.setField( new IntegerField( "zip", 12345 ) );
+        entity.setField( new EntityObjectField( "address", address ) );
+
+        final ArrayField<String> array = new ArrayField<>( "array" );
+        array.add( "item1" );
+        array.add( "item2" );
+        entity.setField( array );
+
+        entity.setField( new ListField<>( "list", Arrays.asList( 1, 2, 3 ) ) );
+
+        serializationStrategy
+            .write( context, new MvccEntityImpl( id, version, MvccEntity.Status.COMPLETE, Optional.of( entity ) ) )
+            .execute();
+
+        final MvccEntity returned =
+            serializationStrategy.load( context, Collections.singleton( id ), version ).getEntity( id );
+
+        assertNotNull( returned );
+
+        return returned.getEntity().get();
+    }
+
+
+    /**
+     * Load only the given fields of the entity, the id and version must match the full entity
+     */
+    private Entity loadPartial( final ApplicationScope context, final Entity full, final String... fieldNames ) {
+        final Set<String> fields = new HashSet<>( Arrays.asList( fieldNames ) );
+
+        final MvccEntity returned = serializationStrategy
+            .load( context, Collections.singleton( full.getId() ), full.getVersion(), fields )
+            .getEntity( full.getId() );
+
+        assertNotNull( returned );
+        assertEquals( MvccEntity.Status.COMPLETE, returned.getStatus() );
+        assertEquals( full.getId(), returned.getId() );
+        assertEquals( full.getVersion(), returned.getVersion() );
+        assertTrue( returned.getEntity().isPresent() );
+
+        final Entity partial = returned.getEntity().get();
+
+        assertEquals( full.getId(), partial.getId() );
+        assertEquals( full.getVersion(), partial.getVersion() );
+
+        return partial;
+    }
+
+
+    private static void assertSameField( final Entity full, final Entity partial, final String name ) {
+        final Field expected = full.getField( name );
+
+        assertNotNull( expected );
+        assertEquals( expected, partial.getField( name ) );
+    }
+}
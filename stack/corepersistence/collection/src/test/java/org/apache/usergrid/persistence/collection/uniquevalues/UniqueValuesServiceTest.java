@@ -18,10 +18,15 @@
  */
 package org.apache.usergrid.persistence.collection.uniquevalues;
 
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.inject.Inject;
+import com.google.inject.Injector;
 import org.apache.usergrid.persistence.actorsystem.ActorSystemFig;
 import org.apache.usergrid.persistence.actorsystem.ActorSystemManager;
 import org.apache.usergrid.persistence.collection.AbstractUniqueValueTest;
@@ -42,14 +47,23 @@ import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
+import scala.concurrent.duration.Duration;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 
 /**
  * Test the unique values service.
@@ -75,6 +89,12 @@ public class UniqueValuesServiceTest extends AbstractUniqueValueTest {
     @Inject
     UniqueValuesService uniqueValuesService;
 
+    @Inject
+    UniqueValuesFig uniqueValuesFig;
+
+    @Inject
+    Injector injector;
+
 
     int numThreads = 6;
     int poolSize = 5;
@@ -122,6 +142,256 @@ public class UniqueValuesServiceTest extends AbstractUniqueValueTest {
     }
 
 
+    /**
+     * One parallel request times out and another gets an error, only those two are asked again.
+     */
+    @Test
+    public void testPartialFailureRetried() throws Exception {
+
+        StubClientActor.reset();
+        StubClientActor.unanswered.put( "username", 1 );
+        StubClientActor.firstStatus.put( "email", UniqueValueActor.Response.Status.ERROR );
+
+        ActorSystem system = ActorSystem.create( "Test-uvs-" + UUID.randomUUID() );
+        try {
+            stubService( system ).reserveUniqueValues( stubScope(), stubEntity(), UUID.randomUUID(), "us-east" );
+
+            Assert.assertEquals( 2, StubClientActor.asks( "username" ) );
+            Assert.assertEquals( 2, StubClientActor.asks( "email" ) );
+            Assert.assertEquals( 1, StubClientActor.asks( "phone" ) );
+            Assert.assertTrue( StubClientActor.cancelled.isEmpty() );
+
+        } finally {
+            system.terminate();
+        }
+    }
+
+
+    /**
+     * A field found not to be unique fails the set, even with another request timing out, and every field is
+     * cancelled.
+     */
+    @Test
+    public void testNotUniqueWithTimeout() throws Exception {
+
+        StubClientActor.reset();
+        StubClientActor.unanswered.put( "username", 1 );
+        StubClientActor.firstStatus.put( "email", UniqueValueActor.Response.Status.NOT_UNIQUE );
+
+        ActorSystem system = ActorSystem.create( "Test-uvs-" + UUID.randomUUID() );
+        try {
+            try {
+                stubService( system ).reserveUniqueValues( stubScope(), stubEntity(), UUID.randomUUID(), "us-east" );
+                Assert.fail( "Reservation should fail on the field that is not unique" );
+
+            } catch ( UniqueValueException expected ) {
+                Assert.assertEquals( "email", expected.getField().getName() );
+            }
+
+            // nothing is retried once a field is known not to be unique
+            Assert.assertEquals( 1, StubClientActor.asks( "username" ) );
+            Assert.assertEquals( 1, StubClientActor.asks( "email" ) );
+
+            waitForCancellations( 3 );
+
+        } finally {
+            system.terminate();
+        }
+    }
+
+
+    /**
+     * A field found not to be unique fails the set only once the other requests have answered, so the fields are not
+     * cancelled while a reservation is still in flight.
+     */
+    @Test
+    public void testNotUniqueWaitsForLateSuccess() throws Exception {
+
+        StubClientActor.reset();
+        StubClientActor.firstStatus.put( "email", UniqueValueActor.Response.Status.NOT_UNIQUE );
+        StubClientActor.delayMillis.put( "phone", 200L );
+        StubClientActor.delayMillis.put( "username", 200L );
+
+        ActorSystem system = ActorSystem.create( "Test-uvs-" + UUID.randomUUID() );
+        try {
+            try {
+                stubService( system ).reserveUniqueValues( stubScope(), stubEntity(), UUID.randomUUID(), "us-east" );
+                Assert.fail( "Reservation should fail on the field that is not unique" );
+
+            } catch ( UniqueValueException expected ) {
+                Assert.assertEquals( "email", expected.getField().getName() );
+            }
+
+            Assert.assertEquals( 1, StubClientActor.asks( "phone" ) );
+            Assert.assertEquals( 1, StubClientActor.asks( "username" ) );
+
+            waitForCancellations( 3 );
+
+            // every field is cancelled after the late answers were sent
+            long lastAnswer = Collections.max( StubClientActor.answeredAt.values() );
+            synchronized ( StubClientActor.cancelledAt ) {
+                for ( long cancelledAt : StubClientActor.cancelledAt ) {
+                    Assert.assertTrue( "Cancelled before the late answers", cancelledAt >= lastAnswer );
+                }
+            }
+
+        } finally {
+            system.terminate();
+        }
+    }
+
+
+    /**
+     * A request that never gets an answer fails the set once the retries are used up.
+     */
+    @Test
+    public void testTimeoutAfterRetries() throws Exception {
+
+        StubClientActor.reset();
+        StubClientActor.unanswered.put( "username", Integer.MAX_VALUE );
+
+        ActorSystem system = ActorSystem.create( "Test-uvs-" + UUID.randomUUID() );
+        try {
+            try {
+                stubService( system ).reserveUniqueValues( stubScope(), stubEntity(), UUID.randomUUID(), "us-east" );
+                Assert.fail( "Reservation should fail once the retries are used up" );
+
+            } catch ( RuntimeException expected ) {
+                logger.debug( "Expected failure", expected );
+            }
+
+            Assert.assertEquals( 3, StubClientActor.asks( "username" ) );
+            Assert.assertEquals( 1, StubClientActor.asks( "email" ) );
+            Assert.assertEquals( 1, StubClientActor.asks( "phone" ) );
+
+            waitForCancellations( 3 );
+
+        } finally {
+            system.terminate();
+        }
+    }
+
+
+    /**
+     * A service whose requests are answered by a {@link StubClientActor} in the system given.
+     */
+    private UniqueValuesService stubService( ActorSystem system ) {
+
+        UniqueValuesFig fig = mock( UniqueValuesFig.class );
+        when( fig.getRequestTimeout() ).thenReturn( 500 );
+        when( fig.getRequestRetryCount() ).thenReturn( 3 );
+        when( fig.getUniqueValueCacheTtl() ).thenReturn( uniqueValuesFig.getUniqueValueCacheTtl() );
+
+        ActorSystemManager manager = mock( ActorSystemManager.class );
+        when( manager.isReady() ).thenReturn( true );
+        when( manager.getCurrentRegion() ).thenReturn( "us-east" );
+        when( manager.getClientActor() ).thenReturn( system.actorOf( Props.create( StubClientActor.class ) ) );
+
+        return new UniqueValuesServiceImpl( injector, fig, manager, mock( UniqueValuesTable.class ) );
+    }
+
+
+    private ApplicationScope stubScope() {
+        return new ApplicationScopeImpl( new SimpleId( "organization" ) );
+    }
+
+
+    private Entity stubEntity() {
+        String username = "user_" + UUID.randomUUID().toString();
+
+        Entity entity = new Entity( new SimpleId( "user" ) );
+        entity.setField( new StringField( "username", username, true ) );
+        entity.setField( new StringField( "email", username + "@example.org", true ) );
+        entity.setField( new StringField( "phone", username, true ) );
+        return entity;
+    }
+
+
+    private void waitForCancellations( int expected ) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ( StubClientActor.cancelled.size() < expected && System.currentTimeMillis() < deadline ) {
+            Thread.sleep( 10 );
+        }
+        Assert.assertEquals( expected, StubClientActor.cancelled.size() );
+    }
+
+
+    /**
+     * Answers unique value requests by field name.  A field can be left unanswered for a number of asks, so they
+     * time out, its first answer can be given a status, later answers are IS_UNIQUE, and its answers can be delayed.
+     */
+    public static class StubClientActor extends UntypedActor {
+
+        static final Map<String, AtomicInteger> asks = new ConcurrentHashMap<>();
+        static final Map<String, Integer> unanswered = new ConcurrentHashMap<>();
+        static final Map<String, UniqueValueActor.Response.Status> firstStatus = new ConcurrentHashMap<>();
+        static final Map<String, Long> delayMillis = new ConcurrentHashMap<>();
+        static final Map<String, Long> answeredAt = new ConcurrentHashMap<>();
+        static final List<String> cancelled = Collections.synchronizedList( new ArrayList<>() );
+        static final List<Long> cancelledAt = Collections.synchronizedList( new ArrayList<>() );
+
+        static void reset() {
+            asks.clear();
+            unanswered.clear();
+            firstStatus.clear();
+            delayMillis.clear();
+            answeredAt.clear();
+            cancelled.clear();
+            cancelledAt.clear();
+        }
+
+        static int asks( String fieldName ) {
+            AtomicInteger count = asks.get( fieldName );
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public void onReceive( Object message ) {
+
+            if ( message instanceof UniqueValueActor.Cancellation ) {
+                cancelledAt.add( System.nanoTime() );
+                cancelled.add( ((UniqueValueActor.Cancellation) message).getField().getName() );
+
+            } else if ( message instanceof UniqueValueActor.Request ) {
+                UniqueValueActor.Request request = (UniqueValueActor.Request) message;
+                String fieldName = request.getField().getName();
+
+                int ask = asks.computeIfAbsent( fieldName, k -> new AtomicInteger() ).incrementAndGet();
+                int ignored = unanswered.getOrDefault( fieldName, 0 );
+
+                if ( ask <= ignored ) {
+                    return;
+                }
+
+                UniqueValueActor.Response.Status status = ask == ignored + 1
+                    ? firstStatus.getOrDefault( fieldName, UniqueValueActor.Response.Status.IS_UNIQUE )
+                    : UniqueValueActor.Response.Status.IS_UNIQUE;
+
+                UniqueValueActor.Response response =
+                    new UniqueValueActor.Response( status, request.getConsistentHashKey() );
+
+                long delay = delayMillis.getOrDefault( fieldName, 0L );
+
+                if ( delay == 0 ) {
+                    getSender().tell( response, getSelf() );
+                    return;
+                }
+
+                ActorRef sender = getSender();
+                ActorRef self = getSelf();
+
+                getContext().system().scheduler().scheduleOnce(
+                    Duration.create( delay, TimeUnit.MILLISECONDS ),
+                    () -> {
+                        answeredAt.put( fieldName, System.nanoTime() );
+                        sender.tell( response, self );
+                    },
+                    getContext().dispatcher() );
+            }
+        }
+    }
+
+
     private Multimap<String, Entity> generateDuplicateUsers(
         int numUsers, AtomicInteger successCounter, AtomicInteger errorCounter ) {
 
@@ -50,6 +50,7 @@ public interface CassandraFig extends GuicyFig {
     String THRIFT_TRANSPORT_SIZE = "cassandra.thrift.transport.frame";
     String USERNAME = "cassandra.username";
     String PASSWORD = "cassandra.password";
+    String LEGACY_DATASTAX_FLAG = "cassandra.legacy.use_datastax";
 
     // locks cassandra properties
     String LOCKS_KEYSPACE_NAME = "cassandra.lock.keyspace";
@@ -103,6 +104,14 @@ public interface CassandraFig extends GuicyFig {
     @Default( DEFAULT_PASSWORD )
     String getPassword();
 
+    /**
+     * Read and write the legacy counter and dictionary column families with the shared DataStax session instead of
+     * the Hector pool
+     */
+    @Key( LEGACY_DATASTAX_FLAG )
+    @Default( "false" )
+    boolean useDataStaxForLegacy();
+
     @Key( "cassandra.datacenter.local" )
     @Default( DEFAULT_LOCAL_DC )
     String getLocalDataCenter();
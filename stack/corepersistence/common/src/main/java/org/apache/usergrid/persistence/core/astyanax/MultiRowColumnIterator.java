@@ -32,7 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.netflix.astyanax.Keyspace;
-import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 import com.netflix.astyanax.model.Column;
 import com.netflix.astyanax.model.ColumnFamily;
 import com.netflix.astyanax.model.ColumnList;
@@ -46,7 +45,7 @@ import com.netflix.astyanax.util.RangeBuilder;
  *
  *
  */
-public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
+public class MultiRowColumnIterator<R, C, T> implements Iterator<T>, AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger( MultiRowColumnIterator.class );
 
@@ -77,6 +76,18 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
 
     private Iterator<T> currentColumnIterator;
 
+    private final boolean readAhead;
+
+    /**
+     * The next page, read while the rest of the current page is consumed
+     */
+    private final RowSliceQueries.ReadAhead<R, C> nextPage = new RowSliceQueries.ReadAhead<>();
+
+    /**
+     * The columns of the current page left to consume before the next page is read, 0 when it's not read ahead
+     */
+    private int untilReadAhead;
+
 
     /**
      * Remove after finding bug
@@ -99,6 +110,19 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
                                    final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
                                    final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
                                    final Collection<R> rowKeys, final int pageSize ) {
+        this( keyspace, cf, consistencyLevel, columnParser, columnSearch, comparator, rowKeys, pageSize, false );
+    }
+
+
+    /**
+     * Create the iterator
+     *
+     * @param readAhead True to read the next page once most of the current page is consumed
+     */
+    public MultiRowColumnIterator( final Keyspace keyspace, final ColumnFamily<R, C> cf,
+                                   final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
+                                   final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
+                                   final Collection<R> rowKeys, final int pageSize, final boolean readAhead ) {
         this.cf = cf;
         this.pageSize = pageSize;
         this.columnParser = columnParser;
@@ -108,6 +132,7 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
         this.keyspace = keyspace;
         this.consistencyLevel = consistencyLevel;
         this.moreToReturn = true;
+        this.readAhead = readAhead;
 
         //        seenResults = new HashMap<>( pageSize * 10 );
     }
@@ -133,6 +158,10 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
 
         final T next = currentColumnIterator.next();
 
+        //most of the page is consumed, read the next one while the caller consumes the rest
+        if ( untilReadAhead > 0 && --untilReadAhead == 0 ) {
+            nextPage.start( rowKeys, startColumn, buildQuery( pageSize + 1 ) );
+        }
 
         return next;
     }
@@ -144,6 +173,16 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
     }
 
 
+    /**
+     * Cancel the page read ahead when the iterator is abandoned
+     */
+    @Override
+    public void close() {
+        untilReadAhead = 0;
+        nextPage.cancel();
+    }
+
+
     public void advance() {
 
 
@@ -159,36 +198,22 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
 
         final int selectSize = skipFirstColumn ? pageSize + 1 : pageSize;
 
-        final RangeBuilder rangeBuilder = new RangeBuilder();
+        untilReadAhead = 0;
 
+        //the page was read while the last one was consumed
+        final Rows<R, C> pageReadAhead = nextPage.take( rowKeys, startColumn );
 
-        //set the range into the search
+        final Rows<R, C> result;
 
-        if ( startColumn == null ) {
-            columnSearch.buildRange( rangeBuilder );
+        if ( pageReadAhead != null ) {
+            if (logger.isTraceEnabled()) logger.trace( "Using the page read ahead" );
+
+            result = pageReadAhead;
         }
         else {
-            columnSearch.buildRange( rangeBuilder, startColumn, null );
-        }
-
-
-        rangeBuilder.setLimit( selectSize );
+            if (logger.isTraceEnabled()) logger.trace( "Executing cassandra query" );
 
-        if (logger.isTraceEnabled()) logger.trace( "Executing cassandra query" );
-
-        /**
-         * Get our list of slices
-         */
-        final RowSliceQuery<R, C> query =
-            keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( rowKeys )
-                .withColumnRange( rangeBuilder.build() );
-
-        final Rows<R, C> result;
-        try {
-            result = query.execute().getResult();
-        }
-        catch ( ConnectionException e ) {
-            throw new RuntimeException( "Unable to connect to casandra", e );
+            result = RowSliceQueries.execute( buildQuery( selectSize ) );
         }
 
 
@@ -238,6 +263,11 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
 
         if(moreToReturn && mergedResults.size() > 0){
             startColumn = mergedResults.get( mergedResults.size()  - 1 );
+
+            //read the next page once the caller has consumed most of this one
+            if ( readAhead ) {
+                untilReadAhead = RowSliceQueries.readAheadAfter( mergedResults.size() );
+            }
         }
 
 
@@ -247,6 +277,34 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
     }
 
 
+    /**
+     * Build the query of the page after the start column
+     */
+    private RowSliceQuery<R, C> buildQuery( final int selectSize ) {
+
+        final RangeBuilder rangeBuilder = new RangeBuilder();
+
+
+        //set the range into the search
+
+        if ( startColumn == null ) {
+            columnSearch.buildRange( rangeBuilder );
+        }
+        else {
+            columnSearch.buildRange( rangeBuilder, startColumn, null );
+        }
+
+
+        rangeBuilder.setLimit( selectSize );
+
+        /**
+         * Get our list of slices
+         */
+        return keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( rowKeys )
+                       .withColumnRange( rangeBuilder.build() );
+    }
+
+
     /**
      * Return true if we have < 2 rows with columns, false otherwise
      */
@@ -28,7 +28,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.netflix.astyanax.Keyspace;
-import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 import com.netflix.astyanax.model.Column;
 import com.netflix.astyanax.model.ColumnFamily;
 import com.netflix.astyanax.model.ColumnList;
@@ -42,7 +41,7 @@ import com.netflix.astyanax.util.RangeBuilder;
  *
  *
  */
-public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
+public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T>, AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger( MultiRowShardColumnIterator.class );
 
@@ -82,12 +81,38 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
 
     private Optional<Long> lastTimestamp;
 
+    private final boolean readAhead;
+
+    /**
+     * The next page of the shard, read while the rest of the current page is consumed
+     */
+    private final RowSliceQueries.ReadAhead<R, C> nextPage = new RowSliceQueries.ReadAhead<>();
+
+    /**
+     * The columns of the current page left to consume before the next page is read, 0 when it's not read ahead
+     */
+    private int untilReadAhead;
+
 
     public MultiRowShardColumnIterator( final Keyspace keyspace, final ColumnFamily<R, C> cf,
                                         final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
                                         final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
                                         final int pageSize, final List<SmartShard> rowKeysWithShardEnd,
                                         final boolean ascending, final Optional<Long> lastTimestamp) {
+        this( keyspace, cf, consistencyLevel, columnParser, columnSearch, comparator, pageSize, rowKeysWithShardEnd,
+            ascending, lastTimestamp, false );
+    }
+
+
+    /**
+     * @param readAhead True to read the next page of a shard once most of the current page is consumed
+     */
+    public MultiRowShardColumnIterator( final Keyspace keyspace, final ColumnFamily<R, C> cf,
+                                        final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
+                                        final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
+                                        final int pageSize, final List<SmartShard> rowKeysWithShardEnd,
+                                        final boolean ascending, final Optional<Long> lastTimestamp,
+                                        final boolean readAhead ) {
         this.cf = cf;
         this.pageSize = pageSize;
         this.columnParser = columnParser;
@@ -100,6 +125,7 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
         this.resultsTracking = new ArrayList<>();
         this.ascending = ascending;
         this.lastTimestamp = lastTimestamp;
+        this.readAhead = readAhead;
 
 
     }
@@ -167,6 +193,10 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
 
         final T next = currentColumnIterator.next();
 
+        //most of the page is consumed, read the next page of the shard while the caller consumes the rest
+        if ( untilReadAhead > 0 && --untilReadAhead == 0 ) {
+            nextPage.start( currentShard, startColumn, buildQuery( currentShard, startColumn, pageSize + 1 ) );
+        }
 
         return next;
     }
@@ -178,6 +208,16 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
     }
 
 
+    /**
+     * Cancel the page read ahead when the iterator is abandoned
+     */
+    @Override
+    public void close() {
+        untilReadAhead = 0;
+        nextPage.cancel();
+    }
+
+
     public void advance() {
 
         if (logger.isTraceEnabled()) logger.trace( "Advancing multi row column iterator" );
@@ -190,8 +230,6 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
 
         final int selectSize = skipFirstColumn ? pageSize + 1 : pageSize;
 
-        final RangeBuilder rangeBuilder = new RangeBuilder();
-
         SmartShard startShard = null;
 
 
@@ -262,102 +300,24 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
 
 
 
-        // initial request, build the range with no start and no end
-        if ( startColumn == null && currentShard.getShardEnd() == null ){
-
-            columnSearch.buildRange( rangeBuilder );
+        untilReadAhead = 0;
 
-            if(logger.isTraceEnabled()){
-                logger.trace("initial search (no start or shard end)");
-            }
-
-        }
-        // if there's only a startColumn set the range start startColumn always
-        else if ( startColumn != null && currentShard.getShardEnd() == null ){
+        //the page was read while the last one was consumed, only use it if we're still reading from where it starts
+        final Rows<R, C> pageReadAhead = nextPage.take( currentShard, startColumn );
 
-            columnSearch.buildRange( rangeBuilder, startColumn, null );
-
-            if(logger.isTraceEnabled()){
-                logger.trace("search (no shard end) with start: {}", startColumn);
-            }
-
-        }
-        // if there's only a shardEnd, set the start/end according based on the search order
-        else if ( startColumn == null && currentShard.getShardEnd() != null ){
-
-            T shardEnd = (T) currentShard.getShardEnd();
-
-            // if we have a shardEnd and it's not an ascending search, use the shardEnd as a start
-            if(!ascending) {
-
-                columnSearch.buildRange(rangeBuilder, shardEnd, null);
-
-                if(logger.isTraceEnabled()){
-                    logger.trace("search descending with start: {}", shardEnd);
-                }
-
-            }
-            // if we have a shardEnd and it is an ascending search, use the shardEnd as the end
-            else{
-
-                columnSearch.buildRange( rangeBuilder, null, shardEnd );
+        final Rows<R, C> result;
 
-                if(logger.isTraceEnabled()){
-                    logger.trace("search ascending with end: {}", shardEnd);
-                }
+        if ( pageReadAhead != null ) {
 
-            }
+            if (logger.isTraceEnabled()) logger.trace( "Using the page read ahead from shard {}", currentShard );
 
+            result = pageReadAhead;
         }
-        // if there's both a startColumn and a shardEnd, decide which should be used as start/end based on search order
-        else if ( startColumn != null && currentShard.getShardEnd() != null) {
-
-            T shardEnd = (T) currentShard.getShardEnd();
-
-
-            // if the search is not ascending, set the start to be the older edge
-            if(!ascending){
-
-                T searchStart = comparator.compare(shardEnd, startColumn) > 0 ? shardEnd : startColumn;
-                columnSearch.buildRange( rangeBuilder, searchStart, null);
+        else {
 
-                if(logger.isTraceEnabled()){
-                    logger.trace("search descending with start: {} in shard", searchStart, currentShard);
-                }
-
-            }
-            // if the search is ascending, then always use the startColumn for the start and shardEnd for the range end
-            else{
-
-                columnSearch.buildRange( rangeBuilder, startColumn , shardEnd);
-
-                if(logger.isTraceEnabled()){
-                    logger.trace("search with start: {}, end: {}", startColumn, shardEnd);
-                }
-
-
-
-            }
+            if (logger.isTraceEnabled()) logger.trace( "Executing cassandra query with shard {}", currentShard );
 
-        }
-
-        rangeBuilder.setLimit( selectSize );
-
-        if (logger.isTraceEnabled()) logger.trace( "Executing cassandra query with shard {}", currentShard );
-
-        /**
-         * Get our list of slices
-         */
-        final RowSliceQuery<R, C> query =
-            keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( (R) currentShard.getRowKey() )
-                .withColumnRange( rangeBuilder.build() );
-
-        final Rows<R, C> result;
-        try {
-            result = query.execute().getResult();
-        }
-        catch ( ConnectionException e ) {
-            throw new RuntimeException( "Unable to connect to casandra", e );
+            result = RowSliceQueries.execute( buildQuery( currentShard, startColumn, selectSize ) );
         }
 
 
@@ -420,6 +380,10 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
         if(moreToReturn && mergedResults.size() > 0){
             startColumn = mergedResults.get( mergedResults.size()  - 1 );
 
+            // read the next page of the shard once the caller has consumed most of this one
+            if ( readAhead ) {
+                untilReadAhead = RowSliceQueries.readAheadAfter( mergedResults.size() );
+            }
         }
 
 
@@ -441,6 +405,102 @@ public class MultiRowShardColumnIterator<R, C, T> implements Iterator<T> {
     }
 
 
+    /**
+     * Build the query of the page of the shard after the start column, the start is null for the first page
+     */
+    private RowSliceQuery<R, C> buildQuery( final SmartShard shard, final T start, final int selectSize ) {
+
+        final RangeBuilder rangeBuilder = new RangeBuilder();
+
+        // initial request, build the range with no start and no end
+        if ( start == null && shard.getShardEnd() == null ){
+
+            columnSearch.buildRange( rangeBuilder );
+
+            if(logger.isTraceEnabled()){
+                logger.trace("initial search (no start or shard end)");
+            }
+
+        }
+        // if there's only a start column, always use it as the range start
+        else if ( start != null && shard.getShardEnd() == null ){
+
+            columnSearch.buildRange( rangeBuilder, start, null );
+
+            if(logger.isTraceEnabled()){
+                logger.trace("search (no shard end) with start: {}", start);
+            }
+
+        }
+        // if there's only a shardEnd, set the start/end according based on the search order
+        else if ( start == null && shard.getShardEnd() != null ){
+
+            T shardEnd = (T) shard.getShardEnd();
+
+            // if we have a shardEnd and it's not an ascending search, use the shardEnd as a start
+            if(!ascending) {
+
+                columnSearch.buildRange(rangeBuilder, shardEnd, null);
+
+                if(logger.isTraceEnabled()){
+                    logger.trace("search descending with start: {}", shardEnd);
+                }
+
+            }
+            // if we have a shardEnd and it is an ascending search, use the shardEnd as the end
+            else{
+
+                columnSearch.buildRange( rangeBuilder, null, shardEnd );
+
+                if(logger.isTraceEnabled()){
+                    logger.trace("search ascending with end: {}", shardEnd);
+                }
+
+            }
+
+        }
+        // if there's both a start column and a shardEnd, decide which should be used as start/end based on search order
+        else if ( start != null && shard.getShardEnd() != null) {
+
+            T shardEnd = (T) shard.getShardEnd();
+
+
+            // if the search is not ascending, set the start to be the older edge
+            if(!ascending){
+
+                T searchStart = comparator.compare(shardEnd, start) > 0 ? shardEnd : start;
+                columnSearch.buildRange( rangeBuilder, searchStart, null);
+
+                if(logger.isTraceEnabled()){
+                    logger.trace("search descending with start: {} in shard", searchStart, shard);
+                }
+
+            }
+            // if the search is ascending, then always use the start column for the start and shardEnd for the range end
+            else{
+
+                columnSearch.buildRange( rangeBuilder, start , shardEnd);
+
+                if(logger.isTraceEnabled()){
+                    logger.trace("search with start: {}, end: {}", start, shardEnd);
+                }
+
+
+
+            }
+
+        }
+
+        rangeBuilder.setLimit( selectSize );
+
+        /**
+         * Get our list of slices
+         */
+        return keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( (R) shard.getRowKey() )
+                       .withColumnRange( rangeBuilder.build() );
+    }
+
+
     /**
      * Process the result set and filter any duplicates that may have already been seen in previous shards.  During
      * a shard transition, there could be the same columns in multiple shards (rows).  This will also allow for
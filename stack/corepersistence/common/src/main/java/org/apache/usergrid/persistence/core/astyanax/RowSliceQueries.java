@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.astyanax;
+
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Throwables;
+import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+import com.netflix.astyanax.model.Rows;
+import com.netflix.astyanax.query.RowSliceQuery;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+
+/**
+ * Executes the row slice queries of the multi row iterators, either right away or ahead of time so the next page is
+ * read while the rest of the current one is consumed
+ */
+final class RowSliceQueries {
+
+
+    private RowSliceQueries() {}
+
+
+    /**
+     * Execute the query on the calling thread
+     */
+    static <R, C> Rows<R, C> execute( final RowSliceQuery<R, C> query ) {
+        try {
+            return query.execute().getResult();
+        }
+        catch ( ConnectionException e ) {
+            throw new RuntimeException( "Unable to connect to casandra", e );
+        }
+    }
+
+
+    /**
+     * Execute the query on an I/O thread.  We don't use the async execution of astyanax, its executor only has a
+     * handful of threads shared by every query of the keyspace
+     */
+    static <R, C> Future<Rows<R, C>> readAhead( final RowSliceQuery<R, C> query ) {
+        return Observable.defer( () -> Observable.just( execute( query ) ) ).subscribeOn( Schedulers.io() )
+                         .toBlocking().toFuture();
+    }
+
+
+    /**
+     * The number of columns of a page the caller consumes before the next page is read.  Callers that only read the
+     * start of a page never read ahead
+     */
+    static int readAheadAfter( final int pageLength ) {
+        return Math.max( 1, pageLength - pageLength / 4 );
+    }
+
+
+    /**
+     * Wait for a query executed ahead of time, failures are thrown the way {@link #execute(RowSliceQuery)} throws them
+     */
+    static <R, C> Rows<R, C> await( final Future<Rows<R, C>> page ) {
+        try {
+            return page.get();
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while reading from cassandra", e );
+        }
+        catch ( ExecutionException e ) {
+            Throwables.propagateIfPossible( e.getCause() );
+            throw new RuntimeException( "Unable to read from cassandra", e.getCause() );
+        }
+    }
+
+
+    /**
+     * The one page an iterator reads ahead, with the row and start column it was read from.  The page is only used
+     * when the iterator still reads from the same position, otherwise it's cancelled
+     */
+    static final class ReadAhead<R, C> {
+
+        private Future<Rows<R, C>> page;
+
+        private Object row;
+
+        private Object start;
+
+
+        /**
+         * Start reading the page after the start column of the row, cancels a page that was read before
+         */
+        void start( final Object row, final Object start, final RowSliceQuery<R, C> query ) {
+            cancel();
+
+            this.row = row;
+            this.start = start;
+            this.page = readAhead( query );
+        }
+
+
+        /**
+         * Take the page if it was read from the row and start column, null if there is none to use
+         */
+        Rows<R, C> take( final Object row, final Object start ) {
+            if ( page == null ) {
+                return null;
+            }
+
+            if ( this.row != row || this.start != start ) {
+                cancel();
+                return null;
+            }
+
+            final Future<Rows<R, C>> taken = page;
+
+            page = null;
+            this.row = null;
+            this.start = null;
+
+            return await( taken );
+        }
+
+
+        /**
+         * Cancel the page if it's still read, the iterator won't use it
+         */
+        void cancel() {
+            if ( page != null ) {
+                page.cancel( true );
+            }
+
+            page = null;
+            row = null;
+            start = null;
+        }
+    }
+}
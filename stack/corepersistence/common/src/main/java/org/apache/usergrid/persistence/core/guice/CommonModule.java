@@ -38,6 +38,9 @@ import org.apache.usergrid.persistence.core.metrics.MetricsFactoryImpl;
 import org.apache.usergrid.persistence.core.metrics.MetricsFig;
 import org.apache.usergrid.persistence.core.migration.data.DataMigrationManager;
 import org.apache.usergrid.persistence.core.migration.data.DataMigrationManagerImpl;
+import org.apache.usergrid.persistence.core.migration.data.MigrationCheckpointSerialization;
+import org.apache.usergrid.persistence.core.migration.data.MigrationCheckpointSerializationImpl;
+import org.apache.usergrid.persistence.core.migration.data.MigrationFig;
 import org.apache.usergrid.persistence.core.migration.data.MigrationInfoCache;
 import org.apache.usergrid.persistence.core.migration.data.MigrationInfoCacheImpl;
 import org.apache.usergrid.persistence.core.migration.data.MigrationInfoSerialization;
@@ -95,6 +98,9 @@ public class CommonModule extends AbstractModule {
 
         bind(DataMigrationManager.class).to(DataMigrationManagerImpl.class);
 
+        bind(MigrationCheckpointSerialization.class).to(MigrationCheckpointSerializationImpl.class);
+        install(new GuicyFigModule(MigrationFig.class));
+
         bind(MetricsFactory.class).to(MetricsFactoryImpl.class);
 
         bind(MigrationInfoCache.class).to(MigrationInfoCacheImpl.class);
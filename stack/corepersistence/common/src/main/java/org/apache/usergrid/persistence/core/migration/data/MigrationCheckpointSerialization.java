@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.migration.data;
+
+
+import java.util.Set;
+
+
+/**
+ * Records the partitions of a data migration that are complete, so a migration that stops resumes with the
+ * partitions it did not finish
+ */
+public interface MigrationCheckpointSerialization {
+
+    /**
+     * Get the keys of the completed partitions
+     *
+     * @param checkpointName The name of the migration run, the same across restarts of the run
+     */
+    Set<String> getCompletedPartitions( final String checkpointName );
+
+    /**
+     * Mark the partition as complete
+     */
+    void setPartitionComplete( final String checkpointName, final String partitionKey );
+
+    /**
+     * Remove the checkpoints of the migration run once it's complete
+     */
+    void clear( final String checkpointName );
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.migration.data;
+
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.usergrid.persistence.core.astyanax.CassandraCluster;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.astyanax.Keyspace;
+import com.netflix.astyanax.MutationBatch;
+import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+import com.netflix.astyanax.model.Column;
+import com.netflix.astyanax.model.ColumnList;
+import com.netflix.astyanax.query.RowQuery;
+import com.netflix.astyanax.util.RangeBuilder;
+
+import static org.apache.usergrid.persistence.core.migration.data.MigrationInfoSerializationImpl.CF_MIGRATION_INFO;
+import static org.apache.usergrid.persistence.core.migration.data.MigrationInfoSerializationImpl.STATIC_ID;
+
+
+/**
+ * Keeps the checkpoints of a migration run as a map of partition keys in a row of the migration info column family,
+ * next to the versions of the plugins
+ */
+@Singleton
+public class MigrationCheckpointSerializationImpl implements MigrationCheckpointSerialization {
+
+    private static final String ROW_PREFIX = "checkpoint:";
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final Keyspace keyspace;
+
+
+    @Inject
+    public MigrationCheckpointSerializationImpl( final CassandraCluster cassandraCluster ) {
+        this.keyspace = cassandraCluster.getApplicationKeyspace();
+    }
+
+
+    @Override
+    public Set<String> getCompletedPartitions( final String checkpointName ) {
+
+        final RowQuery<ScopedRowKey<String>, String> query =
+            keyspace.prepareQuery( CF_MIGRATION_INFO ).getKey( getRowKey( checkpointName ) ).autoPaginate( true )
+                    .withColumnRange( new RangeBuilder().setLimit( PAGE_SIZE ).build() );
+
+        final Set<String> completed = new HashSet<>();
+
+        try {
+            ColumnList<String> columns;
+
+            while ( !( columns = query.execute().getResult() ).isEmpty() ) {
+                for ( Column<String> column : columns ) {
+                    completed.add( column.getName() );
+                }
+            }
+        }
+        catch ( ConnectionException e ) {
+            throw new DataMigrationException( "Unable to retrieve checkpoints", e );
+        }
+
+        return completed;
+    }
+
+
+    @Override
+    public void setPartitionComplete( final String checkpointName, final String partitionKey ) {
+
+        try {
+            keyspace.prepareColumnMutation( CF_MIGRATION_INFO, getRowKey( checkpointName ), partitionKey )
+                    .putEmptyColumn( null ).execute();
+        }
+        catch ( ConnectionException e ) {
+            throw new DataMigrationException( "Unable to save checkpoint", e );
+        }
+    }
+
+
+    @Override
+    public void clear( final String checkpointName ) {
+
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        batch.withRow( CF_MIGRATION_INFO, getRowKey( checkpointName ) ).delete();
+
+        try {
+            batch.execute();
+        }
+        catch ( ConnectionException e ) {
+            throw new DataMigrationException( "Unable to clear checkpoints", e );
+        }
+    }
+
+
+    private static ScopedRowKey<String> getRowKey( final String checkpointName ) {
+        return ScopedRowKey.fromKey( STATIC_ID, ROW_PREFIX + checkpointName );
+    }
+}
@@ -40,4 +40,15 @@ public interface MigrationDataProvider<T> {
      */
     Observable<T> getData();
 
+
+    /**
+     * Get the data split into partitions that are migrated concurrently and checkpointed on their own, so a
+     * migration that stops can resume with the partitions it did not finish.  By default all the data is one partition
+     *
+     * @return The partitions, each with a key that is the same every time the data is read
+     */
+    default Observable<MigrationPartition<T>> getPartitions() {
+        return Observable.just( new MigrationPartition<>( MigrationPartition.ALL, getData() ) );
+    }
+
 }
@@ -46,7 +46,7 @@ public class MigrationInfoSerializationImpl implements MigrationInfoSerializatio
     /**
      * Just a hard coded scope since we need it
      */
-    private static final Id STATIC_ID =
+    static final Id STATIC_ID =
             new SimpleId( UUID.fromString( "00000000-0000-1000-8000-000000000000" ), "status" );
 
 
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.migration.data;
+
+
+import com.google.common.base.Preconditions;
+
+import rx.Observable;
+
+
+/**
+ * A part of the data of a migration that is migrated and checkpointed on its own
+ */
+public class MigrationPartition<T> {
+
+    /**
+     * The key of the partition of providers that do not split their data
+     */
+    public static final String ALL = "all";
+
+    private final String key;
+    private final Observable<T> data;
+
+
+    public MigrationPartition( final String key, final Observable<T> data ) {
+        Preconditions.checkNotNull( key, "key is required" );
+        Preconditions.checkNotNull( data, "data is required" );
+
+        this.key = key;
+        this.data = data;
+    }
+
+
+    /**
+     * The key of the partition, the same every time the data is read
+     */
+    public String getKey() {
+        return key;
+    }
+
+
+    /**
+     * The data of the partition, read when subscribed
+     */
+    public Observable<T> getData() {
+        return data;
+    }
+
+
+    @Override
+    public String toString() {
+        return "MigrationPartition{key='" + key + "'}";
+    }
+}
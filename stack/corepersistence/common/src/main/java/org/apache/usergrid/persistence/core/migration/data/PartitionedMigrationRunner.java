@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.migration.data;
+
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import rx.Observable;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+
+/**
+ * Runs a data migration over the partitions of its data.  Partitions are migrated concurrently up to the configured
+ * limit, and every partition that completes is checkpointed, so running the migration again after a failure or a
+ * restart of the node only migrates the partitions that did not complete.
+ */
+@Singleton
+public class PartitionedMigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger( PartitionedMigrationRunner.class );
+
+    private final MigrationCheckpointSerialization checkpointSerialization;
+    private final MigrationFig migrationFig;
+
+    private final Meter elementMeter;
+    private final Counter partitionCounter;
+    private final Timer partitionTimer;
+
+
+    @Inject
+    public PartitionedMigrationRunner( final MigrationCheckpointSerialization checkpointSerialization,
+                                       final MigrationFig migrationFig, final MetricsFactory metricsFactory ) {
+        this.checkpointSerialization = checkpointSerialization;
+        this.migrationFig = migrationFig;
+
+        this.elementMeter = metricsFactory.getMeter( PartitionedMigrationRunner.class, "migration.elements" );
+        this.partitionCounter = metricsFactory.getCounter( PartitionedMigrationRunner.class, "migration.partitions" );
+        this.partitionTimer = metricsFactory.getTimer( PartitionedMigrationRunner.class, "migration.partition" );
+    }
+
+
+    /**
+     * Migrate every partition that is not checkpointed under the name.  The checkpoints are removed once every
+     * partition is migrated
+     *
+     * @param checkpointName The name of the run, the same name when the run is restarted
+     * @param partitions The partitions of the data
+     * @param migratePartition Migrates the data of the partition, emitting the number of elements migrated as it goes
+     *
+     * @return The number of elements migrated by this run
+     */
+    public <T> long migrate( final String checkpointName, final Observable<MigrationPartition<T>> partitions,
+                             final Func1<MigrationPartition<T>, Observable<Integer>> migratePartition ) {
+
+        final Set<String> completed = checkpointSerialization.getCompletedPartitions( checkpointName );
+
+        if ( !completed.isEmpty() ) {
+            logger.info( "Resuming migration {}, skipping {} completed partitions", checkpointName,
+                completed.size() );
+        }
+
+        final AtomicLong count = new AtomicLong();
+
+        partitions.filter( partition -> !completed.contains( partition.getKey() ) )
+                  .flatMap( partition -> migratePartition( checkpointName, partition, migratePartition, count ),
+                      migrationFig.getPartitionConcurrency() ).toBlocking().lastOrDefault( null );
+
+        checkpointSerialization.clear( checkpointName );
+
+        return count.get();
+    }
+
+
+    private <T> Observable<Integer> migratePartition( final String checkpointName,
+                                                      final MigrationPartition<T> partition,
+                                                      final Func1<MigrationPartition<T>, Observable<Integer>>
+                                                          migratePartition, final AtomicLong count ) {
+
+        //defer so the partition is timed from when it starts rather than when it's queued
+        return Observable.defer( () -> {
+
+            final Timer.Context timer = partitionTimer.time();
+
+            return migratePartition.call( partition ).doOnNext( migrated -> {
+                count.addAndGet( migrated );
+                elementMeter.mark( migrated );
+            } ).doOnCompleted( () -> {
+                checkpointSerialization.setPartitionComplete( checkpointName, partition.getKey() );
+                partitionCounter.inc();
+
+                logger.info( "Migrated partition {} of {} in {} ms", partition.getKey(), checkpointName,
+                    timer.stop() / 1000000 );
+            } );
+        } ).subscribeOn( Schedulers.io() );
+    }
+}
@@ -52,11 +52,13 @@ public abstract class ObservableIterator<T> implements Observable.OnSubscribe<T>
     public void call( final Subscriber<? super T> subscriber ) {
 
 
+        Iterator<T> itr = null;
+
         try {
             subscriber.onStart();
 
             //get our iterator and push data to the observer
-            final Iterator<T> itr = getIterator();
+            itr = getIterator();
 
             Preconditions.checkNotNull( itr,
                     "The observable must return an iterator.  Null was returned for iterator " + name );
@@ -79,6 +81,18 @@ public abstract class ObservableIterator<T> implements Observable.OnSubscribe<T>
         catch ( Throwable t ) {
             subscriber.onError( t );
         }
+
+        //the subscriber may stop before the iterator is exhausted, release what the iterator still reads
+        finally {
+            if ( itr instanceof AutoCloseable ) {
+                try {
+                    ( ( AutoCloseable ) itr ).close();
+                }
+                catch ( Exception e ) {
+                    logger.warn( "Unable to close iterator '{}'", name, e );
+                }
+            }
+        }
     }
 
 
@@ -43,10 +43,14 @@ import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 import com.google.inject.Inject;
 import com.netflix.astyanax.Keyspace;
 import com.netflix.astyanax.MutationBatch;
+import com.netflix.astyanax.connectionpool.OperationResult;
 import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+import com.netflix.astyanax.connectionpool.exceptions.OperationTimeoutException;
 import com.netflix.astyanax.model.Column;
 import com.netflix.astyanax.model.ColumnFamily;
 import com.netflix.astyanax.model.ConsistencyLevel;
+import com.netflix.astyanax.model.Rows;
+import com.netflix.astyanax.query.RowSliceQuery;
 import com.netflix.astyanax.serializers.LongSerializer;
 import com.netflix.astyanax.serializers.StringSerializer;
 import com.netflix.astyanax.util.RangeBuilder;
@@ -58,6 +62,11 @@ import rx.schedulers.Schedulers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 
 @RunWith( ITRunner.class )
@@ -590,6 +599,176 @@ public class MultiRowColumnIteratorTest {
     }
 
 
+    @Test
+    public void multiIteratorReadAhead() throws Exception {
+
+        final String rowKey1 = UUIDGenerator.newTimeUUID().toString();
+
+        final String rowKey2 = UUIDGenerator.newTimeUUID().toString();
+
+
+        final long maxValue = 2000;
+
+        final CountDownLatch latch = new CountDownLatch( 2 );
+
+
+        writeData( latch, rowKey1, maxValue, 1 );
+        writeData( latch, rowKey2, maxValue, 2 );
+
+
+        latch.await();
+
+
+        final ColumnParser<Long, Long> longParser = new ColumnParser<Long, Long>() {
+            @Override
+            public Long parseColumn( final Column<Long> column ) {
+                return column.getName();
+            }
+        };
+
+
+        final ColumnSearch<Long> ascendingSearch = new ColumnSearch<Long>() {
+            @Override
+            public void buildRange(final RangeBuilder rangeBuilder, final Long value, Long end) {
+                rangeBuilder.setStart( value );
+            }
+
+
+            @Override
+            public void buildRange( final RangeBuilder rangeBuilder ) {
+
+            }
+
+
+            @Override
+            public boolean skipFirst( final Long first ) {
+                return false;
+            }
+        };
+
+
+        final Comparator<Long> ascendingComparator = new Comparator<Long>() {
+
+            @Override
+            public int compare( final Long o1, final Long o2 ) {
+                return Long.compare( o1, o2 );
+            }
+        };
+
+
+        final Collection<String> rowKeys = Arrays.asList( rowKey1, rowKey2 );
+
+        //every page after the first is read ahead, the results are the same
+        MultiRowColumnIterator<String, Long, Long> ascendingItr =
+                new MultiRowColumnIterator<>( keyspace, COLUMN_FAMILY, ConsistencyLevel.CL_QUORUM, longParser,
+                        ascendingSearch, ascendingComparator, rowKeys, 152, true );
+
+        for ( long i = 0; i < maxValue; i++ ) {
+            assertEquals( i, ascendingItr.next().longValue() );
+        }
+
+        assertFalse( ascendingItr.hasNext() );
+
+
+        //abandon an iterator with a page read ahead
+        MultiRowColumnIterator<String, Long, Long> abandonedItr =
+                new MultiRowColumnIterator<>( keyspace, COLUMN_FAMILY, ConsistencyLevel.CL_QUORUM, longParser,
+                        ascendingSearch, ascendingComparator, rowKeys, 152, true );
+
+        for ( long i = 0; i < 140; i++ ) {
+            assertEquals( i, abandonedItr.next().longValue() );
+        }
+
+        abandonedItr.close();
+    }
+
+
+    @Test
+    public void readAheadPageReuse() throws Exception {
+
+        final Object shard = new Object();
+        final Object otherShard = new Object();
+
+        final Long start = new Long( 100 );
+
+        final Rows<String, Long> rows = mock( Rows.class );
+        final RowSliceQuery<String, Long> query = query( rows );
+
+        final RowSliceQueries.ReadAhead<String, Long> readAhead = new RowSliceQueries.ReadAhead<>();
+
+        //nothing was read ahead
+        assertNull( readAhead.take( shard, start ) );
+
+        //the iterator moved to another shard, the page isn't used
+        readAhead.start( shard, start, query );
+        assertNull( readAhead.take( otherShard, start ) );
+        assertNull( "Page was discarded", readAhead.take( shard, start ) );
+
+        //the iterator moved to another start column, an equal but different column isn't the same position
+        readAhead.start( shard, start, query );
+        assertNull( readAhead.take( shard, new Long( 100 ) ) );
+
+        //the iterator reads from where the page starts
+        readAhead.start( shard, start, query );
+        assertSame( rows, readAhead.take( shard, start ) );
+        assertNull( "Page is only used once", readAhead.take( shard, start ) );
+    }
+
+
+    @Test
+    public void readAheadFailure() throws Exception {
+
+        final Object shard = new Object();
+        final Long start = 100L;
+
+        final RowSliceQueries.ReadAhead<String, Long> readAhead = new RowSliceQueries.ReadAhead<>();
+
+        //connection failures are thrown the way a query on the calling thread throws them
+        final ConnectionException timeout = new OperationTimeoutException( "Timed out" );
+
+        final RowSliceQuery<String, Long> timedOut = mock( RowSliceQuery.class );
+        when( timedOut.execute() ).thenThrow( timeout );
+
+        readAhead.start( shard, start, timedOut );
+
+        try {
+            readAhead.take( shard, start );
+            fail( "The failure of the page should be thrown" );
+        }
+        catch ( RuntimeException e ) {
+            assertSame( timeout, e.getCause() );
+        }
+
+
+        //runtime failures are thrown as they are
+        final IllegalStateException failure = new IllegalStateException( "Failed" );
+
+        final RowSliceQuery<String, Long> failed = mock( RowSliceQuery.class );
+        when( failed.execute() ).thenThrow( failure );
+
+        readAhead.start( shard, start, failed );
+
+        try {
+            readAhead.take( shard, start );
+            fail( "The failure of the page should be thrown" );
+        }
+        catch ( IllegalStateException e ) {
+            assertSame( failure, e );
+        }
+    }
+
+
+    private static RowSliceQuery<String, Long> query( final Rows<String, Long> rows ) throws ConnectionException {
+        final OperationResult<Rows<String, Long>> result = mock( OperationResult.class );
+        when( result.getResult() ).thenReturn( rows );
+
+        final RowSliceQuery<String, Long> query = mock( RowSliceQuery.class );
+        when( query.execute() ).thenReturn( result );
+
+        return query;
+    }
+
+
     private void writeData( final CountDownLatch latch, final String rowKey, final long maxValue, final long mod ) {
 
         Observable.just( rowKey ).doOnNext( new Action1<String>() {
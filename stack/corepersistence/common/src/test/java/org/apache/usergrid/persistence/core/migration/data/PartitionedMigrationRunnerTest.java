@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.usergrid.persistence.core.migration.data;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+import rx.Observable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests checkpointing and resuming partitioned migrations with in memory checkpoints
+ */
+public class PartitionedMigrationRunnerTest {
+
+
+    @Test
+    public void resumeAfterFailure() {
+
+        final InMemoryCheckpoints checkpoints = new InMemoryCheckpoints();
+        final PartitionedMigrationRunner runner = newRunner( checkpoints );
+
+        final Observable<MigrationPartition<Integer>> partitions = Observable.just(
+            new MigrationPartition<>( "a", Observable.just( 1, 2 ) ),
+            new MigrationPartition<>( "b", Observable.just( 3 ) ),
+            new MigrationPartition<>( "c", Observable.just( 4, 5, 6 ) ),
+            new MigrationPartition<>( "d", Observable.just( 7 ) ) );
+
+        final List<String> migrated = Collections.synchronizedList( new ArrayList<>() );
+
+        //the node stops while migrating partition c
+        try {
+            runner.migrate( "test:1", partitions, partition -> {
+                if ( partition.getKey().equals( "c" ) ) {
+                    return Observable.error( new RuntimeException( "node stopped" ) );
+                }
+
+                migrated.add( partition.getKey() );
+                return partition.getData().map( value -> 1 );
+            } );
+            fail( "The failure is thrown" );
+        }
+        catch ( RuntimeException e ) {
+            //expected
+        }
+
+        //one partition at a time, so the partitions before c completed and d never started
+        assertEquals( Arrays.asList( "a", "b" ), migrated );
+        assertEquals( new HashSet<>( migrated ), checkpoints.getCompletedPartitions( "test:1" ) );
+
+        //the restarted migration skips the partitions that completed
+        migrated.clear();
+
+        final long count = runner.migrate( "test:1", partitions, partition -> {
+            migrated.add( partition.getKey() );
+            return partition.getData().map( value -> 1 );
+        } );
+
+        assertEquals( Arrays.asList( "c", "d" ), migrated );
+        assertEquals( 4, count );
+
+        //the checkpoints are removed once the migration completes
+        assertTrue( checkpoints.getCompletedPartitions( "test:1" ).isEmpty() );
+    }
+
+
+    @Test
+    public void defaultProviderIsOnePartition() {
+
+        final MigrationDataProvider<Integer> provider = () -> Observable.just( 1, 2, 3 );
+
+        final List<MigrationPartition<Integer>> partitions = provider.getPartitions().toList().toBlocking().last();
+
+        assertEquals( 1, partitions.size() );
+        assertEquals( MigrationPartition.ALL, partitions.get( 0 ).getKey() );
+        assertEquals( 3, partitions.get( 0 ).getData().count().toBlocking().last().intValue() );
+    }
+
+
+    private static PartitionedMigrationRunner newRunner( final MigrationCheckpointSerialization checkpoints ) {
+
+        final MigrationFig migrationFig = mock( MigrationFig.class );
+        when( migrationFig.getPartitionConcurrency() ).thenReturn( 1 );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getMeter( any( Class.class ), anyString() ) ).thenReturn( new Meter() );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenReturn( new Counter() );
+        when( metricsFactory.getTimer( any( Class.class ), anyString() ) ).thenReturn( new Timer() );
+
+        return new PartitionedMigrationRunner( checkpoints, migrationFig, metricsFactory );
+    }
+
+
+    /**
+     * Stands in for the checkpoints in cassandra
+     */
+    private static final class InMemoryCheckpoints implements MigrationCheckpointSerialization {
+
+        private final Map<String, Set<String>> checkpoints = new HashMap<>();
+
+
+        @Override
+        public synchronized Set<String> getCompletedPartitions( final String checkpointName ) {
+            final Set<String> completed = checkpoints.get( checkpointName );
+            return completed == null ? new HashSet<>() : new HashSet<>( completed );
+        }
+
+
+        @Override
+        public synchronized void setPartitionComplete( final String checkpointName, final String partitionKey ) {
+            checkpoints.computeIfAbsent( checkpointName, name -> new HashSet<>() ).add( partitionKey );
+        }
+
+
+        @Override
+        public synchronized void clear( final String checkpointName ) {
+            checkpoints.remove( checkpointName );
+        }
+    }
+}
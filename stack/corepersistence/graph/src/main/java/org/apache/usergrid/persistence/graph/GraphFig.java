@@ -98,6 +98,48 @@ public interface GraphFig extends GuicyFig {
 
     String SMART_SHARD_SEEK_ENABLED = "usergrid.graph.smartshard.seek.enabled";
 
+    /**
+     * Read the next page of a shard once most of the current page is consumed, and from the second shard group on
+     * start reading the next shard group while the current group is consumed
+     */
+    String SHARD_READ_AHEAD_ENABLED = "usergrid.graph.shard.read.ahead.enabled";
+
+    /**
+     * Enable skipping edge meta data writes that are known to be persisted already
+     */
+    String EDGE_META_CACHE_ENABLED = "usergrid.graph.edge.meta.cache.enabled";
+
+    /**
+     * Number of edge meta data entries we can cache.
+     */
+    String EDGE_META_CACHE_SIZE = "usergrid.graph.edge.meta.cache.size";
+
+    /**
+     * The max amount of time (in millis) an edge meta data entry is trusted before it's written again.  Another node
+     * can skip meta data removed by a repair until its entry expires, its first write of the edge type after that
+     * writes the meta data again.
+     */
+    String EDGE_META_CACHE_TIMEOUT = "usergrid.graph.edge.meta.cache.timeout";
+
+    /**
+     * Enable caching the edge types from source nodes, so listing the collections and connections of an entity
+     * doesn't read the edge meta data each time.  The cache is local to each node, only writes on this node
+     * invalidate it
+     */
+    String EDGE_TYPE_CACHE_ENABLED = "usergrid.graph.edge.type.cache.enabled";
+
+    /**
+     * Number of source nodes whose edge types we can cache.
+     */
+    String EDGE_TYPE_CACHE_SIZE = "usergrid.graph.edge.type.cache.size";
+
+    /**
+     * The max amount of time (in millis) the edge types of a node are cached.  Writes on this node invalidate them,
+     * an edge type written or removed by another node goes unseen here for up to this long.  Keep it short, it's meant
+     * to absorb the repeated reads of a single request, not to hold the types across requests.
+     */
+    String EDGE_TYPE_CACHE_TIMEOUT = "usergrid.graph.edge.type.cache.timeout";
+
 
 
 
@@ -170,6 +212,34 @@ public interface GraphFig extends GuicyFig {
     @Key(SMART_SHARD_SEEK_ENABLED)
     boolean getSmartShardSeekEnabled();
 
+    @Default("false")
+    @Key(SHARD_READ_AHEAD_ENABLED)
+    boolean getShardReadAheadEnabled();
+
+    @Default("true")
+    @Key(EDGE_META_CACHE_ENABLED)
+    boolean getEdgeMetaCacheEnabled();
+
+    @Default("100000")
+    @Key(EDGE_META_CACHE_SIZE)
+    long getEdgeMetaCacheSize();
+
+    @Default("30000")
+    @Key(EDGE_META_CACHE_TIMEOUT)
+    long getEdgeMetaCacheTimeout();
+
+    @Default("true")
+    @Key(EDGE_TYPE_CACHE_ENABLED)
+    boolean getEdgeTypeCacheEnabled();
+
+    @Default("10000")
+    @Key(EDGE_TYPE_CACHE_SIZE)
+    long getEdgeTypeCacheSize();
+
+    @Default("1000")
+    @Key(EDGE_TYPE_CACHE_TIMEOUT)
+    long getEdgeTypeCacheTimeout();
+
 
 }
 
@@ -20,6 +20,7 @@
 package org.apache.usergrid.persistence.graph.impl;
 
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,7 @@ import org.apache.usergrid.persistence.graph.SearchEdgeType;
 import org.apache.usergrid.persistence.graph.SearchIdType;
 import org.apache.usergrid.persistence.graph.impl.stage.EdgeDeleteListener;
 import org.apache.usergrid.persistence.graph.impl.stage.NodeDeleteListener;
+import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataCache;
 import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataSerialization;
 import org.apache.usergrid.persistence.graph.serialization.EdgeSerialization;
 import org.apache.usergrid.persistence.graph.serialization.NodeSerialization;
@@ -72,6 +74,8 @@ public class GraphManagerImpl implements GraphManager {
 
     private final EdgeMetadataSerialization edgeMetadataSerialization;
 
+    private final EdgeMetadataCache edgeMetadataCache;
+
 
     private final EdgeSerialization storageEdgeSerialization;
 
@@ -100,6 +104,7 @@ public class GraphManagerImpl implements GraphManager {
 
     @Inject
     public GraphManagerImpl( final EdgeMetadataSerialization edgeMetadataSerialization,
+                             final EdgeMetadataCache edgeMetadataCache,
                              final EdgeSerialization storageEdgeSerialization,
                              final NodeSerialization nodeSerialization, final GraphFig graphFig,
                              final EdgeDeleteListener edgeDeleteListener, final NodeDeleteListener nodeDeleteListener,
@@ -108,6 +113,7 @@ public class GraphManagerImpl implements GraphManager {
 
         ValidationUtils.validateApplicationScope( scope );
         Preconditions.checkNotNull( edgeMetadataSerialization, "edgeMetadataSerialization must not be null" );
+        Preconditions.checkNotNull( edgeMetadataCache, "edgeMetadataCache must not be null" );
         Preconditions.checkNotNull( storageEdgeSerialization, "storageEdgeSerialization must not be null" );
         Preconditions.checkNotNull( nodeSerialization, "nodeSerialization must not be null" );
         Preconditions.checkNotNull( graphFig, "consistencyFig must not be null" );
@@ -116,6 +122,7 @@ public class GraphManagerImpl implements GraphManager {
 
         this.scope = scope;
         this.edgeMetadataSerialization = edgeMetadataSerialization;
+        this.edgeMetadataCache = edgeMetadataCache;
         this.storageEdgeSerialization = storageEdgeSerialization;
         this.nodeSerialization = nodeSerialization;
         this.graphFig = graphFig;
@@ -154,11 +161,20 @@ public class GraphManagerImpl implements GraphManager {
             final UUID timestamp = UUIDGenerator.newTimeUUID();
 
 
-            final MutationBatch mutation = edgeMetadataSerialization.writeEdge( scope, edge1 );
-
             final MutationBatch edgeMutation = storageEdgeSerialization.writeEdge( scope, edge1, timestamp );
 
-            mutation.mergeShallow( edgeMutation );
+            //only write the meta data if we don't know it's already persisted
+            final boolean writeMeta = !edgeMetadataCache.isWritten( scope, edge1 );
+
+            final MutationBatch mutation;
+
+            if ( writeMeta ) {
+                mutation = edgeMetadataSerialization.writeEdge( scope, edge1 );
+                mutation.mergeShallow( edgeMutation );
+            }
+            else {
+                mutation = edgeMutation;
+            }
 
             try {
                 mutation.execute();
@@ -167,6 +183,10 @@ public class GraphManagerImpl implements GraphManager {
                 throw new RuntimeException( "Unable to execute mutation", e );
             }
 
+            if ( writeMeta ) {
+                edgeMetadataCache.markWritten( scope, edge1 );
+            }
+
             return edge1;
         } );
 
@@ -357,18 +377,47 @@ public class GraphManagerImpl implements GraphManager {
 
     @Override
     public Observable<String> getEdgeTypesFromSource( final SearchEdgeType search ) {
-        final Observable<String> edgeTypes =
-            Observable.create( new ObservableIterator<String>( "getEdgeTypesFromSource" ) {
-                    @Override
-                    protected Iterator<String> getIterator() {
-                        return edgeMetadataSerialization.getEdgeTypesFromSource( scope, search );
-                    }
-                } );
+
+        //paging past the first page is rare, read it from the meta data
+        if ( search.getLast().isPresent() ) {
+            final Observable<String> edgeTypes =
+                Observable.create( new ObservableIterator<String>( "getEdgeTypesFromSource" ) {
+                        @Override
+                        protected Iterator<String> getIterator() {
+                            return edgeMetadataSerialization.getEdgeTypesFromSource( scope, search );
+                        }
+                    } );
+
+            return ObservableTimer.time( edgeTypes, getEdgeTypesFromSourceTimer );
+        }
+
+        //the types of the node are cached without a prefix, so every prefix can be served from the same entry
+        final Observable<String> edgeTypes = Observable.defer( () -> Observable.from(
+            edgeMetadataCache.getEdgeTypesFromSource( scope, search.getNode(), () -> loadEdgeTypesFromSource(
+                search.getNode() ) ) ) )
+            .filter( edgeType -> !search.prefix().isPresent() || edgeType.startsWith( search.prefix().get() ) );
 
         return ObservableTimer.time( edgeTypes, getEdgeTypesFromSourceTimer );
     }
 
 
+    /**
+     * Load every edge type from the source node
+     */
+    private List<String> loadEdgeTypesFromSource( final Id sourceNode ) {
+        final Iterator<String> iterator = edgeMetadataSerialization
+            .getEdgeTypesFromSource( scope, new SimpleSearchEdgeType( sourceNode, null, null ) );
+
+        final List<String> edgeTypes = new ArrayList<>();
+
+        while ( iterator.hasNext() ) {
+            edgeTypes.add( iterator.next() );
+        }
+
+        return edgeTypes;
+    }
+
+
     @Override
     public Observable<String> getIdTypesFromSource( final SearchIdType search ) {
         final Observable<String> edgeTypes =
@@ -21,6 +21,7 @@ package org.apache.usergrid.persistence.graph.impl.stage;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -37,6 +38,7 @@ import org.apache.usergrid.persistence.graph.MarkedEdge;
 import org.apache.usergrid.persistence.graph.SearchByEdgeType;
 import org.apache.usergrid.persistence.graph.impl.SimpleSearchByIdType;
 import org.apache.usergrid.persistence.graph.impl.SimpleSearchIdType;
+import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataCache;
 import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataSerialization;
 import org.apache.usergrid.persistence.graph.serialization.EdgeSerialization;
 import org.apache.usergrid.persistence.graph.serialization.util.GraphValidation;
@@ -65,23 +67,27 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
     private static final Log RX_LOG = new Log();
 
     private final EdgeMetadataSerialization edgeMetadataSerialization;
+    private final EdgeMetadataCache edgeMetadataCache;
     private final EdgeSerialization storageEdgeSerialization;
     private final Keyspace keyspace;
     private final GraphFig graphFig;
 
 
     @Inject
-    public EdgeMetaRepairImpl( final EdgeMetadataSerialization edgeMetadataSerialization, final Keyspace keyspace,
+    public EdgeMetaRepairImpl( final EdgeMetadataSerialization edgeMetadataSerialization,
+                               final EdgeMetadataCache edgeMetadataCache, final Keyspace keyspace,
                                final GraphFig graphFig, final EdgeSerialization storageEdgeSerialization ) {
 
 
         Preconditions.checkNotNull( "edgeMetadataSerialization is required", edgeMetadataSerialization );
+        Preconditions.checkNotNull( "edgeMetadataCache is required", edgeMetadataCache );
         Preconditions.checkNotNull( "storageEdgeSerialization is required", storageEdgeSerialization );
         Preconditions.checkNotNull( "consistencyFig is required", graphFig );
         Preconditions.checkNotNull( "cassandraConfig is required", graphFig );
         Preconditions.checkNotNull( "keyspace is required", keyspace );
 
         this.edgeMetadataSerialization = edgeMetadataSerialization;
+        this.edgeMetadataCache = edgeMetadataCache;
         this.keyspace = keyspace;
         this.graphFig = graphFig;
         this.storageEdgeSerialization = storageEdgeSerialization;
@@ -124,6 +130,9 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
 
                     final List<Observable<Integer>> checks = new ArrayList<Observable<Integer>>( types.size() );
 
+                    //the sub types we're removing, these must be invalidated in our meta cache before the batch executes
+                    final List<String> removedSubTypes = Collections.synchronizedList( new ArrayList<>() );
+
                     //for each id type, check if the exist in parallel to increase processing speed
                     for ( final String subType : types ) {
 
@@ -163,6 +172,8 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
                                                  batch.mergeShallow( serialization
                                                          .removeEdgeSubType( scope, node, edgeType, subType,
                                                              maxTimestamp ) );
+
+                                                 removedSubTypes.add( subType );
                                              } );
 
                         checks.add( search );
@@ -184,6 +195,13 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
                                                          edgeType, batch.getRowCount());
                                              }
 
+                                             //invalidate before the delete so a concurrent write on this node
+                                             //can't skip the meta data we're removing
+                                             for ( final String subType : removedSubTypes ) {
+                                                 serialization.invalidateEdgeSubType( scope, node, edgeType,
+                                                     subType, maxTimestamp );
+                                             }
+
                                              try {
                                                  batch.execute();
                                              }
@@ -191,6 +209,18 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
                                                  throw new RuntimeException(
                                                      "Unable to connect to casandra", e );
                                              }
+
+                                             if ( !graphFig.getEdgeMetaCacheEnabled() || removedSubTypes.isEmpty() ) {
+                                                 return;
+                                             }
+
+                                             final List<String> subTypes = new ArrayList<>( removedSubTypes );
+
+                                             //writes that checked a meta cache before the delete skipped the meta
+                                             //data.  Other nodes keep skipping it until their entries expire, their
+                                             //first write after that restores it
+                                             restoreWritten( scope, node, edgeType, subTypes, serialization )
+                                                 .toBlocking().lastOrDefault( null );
                                          }
 
 
@@ -222,6 +252,9 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
             }
             try {
                 serialization.removeEdgeType( scope, node, edgeType, maxTimestamp ).execute();
+
+                //invalidate after the delete, a concurrent read that loaded the type before it isn't cached
+                serialization.invalidateEdgeType( scope, node );
             }
             catch ( ConnectionException e ) {
                 throw new RuntimeException( "Unable to connect to casandra", e );
@@ -230,6 +263,32 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
     }
 
 
+    /**
+     * Re-write the meta data of the newest edge in each removed sub type, if one exists.  The edge was written after
+     * the sub type was checked and its timestamp is above the max timestamp of the delete, so the meta data is kept
+     */
+    private Observable<MarkedEdge> restoreWritten( final ApplicationScope scope, final Id node, final String edgeType,
+                                                   final List<String> subTypes,
+                                                   final CleanSerialization serialization ) {
+
+        return Observable.from( subTypes ).flatMap(
+            subType -> serialization.loadEdges( scope, node, edgeType, subType, Long.MAX_VALUE ).take( 1 ) )
+                         .doOnNext( edge -> {
+
+                             if ( logger.isTraceEnabled() ) {
+                                 logger.trace( "Restoring meta data of edge {} written during the repair", edge );
+                             }
+
+                             try {
+                                 edgeMetadataSerialization.writeEdge( scope, edge ).execute();
+                             }
+                             catch ( ConnectionException e ) {
+                                 throw new RuntimeException( "Unable to connect to casandra", e );
+                             }
+                         } );
+    }
+
+
     /**
      * Simple edge serialization
      */
@@ -259,6 +318,17 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
          */
         MutationBatch removeEdgeType( final ApplicationScope scope, final Id nodeId, final String type,
                                       final long maxTimestamp );
+
+        /**
+         * Invalidate the cached meta data for the sub type specified, before it's removed up to the max timestamp
+         */
+        void invalidateEdgeSubType( final ApplicationScope scope, final Id nodeId, final String edgeType,
+                                    final String subType, final long maxTimestamp );
+
+        /**
+         * Invalidate the cached edge types of the node
+         */
+        void invalidateEdgeType( final ApplicationScope scope, final Id nodeId );
     }
 
 
@@ -309,6 +379,19 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
                                              final long maxTimestamp ) {
             return edgeMetadataSerialization.removeEdgeTypeToTarget( scope, nodeId, type, maxTimestamp );
         }
+
+
+        @Override
+        public void invalidateEdgeSubType( final ApplicationScope scope, final Id nodeId, final String edgeType,
+                                           final String subType, final long maxTimestamp ) {
+            edgeMetadataCache.invalidateTarget( scope, nodeId, edgeType, subType, maxTimestamp );
+        }
+
+
+        @Override
+        public void invalidateEdgeType( final ApplicationScope scope, final Id nodeId ) {
+            //the edge types to a target are not cached
+        }
     };
 
     /**
@@ -355,6 +438,19 @@ public class EdgeMetaRepairImpl implements EdgeMetaRepair {
                                              final long maxTimestamp ) {
             return edgeMetadataSerialization.removeEdgeTypeFromSource( scope, nodeId, type, maxTimestamp );
         }
+
+
+        @Override
+        public void invalidateEdgeSubType( final ApplicationScope scope, final Id nodeId, final String edgeType,
+                                           final String subType, final long maxTimestamp ) {
+            edgeMetadataCache.invalidateSource( scope, nodeId, edgeType, subType, maxTimestamp );
+        }
+
+
+        @Override
+        public void invalidateEdgeType( final ApplicationScope scope, final Id nodeId ) {
+            edgeMetadataCache.invalidateEdgeTypesFromSource( scope, nodeId );
+        }
     };
 
 
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.graph.serialization;
+
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+
+/**
+ * A bounded, node local cache of the edge meta data we know has already been persisted.  Used to avoid re-writing the
+ * same edge type and id type columns each time an edge is written, and to avoid reading the edge types from a node each
+ * time they're listed.
+ */
+public interface EdgeMetadataCache {
+
+
+    /**
+     * Return true if the source and target meta data for this edge are known to be persisted
+     *
+     * @param scope The application scope
+     * @param edge The edge being written
+     */
+    boolean isWritten( ApplicationScope scope, Edge edge );
+
+
+    /**
+     * Mark the source and target meta data for this edge as persisted.  Should only be invoked once the meta data
+     * mutation has executed successfully.  The cached edge types from the source node are invalidated, the edge may
+     * have added a type
+     *
+     * @param scope The application scope
+     * @param edge The edge that was written
+     */
+    void markWritten( ApplicationScope scope, Edge edge );
+
+
+    /**
+     * Invalidate the source meta data for the given source node, edge type and target id type.  Must be invoked before
+     * the meta data is removed.  Meta data written at or below the max timestamp is not trusted afterwards, even when
+     * it's marked as written while the removal runs
+     *
+     * @param scope The application scope
+     * @param sourceNode The source node
+     * @param edgeType The edge type
+     * @param targetIdType The target id type
+     * @param maxTimestamp The max timestamp of the meta data being removed
+     */
+    void invalidateSource( ApplicationScope scope, Id sourceNode, String edgeType, String targetIdType,
+                           long maxTimestamp );
+
+
+    /**
+     * Invalidate the target meta data for the given target node, edge type and source id type.  Must be invoked before
+     * the meta data is removed.  Meta data written at or below the max timestamp is not trusted afterwards, even when
+     * it's marked as written while the removal runs
+     *
+     * @param scope The application scope
+     * @param targetNode The target node
+     * @param edgeType The edge type
+     * @param sourceIdType The source id type
+     * @param maxTimestamp The max timestamp of the meta data being removed
+     */
+    void invalidateTarget( ApplicationScope scope, Id targetNode, String edgeType, String sourceIdType,
+                           long maxTimestamp );
+
+
+    /**
+     * Get the edge types from the source node, loading them if they aren't cached.  Nodes without edges are cached as
+     * well, so nodes without collections or connections don't read the meta data each time
+     *
+     * @param scope The application scope
+     * @param sourceNode The source node
+     * @param loader Loads every edge type from the source node, in order
+     */
+    List<String> getEdgeTypesFromSource( ApplicationScope scope, Id sourceNode, Callable<List<String>> loader );
+
+
+    /**
+     * Invalidate the cached edge types from the source node.  Should be invoked once an edge type has been removed.
+     * Only this node's cache is invalidated, other nodes see the change once their entries expire
+     *
+     * @param scope The application scope
+     * @param sourceNode The source node
+     */
+    void invalidateEdgeTypesFromSource( ApplicationScope scope, Id sourceNode );
+}
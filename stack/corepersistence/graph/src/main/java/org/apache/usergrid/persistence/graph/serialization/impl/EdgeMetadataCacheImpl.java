@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.graph.serialization.impl;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.graph.GraphFig;
+import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataCache;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.DirectedEdgeMeta;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Guava backed implementation of the edge meta data cache.  Each entry holds the timestamp the meta data was written
+ * with.  A repair removes meta data up to its max timestamp, so entries at or below the max timestamp of a repair on this
+ * node are no longer trusted.  Entries expire after the configured timeout, so meta data removed by a repair on another
+ * node is written again by the first write after the entry expires.
+ * <p>
+ * The edge types from source nodes are cached per node as well.  Writes and repairs on this node invalidate them, but
+ * nothing tells this node about edge types written or removed elsewhere, those are only seen once the entry expires.
+ * The edge type cache timeout bounds that staleness and is kept short by default.
+ */
+@Singleton
+public class EdgeMetadataCacheImpl implements EdgeMetadataCache {
+
+    /**
+     * Number of generation stripes for the cached edge types, invalidating a node bumps the stripe of its key
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final GraphFig graphFig;
+    private final Cache<CacheKey, Long> written;
+    private final Cache<CacheKey, Long> repaired;
+    private final Cache<NodeKey, List<String>> edgeTypesFromSource;
+    private final AtomicLongArray edgeTypeGenerations = new AtomicLongArray( GENERATION_STRIPES );
+    private final Counter skippedCounter;
+    private final Counter writtenCounter;
+    private final Counter edgeTypesHitCounter;
+    private final Counter edgeTypesMissCounter;
+
+
+    @Inject
+    public EdgeMetadataCacheImpl( final GraphFig graphFig, final MetricsFactory metricsFactory ) {
+
+        Preconditions.checkNotNull( graphFig, "graphFig is required" );
+        Preconditions.checkNotNull( metricsFactory, "metricsFactory is required" );
+
+        this.graphFig = graphFig;
+
+        this.written = CacheBuilder.newBuilder().maximumSize( graphFig.getEdgeMetaCacheSize() )
+                                   .expireAfterWrite( graphFig.getEdgeMetaCacheTimeout(), TimeUnit.MILLISECONDS )
+                                   .build();
+
+        this.repaired = CacheBuilder.newBuilder().maximumSize( graphFig.getEdgeMetaCacheSize() )
+                                    .expireAfterWrite( graphFig.getEdgeMetaCacheTimeout(), TimeUnit.MILLISECONDS )
+                                    .build();
+
+        this.edgeTypesFromSource = CacheBuilder.newBuilder().maximumSize( graphFig.getEdgeTypeCacheSize() )
+                                               .expireAfterWrite( graphFig.getEdgeTypeCacheTimeout(),
+                                                   TimeUnit.MILLISECONDS ).build();
+
+        this.skippedCounter = metricsFactory.getCounter( EdgeMetadataCacheImpl.class, "edge.meta.skipped" );
+        this.writtenCounter = metricsFactory.getCounter( EdgeMetadataCacheImpl.class, "edge.meta.written" );
+        this.edgeTypesHitCounter = metricsFactory.getCounter( EdgeMetadataCacheImpl.class, "edge.types.hit" );
+        this.edgeTypesMissCounter = metricsFactory.getCounter( EdgeMetadataCacheImpl.class, "edge.types.miss" );
+
+        //the ratio of edge writes that did not need a meta data mutation
+        metricsFactory.addGauge( EdgeMetadataCacheImpl.class, "edge.meta.write.reduction", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                final long skipped = skippedCounter.getCount();
+                final long total = skipped + writtenCounter.getCount();
+
+                if ( total == 0 ) {
+                    return 0d;
+                }
+
+                return ( double ) skipped / total;
+            }
+        } );
+    }
+
+
+    @Override
+    public boolean isWritten( final ApplicationScope scope, final Edge edge ) {
+
+        if ( !graphFig.getEdgeMetaCacheEnabled() ) {
+            writtenCounter.inc();
+            return false;
+        }
+
+        final boolean cached = isTrusted( sourceKey( scope, edge ) ) && isTrusted( targetKey( scope, edge ) );
+
+        if ( cached ) {
+            skippedCounter.inc();
+        }
+        else {
+            writtenCounter.inc();
+        }
+
+        return cached;
+    }
+
+
+    @Override
+    public void markWritten( final ApplicationScope scope, final Edge edge ) {
+
+        //the edge may have added a type, invalidate after the write so the next read loads it
+        invalidateEdgeTypesFromSource( scope, edge.getSourceNode() );
+
+        if ( !graphFig.getEdgeMetaCacheEnabled() ) {
+            return;
+        }
+
+        written.asMap().merge( sourceKey( scope, edge ), edge.getTimestamp(), Math::max );
+        written.asMap().merge( targetKey( scope, edge ), edge.getTimestamp(), Math::max );
+    }
+
+
+    @Override
+    public void invalidateSource( final ApplicationScope scope, final Id sourceNode, final String edgeType,
+                                  final String targetIdType, final long maxTimestamp ) {
+        invalidate(
+            new CacheKey( scope, DirectedEdgeMeta.fromSourceNodeTargetType( sourceNode, edgeType, targetIdType ) ),
+            maxTimestamp );
+    }
+
+
+    @Override
+    public void invalidateTarget( final ApplicationScope scope, final Id targetNode, final String edgeType,
+                                  final String sourceIdType, final long maxTimestamp ) {
+        invalidate(
+            new CacheKey( scope, DirectedEdgeMeta.fromTargetNodeSourceType( targetNode, edgeType, sourceIdType ) ),
+            maxTimestamp );
+    }
+
+
+    /**
+     * Only trust meta data written above the max timestamp of every repair of the key, the repair's delete removes
+     * anything at or below it
+     */
+    private boolean isTrusted( final CacheKey key ) {
+        final Long writtenTimestamp = written.getIfPresent( key );
+
+        if ( writtenTimestamp == null ) {
+            return false;
+        }
+
+        final Long repairedTimestamp = repaired.getIfPresent( key );
+
+        return repairedTimestamp == null || writtenTimestamp > repairedTimestamp;
+    }
+
+
+    /**
+     * Record the repair before removing the entry, so a write that marks the key while the repair runs isn't trusted
+     */
+    private void invalidate( final CacheKey key, final long maxTimestamp ) {
+        repaired.asMap().merge( key, maxTimestamp, Math::max );
+        written.invalidate( key );
+    }
+
+
+    @Override
+    public List<String> getEdgeTypesFromSource( final ApplicationScope scope, final Id sourceNode,
+                                                final Callable<List<String>> loader ) {
+
+        if ( !graphFig.getEdgeTypeCacheEnabled() ) {
+            edgeTypesMissCounter.inc();
+            return load( loader );
+        }
+
+        final NodeKey key = new NodeKey( scope, sourceNode );
+
+        final List<String> cached = edgeTypesFromSource.getIfPresent( key );
+
+        if ( cached != null ) {
+            edgeTypesHitCounter.inc();
+            return cached;
+        }
+
+        edgeTypesMissCounter.inc();
+
+        final int stripe = stripe( key );
+        final long generation = edgeTypeGenerations.get( stripe );
+
+        //an empty list is cached as well, nodes without edges are the most common
+        final List<String> edgeTypes = Collections.unmodifiableList( load( loader ) );
+
+        edgeTypesFromSource.put( key, edgeTypes );
+
+        //the node was invalidated while we loaded, what we put may be stale.  The invalidation bumps the generation
+        //before it removes the entry, so either it removes what we put or we see the new generation here
+        if ( edgeTypeGenerations.get( stripe ) != generation ) {
+            edgeTypesFromSource.invalidate( key );
+        }
+
+        return edgeTypes;
+    }
+
+
+    @Override
+    public void invalidateEdgeTypesFromSource( final ApplicationScope scope, final Id sourceNode ) {
+        final NodeKey key = new NodeKey( scope, sourceNode );
+
+        edgeTypeGenerations.incrementAndGet( stripe( key ) );
+        edgeTypesFromSource.invalidate( key );
+    }
+
+
+    private static int stripe( final NodeKey key ) {
+        return ( key.hashCode() & Integer.MAX_VALUE ) % GENERATION_STRIPES;
+    }
+
+
+    private static List<String> load( final Callable<List<String>> loader ) {
+        try {
+            return loader.call();
+        }
+        catch ( Exception e ) {
+            throw Throwables.propagate( e );
+        }
+    }
+
+
+    private CacheKey sourceKey( final ApplicationScope scope, final Edge edge ) {
+        return new CacheKey( scope, DirectedEdgeMeta
+            .fromSourceNodeTargetType( edge.getSourceNode(), edge.getType(), edge.getTargetNode().getType() ) );
+    }
+
+
+    private CacheKey targetKey( final ApplicationScope scope, final Edge edge ) {
+        return new CacheKey( scope, DirectedEdgeMeta
+            .fromTargetNodeSourceType( edge.getTargetNode(), edge.getType(), edge.getSourceNode().getType() ) );
+    }
+
+
+    /**
+     * Key for a single direction of edge meta data within an application
+     */
+    private static class CacheKey {
+        private final ApplicationScope scope;
+        private final DirectedEdgeMeta directedEdgeMeta;
+
+
+        private CacheKey( final ApplicationScope scope, final DirectedEdgeMeta directedEdgeMeta ) {
+            this.scope = scope;
+            this.directedEdgeMeta = directedEdgeMeta;
+        }
+
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+
+            final CacheKey cacheKey = ( CacheKey ) o;
+
+            if ( !scope.equals( cacheKey.scope ) ) {
+                return false;
+            }
+
+            if ( !directedEdgeMeta.equals( cacheKey.directedEdgeMeta ) ) {
+                return false;
+            }
+
+            return true;
+        }
+
+
+        @Override
+        public int hashCode() {
+            int result = scope.hashCode();
+            result = 31 * result + directedEdgeMeta.hashCode();
+            return result;
+        }
+    }
+
+
+    /**
+     * Key for the edge types of a node within an application
+     */
+    private static class NodeKey {
+        private final ApplicationScope scope;
+        private final Id node;
+
+
+        private NodeKey( final ApplicationScope scope, final Id node ) {
+            this.scope = scope;
+            this.node = node;
+        }
+
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+
+            final NodeKey nodeKey = ( NodeKey ) o;
+
+            if ( !scope.equals( nodeKey.scope ) ) {
+                return false;
+            }
+
+            if ( !node.equals( nodeKey.node ) ) {
+                return false;
+            }
+
+            return true;
+        }
+
+
+        @Override
+        public int hashCode() {
+            int result = scope.hashCode();
+            result = 31 * result + node.hashCode();
+            return result;
+        }
+    }
+}
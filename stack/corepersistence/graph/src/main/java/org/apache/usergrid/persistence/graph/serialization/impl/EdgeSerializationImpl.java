@@ -298,7 +298,8 @@ public class EdgeSerializationImpl implements EdgeSerialization {
 
         //now create a result iterator with our iterator of read shards
 
-        return new ShardGroupColumnIterator( scope, versionMetaData, shardGroupDeletion, readShards ) {
+        return new ShardGroupColumnIterator( scope, versionMetaData, shardGroupDeletion, readShards,
+            graphFig.getShardReadAheadEnabled() ) {
             @Override
             protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
                 return shardedEdgeSerialization.getEdgeVersions( edgeColumnFamilies, scope, search, readShards );
@@ -333,7 +334,8 @@ public class EdgeSerializationImpl implements EdgeSerialization {
 
         final Iterator<ShardEntryGroup> readShards = edgeShardStrategy.getReadShards( scope, maxTimestamp, directedEdgeMeta );
 
-        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards ) {
+        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards,
+            graphFig.getShardReadAheadEnabled() ) {
             @Override
             protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
                 return shardedEdgeSerialization.getEdgesFromSource( edgeColumnFamilies, scope, edgeType, readShards );
@@ -369,7 +371,8 @@ public class EdgeSerializationImpl implements EdgeSerialization {
         final Iterator<ShardEntryGroup> readShards = edgeShardStrategy.getReadShards( scope, maxTimestamp, directedEdgeMeta );
 
 
-        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards ) {
+        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards,
+            graphFig.getShardReadAheadEnabled() ) {
             @Override
             protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
                 return shardedEdgeSerialization
@@ -406,7 +409,8 @@ public class EdgeSerializationImpl implements EdgeSerialization {
 
         final Iterator<ShardEntryGroup> readShards = edgeShardStrategy.getReadShards( scope, maxTimestamp, directedEdgeMeta );
 
-        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards ) {
+        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards,
+            graphFig.getShardReadAheadEnabled() ) {
             @Override
             protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
                 return shardedEdgeSerialization.getEdgesToTarget( edgeColumnFamilies, scope, edgeType, readShards );
@@ -445,7 +449,8 @@ public class EdgeSerializationImpl implements EdgeSerialization {
         final Iterator<ShardEntryGroup> readShards = edgeShardStrategy.getReadShards( scope, maxTimestamp, directedEdgeMeta );
 
 
-        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards ) {
+        return new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion, readShards,
+            graphFig.getShardReadAheadEnabled() ) {
             @Override
             protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
                 return shardedEdgeSerialization
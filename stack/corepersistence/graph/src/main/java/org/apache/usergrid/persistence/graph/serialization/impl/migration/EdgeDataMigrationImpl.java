@@ -26,6 +26,7 @@ import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 import org.apache.usergrid.persistence.core.migration.data.DataMigration;
 import org.apache.usergrid.persistence.core.migration.data.MigrationDataProvider;
 import org.apache.usergrid.persistence.core.migration.data.MigrationRelationship;
+import org.apache.usergrid.persistence.core.migration.data.PartitionedMigrationRunner;
 import org.apache.usergrid.persistence.core.migration.data.ProgressObserver;
 import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
 import org.apache.usergrid.persistence.graph.Edge;
@@ -37,17 +38,16 @@ import org.apache.usergrid.persistence.graph.serialization.impl.EdgeMetadataSeri
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rx.Observable;
 import rx.schedulers.Schedulers;
 
-import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Encapsulates the migration of edge meta data.
  *
  * The migration data provider assumes that is will visit every node in the graph
- * all edges from these source node will then be re-indexed.
+ * all edges from these source node will then be re-indexed.  The partitions of the provider are checkpointed
+ * as they complete, so a migration that stops resumes with the partitions it did not finish.
  */
 public class EdgeDataMigrationImpl implements DataMigration {
 
@@ -59,13 +59,15 @@ public class EdgeDataMigrationImpl implements DataMigration {
     private final VersionedMigrationSet<EdgeMetadataSerialization> allVersions;
     private final EdgeMetadataSerializationV2Impl edgeMetadataSerializationV2;
     private final MigrationDataProvider<GraphNode> migrationDataProvider;
+    private final PartitionedMigrationRunner partitionedMigrationRunner;
 
     @Inject
     public EdgeDataMigrationImpl( final Keyspace keyspace, final GraphManagerFactory graphManagerFactory,
                                   final EdgesObservable edgesFromSourceObservable,
                                   final VersionedMigrationSet<EdgeMetadataSerialization> allVersions,
                                   final EdgeMetadataSerializationV2Impl edgeMetadataSerializationV2,
-                                  final MigrationDataProvider<GraphNode> migrationDataProvider ) {
+                                  final MigrationDataProvider<GraphNode> migrationDataProvider,
+                                  final PartitionedMigrationRunner partitionedMigrationRunner ) {
 
         this.keyspace = keyspace;
         this.graphManagerFactory = graphManagerFactory;
@@ -73,6 +75,7 @@ public class EdgeDataMigrationImpl implements DataMigration {
         this.allVersions = allVersions;
         this.edgeMetadataSerializationV2 = edgeMetadataSerializationV2;
         this.migrationDataProvider = migrationDataProvider;
+        this.partitionedMigrationRunner = partitionedMigrationRunner;
     }
 
 
@@ -85,12 +88,16 @@ public class EdgeDataMigrationImpl implements DataMigration {
         final MigrationRelationship<EdgeMetadataSerialization> migration =
             allVersions.getMigrationRelationship( currentVersion );
 
-        final Observable<List<Edge>> observable = migrationDataProvider.getData().flatMap( graphNode -> {
+        final int version = migration.to.getImplementationVersion();
+
+        //the nodes of each partition are migrated as before, the runner migrates the partitions concurrently
+        partitionedMigrationRunner.migrate( EdgeDataMigrationImpl.class.getSimpleName() + ":" + version,
+            migrationDataProvider.getPartitions(), partition -> partition.getData().flatMap( graphNode -> {
             final GraphManager gm = graphManagerFactory.createEdgeManager( graphNode.applicationScope );
 
             //get edges from the source
             return edgesFromSourceObservable.edgesFromSourceDescending( gm, graphNode.entryNode, true).buffer( 1000 )
-                                            .doOnNext( edges -> {
+                                            .map( edges -> {
                                                     final MutationBatch batch = keyspace.prepareMutationBatch();
 
                                                     for ( Edge edge : edges ) {
@@ -110,13 +117,13 @@ public class EdgeDataMigrationImpl implements DataMigration {
                                                     //update the observer so the admin can see it
                                                     final long newCount = counter.addAndGet( edges.size() );
 
-                                                    observer.update( migration.to.getImplementationVersion(), String
+                                                    observer.update( version, String
                                                         .format( "Currently running.  Rewritten %d edge types",
                                                             newCount ) );
-                                                } ).subscribeOn( Schedulers.io() );
-        }, 10 );
 
-        observable.countLong().toBlocking().last();
+                                                    return edges.size();
+                                                } ).subscribeOn( Schedulers.io() );
+        }, 10 ) );
 
         return migration.to.getImplementationVersion();
     }
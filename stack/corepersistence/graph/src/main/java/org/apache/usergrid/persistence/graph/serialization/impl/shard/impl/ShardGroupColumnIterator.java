@@ -25,6 +25,8 @@ package org.apache.usergrid.persistence.graph.serialization.impl.shard.impl;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -38,17 +40,21 @@ import org.apache.usergrid.persistence.graph.serialization.impl.shard.Shard;
 import org.apache.usergrid.persistence.graph.serialization.impl.shard.ShardEntryGroup;
 import org.apache.usergrid.persistence.graph.serialization.impl.shard.ShardGroupDeletion;
 
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
 
 /**
  * Iterator to keep iterating over multiple shard groups to stream results
  *
  * @param <T> The parsed return type
  */
-public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
+public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge>, AutoCloseable {
 
 
     private static final Logger logger = LoggerFactory.getLogger( ShardGroupColumnIterator.class );
@@ -59,16 +65,36 @@ public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
     private final Iterator<ShardEntryGroup> entryGroupIterator;
 
 
+    private final boolean readAhead;
+
+
     private Iterator<MarkedEdge> elements;
 
+    /**
+     * The number of shard groups read, the next group is only read ahead from the second group on
+     */
+    private int groupsRead;
 
+    /**
+     * The next shard group and its elements, read while the current group is consumed.  At most one group is read
+     * ahead
+     */
+    private ShardEntryGroup nextGroup;
+    private Future<Iterator<MarkedEdge>> nextElements;
+
+
+    /**
+     * @param readAhead True to start reading the next shard group while the current group is consumed, once the
+     * caller has read past the first group
+     */
     public ShardGroupColumnIterator( final ApplicationScope applicationScope, final DirectedEdgeMeta directedEdgeMeta,
                                      final ShardGroupDeletion shardGroupDeletion,
-                                     final Iterator<ShardEntryGroup> entryGroupIterator ) {
+                                     final Iterator<ShardEntryGroup> entryGroupIterator, final boolean readAhead ) {
         this.applicationScope = applicationScope;
         this.directedEdgeMeta = directedEdgeMeta;
         this.shardGroupDeletion = shardGroupDeletion;
         this.entryGroupIterator = entryGroupIterator;
+        this.readAhead = readAhead;
     }
 
 
@@ -85,7 +111,7 @@ public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
         }
 
         //we've exhausted our shard groups and we don't have a next, we can't continue
-        if ( !entryGroupIterator.hasNext() ) {
+        if ( nextGroup == null && !entryGroupIterator.hasNext() ) {
             return false;
         }
 
@@ -110,6 +136,27 @@ public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
     }
 
 
+    /**
+     * Cancel the group read ahead and close the iterators of the groups when the iterator is abandoned
+     */
+    @Override
+    public void close() throws Exception {
+        if ( nextElements != null ) {
+            nextElements.cancel( true );
+
+            //the group was read before we cancelled it, it may be reading ahead itself
+            if ( nextElements.isDone() && !nextElements.isCancelled() ) {
+                close( await( nextElements ) );
+            }
+
+            nextGroup = null;
+            nextElements = null;
+        }
+
+        close( elements );
+    }
+
+
     /**
      * Get an iterator for the shard entry group
      *
@@ -124,13 +171,38 @@ public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
 
         if (logger.isTraceEnabled()) logger.trace( "Advancing from shard entry group iterator" );
 
-        while ( entryGroupIterator.hasNext() ) {
+        while ( nextGroup != null || entryGroupIterator.hasNext() ) {
+
+            final ShardEntryGroup group;
+
+            //the group was read while the last one was consumed
+            if ( nextGroup != null ) {
+                group = nextGroup;
+
+                if (logger.isTraceEnabled()) logger.trace( "Shard entry group {} was read ahead", group );
 
-            final ShardEntryGroup group = entryGroupIterator.next();
+                elements = await( nextElements );
 
-            if (logger.isTraceEnabled()) logger.trace( "Shard entry group is {}.  Searching for edges in the shard", group );
+                nextGroup = null;
+                nextElements = null;
+            }
+            else {
+                group = entryGroupIterator.next();
 
-            elements = getIterator( group.getReadShards() );
+                if (logger.isTraceEnabled()) logger.trace( "Shard entry group is {}.  Searching for edges in the shard", group );
+
+                elements = getIterator( group.getReadShards() );
+            }
+
+            groupsRead++;
+
+            //the groups are disjoint, read the first page of the next one while this one is read and consumed.  The
+            //groups are still returned one after the other, so the order of the edges doesn't change.  Callers that
+            //only read the first group never read ahead
+            if ( readAhead && groupsRead > 1 && entryGroupIterator.hasNext() ) {
+                nextGroup = entryGroupIterator.next();
+                nextElements = readAhead( nextGroup );
+            }
 
             /**
              * We're done, we have some columns to return
@@ -153,4 +225,42 @@ public abstract class ShardGroupColumnIterator implements Iterator<MarkedEdge> {
 
         return false;
     }
+
+
+    /**
+     * Get the iterator of the group and read its first page on an I/O thread
+     */
+    private Future<Iterator<MarkedEdge>> readAhead( final ShardEntryGroup group ) {
+
+        return Observable.defer( () -> {
+            final Iterator<MarkedEdge> groupElements = getIterator( group.getReadShards() );
+
+            //reads the first page
+            groupElements.hasNext();
+
+            return Observable.just( groupElements );
+        } ).subscribeOn( Schedulers.io() ).toBlocking().toFuture();
+    }
+
+
+    private static void close( final Iterator<MarkedEdge> groupElements ) throws Exception {
+        if ( groupElements instanceof AutoCloseable ) {
+            ( ( AutoCloseable ) groupElements ).close();
+        }
+    }
+
+
+    private static Iterator<MarkedEdge> await( final Future<Iterator<MarkedEdge>> groupElements ) {
+        try {
+            return groupElements.get();
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while reading the shard group", e );
+        }
+        catch ( ExecutionException e ) {
+            Throwables.propagateIfPossible( e.getCause() );
+            throw new RuntimeException( "Unable to read the shard group", e.getCause() );
+        }
+    }
 }
@@ -397,7 +397,8 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled() );
+                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled(),
+                graphFig.getShardReadAheadEnabled() );
     }
 
 
@@ -468,7 +469,8 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
 
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled() );
+                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled(),
+                graphFig.getShardReadAheadEnabled() );
     }
 
 
@@ -533,7 +535,8 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled() );
+                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled(),
+                graphFig.getShardReadAheadEnabled() );
     }
 
 
@@ -595,7 +598,8 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
 
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled() );
+                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled(),
+                graphFig.getShardReadAheadEnabled() );
     }
 
 
@@ -658,7 +662,8 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled() );
+                graphFig.getScanPageSize(), graphFig.getSmartShardSeekEnabled(),
+                graphFig.getShardReadAheadEnabled() );
     }
 
 
@@ -43,7 +43,7 @@ import com.netflix.astyanax.util.RangeBuilder;
  * @param <C> The column type
  * @param <T> The parsed return type
  */
-public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
+public class ShardsColumnIterator<R, C, T> implements Iterator<T>, AutoCloseable {
 
 
     private static final Logger logger = LoggerFactory.getLogger( ShardsColumnIterator.class );
@@ -62,17 +62,20 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
 
     private final boolean smartShardSeekEnabled;
 
+    private final boolean readAhead;
+
 
     public ShardsColumnIterator(final EdgeSearcher<R, C, T> searcher,
                                 final MultiTenantColumnFamily<ScopedRowKey<R>, C> cf, final Keyspace keyspace,
                                 final ConsistencyLevel consistencyLevel, final int pageSize,
-                                final boolean smartShardSeekEnabled) {
+                                final boolean smartShardSeekEnabled, final boolean readAhead) {
         this.searcher = searcher;
         this.cf = cf;
         this.keyspace = keyspace;
         this.pageSize = pageSize;
         this.consistencyLevel = consistencyLevel;
         this.smartShardSeekEnabled = smartShardSeekEnabled;
+        this.readAhead = readAhead;
     }
 
 
@@ -106,6 +109,17 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
     }
 
 
+    /**
+     * Close the column iterator so it stops reading ahead
+     */
+    @Override
+    public void close() throws Exception {
+        if ( currentColumnIterator instanceof AutoCloseable ) {
+            ( ( AutoCloseable ) currentColumnIterator ).close();
+        }
+    }
+
+
     /**
      * Advance our iterator to the next row (assumes the check for row keys is elsewhere)
      */
@@ -130,7 +144,7 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
             final boolean ascending = searcher.getOrder() == SearchByEdgeType.Order.ASCENDING;
 
             currentColumnIterator = new MultiRowShardColumnIterator<>( keyspace, cf,  consistencyLevel, searcher, searcher,
-                searcher.getComparator(), pageSize, rowKeysWithShardEnd, ascending, searcher.getLastTimestamp() );
+                searcher.getComparator(), pageSize, rowKeysWithShardEnd, ascending, searcher.getLastTimestamp(), readAhead );
 
         }else{
 
@@ -138,7 +152,7 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
             final List<ScopedRowKey<R>> rowKeys = searcher.getRowKeys();
 
             currentColumnIterator = new MultiRowColumnIterator<>( keyspace, cf,  consistencyLevel, searcher, searcher,
-                searcher.getComparator(), rowKeys, pageSize );
+                searcher.getComparator(), rowKeys, pageSize, readAhead );
 
 
         }
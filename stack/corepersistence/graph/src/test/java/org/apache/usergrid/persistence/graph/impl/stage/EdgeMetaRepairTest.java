@@ -147,6 +147,42 @@ public class EdgeMetaRepairTest {
     }
 
 
+    @Test
+    public void cleanTargetWriteDuringRepair() throws ConnectionException {
+        MarkedEdge edge = createEdge( "source", "test", "target" );
+
+        storageEdgeSerialization.writeEdge( scope, edge, UUIDGenerator.newTimeUUID() ).execute();
+
+        edgeMetadataSerialization.writeEdge( scope, edge ).execute();
+
+        storageEdgeSerialization.deleteEdge( scope, edge, UUIDGenerator.newTimeUUID() ).execute();
+
+        //a newer edge of the same types is written by a node that skipped the meta data, the repair doesn't see it
+        MarkedEdge written =
+                createEdge( IdGenerator.createId( "source" ), "test", edge.getTargetNode(), edge.getTimestamp() + 1 );
+
+        storageEdgeSerialization.writeEdge( scope, written, UUIDGenerator.newTimeUUID() ).execute();
+
+        int value = edgeMetaRepair.repairTargets( scope, edge.getTargetNode(), edge.getType(), edge.getTimestamp() )
+                                  .toBlocking().single();
+
+        assertEquals( "Single subtype should be removed", 0, value );
+
+        //the meta data of the newer edge is restored
+
+        Iterator<String> edgeTypes = edgeMetadataSerialization
+                .getEdgeTypesToTarget( scope, new SimpleSearchEdgeType( edge.getTargetNode(), null, null ) );
+
+        assertEquals( "Edge type restored", edge.getType(), edgeTypes.next() );
+
+
+        Iterator<String> sourceTypes = edgeMetadataSerialization
+                .getIdTypesToTarget( scope, new SimpleSearchIdType( edge.getTargetNode(), edge.getType(), null, null ) );
+
+        assertEquals( "Source type restored", "source", sourceTypes.next() );
+    }
+
+
     @Test
     public void cleanTargetMultipleEdge() throws ConnectionException {
 
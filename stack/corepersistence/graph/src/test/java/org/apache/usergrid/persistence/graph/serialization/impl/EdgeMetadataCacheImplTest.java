@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.graph.serialization.impl;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.graph.GraphFig;
+import org.apache.usergrid.persistence.graph.serialization.EdgeMetadataCache;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.codahale.metrics.Counter;
+
+import static org.apache.usergrid.persistence.core.util.IdGenerator.createId;
+import static org.apache.usergrid.persistence.graph.test.util.EdgeTestUtils.createEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the edge meta data cache without cassandra
+ */
+public class EdgeMetadataCacheImplTest {
+
+    private ApplicationScope scope;
+    private EdgeMetadataCache cache;
+
+
+    @Before
+    public void setup() {
+        scope = new ApplicationScopeImpl( createId( "application" ) );
+
+        final GraphFig graphFig = mock( GraphFig.class );
+        when( graphFig.getEdgeMetaCacheEnabled() ).thenReturn( true );
+        when( graphFig.getEdgeMetaCacheSize() ).thenReturn( 1000l );
+        when( graphFig.getEdgeMetaCacheTimeout() ).thenReturn( 30000l );
+        when( graphFig.getEdgeTypeCacheEnabled() ).thenReturn( true );
+        when( graphFig.getEdgeTypeCacheSize() ).thenReturn( 1000l );
+        when( graphFig.getEdgeTypeCacheTimeout() ).thenReturn( 30000l );
+
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getCounter( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Counter() );
+
+        cache = new EdgeMetadataCacheImpl( graphFig, metricsFactory );
+    }
+
+
+    @Test
+    public void writtenOnce() {
+        final Edge edge = createEdge( "source", "test", "target" );
+
+        assertFalse( "Not written yet", cache.isWritten( scope, edge ) );
+
+        cache.markWritten( scope, edge );
+
+        assertTrue( "Written", cache.isWritten( scope, edge ) );
+
+        //a new edge with the same types from the same source to a different target is covered
+        final Edge sameTypes = createEdge( edge.getSourceNode(), "test", createId( "target" ) );
+
+        assertFalse( "Target meta data not written", cache.isWritten( scope, sameTypes ) );
+
+        cache.markWritten( scope, sameTypes );
+
+        final Edge otherScope = createEdge( edge.getSourceNode(), "test", edge.getTargetNode() );
+
+        assertFalse( "Different scope not written",
+            cache.isWritten( new ApplicationScopeImpl( createId( "application" ) ), otherScope ) );
+    }
+
+
+    @Test
+    public void invalidateSource() {
+        final Edge edge = createEdge( "source", "test", "target" );
+
+        cache.markWritten( scope, edge );
+
+        assertTrue( "Written", cache.isWritten( scope, edge ) );
+
+        cache.invalidateSource( scope, edge.getSourceNode(), edge.getType(), edge.getTargetNode().getType(),
+            edge.getTimestamp() );
+
+        assertFalse( "Source invalidated", cache.isWritten( scope, edge ) );
+    }
+
+
+    @Test
+    public void invalidateTarget() {
+        final Edge edge = createEdge( "source", "test", "target" );
+
+        cache.markWritten( scope, edge );
+
+        assertTrue( "Written", cache.isWritten( scope, edge ) );
+
+        //invalidating the wrong direction should not remove anything
+        cache.invalidateSource( scope, edge.getTargetNode(), edge.getType(), edge.getSourceNode().getType(),
+            edge.getTimestamp() );
+
+        assertTrue( "Still written", cache.isWritten( scope, edge ) );
+
+        cache.invalidateTarget( scope, edge.getTargetNode(), edge.getType(), edge.getSourceNode().getType(),
+            edge.getTimestamp() );
+
+        assertFalse( "Target invalidated", cache.isWritten( scope, edge ) );
+    }
+
+
+    @Test
+    public void writeDuringRepair() {
+        final Id sourceNode = createId( "source" );
+        final Id targetNode = createId( "target" );
+        final Edge deleted = createEdge( sourceNode, "test", targetNode, 1000l );
+
+        cache.markWritten( scope, deleted );
+
+        //the repair invalidates before its delete, a write that checked the cache earlier marks the key during the delete
+        cache.invalidateSource( scope, sourceNode, "test", targetNode.getType(), deleted.getTimestamp() );
+
+        cache.markWritten( scope, deleted );
+
+        assertFalse( "Meta data at the repair's max timestamp was removed", cache.isWritten( scope, deleted ) );
+
+        final Edge older = createEdge( sourceNode, "test", createId( "target" ), 999l );
+
+        cache.markWritten( scope, older );
+
+        assertFalse( "Meta data below the repair's max timestamp was removed", cache.isWritten( scope, older ) );
+
+        //meta data written above the max timestamp survives the delete
+        final Edge newer = createEdge( sourceNode, "test", targetNode, 1001l );
+
+        cache.markWritten( scope, newer );
+
+        assertTrue( "Written after the repair", cache.isWritten( scope, newer ) );
+    }
+
+
+    @Test
+    public void edgeTypesLoadedOnce() {
+        final Id sourceNode = createId( "source" );
+        final AtomicInteger loads = new AtomicInteger();
+        final Callable<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Arrays.asList( "test1", "test2" );
+        };
+
+        assertEquals( Arrays.asList( "test1", "test2" ), cache.getEdgeTypesFromSource( scope, sourceNode, loader ) );
+        assertEquals( Arrays.asList( "test1", "test2" ), cache.getEdgeTypesFromSource( scope, sourceNode, loader ) );
+
+        assertEquals( "Loaded once", 1, loads.get() );
+
+        //another node and another scope are loaded on their own
+        cache.getEdgeTypesFromSource( scope, createId( "source" ), loader );
+        cache.getEdgeTypesFromSource( new ApplicationScopeImpl( createId( "application" ) ), sourceNode, loader );
+
+        assertEquals( "Loaded per node and scope", 3, loads.get() );
+    }
+
+
+    @Test
+    public void noEdgeTypesCached() {
+        final Id sourceNode = createId( "source" );
+        final AtomicInteger loads = new AtomicInteger();
+        final Callable<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        };
+
+        assertTrue( cache.getEdgeTypesFromSource( scope, sourceNode, loader ).isEmpty() );
+        assertTrue( cache.getEdgeTypesFromSource( scope, sourceNode, loader ).isEmpty() );
+
+        assertEquals( "Empty types cached", 1, loads.get() );
+    }
+
+
+    @Test
+    public void edgeTypesInvalidatedOnWrite() {
+        final Edge edge = createEdge( "source", "test", "target" );
+        final AtomicInteger loads = new AtomicInteger();
+        final Callable<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        };
+
+        cache.getEdgeTypesFromSource( scope, edge.getSourceNode(), loader );
+
+        //an edge to the node doesn't change the types from it
+        cache.markWritten( scope, createEdge( createId( "source" ), "test", edge.getSourceNode() ) );
+        cache.getEdgeTypesFromSource( scope, edge.getSourceNode(), loader );
+
+        assertEquals( "Still cached", 1, loads.get() );
+
+        cache.markWritten( scope, edge );
+        cache.getEdgeTypesFromSource( scope, edge.getSourceNode(), loader );
+
+        assertEquals( "Reloaded after the write", 2, loads.get() );
+
+        cache.invalidateEdgeTypesFromSource( scope, edge.getSourceNode() );
+        cache.getEdgeTypesFromSource( scope, edge.getSourceNode(), loader );
+
+        assertEquals( "Reloaded after the invalidation", 3, loads.get() );
+    }
+
+
+    @Test
+    public void edgeTypesInvalidatedDuringLoad() {
+        final Id sourceNode = createId( "source" );
+        final AtomicInteger loads = new AtomicInteger();
+
+        //the repair removes the type and invalidates after this load read it
+        final Callable<List<String>> staleLoader = () -> {
+            loads.incrementAndGet();
+            cache.invalidateEdgeTypesFromSource( scope, sourceNode );
+            return Arrays.asList( "removed" );
+        };
+
+        assertEquals( Arrays.asList( "removed" ), cache.getEdgeTypesFromSource( scope, sourceNode, staleLoader ) );
+
+        final Callable<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        };
+
+        assertTrue( "Stale types not cached", cache.getEdgeTypesFromSource( scope, sourceNode, loader ).isEmpty() );
+        assertTrue( cache.getEdgeTypesFromSource( scope, sourceNode, loader ).isEmpty() );
+
+        assertEquals( "Reloaded once after the invalidation", 2, loads.get() );
+    }
+}
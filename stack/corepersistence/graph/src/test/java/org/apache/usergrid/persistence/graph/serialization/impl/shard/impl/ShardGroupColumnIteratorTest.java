@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.graph.serialization.impl.shard.impl;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.DirectedEdgeMeta;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.Shard;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.ShardEntryGroup;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.ShardGroupDeletion;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import static org.apache.usergrid.persistence.core.util.IdGenerator.createId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+
+/**
+ * Tests the edges of the shard groups are returned in order with and without reading ahead, and reading ahead stops
+ * when the iterator is closed
+ */
+public class ShardGroupColumnIteratorTest {
+
+
+    @Test
+    public void sequentialGroups() {
+        iterateGroups( false );
+    }
+
+
+    @Test
+    public void readAheadGroups() {
+        iterateGroups( true );
+    }
+
+
+    private void iterateGroups( final boolean readAhead ) {
+
+        final ApplicationScope scope = new ApplicationScopeImpl( createId( "application" ) );
+        final Id sourceId = createId( "source" );
+        final DirectedEdgeMeta directedEdgeMeta = DirectedEdgeMeta.fromSourceNode( sourceId, "test" );
+        final ShardGroupDeletion shardGroupDeletion = mock( ShardGroupDeletion.class );
+
+        final ShardEntryGroup first = group( 3000 );
+        final ShardEntryGroup empty = group( 2000 );
+        final ShardEntryGroup last = group( 1000 );
+
+        //the edges of each shard, newest first
+        final Map<Long, List<MarkedEdge>> edges = new HashMap<>();
+        edges.put( 3000L, Arrays.asList( edge( sourceId, 3002 ), edge( sourceId, 3001 ) ) );
+        edges.put( 2000L, Collections.<MarkedEdge>emptyList() );
+        edges.put( 1000L, Arrays.asList( edge( sourceId, 1002 ), edge( sourceId, 1001 ) ) );
+
+        final Iterator<MarkedEdge> iterator =
+            new ShardGroupColumnIterator( scope, directedEdgeMeta, shardGroupDeletion,
+                Arrays.asList( first, empty, last ).iterator(), readAhead ) {
+
+                @Override
+                protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
+                    return edges.get( readShards.iterator().next().getShardIndex() ).iterator();
+                }
+
+
+                @Override
+                protected Iterator<MarkedEdge> getIteratorFullRange( final Collection<Shard> readShards ) {
+                    return getIterator( readShards );
+                }
+            };
+
+        final List<Long> timestamps = new ArrayList<>();
+
+        while ( iterator.hasNext() ) {
+            timestamps.add( iterator.next().getTimestamp() );
+        }
+
+        assertEquals( Arrays.asList( 3002L, 3001L, 1002L, 1001L ), timestamps );
+
+        //only the empty group is audited
+        verify( shardGroupDeletion ).maybeDeleteShard( same( scope ), same( directedEdgeMeta ), same( empty ),
+            any( Iterator.class ) );
+        verify( shardGroupDeletion, never() )
+            .maybeDeleteShard( same( scope ), same( directedEdgeMeta ), same( first ), any( Iterator.class ) );
+        verify( shardGroupDeletion, never() )
+            .maybeDeleteShard( same( scope ), same( directedEdgeMeta ), same( last ), any( Iterator.class ) );
+    }
+
+
+    @Test
+    public void readAheadAfterFirstGroup() throws Exception {
+
+        final ApplicationScope scope = new ApplicationScopeImpl( createId( "application" ) );
+        final Id sourceId = createId( "source" );
+        final DirectedEdgeMeta directedEdgeMeta = DirectedEdgeMeta.fromSourceNode( sourceId, "test" );
+
+        final Map<Long, List<MarkedEdge>> edges = new HashMap<>();
+        final List<ShardEntryGroup> groups = new ArrayList<>();
+
+        for ( long shardIndex = 4000; shardIndex > 0; shardIndex -= 1000 ) {
+            edges.put( shardIndex, Arrays.asList( edge( sourceId, shardIndex + 2 ), edge( sourceId, shardIndex + 1 ) ) );
+            groups.add( group( shardIndex ) );
+        }
+
+        final List<Long> readGroups = Collections.synchronizedList( new ArrayList<>() );
+        final List<ClosingIterator> groupIterators = Collections.synchronizedList( new ArrayList<>() );
+
+        final ShardGroupColumnIterator iterator =
+            new ShardGroupColumnIterator( scope, directedEdgeMeta, mock( ShardGroupDeletion.class ),
+                groups.iterator(), true ) {
+
+                @Override
+                protected Iterator<MarkedEdge> getIterator( final Collection<Shard> readShards ) {
+                    final long shardIndex = readShards.iterator().next().getShardIndex();
+
+                    readGroups.add( shardIndex );
+
+                    final ClosingIterator groupIterator = new ClosingIterator( edges.get( shardIndex ).iterator() );
+                    groupIterators.add( groupIterator );
+
+                    return groupIterator;
+                }
+
+
+                @Override
+                protected Iterator<MarkedEdge> getIteratorFullRange( final Collection<Shard> readShards ) {
+                    return getIterator( readShards );
+                }
+            };
+
+        //a caller that only reads the first group never reads ahead
+        assertEquals( 4002L, iterator.next().getTimestamp() );
+        assertEquals( 4001L, iterator.next().getTimestamp() );
+        assertEquals( Collections.singletonList( 4000L ), readGroups );
+
+        //reading the second group reads the third one ahead
+        assertEquals( 3002L, iterator.next().getTimestamp() );
+
+        iterator.close();
+
+        //the abandoned group is closed, and no more than one group was read ahead
+        assertTrue( groupIterators.get( 1 ).closed );
+        assertFalse( readGroups.contains( 1000L ) );
+    }
+
+
+    /**
+     * The edges of a group, records when it's closed
+     */
+    private static final class ClosingIterator implements Iterator<MarkedEdge>, AutoCloseable {
+
+        private final Iterator<MarkedEdge> edges;
+
+        private volatile boolean closed;
+
+
+        private ClosingIterator( final Iterator<MarkedEdge> edges ) {this.edges = edges;}
+
+
+        @Override
+        public boolean hasNext() {
+            return edges.hasNext();
+        }
+
+
+        @Override
+        public MarkedEdge next() {
+            return edges.next();
+        }
+
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+
+    private static ShardEntryGroup group( final long shardIndex ) {
+        final ShardEntryGroup group = new ShardEntryGroup( 10000 );
+        group.addShard( new Shard( shardIndex, shardIndex, true ) );
+        return group;
+    }
+
+
+    private static MarkedEdge edge( final Id sourceId, final long timestamp ) {
+        return new SimpleMarkedEdge( sourceId, "test", createId( "target" ), timestamp, false );
+    }
+}
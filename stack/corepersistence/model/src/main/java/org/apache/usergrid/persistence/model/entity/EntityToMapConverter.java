@@ -65,61 +65,80 @@ public class EntityToMapConverter {
                 DistanceField distanceField = (DistanceField) field;
                 Map<String,Object> metaMap = (Map) entityMap.get("metadata");
                 metaMap.put(DistanceField.NAME, distanceField.getValue());
-            }else if ( field instanceof ListField || field instanceof ArrayField  || field instanceof SetField) {
-                Collection list = ( Collection ) field.getValue();
-                entityMap.put( field.getName(), processCollection( list )  );
             }
-            else if ( field instanceof EntityObjectField ) {
-                EntityObject eo = ( EntityObject ) field.getValue();
-                entityMap.put( field.getName(), toMap( eo ) ); // recursion
+            else if ( isSkipped( field ) ) {
+                //do not deserialize this contains Query and Query has changed
+                continue;
             }
-            else if ( field instanceof LocationField ) {
-                LocationField locField = ( LocationField ) field;
-                Map<String, Object> locMap = new HashMap<String, Object>();
-
-                // field names lat and lon trigger ElasticSearch geo location
-                locMap.put( LAT, locField.getValue().getLatitude() );
-                locMap.put( LON, locField.getValue().getLongitude() );
-                entityMap.put( field.getName(), locMap );
-            }
-            else if ( field instanceof ByteArrayField ) {
-
-                ByteArrayField bf = ( ByteArrayField ) field;
-                if( corruptedTypes.containsKey(bf.getClassinfo().getName()) ){
-                    //do not deserialize this contains Query and Query has changed
-                    continue;
-                }
-                byte[] serilizedObj = bf.getValue();
-                Object o;
-                try {
-                    o = objectMapper.readValue( serilizedObj, bf.getClassinfo() );
-                }
-                catch ( IOException e ) {
-                    throw new RuntimeException( "Can't deserialize object from field:"
-                        + field.getName()+ " classinfo: " + bf.getClassinfo()
-                        + " byteArray of length:" + serilizedObj.length
-                        , e );
-                }
-                entityMap.put( bf.getName(), o );
-            }else if (field instanceof SerializedObjectField) {
-                SerializedObjectField bf = (SerializedObjectField) field;
-
-                String serilizedObj = bf.getValue();
-                Object o;
-                try {
-                    o = objectMapper.readValue(serilizedObj, bf.getClassinfo());
-                } catch (IOException e) {
-                    throw new RuntimeException("Can't deserialize object " + serilizedObj, e);
-                }
-                entityMap.put(bf.getName(), o);
-            } else {
-                entityMap.put(field.getName(), field.getValue());
+            else {
+                entityMap.put( field.getName(), toValue( field ) );
             }
         }
 
         return entityMap;
     }
 
+
+    /**
+     * @return True if the field holds a serialized type that can no longer be read and is left out of the map
+     */
+    public boolean isSkipped( Field field ) {
+        return field instanceof ByteArrayField
+            && corruptedTypes.containsKey( ( ( ByteArrayField ) field ).getClassinfo().getName() );
+    }
+
+
+    /**
+     * Convert the value of a single field to the form it takes in the map. Distance fields are not values of the
+     * entity and are not handled here.
+     */
+    public Object toValue( Field field ) {
+
+        if ( field instanceof ListField || field instanceof ArrayField  || field instanceof SetField) {
+            Collection list = ( Collection ) field.getValue();
+            return processCollection( list );
+        }
+        else if ( field instanceof EntityObjectField ) {
+            EntityObject eo = ( EntityObject ) field.getValue();
+            return toMap( eo ); // recursion
+        }
+        else if ( field instanceof LocationField ) {
+            LocationField locField = ( LocationField ) field;
+            Map<String, Object> locMap = new HashMap<String, Object>();
+
+            // field names lat and lon trigger ElasticSearch geo location
+            locMap.put( LAT, locField.getValue().getLatitude() );
+            locMap.put( LON, locField.getValue().getLongitude() );
+            return locMap;
+        }
+        else if ( field instanceof ByteArrayField ) {
+
+            ByteArrayField bf = ( ByteArrayField ) field;
+            byte[] serilizedObj = bf.getValue();
+            try {
+                return objectMapper.readValue( serilizedObj, bf.getClassinfo() );
+            }
+            catch ( IOException e ) {
+                throw new RuntimeException( "Can't deserialize object from field:"
+                    + field.getName()+ " classinfo: " + bf.getClassinfo()
+                    + " byteArray of length:" + serilizedObj.length
+                    , e );
+            }
+        }
+        else if (field instanceof SerializedObjectField) {
+            SerializedObjectField bf = (SerializedObjectField) field;
+
+            String serilizedObj = bf.getValue();
+            try {
+                return objectMapper.readValue(serilizedObj, bf.getClassinfo());
+            } catch (IOException e) {
+                throw new RuntimeException("Can't deserialize object " + serilizedObj, e);
+            }
+        }
+
+        return field.getValue();
+    }
+
     /**
      * Process the collection for our map
      * @param c
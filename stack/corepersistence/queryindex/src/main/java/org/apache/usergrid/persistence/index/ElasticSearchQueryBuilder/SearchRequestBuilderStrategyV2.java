@@ -42,22 +42,31 @@ public class SearchRequestBuilderStrategyV2 {
     private final ApplicationScope applicationScope;
     private final IndexAlias alias;
     private final int cursorTimeout;
+    private final String routing;
 
 
     public SearchRequestBuilderStrategyV2( final EsProvider esProvider, final ApplicationScope applicationScope,
-                                         final IndexAlias alias, int cursorTimeout ) {
+                                         final IndexAlias alias, int cursorTimeout,
+                                         final String routing ) {
 
         this.esProvider = esProvider;
         this.applicationScope = applicationScope;
         this.alias = alias;
         this.cursorTimeout = cursorTimeout;
+        this.routing = routing;
     }
 
     public SearchRequestBuilder getBuilder(){
         SearchRequestBuilder srb =
             esProvider.getClient().prepareSearch( alias.getReadAlias() ).setTypes( IndexingUtils.ES_ENTITY_TYPE ).setSearchType(
-                SearchType.QUERY_THEN_FETCH);
+                SearchType.QUERY_THEN_FETCH)
+                //candidates are parsed from the document id, never fetch the source
+                .setFetchSource( false );
 
+        //only query the shard holding the documents of the application
+        if ( routing != null ) {
+            srb.setRouting( routing );
+        }
 
         return srb;
     }
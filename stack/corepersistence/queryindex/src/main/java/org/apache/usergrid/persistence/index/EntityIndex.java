@@ -22,11 +22,13 @@ package org.apache.usergrid.persistence.index;
 
 import org.apache.usergrid.persistence.core.CPManager;
 import org.apache.usergrid.persistence.core.util.Health;
+import org.apache.usergrid.persistence.index.impl.IndexOperationMessage;
 import org.apache.usergrid.persistence.index.query.ParsedQuery;
 import org.apache.usergrid.persistence.model.entity.Id;
 import rx.Observable;
 
 import java.util.Map;
+import java.util.UUID;
 
 
 /**
@@ -170,6 +172,19 @@ public interface EntityIndex extends CPManager {
      */
     CandidateResults getAllEdgeDocuments(final IndexEdge edge, final Id entityId);
 
+    /**
+     * Build the de-index operations for every document of the entity, found by scrolling a single query instead of
+     * loading each edge and version. This covers the documents of the entity itself in every version up to the marked
+     * version, and the documents of the edges from the entity up to the max edge timestamp.
+     *
+     * @param entityId The entity to remove from the index
+     * @param markedVersion The most recent version of the entity to remove
+     * @param maxEdgeTimestamp The timestamp of the newest edge removed from the entity
+     * @return The de-index operations, one message a scroll page, to be executed by the index producer
+     */
+    Observable<IndexOperationMessage> deleteEntity(final Id entityId, final UUID markedVersion,
+                                                   final long maxEdgeTimestamp);
+
     /**
      * delete all application records
      *
@@ -58,6 +58,8 @@ public interface IndexFig extends GuicyFig {
 
     String ELASTICSEARCH_WRITE_TIMEOUT= "elasticsearch.write.timeout";
 
+    String ELASTICSEARCH_APPLICATION_ROUTING = "elasticsearch.application_routing";
+
     String ELASTICSEARCH_CLIENT_TYPE = "elasticsearch.client.type";
 
     String ELASTICSEARCH_VERSION_QUERY_LIMIT = "elasticsearch.version_query_limit";
@@ -149,6 +151,15 @@ public interface IndexFig extends GuicyFig {
     @Key( ELASTICSEARCH_NUMBER_OF_REPLICAS )
     int getNumberOfReplicas();
 
+    /**
+     * Route the documents of an application to a single shard of its index with the application id, so searches of
+     * the application query one shard instead of all of them.  Documents indexed without routing are not found by
+     * routed searches, so the applications must be reindexed after this is enabled on an existing system.
+     */
+    @Default( "false" )
+    @Key( ELASTICSEARCH_APPLICATION_ROUTING )
+    boolean isApplicationRouting();
+
 
     /**
      * The number of failures that occur before refreshing an Elasticsearch client.
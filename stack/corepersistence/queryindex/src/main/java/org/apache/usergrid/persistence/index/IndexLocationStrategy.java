@@ -78,4 +78,11 @@ public interface IndexLocationStrategy extends Serializable {
      * @return
      */
     int getNumberOfReplicas();
+
+    /**
+     * the routing key of the documents, so the documents of the application live on a single shard and its
+     * searches only query that shard
+     * @return the routing key, or null when the documents are spread across every shard
+     */
+    String getRouting();
 }
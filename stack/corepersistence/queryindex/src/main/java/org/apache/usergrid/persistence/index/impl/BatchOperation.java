@@ -38,4 +38,11 @@ public interface BatchOperation extends Serializable {
      * @param bulkRequest
      */
     void doOperation( final Client client, final BulkRequestBuilder bulkRequest );
+
+
+    /**
+     * Get the index or alias the operation writes to, operations are sent to elasticsearch in one bulk request per
+     * target so a failing index doesn't fail the requests of the others
+     */
+    String getTargetIndex();
 }
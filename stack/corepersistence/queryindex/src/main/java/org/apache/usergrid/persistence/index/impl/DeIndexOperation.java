@@ -31,6 +31,7 @@ import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.index.SearchEdge;
 import org.apache.usergrid.persistence.model.entity.Id;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
@@ -49,6 +50,12 @@ public class DeIndexOperation implements BatchOperation {
     @JsonProperty
     public String documentId;
 
+    /**
+     * The routing key the document was indexed with, null when the document isn't routed
+     */
+    @JsonProperty
+    public String routing;
+
 
     public DeIndexOperation() {
 
@@ -57,12 +64,21 @@ public class DeIndexOperation implements BatchOperation {
 
     public DeIndexOperation( String[] indexes, ApplicationScope applicationScope, SearchEdge searchEdge, Id id,
                              UUID version ) {
-        this.indexes = indexes;
-        this.documentId = createIndexDocId( applicationScope, id, version, searchEdge );
+        this( indexes, null, applicationScope, searchEdge, id, version );
+    }
+
+    public DeIndexOperation( String[] indexes, String routing, ApplicationScope applicationScope,
+                             SearchEdge searchEdge, Id id, UUID version ) {
+        this( indexes, routing, createIndexDocId( applicationScope, id, version, searchEdge ) );
     }
 
     public DeIndexOperation( String[] indexes, String docId) {
+        this( indexes, null, docId );
+    }
+
+    public DeIndexOperation( String[] indexes, String routing, String docId ) {
         this.indexes = indexes;
+        this.routing = routing;
         this.documentId = docId;
     }
 
@@ -74,11 +90,23 @@ public class DeIndexOperation implements BatchOperation {
         for ( final String index : indexes ) {
             final DeleteRequestBuilder builder =
                     client.prepareDelete( index, IndexingUtils.ES_ENTITY_TYPE, documentId );
+
+            if ( routing != null ) {
+                builder.setRouting( routing );
+            }
+
             bulkRequest.add( builder );
         }
     }
 
 
+    @Override
+    @JsonIgnore
+    public String getTargetIndex() {
+        return String.join( ",", indexes );
+    }
+
+
 
 
     @Override
@@ -100,6 +128,10 @@ public class DeIndexOperation implements BatchOperation {
             return false;
         }
 
+        if ( routing != null ? !routing.equals( that.routing ) : that.routing != null ) {
+            return false;
+        }
+
         return true;
     }
 
@@ -108,6 +140,7 @@ public class DeIndexOperation implements BatchOperation {
     public int hashCode() {
         int result = Arrays.hashCode( indexes );
         result = 31 * result + documentId.hashCode();
+        result = 31 * result + ( routing != null ? routing.hashCode() : 0 );
         return result;
     }
 }
@@ -88,7 +88,7 @@ public class EsEntityIndexBatchImpl implements EntityIndexBatch {
         }
 
         //add app id for indexing
-        container.addIndexRequest(new IndexOperation(writeAlias, applicationScope, indexEdge, entity,fieldsToIndex));
+        container.addIndexRequest(new IndexOperation(writeAlias, indexLocationStrategy.getRouting(), applicationScope, indexEdge, entity,fieldsToIndex));
         return this;
     }
 
@@ -111,7 +111,7 @@ public class EsEntityIndexBatchImpl implements EntityIndexBatch {
         }
 
 
-        container.addDeIndexRequest(new DeIndexOperation(indexes, applicationScope, searchEdge, id, version));
+        container.addDeIndexRequest(new DeIndexOperation(indexes, indexLocationStrategy.getRouting(), applicationScope, searchEdge, id, version));
 
         return this;
     }
@@ -130,7 +130,7 @@ public class EsEntityIndexBatchImpl implements EntityIndexBatch {
         }
 
 
-        container.addDeIndexRequest( new DeIndexOperation( indexes, docId ) );
+        container.addDeIndexRequest( new DeIndexOperation( indexes, indexLocationStrategy.getRouting(), docId ) );
 
         return this;
     }
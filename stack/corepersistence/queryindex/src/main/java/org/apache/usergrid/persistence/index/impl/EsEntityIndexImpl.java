@@ -58,6 +58,7 @@ import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
 import org.elasticsearch.action.admin.indices.refresh.RefreshResponse;
 import org.elasticsearch.action.admin.indices.stats.CommonStats;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.deletebyquery.IndexDeleteByQueryResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
@@ -79,11 +80,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import rx.Observable;
+import rx.Subscriber;
 
 import java.io.IOException;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.APPLICATION_ID_FIELDNAME;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.applicationId;
@@ -129,6 +133,7 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
     private final FailureMonitorImpl failureMonitor;
     private final Timer aggregationTimer;
     private final Timer refreshTimer;
+    private final Timer deleteEntityTimer;
 
     private IndexCache aliasCache;
     private Timer mappingTimer;
@@ -156,9 +161,10 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
         this.applicationScope = indexLocationStrategy.getApplicationScope();
         this.cursorTimeout = indexFig.getQueryCursorTimeout();
         this.queryTimeout = indexFig.getWriteTimeout();
-        this.searchRequest
-            = new SearchRequestBuilderStrategy(esProvider, applicationScope, alias, cursorTimeout );
-        this.searchRequestBuilderStrategyV2 = new SearchRequestBuilderStrategyV2( esProvider, applicationScope, alias, cursorTimeout  );
+        this.searchRequest = new SearchRequestBuilderStrategy( esProvider, applicationScope, alias, cursorTimeout,
+            indexLocationStrategy.getRouting() );
+        this.searchRequestBuilderStrategyV2 = new SearchRequestBuilderStrategyV2( esProvider, applicationScope, alias,
+            cursorTimeout, indexLocationStrategy.getRouting() );
 
         this.addTimer = metricsFactory.getTimer(EsEntityIndexImpl.class, "index.add");
         this.updateAliasTimer = metricsFactory.getTimer(EsEntityIndexImpl.class, "index.update_alias");
@@ -167,6 +173,7 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
         this.searchTimer = metricsFactory.getTimer(EsEntityIndexImpl.class, "search");
         this.aggregationTimer = metricsFactory.getTimer( EsEntityIndexImpl.class, "aggregations" );
         this.refreshTimer = metricsFactory.getTimer( EsEntityIndexImpl.class, "index.refresh" );
+        this.deleteEntityTimer = metricsFactory.getTimer( EsEntityIndexImpl.class, "index.delete_entity" );
 
     }
 
@@ -598,7 +605,7 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
 
         }
         catch ( Throwable t ) {
-            logger.error( "Unable to communicate with Elasticsearch", t.getMessage() );
+            logger.error( "Unable to communicate with Elasticsearch", t );
             failureMonitor.fail( "Unable to execute batch", t );
             throw t;
         }
@@ -608,6 +615,115 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
     }
 
 
+    @Override
+    public Observable<IndexOperationMessage> deleteEntity( final Id entityId, final UUID markedVersion,
+                                                           final long maxEdgeTimestamp ) {
+
+        Preconditions.checkNotNull( entityId, "entityId cannot be null" );
+        Preconditions.checkNotNull( markedVersion, "markedVersion cannot be null" );
+
+        final QueryBuilder applicationQuery =
+            QueryBuilders.termQuery( APPLICATION_ID_FIELDNAME, applicationId( applicationScope.getApplication() ) );
+
+        // documents of the entity itself, in every edge
+        final QueryBuilder entityQuery = QueryBuilders.constantScoreQuery( QueryBuilders.boolQuery()
+            .must( applicationQuery )
+            .must( QueryBuilders.termQuery( IndexingUtils.ENTITY_ID_FIELDNAME, IndexingUtils.entityId( entityId ) ) ) );
+
+        // documents of the edges from the entity to others, up to the newest edge removed from the graph
+        final QueryBuilder edgeQuery = QueryBuilders.constantScoreQuery( QueryBuilders.boolQuery()
+            .must( applicationQuery )
+            .must( QueryBuilders.termQuery( IndexingUtils.EDGE_NODE_ID_FIELDNAME, IndexingUtils.nodeId( entityId ) ) )
+            .must( QueryBuilders.rangeQuery( IndexingUtils.EDGE_TIMESTAMP_FIELDNAME ).lte( maxEdgeTimestamp ) ) );
+
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "De-indexing documents of entity {} up to version {} in app scope {}", entityId,
+                markedVersion, applicationScope );
+        }
+
+        // a message per scroll page, so neither the batch nor the queued message grows with the entity
+        final Observable<IndexOperationMessage> deletes = Observable.create( subscriber -> {
+
+            try {
+                // versions written after the delete are kept
+                scrollDocuments( entityQuery, page -> deindexPage( page,
+                    candidate -> candidate.getVersion().timestamp() <= markedVersion.timestamp(), subscriber ) );
+
+                scrollDocuments( edgeQuery, page -> deindexPage( page, candidate -> true, subscriber ) );
+
+                subscriber.onCompleted();
+            }
+            catch ( Throwable t ) {
+                subscriber.onError( t );
+            }
+        } );
+
+        return ObservableTimer.time( deletes, deleteEntityTimer );
+    }
+
+
+    /**
+     * Emit the de-index operations of the candidates of a scroll page that match the filter as a single message
+     */
+    private void deindexPage( final List<CandidateResult> page, final Predicate<CandidateResult> filter,
+                              final Subscriber<? super IndexOperationMessage> subscriber ) {
+
+        final EntityIndexBatch batch = createBatch();
+
+        for ( CandidateResult candidate : page ) {
+            if ( filter.test( candidate ) ) {
+                batch.deindex( candidate );
+            }
+        }
+
+        final IndexOperationMessage message = batch.build();
+
+        if ( !message.isEmpty() && !subscriber.isUnsubscribed() ) {
+            subscriber.onNext( message );
+        }
+    }
+
+
+    /**
+     * Scroll through every document matching the query, handing over a page of the version query limit at a time
+     */
+    private void scrollDocuments( final QueryBuilder query, final Consumer<List<CandidateResult>> consumer ) {
+
+        final TimeValue keepAlive = TimeValue.timeValueMinutes( 1 );
+
+        try {
+            SearchResponse searchResponse = searchRequestBuilderStrategyV2.getBuilder()
+                .setQuery( query )
+                .setScroll( keepAlive )
+                .setSize( indexFig.getVersionQueryLimit() )
+                .execute()
+                .actionGet();
+
+            while ( searchResponse.getHits().getHits().length > 0 ) {
+
+                final List<CandidateResult> page = new ArrayList<>( searchResponse.getHits().getHits().length );
+
+                for ( SearchHit hit : searchResponse.getHits().getHits() ) {
+                    page.add( parseIndexDocId( hit ) );
+                }
+
+                consumer.accept( page );
+
+                searchResponse = searchRequestBuilderStrategyV2.getScrollBuilder( searchResponse.getScrollId() )
+                    .setScroll( keepAlive )
+                    .execute()
+                    .actionGet();
+            }
+        }
+        catch ( Throwable t ) {
+            logger.error( "Unable to communicate with Elasticsearch", t );
+            failureMonitor.fail( "Unable to scroll documents", t );
+            throw t;
+        }
+        failureMonitor.success();
+    }
+
+
     /**
      * Completely delete an index.
      */
@@ -619,7 +735,7 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
         return Observable.from( indexes ).flatMap( index -> {
 
             final ListenableActionFuture<DeleteByQueryResponse> response =
-                esProvider.getClient().prepareDeleteByQuery( alias.getWriteAlias() ).setQuery( tqb ).execute();
+                prepareDeleteByQuery( alias.getWriteAlias() ).setQuery( tqb ).execute();
 
             response.addListener( new ActionListener<DeleteByQueryResponse>() {
 
@@ -639,6 +755,23 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
     }
 
 
+    /**
+     * Prepare a delete by query of the documents of the application, routed to the shard of the application when its
+     * documents are routed
+     */
+    private DeleteByQueryRequestBuilder prepareDeleteByQuery( final String... indexes ) {
+
+        final DeleteByQueryRequestBuilder builder = esProvider.getClient().prepareDeleteByQuery( indexes );
+        final String routing = indexLocationStrategy.getRouting();
+
+        if ( routing != null ) {
+            builder.setRouting( routing );
+        }
+
+        return builder;
+    }
+
+
     /**
      * Validate the response doesn't contain errors, if it does, fail fast at the first error we encounter
      */
@@ -54,11 +54,17 @@ import rx.Observable;
 public class EsIndexProducerImpl implements IndexProducer {
     private static final Logger logger = LoggerFactory.getLogger( EsIndexProducerImpl.class );
 
+    /**
+     * The name of the counter of bulk requests elasticsearch rejected because its queues were full
+     */
+    public static final String REJECTED_COUNTER = "index_buffer.rejected";
+
     private final IndexFig config;
     private final FailureMonitorImpl failureMonitor;
     private final Client client;
     private final IndexFig indexFig;
     private final Counter indexSizeCounter;
+    private final Counter rejectedCounter;
     private final Histogram roundtripTimer;
     private final Timer indexTimer;
 
@@ -70,6 +76,7 @@ public class EsIndexProducerImpl implements IndexProducer {
     public EsIndexProducerImpl(final IndexFig config, final EsProvider provider,
                                final MetricsFactory metricsFactory, final IndexFig indexFig) {
         this.indexSizeCounter = metricsFactory.getCounter(EsIndexProducerImpl.class, "index_buffer.size");
+        this.rejectedCounter = metricsFactory.getCounter(EsIndexProducerImpl.class, REJECTED_COUNTER);
         this.roundtripTimer = metricsFactory.getHistogram(EsIndexProducerImpl.class, "index_buffer.message_cycle");
 
         //wire up the gauge of inflight messages
@@ -128,21 +135,28 @@ public class EsIndexProducerImpl implements IndexProducer {
         //TODO: look at indexing ordering
         final Observable<BatchOperation> batchOps = Observable.merge(index, deIndex);
 
-        //buffer into the max size we can send ES and fire them all off until we're completed
-        final Observable<BulkRequestBuilder> requests = batchOps
-            .buffer(250, TimeUnit.MILLISECONDS, indexFig.getIndexBatchSize())
-
-            //flatten the buffer into a single batch execution
-            .flatMap(individualOps -> Observable.from(individualOps)
-                //collect them
-                .collect(() -> initRequest(), (bulkRequestBuilder, batchOperation) -> {
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("adding operation {} to bulkRequestBuilder {}", batchOperation, bulkRequestBuilder);
-                    }
-                    batchOperation.doOperation(client, bulkRequestBuilder);
-                }))
+        //group the operations by the index they write to, so each bulk request only touches one index and is sized
+        //for it.  A failing index fails its own requests, the requests of the other indexes are still sent and the
+        //errors are thrown once every index is done
+        final Observable<BulkRequestBuilder> requests = Observable.mergeDelayError( batchOps
+            .groupBy( BatchOperation::getTargetIndex )
+            .map( indexOps -> indexOps
+
+                //buffer into the max size we can send ES and fire them all off until we're completed
+                .buffer( 250, TimeUnit.MILLISECONDS, indexFig.getIndexBatchSize() )
+
+                //flatten the buffer into a single batch execution
+                .flatMap( individualOps -> Observable.from( individualOps )
+                    //collect them
+                    .collect( () -> initRequest(), ( bulkRequestBuilder, batchOperation ) -> {
+                        if ( logger.isTraceEnabled() ) {
+                            logger.trace( "adding operation {} to bulkRequestBuilder {} of index {}", batchOperation,
+                                bulkRequestBuilder, indexOps.getKey() );
+                        }
+                        batchOperation.doOperation( client, bulkRequestBuilder );
+                    } ) )
                 //write them
-            .doOnNext(bulkRequestBuilder -> sendRequest(bulkRequestBuilder));
+                .doOnNext( bulkRequestBuilder -> sendRequest( bulkRequestBuilder ) ) ) );
 
 
         //now that we've processed them all, ack the futures after our last batch comes through
@@ -225,6 +239,7 @@ public class EsIndexProducerImpl implements IndexProducer {
 
         if ( error ) {
             if(hasTooManyRequests){
+                rejectedCounter.inc();
                 try{
                     logger.warn("Encountered Queue Capacity Exception from ElasticSearch slowing by {}",
                         indexFig.getSleepTimeForQueueError() );
@@ -31,6 +31,7 @@ import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Optional;
 
@@ -48,17 +49,37 @@ public class IndexOperation implements BatchOperation {
     @JsonProperty
     public Map<String, Object> data;
 
+    /**
+     * The routing key of the document, null when the document isn't routed
+     */
+    @JsonProperty
+    public String routing;
+
     public IndexOperation( final String writeAlias, final ApplicationScope applicationScope, IndexEdge indexEdge,
                            Entity entity, Optional<Set<String>> fieldsToIndex ) {
 
-        this( writeAlias, IndexingUtils.createIndexDocId( applicationScope, entity, indexEdge ),
+        this( writeAlias, null, applicationScope, indexEdge, entity, fieldsToIndex );
+    }
+
+
+    public IndexOperation( final String writeAlias, final String routing, final ApplicationScope applicationScope,
+                           IndexEdge indexEdge, Entity entity, Optional<Set<String>> fieldsToIndex ) {
+
+        this( writeAlias, routing, IndexingUtils.createIndexDocId( applicationScope, entity, indexEdge ),
             EntityToMapConverter.convert( applicationScope, indexEdge, entity, fieldsToIndex ) );
 
     }
 
 
     public IndexOperation( final String writeAlias, String documentId, Map<String, Object> data ) {
+        this( writeAlias, null, documentId, data );
+    }
+
+
+    public IndexOperation( final String writeAlias, final String routing, String documentId,
+                           Map<String, Object> data ) {
         this.writeAlias = writeAlias;
+        this.routing = routing;
         this.data = data;
         this.documentId = documentId;
     }
@@ -73,11 +94,21 @@ public class IndexOperation implements BatchOperation {
     public void doOperation( final Client client, final BulkRequestBuilder bulkRequest ) {
         IndexRequestBuilder builder = client.prepareIndex( writeAlias, IndexingUtils.ES_ENTITY_TYPE, documentId ).setSource( data );
 
+        if ( routing != null ) {
+            builder.setRouting( routing );
+        }
 
         bulkRequest.add( builder );
     }
 
 
+    @Override
+    @JsonIgnore
+    public String getTargetIndex() {
+        return writeAlias;
+    }
+
+
 
     @Override
     public boolean equals( final Object o ) {
@@ -101,6 +132,10 @@ public class IndexOperation implements BatchOperation {
             return false;
         }
 
+        if ( routing != null ? !routing.equals( that.routing ) : that.routing != null ) {
+            return false;
+        }
+
         return true;
     }
 
@@ -110,6 +145,7 @@ public class IndexOperation implements BatchOperation {
         int result = writeAlias.hashCode();
         result = 31 * result + documentId.hashCode();
         result = 31 * result + data.hashCode();
+        result = 31 * result + ( routing != null ? routing.hashCode() : 0 );
         return result;
     }
 }
@@ -66,15 +66,18 @@ public class SearchRequestBuilderStrategy {
     private final ApplicationScope applicationScope;
     private final IndexAlias alias;
     private final int cursorTimeout;
+    private final String routing;
 
 
     public SearchRequestBuilderStrategy( final EsProvider esProvider, final ApplicationScope applicationScope,
-                                         final IndexAlias alias, int cursorTimeout ) {
+                                         final IndexAlias alias, int cursorTimeout,
+                                         final String routing ) {
 
         this.esProvider = esProvider;
         this.applicationScope = applicationScope;
         this.alias = alias;
         this.cursorTimeout = cursorTimeout;
+        this.routing = routing;
     }
 
 
@@ -93,7 +96,14 @@ public class SearchRequestBuilderStrategy {
 
         SearchRequestBuilder srb =
             esProvider.getClient().prepareSearch( alias.getReadAlias() ).setTypes( IndexingUtils.ES_ENTITY_TYPE )
-                      .setSearchType( SearchType.QUERY_THEN_FETCH );
+                      .setSearchType( SearchType.QUERY_THEN_FETCH )
+                      //candidates are parsed from the document id, never fetch the source
+                      .setFetchSource( false );
+
+        //only query the shard holding the documents of the application
+        if ( routing != null ) {
+            srb.setRouting( routing );
+        }
 
 
         final Optional<QueryBuilder> queryBuilder = visitor.getQueryBuilder();
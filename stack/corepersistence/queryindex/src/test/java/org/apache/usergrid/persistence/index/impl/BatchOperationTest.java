@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index.impl;
+
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+
+/**
+ * Tests the routing and targets of the batch operations survive the queue
+ */
+public class BatchOperationTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+
+    @Test
+    public void indexOperationRouting() throws Exception {
+
+        final IndexOperation operation =
+            new IndexOperation( "write_alias", "app-id", "doc-id", Collections.singletonMap( "field", "value" ) );
+
+        final String json = mapper.writeValueAsString( operation );
+
+        //the target is derived, not part of the message
+        assertFalse( json.contains( "targetIndex" ) );
+
+        final IndexOperation parsed = mapper.readValue( json, IndexOperation.class );
+
+        assertEquals( operation, parsed );
+        assertEquals( "app-id", parsed.routing );
+        assertEquals( "write_alias", parsed.getTargetIndex() );
+    }
+
+
+    @Test
+    public void messagesWithoutRouting() throws Exception {
+
+        //written before the operations were routed
+        final IndexOperation index = mapper.readValue(
+            "{\"writeAlias\":\"write_alias\",\"documentId\":\"doc-id\",\"data\":{}}", IndexOperation.class );
+
+        assertNull( index.routing );
+        assertEquals( new IndexOperation( "write_alias", "doc-id", Collections.emptyMap() ), index );
+
+        final DeIndexOperation deIndex =
+            mapper.readValue( "{\"@class\":\"" + DeIndexOperation.class.getName()
+                + "\",\"indexes\":[\"index_1\",\"index_2\"],\"documentId\":\"doc-id\"}", DeIndexOperation.class );
+
+        assertNull( deIndex.routing );
+        assertEquals( new DeIndexOperation( new String[] { "index_1", "index_2" }, "doc-id" ), deIndex );
+        assertEquals( "index_1,index_2", deIndex.getTargetIndex() );
+    }
+}
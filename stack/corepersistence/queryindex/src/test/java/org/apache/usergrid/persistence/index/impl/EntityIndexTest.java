@@ -535,6 +535,85 @@ public class EntityIndexTest extends BaseIT {
     }
 
 
+    @Test
+    public void deleteEntity() throws Throwable {
+
+        Id ownerId = new SimpleId( "owner" );
+
+        Entity user = EntityIndexMapUtils.fromMap( new HashMap() {{
+            put( "username", "deleteduser" );
+        }} );
+        EntityUtils.setId( user, new SimpleId( "deleteduser" ) );
+        EntityUtils.setVersion( user, UUIDGenerator.newTimeUUID() );
+
+        Entity place = EntityIndexMapUtils.fromMap( new HashMap() {{
+            put( "name", "deletedplace" );
+        }} );
+        EntityUtils.setId( place, new SimpleId( "deletedplace" ) );
+        EntityUtils.setVersion( place, UUIDGenerator.newTimeUUID() );
+
+        // a version of the user written after the delete
+        Entity recreated = EntityIndexMapUtils.fromMap( new HashMap() {{
+            put( "username", "deleteduser" );
+        }} );
+        EntityUtils.setId( recreated, user.getId() );
+        EntityUtils.setVersion( recreated, UUIDGenerator.newTimeUUID() );
+
+        // the user in the owner's collection, a connection from the user to the place, and a newer connection
+
+        IndexEdge collectionScope = new IndexEdgeImpl( ownerId, "users", SearchEdge.NodeType.SOURCE, 10 );
+        IndexEdge connectionScope = new IndexEdgeImpl( user.getId(), "likes", SearchEdge.NodeType.SOURCE, 10 );
+        IndexEdge newerConnectionScope = new IndexEdgeImpl( user.getId(), "visits", SearchEdge.NodeType.SOURCE, 20 );
+
+        EntityIndexBatch batch = entityIndex.createBatch();
+        batch.index( collectionScope, user );
+        batch.index( collectionScope, recreated );
+        batch.index( connectionScope, place );
+        batch.index( newerConnectionScope, place );
+        indexProducer.put( batch.build() ).subscribe();
+        entityIndex.refreshAsync().toBlocking().first();
+
+        CandidateResults r = entityIndex.search( collectionScope, SearchTypes.fromTypes( "deleteduser" ),
+            "select *", 10, 0, false );
+        assertEquals( 2, r.size() );
+
+        r = entityIndex.search( connectionScope, SearchTypes.fromTypes( "deletedplace" ), "select *", 10, 0, false );
+        assertEquals( 1, r.size() );
+
+        // one query finds the documents of the user up to its deleted version and of the edges from the user
+
+        final List<IndexOperationMessage> pages =
+            entityIndex.deleteEntity( user.getId(), user.getVersion(), 10 ).toList().toBlocking().last();
+
+        // a message per scroll page, the entity documents and the edge documents are scrolled separately
+        assertEquals( 2, pages.size() );
+
+        final IndexOperationMessage deletes = new IndexOperationMessage();
+        pages.forEach( deletes::ingest );
+
+        assertEquals( 2, deletes.getDeIndexRequests().size() );
+
+        // nothing is removed until the message is executed
+
+        r = entityIndex.search( connectionScope, SearchTypes.fromTypes( "deletedplace" ), "select *", 10, 0, false );
+        assertEquals( 1, r.size() );
+
+        indexProducer.put( deletes ).toBlocking().lastOrDefault( null );
+        entityIndex.refreshAsync().toBlocking().first();
+
+        r = entityIndex.search( collectionScope, SearchTypes.fromTypes( "deleteduser" ), "select *", 10, 0, false );
+        assertEquals( 1, r.size() );
+        assertEquals( recreated.getVersion(), r.get( 0 ).getVersion() );
+
+        r = entityIndex.search( connectionScope, SearchTypes.fromTypes( "deletedplace" ), "select *", 10, 0, false );
+        assertFalse( r.iterator().hasNext() );
+
+        r = entityIndex.search( newerConnectionScope, SearchTypes.fromTypes( "deletedplace" ), "select *", 10, 0,
+            false );
+        assertEquals( 1, r.size() );
+    }
+
+
     @Test
     public void multiValuedTypes() {
 
@@ -96,6 +96,11 @@ public class TestIndexIdentifier implements IndexLocationStrategy {
         return indexFig.getNumberOfReplicas();
     }
 
+    @Override
+    public String getRouting() {
+        return null;
+    }
+
     private class TestIndexAlias implements IndexAlias {
         private final String readAlias;
         private final String writeAlias;
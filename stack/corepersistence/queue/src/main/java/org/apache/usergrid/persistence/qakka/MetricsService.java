@@ -34,6 +34,11 @@ public interface MetricsService {
     String TIMEOUT_TIME     = "qakka.timeout.time";
     String REFRESH_TIME     = "qakka.refresh.time";
     String ALLOCATE_TIME    = "qakka.allocate.time";
+    String AUDIT_LOG_TIME   = "qakka.auditlog.time";
+    String AUDIT_LOG_DROPPED = "qakka.auditlog.dropped";
+    String INMEMORY_DEPTH   = "qakka.inmemory.depth";
+    String LEASE_TIME       = "qakka.inmemory.lease.time";
+    String LEASE_EXPIRED    = "qakka.inmemory.lease.expired";
 
     MetricRegistry getMetricRegistry();
 }
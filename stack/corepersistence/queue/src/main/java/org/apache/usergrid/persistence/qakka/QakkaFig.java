@@ -48,6 +48,10 @@ public interface QakkaFig extends GuicyFig, Serializable {
 
     String QUEUE_IN_MEMORY_REFRESH_ASYNC          = "queue.inmemory.cache.async";
 
+    String QUEUE_IN_MEMORY_REFILL_WATERMARK       = "queue.inmemory.cache.refill.watermark";
+
+    String QUEUE_IN_MEMORY_LEASE_SECONDS          = "queue.inmemory.cache.lease.seconds";
+
     String QUEUE_SEND_MAX_RETRIES                 = "queue.send.max.retries";
 
     String QUEUE_SEND_TIMEOUT                     = "queue.send.timeout.seconds";
@@ -74,6 +78,14 @@ public interface QakkaFig extends GuicyFig, Serializable {
 
     String QUEUE_MAX_TTL                          = "queue.max.ttl";
 
+    String QUEUE_AUDIT_LOG_ASYNC                  = "queue.auditlog.async";
+
+    String QUEUE_AUDIT_LOG_SAMPLE_RATE            = "queue.auditlog.sample.rate";
+
+    String QUEUE_AUDIT_LOG_BUFFER_SIZE            = "queue.auditlog.buffer.size";
+
+    String QUEUE_AUDIT_LOG_BATCH_SIZE             = "queue.auditlog.batch.size";
+
 
 
     /** True if Qakka is running standlone */
@@ -173,11 +185,42 @@ public interface QakkaFig extends GuicyFig, Serializable {
     @Default("1209600") // default is two weeks
     int getMaxTtlSeconds();
 
+    /** True to write audit log records from a background writer, false to write them inline */
+    @Key(QUEUE_AUDIT_LOG_ASYNC)
+    @Default("true")
+    boolean getAuditLogAsync();
+
+    /** Fraction of successful operations to record in the audit log, errors are always recorded */
+    @Key(QUEUE_AUDIT_LOG_SAMPLE_RATE)
+    @Default("1.0")
+    double getAuditLogSampleRate();
+
+    /** Max audit log records waiting to be written, records are dropped once this is full */
+    @Key(QUEUE_AUDIT_LOG_BUFFER_SIZE)
+    @Default("10000")
+    int getAuditLogBufferSize();
+
+    /** Max audit log records written in a single batch */
+    @Key(QUEUE_AUDIT_LOG_BATCH_SIZE)
+    @Default("100")
+    int getAuditLogBatchSize();
+
+    /** Serve gets from messages prefetched into memory, each one leased to this node before it is buffered */
     @Key(QUEUE_IN_MEMORY)
-    @Default("false") // in memory not ready yet; leave this to false else msgs could be processed more than once
+    @Default("false")
     boolean getInMemoryCache();
 
     @Key(QUEUE_IN_MEMORY_REFRESH_ASYNC)
     @Default("true")
     boolean getInMemoryRefreshAsync();
+
+    /** Refill the in-memory queue only once it holds fewer than this many messages */
+    @Key(QUEUE_IN_MEMORY_REFILL_WATERMARK)
+    @Default("500")
+    int getInMemoryRefillWatermark();
+
+    /** How long a prefetched message is leased to this node, other nodes will not load it until the lease expires */
+    @Key(QUEUE_IN_MEMORY_LEASE_SECONDS)
+    @Default("30")
+    int getInMemoryLeaseSeconds();
 }
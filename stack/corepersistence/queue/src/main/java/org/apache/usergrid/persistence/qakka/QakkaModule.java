@@ -36,7 +36,9 @@ import org.apache.usergrid.persistence.qakka.distributed.impl.QueueActorRouterPr
 import org.apache.usergrid.persistence.qakka.distributed.impl.QueueSenderRouterProducer;
 import org.apache.usergrid.persistence.qakka.distributed.impl.QueueWriterRouterProducer;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.impl.AuditLogSerializationImpl;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.impl.AuditLogWriterImpl;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.MessageCounterSerialization;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.QueueMessageSerialization;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.impl.MessageCounterSerializationImpl;
@@ -95,6 +97,7 @@ public class QakkaModule extends AbstractModule {
 
         bind( TransferLogSerialization.class ).to(    TransferLogSerializationImpl.class );
         bind( AuditLogSerialization.class ).to(       AuditLogSerializationImpl.class );
+        bind( AuditLogWriter.class ).to(              AuditLogWriterImpl.class );
         bind( DistributedQueueService.class ).to(     DistributedQueueServiceImpl.class );
 
         bind( QueueActorRouterProducer.class );
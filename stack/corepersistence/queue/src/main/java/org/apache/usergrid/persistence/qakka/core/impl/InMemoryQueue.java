@@ -19,83 +19,186 @@
 
 package org.apache.usergrid.persistence.qakka.core.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import org.apache.usergrid.persistence.qakka.MetricsService;
 import org.apache.usergrid.persistence.qakka.QakkaFig;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Bounded buffer of messages prefetched for each queue. Every message is leased to this node before it is added,
+ * and a message whose lease has expired is dropped instead of being handed out, because another node may have
+ * leased it since.
+ * <p>
+ * Nothing is locked: each queue is a concurrent queue with an atomic size, capacity is reserved with a compare and
+ * set on the size before a message is added, and the newest message marker is an atomic reference. The marker is
+ * cleared when the queue drains, unless a newer message was added meanwhile.
+ */
 @Singleton
 public class InMemoryQueue {
     private static final Logger logger = LoggerFactory.getLogger( InMemoryQueue.class );
 
     /** In-memory queues by name */
-    private final Map<String, Queue<DatabaseQueueMessage>> queuesByName;
+    private final Map<String, LeasedQueue> queuesByName = new ConcurrentHashMap<>();
+
+    /** Messages buffered across all queues */
+    private final AtomicInteger totalDepth = new AtomicInteger( 0 );
+
+    private final AtomicBoolean gaugeRegistered = new AtomicBoolean( false );
 
-    /** Newest message seen by in-memory queue */
-    private final Map<String, UUID> newestByQueueName;
+    private final MetricsService metricsService;
+    private final int            capacity;
 
 
     @Inject
-    InMemoryQueue(QakkaFig qakkaFig) {
-        queuesByName      = new HashMap<>( qakkaFig.getQueueInMemorySize() );
-        newestByQueueName = new HashMap<>( qakkaFig.getQueueInMemorySize() );
+    InMemoryQueue( QakkaFig qakkaFig, MetricsService metricsService ) {
+        this.metricsService = metricsService;
+        this.capacity       = qakkaFig.getQueueInMemorySize();
     }
 
-    private Queue<DatabaseQueueMessage> getQueue( String queueName ) {
-        synchronized ( queuesByName ) {
-            if ( !queuesByName.containsKey( queueName )) {
-                queuesByName.put( queueName, new ConcurrentLinkedQueue<>() );
-            }
-            return queuesByName.get( queueName );
-        }
+    private LeasedQueue getQueue( String queueName ) {
+        return queuesByName.computeIfAbsent( queueName, k -> new LeasedQueue() );
     }
 
-    synchronized public void add( String queueName, DatabaseQueueMessage databaseQueueMessage ) {
+    /**
+     * Add a message leased to this node until the lease expiry time.
+     * @return False if the in-memory queue is full and the message was not added.
+     */
+    public boolean add( String queueName, DatabaseQueueMessage databaseQueueMessage, long leaseExpiresAt ) {
+
+        registerGauge();
 
-        UUID newest = newestByQueueName.get( queueName );
-        if ( newest == null ) {
-            newest = databaseQueueMessage.getQueueMessageId();
+        LeasedQueue queue = getQueue( queueName );
 
-        } else {
-            if ( databaseQueueMessage.getQueueMessageId().timestamp() > newest.timestamp() ) {
-                newest = databaseQueueMessage.getQueueMessageId();
-                //logger.debug("New newest for queue {} is {}", queueName, newest.timestamp());
+        int size;
+        do {
+            size = queue.size.get();
+            if ( size >= capacity ) {
+                return false;
             }
-        }
+        } while ( !queue.size.compareAndSet( size, size + 1 ) );
+
+        // set before the message can be polled, so a poll draining the queue sees it
+        queue.newest.accumulateAndGet( databaseQueueMessage.getQueueMessageId(), InMemoryQueue::newer );
 
-        newestByQueueName.put( queueName, newest );
-        getQueue( queueName ).add( databaseQueueMessage );
+        queue.messages.add( new LeasedMessage( databaseQueueMessage, leaseExpiresAt ) );
+
+        totalDepth.incrementAndGet();
+        return true;
     }
 
-    synchronized public UUID getNewest( String queueName ) {
-        if ( getQueue( queueName ).isEmpty() ) {
-            newestByQueueName.remove( queueName );
-        }
-        return newestByQueueName.get( queueName );
+    /**
+     * @return The newest message added since the queue was last empty, or null if the queue is empty
+     */
+    public UUID getNewest( String queueName ) {
+        return getQueue( queueName ).newest.get();
     }
 
+    /**
+     * Poll the next message whose lease has not expired, messages with expired leases are discarded.
+     */
     public DatabaseQueueMessage poll( String queueName ) {
-        return getQueue( queueName ).poll();
+
+        LeasedQueue queue = getQueue( queueName );
+        long now = System.currentTimeMillis();
+
+        LeasedMessage leased;
+        while ( (leased = queue.remove()) != null ) {
+
+            totalDepth.decrementAndGet();
+
+            if ( leased.leaseExpiresAt > now ) {
+                return leased.message;
+            }
+
+            logger.trace( "Lease expired for message {} in queue {}",
+                leased.message.getQueueMessageId(), queueName );
+            metricsService.getMetricRegistry().meter( MetricsService.LEASE_EXPIRED ).mark();
+        }
+        return null;
     }
 
     public DatabaseQueueMessage peek( String queueName ) {
-        return getQueue( queueName ).peek();
+        LeasedMessage leased = getQueue( queueName ).messages.peek();
+        return leased == null ? null : leased.message;
     }
 
     public int size( String queueName ) {
-        return getQueue( queueName ).size();
+        return getQueue( queueName ).size.get();
     }
 
     public void clear( String queueName ) {
-        getQueue( queueName ).clear();
+        LeasedQueue queue = getQueue( queueName );
+        while ( queue.remove() != null ) {
+            totalDepth.decrementAndGet();
+        }
+    }
+
+    private static UUID newer( UUID current, UUID candidate ) {
+        return current == null || candidate.timestamp() > current.timestamp() ? candidate : current;
+    }
+
+    private void registerGauge() {
+        // registered on first use, not in the constructor, because the metrics service may still be under construction
+        if ( !gaugeRegistered.get() && gaugeRegistered.compareAndSet( false, true ) ) {
+            metricsService.getMetricRegistry().register(
+                MetricsService.INMEMORY_DEPTH, (Gauge<Integer>) totalDepth::get );
+        }
+    }
+
+
+    private static class LeasedQueue {
+        final ConcurrentLinkedQueue<LeasedMessage> messages = new ConcurrentLinkedQueue<>();
+
+        /** Tracked separately because ConcurrentLinkedQueue.size() walks the whole queue */
+        final AtomicInteger size = new AtomicInteger( 0 );
+
+        /** Newest message added since the queue was last empty */
+        final AtomicReference<UUID> newest = new AtomicReference<>();
+
+        /**
+         * Remove the head of the queue. When the last message is removed the newest message marker is cleared,
+         * unless a message newer than the one removed has been added since.
+         */
+        LeasedMessage remove() {
+            LeasedMessage leased = messages.poll();
+            if ( leased == null || size.decrementAndGet() != 0 ) {
+                return leased;
+            }
+
+            UUID removed = leased.message.getQueueMessageId();
+            UUID current;
+            do {
+                current = newest.get();
+                if ( current == null || current.timestamp() > removed.timestamp() ) {
+                    break;
+                }
+            } while ( !newest.compareAndSet( current, null ) );
+
+            return leased;
+        }
+    }
+
+
+    private static class LeasedMessage {
+        final DatabaseQueueMessage message;
+        final long                 leaseExpiresAt;
+
+        LeasedMessage( DatabaseQueueMessage message, long leaseExpiresAt ) {
+            this.message        = message;
+            this.leaseExpiresAt = leaseExpiresAt;
+        }
     }
 }
@@ -33,7 +33,7 @@ import org.apache.usergrid.persistence.qakka.core.impl.InMemoryQueue;
 import org.apache.usergrid.persistence.qakka.distributed.DistributedQueueService;
 import org.apache.usergrid.persistence.qakka.serialization.MultiShardMessageIterator;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLog;
-import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.QueueMessageSerialization;
 import org.apache.usergrid.persistence.qakka.serialization.sharding.Shard;
@@ -50,9 +50,15 @@ public class QueueActorHelper {
 
     private final String name = RandomStringUtils.randomAlphanumeric( 4 );
 
+    /** Owner of the leases taken by this node */
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    /** Messages are handed out only while at least this much of their lease remains */
+    private static final long LEASE_MARGIN_MILLIS = 1000L;
+
     private final ActorSystemFig            actorSystemFig;
     private final QueueMessageSerialization messageSerialization;
-    private final AuditLogSerialization     auditLogSerialization;
+    private final AuditLogWriter            auditLogWriter;
     private final InMemoryQueue             inMemoryQueue;
     private final QakkaFig                  qakkaFig;
     private final MetricsService            metricsService;
@@ -68,7 +74,7 @@ public class QueueActorHelper {
             QakkaFig                  qakkaFig,
             ActorSystemFig            actorSystemFig,
             QueueMessageSerialization messageSerialization,
-            AuditLogSerialization     auditLogSerialization,
+            AuditLogWriter            auditLogWriter,
             InMemoryQueue             inMemoryQueue,
             MetricsService            metricsService,
             CassandraClient           cassandraClient
@@ -76,7 +82,7 @@ public class QueueActorHelper {
 
         this.actorSystemFig        = actorSystemFig;
         this.messageSerialization  = messageSerialization;
-        this.auditLogSerialization = auditLogSerialization;
+        this.auditLogWriter        = auditLogWriter;
         this.inMemoryQueue         = inMemoryQueue;
         this.qakkaFig              = qakkaFig;
         this.metricsService        = metricsService;
@@ -115,17 +121,14 @@ public class QueueActorHelper {
 
     private Collection<DatabaseQueueMessage> getMessagesFromMemory(String queueName, int numRequested ) {
 
-        Collection<DatabaseQueueMessage> queueMessages = new ArrayList<>();
+        List<DatabaseQueueMessage> queueMessages = new ArrayList<>();
 
         while (queueMessages.size() < numRequested) {
 
             DatabaseQueueMessage queueMessage = inMemoryQueue.poll( queueName );
 
             if (queueMessage != null) {
-
-                if (putInflight( queueMessage )) {
-                    queueMessages.add( queueMessage );
-                }
+                queueMessages.add( queueMessage );
 
             } else {
                 //logger.debug("in-memory queue for {} is empty, object is: {}", queueName, inMemoryQueue );
@@ -134,7 +137,7 @@ public class QueueActorHelper {
         }
 
         //logger.debug("{} returning {} for queue {}", this, queueMessages.size(), queueName);
-        return queueMessages;
+        return putInflight( queueMessages );
     }
 
 
@@ -163,19 +166,23 @@ public class QueueActorHelper {
         MultiShardMessageIterator multiShardIterator = new MultiShardMessageIterator(
             cassandraClient, queueName, region, DatabaseQueueMessage.Type.DEFAULT, shardIterator, since);
 
-        int count = 0;
+        List<DatabaseQueueMessage> candidates = new ArrayList<>( numRequested );
 
-        while ( multiShardIterator.hasNext() && count < numRequested ) {
+        while ( multiShardIterator.hasNext() && candidates.size() < numRequested ) {
             DatabaseQueueMessage queueMessage = multiShardIterator.next();
+            if ( queueMessage != null ) {
+                candidates.add( queueMessage );
+            }
+        }
 
-            if ( queueMessage != null && putInflight( queueMessage ) ) {
-                long timestamp = queueMessage.getQueueMessageId().timestamp();
-                if ( since != null && timestamp > since.timestamp() ) {
-                    since = queueMessage.getQueueMessageId();
-                }
-                queueMessages.add( queueMessage );
-                count++;
+        // storage is only read directly with the in-memory cache off, when no node prefetches and leases messages,
+        // so the candidates are not leased here. Move the whole batch inflight at once
+        for ( DatabaseQueueMessage queueMessage : putInflight( candidates ) ) {
+            long timestamp = queueMessage.getQueueMessageId().timestamp();
+            if ( since != null && timestamp > since.timestamp() ) {
+                since = queueMessage.getQueueMessageId();
             }
+            queueMessages.add( queueMessage );
         }
 
         updateUUIDPointer(queueName, since);
@@ -191,6 +198,46 @@ public class QueueActorHelper {
     }
 
 
+    /**
+     * Put the messages inflight with a batch per partition, falling back to one message at a time if any fails.
+     * @return The messages that are now inflight
+     */
+    Collection<DatabaseQueueMessage> putInflight( List<DatabaseQueueMessage> queueMessages ) {
+
+        if ( queueMessages.isEmpty() ) {
+            return queueMessages;
+        }
+
+        try {
+
+            messageSerialization.putInflight( queueMessages );
+
+        } catch ( Throwable t ) {
+            logger.error("Error putting " + queueMessages.size() + " queue messages inflight, retrying individually", t);
+
+            List<DatabaseQueueMessage> inflight = new ArrayList<>( queueMessages.size() );
+            for ( DatabaseQueueMessage queueMessage : queueMessages ) {
+                if ( putInflight( queueMessage ) ) {
+                    inflight.add( queueMessage );
+                }
+            }
+            return inflight;
+        }
+
+        for ( DatabaseQueueMessage queueMessage : queueMessages ) {
+            auditLogWriter.recordAuditLog(
+                AuditLog.Action.GET,
+                AuditLog.Status.SUCCESS,
+                queueMessage.getQueueName(),
+                actorSystemFig.getRegionLocal(),
+                queueMessage.getMessageId(),
+                queueMessage.getQueueMessageId());
+        }
+
+        return queueMessages;
+    }
+
+
     boolean putInflight( DatabaseQueueMessage queueMessage ) {
 
         UUID qmid = queueMessage.getQueueMessageId();
@@ -202,7 +249,7 @@ public class QueueActorHelper {
             logger.error("Error putting inflight queue message "
                 + qmid + " queue name: " + queueMessage.getQueueName(), t);
 
-            auditLogSerialization.recordAuditLog(
+            auditLogWriter.recordAuditLog(
                 AuditLog.Action.GET,
                 AuditLog.Status.ERROR,
                 queueMessage.getQueueName(),
@@ -213,7 +260,7 @@ public class QueueActorHelper {
             return false;
         }
 
-        auditLogSerialization.recordAuditLog(
+        auditLogWriter.recordAuditLog(
             AuditLog.Action.GET,
             AuditLog.Status.SUCCESS,
             queueMessage.getQueueName(),
@@ -255,7 +302,7 @@ public class QueueActorHelper {
 
         if ( !error ) {
 
-            auditLogSerialization.recordAuditLog(
+            auditLogWriter.recordAuditLog(
                     AuditLog.Action.ACK,
                     AuditLog.Status.SUCCESS,
                     queueName,
@@ -267,7 +314,7 @@ public class QueueActorHelper {
 
         } else {
 
-            auditLogSerialization.recordAuditLog(
+            auditLogWriter.recordAuditLog(
                     AuditLog.Action.ACK,
                     AuditLog.Status.ERROR,
                     queueName,
@@ -286,7 +333,8 @@ public class QueueActorHelper {
 
         try {
 
-            if (inMemoryQueue.size( queueName ) < qakkaFig.getQueueInMemorySize()) {
+            // only refill once the in-memory queue has drained below the watermark
+            if (inMemoryQueue.size( queueName ) < qakkaFig.getInMemoryRefillWatermark()) {
 
                 // if queue has not been refreshed in 5 x queue refresh time, then consider it stale
                 long now = System.currentTimeMillis();
@@ -318,14 +366,14 @@ public class QueueActorHelper {
                     shardIterator, since);
 
                 int need = qakkaFig.getQueueInMemorySize() - inMemoryQueue.size( queueName );
-                int count = 0;
 
-                while ( multiShardIterator.hasNext() && count < need ) {
-                    DatabaseQueueMessage queueMessage = multiShardIterator.next();
-                    inMemoryQueue.add( queueName, queueMessage );
-                    count++;
+                List<DatabaseQueueMessage> candidates = new ArrayList<>( Math.max( need, 0 ) );
+                while ( multiShardIterator.hasNext() && candidates.size() < need ) {
+                    candidates.add( multiShardIterator.next() );
                 }
 
+                int count = leaseIntoMemory( queueName, candidates );
+
                 startingShards.put( shardKey, shardId );
 
                 updateLastRefreshedTime(queueName);
@@ -343,6 +391,49 @@ public class QueueActorHelper {
 
     }
 
+    /**
+     * Lease the messages to this node and add the ones leased to the in-memory queue. The local expiry is taken
+     * from before the lease was requested, and shortened by a margin, so it never outlives the lease in storage.
+     */
+    private int leaseIntoMemory( String queueName, List<DatabaseQueueMessage> candidates ) {
+
+        if ( candidates.isEmpty() ) {
+            return 0;
+        }
+
+        long leaseExpiresAt = System.currentTimeMillis()
+            + qakkaFig.getInMemoryLeaseSeconds() * 1000L - LEASE_MARGIN_MILLIS;
+
+        Collection<DatabaseQueueMessage> leased = lease( candidates );
+
+        int count = 0;
+        for ( DatabaseQueueMessage queueMessage : leased ) {
+            if ( inMemoryQueue.add( queueName, queueMessage, leaseExpiresAt ) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lease the messages to this node.
+     * @return The messages leased, messages leased by another node are left out
+     */
+    private Collection<DatabaseQueueMessage> lease( List<DatabaseQueueMessage> candidates ) {
+
+        if ( candidates.isEmpty() ) {
+            return candidates;
+        }
+
+        Timer.Context timer = metricsService.getMetricRegistry().timer( MetricsService.LEASE_TIME ).time();
+        try {
+            return messageSerialization.leaseMessages(
+                candidates, leaseOwner, qakkaFig.getInMemoryLeaseSeconds() );
+        } finally {
+            timer.close();
+        }
+    }
+
     private String createShardKey(String queueName, Shard.Type type, String region ) {
         return queueName + "_" + type + region;
     }
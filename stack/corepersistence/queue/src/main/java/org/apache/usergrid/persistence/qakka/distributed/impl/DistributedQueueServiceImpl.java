@@ -40,6 +40,7 @@ import org.apache.usergrid.persistence.qakka.distributed.DistributedQueueService
 import org.apache.usergrid.persistence.qakka.distributed.messages.*;
 import org.apache.usergrid.persistence.qakka.exceptions.NotFoundException;
 import org.apache.usergrid.persistence.qakka.exceptions.QakkaRuntimeException;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,7 @@ public class DistributedQueueServiceImpl implements DistributedQueueService {
     private final QueueManager queueManager;
     private final QakkaFig qakkaFig;
     private final MetricsService metricsService;
+    private final AuditLogWriter auditLogWriter;
 
     @Inject
     public DistributedQueueServiceImpl(
@@ -70,13 +72,15 @@ public class DistributedQueueServiceImpl implements DistributedQueueService {
             ActorSystemManager actorSystemManager,
             QueueManager queueManager,
             QakkaFig qakkaFig,
-            MetricsService metricsService
+            MetricsService metricsService,
+            AuditLogWriter auditLogWriter
             ) {
 
         this.actorSystemManager = actorSystemManager;
         this.queueManager = queueManager;
         this.qakkaFig = qakkaFig;
         this.metricsService = metricsService;
+        this.auditLogWriter = auditLogWriter;
 
         GuiceActorProducer.INJECTOR = injector;
     }
@@ -370,6 +374,6 @@ public class DistributedQueueServiceImpl implements DistributedQueueService {
     }
 
     public void shutdown() {
-        // no op
+        auditLogWriter.shutdown();
     }
 }
@@ -22,6 +22,7 @@ package org.apache.usergrid.persistence.qakka.serialization.auditlog;
 import org.apache.usergrid.persistence.core.migration.schema.Migration;
 import org.apache.usergrid.persistence.qakka.serialization.Result;
 
+import java.util.Collection;
 import java.util.UUID;
 
 
@@ -38,6 +39,11 @@ public interface AuditLogSerialization extends Migration {
         UUID messageId,
         UUID queueMessageId);
 
+    /**
+     * Record audit log records, all in a single batch.
+     */
+    void recordAuditLogs( Collection<AuditLog> auditLogs );
+
     /**
      * Get all audit logs for a specific queue message.
      */
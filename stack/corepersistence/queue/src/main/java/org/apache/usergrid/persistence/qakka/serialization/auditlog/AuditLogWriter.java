@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.qakka.serialization.auditlog;
+
+import java.util.UUID;
+
+
+/**
+ * Records audit log records off the caller's thread.  Records are sampled, buffered and written in batches.
+ */
+public interface AuditLogWriter {
+
+    /**
+     * Queue an audit log record for writing.  Successful operations are subject to the configured sampling rate,
+     * errors are always queued.  If the buffer is full the record is dropped.
+     */
+    void recordAuditLog(
+        AuditLog.Action action,
+        AuditLog.Status status,
+        String queueName,
+        String region,
+        UUID messageId,
+        UUID queueMessageId);
+
+    /**
+     * Write every queued record before returning.
+     */
+    void flush();
+
+    /**
+     * Stop the background writer and write every queued record before returning.  A record queued afterwards
+     * starts a new writer.
+     */
+    void shutdown();
+}
@@ -19,6 +19,7 @@
 
 package org.apache.usergrid.persistence.qakka.serialization.auditlog.impl;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Statement;
@@ -104,6 +105,31 @@ public class AuditLogSerializationImpl implements AuditLogSerialization {
     }
 
 
+    @Override
+    public void recordAuditLogs( Collection<AuditLog> auditLogs ) {
+
+        if ( auditLogs.isEmpty() ) {
+            return;
+        }
+
+        // audit records are independent, no need for the batch log
+        BatchStatement batch = new BatchStatement( BatchStatement.Type.UNLOGGED );
+
+        for ( AuditLog auditLog : auditLogs ) {
+            batch.add( QueryBuilder.insertInto(TABLE_AUDIT_LOG)
+                .value(COLUMN_ACTION, auditLog.getAction().toString() )
+                .value(COLUMN_STATUS, auditLog.getStatus().toString() )
+                .value(COLUMN_QUEUE_NAME, auditLog.getQueueName() )
+                .value(COLUMN_REGION, auditLog.getRegion() )
+                .value(COLUMN_MESSAGE_ID, auditLog.getMessageId() )
+                .value(COLUMN_QUEUE_MESSAGE_ID, auditLog.getQueueMessageId() )
+                .value(COLUMN_TRANSFER_TIME, auditLog.getTransfer_time() ) );
+        }
+
+        cassandraClient.getApplicationSession().execute( batch );
+    }
+
+
     @Override
     public Result<AuditLog> getAuditLogs( UUID messageId ) {
 
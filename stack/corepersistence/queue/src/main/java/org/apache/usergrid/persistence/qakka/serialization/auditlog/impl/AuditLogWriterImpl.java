@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.qakka.serialization.auditlog.impl;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
+import org.apache.usergrid.persistence.qakka.MetricsService;
+import org.apache.usergrid.persistence.qakka.QakkaFig;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLog;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Audit log writer with a bounded buffer drained by a single background task.  Its executor is stopped and the
+ * buffer written out when the queue service shuts down.
+ */
+@Singleton
+public class AuditLogWriterImpl implements AuditLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger( AuditLogWriterImpl.class );
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final AuditLogSerialization auditLogSerialization;
+    private final MetricsService        metricsService;
+    private final QakkaFig              qakkaFig;
+
+    private final BlockingQueue<AuditLog> buffer;
+    private final Object                  writeLock = new Object();
+    private final AtomicInteger           pending = new AtomicInteger();
+
+    private final ExecutorService executor;
+    private volatile boolean      writerStarted;
+
+
+    @Inject
+    public AuditLogWriterImpl(
+            AuditLogSerialization auditLogSerialization,
+            MetricsService        metricsService,
+            QakkaFig              qakkaFig ) {
+
+        this.auditLogSerialization = auditLogSerialization;
+        this.metricsService        = metricsService;
+        this.qakkaFig              = qakkaFig;
+        this.buffer                = new ArrayBlockingQueue<>( qakkaFig.getAuditLogBufferSize() );
+        this.executor              = TaskExecutorFactory.createTaskExecutor(
+            "qakka-auditlog-writer", 1, 0, TaskExecutorFactory.RejectionAction.ABORT );
+    }
+
+
+    @Override
+    public void recordAuditLog(
+            AuditLog.Action action,
+            AuditLog.Status status,
+            String queueName,
+            String region,
+            UUID messageId,
+            UUID queueMessageId ) {
+
+        if ( status == AuditLog.Status.SUCCESS && !isSampled() ) {
+            return;
+        }
+
+        if ( !qakkaFig.getAuditLogAsync() ) {
+            auditLogSerialization.recordAuditLog( action, status, queueName, region, messageId, queueMessageId );
+            return;
+        }
+
+        AuditLog auditLog = new AuditLog(
+            action, status, queueName, region, messageId, queueMessageId, System.currentTimeMillis() );
+
+        pending.incrementAndGet();
+
+        if ( !buffer.offer( auditLog ) ) {
+            pending.decrementAndGet();
+            getDroppedMeter().mark();
+            logger.debug( "Audit log buffer full, dropped {} record for queue message {}", action, queueMessageId );
+            return;
+        }
+
+        startWriter();
+    }
+
+
+    @Override
+    public void flush() {
+
+        // records taken by the writer thread are pending until written
+        while ( pending.get() > 0 ) {
+            if ( !writeBatch() ) {
+                try {
+                    Thread.sleep( 1 );
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public void shutdown() {
+
+        synchronized ( this ) {
+            executor.shutdownNow();
+            writerStarted = false;
+        }
+
+        try {
+            if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) ) {
+                logger.warn( "Audit log writer did not stop within {} ms", SHUTDOWN_TIMEOUT_MILLIS );
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+
+        // whatever the writer left in the buffer is written here
+        flush();
+    }
+
+
+    private boolean isSampled() {
+        double sampleRate = qakkaFig.getAuditLogSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+
+    private Meter getDroppedMeter() {
+        return metricsService.getMetricRegistry().meter( MetricsService.AUDIT_LOG_DROPPED );
+    }
+
+
+    private void startWriter() {
+
+        if ( writerStarted ) {
+            return;
+        }
+
+        boolean stopped;
+        synchronized ( this ) {
+            stopped = executor.isShutdown();
+            if ( !stopped && !writerStarted ) {
+                executor.execute( this::drain );
+                writerStarted = true;
+            }
+        }
+
+        // once shut down there is no writer, records are written by the caller
+        if ( stopped ) {
+            flush();
+        }
+    }
+
+
+    private void drain() {
+
+        while ( !Thread.currentThread().isInterrupted() ) {
+            try {
+                AuditLog first = buffer.poll( POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS );
+                if ( first != null ) {
+                    writeBatch( first );
+                }
+
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+
+            } catch ( Throwable t ) {
+                logger.error( "Error writing audit log records", t );
+            }
+        }
+    }
+
+
+    private boolean writeBatch() {
+        AuditLog first = buffer.poll();
+        if ( first != null ) {
+            writeBatch( first );
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Write the record given and as many queued records as fit in a batch
+     */
+    private void writeBatch( AuditLog first ) {
+
+        int batchSize = qakkaFig.getAuditLogBatchSize();
+
+        List<AuditLog> batch = new ArrayList<>( batchSize );
+        batch.add( first );
+        buffer.drainTo( batch, batchSize - 1 );
+
+        // flush and the writer thread may both be writing, keep their batches apart
+        synchronized ( writeLock ) {
+            Timer.Context timer = metricsService.getMetricRegistry().timer( MetricsService.AUDIT_LOG_TIME ).time();
+            try {
+                auditLogSerialization.recordAuditLogs( batch );
+            } finally {
+                timer.close();
+                pending.addAndGet( -batch.size() );
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.usergrid.persistence.qakka.serialization.queuemessages;
 
 import org.apache.usergrid.persistence.core.migration.schema.Migration;
 
+import java.util.Collection;
 import java.util.UUID;
 
 
@@ -57,6 +58,21 @@ public interface QueueMessageSerialization extends Migration {
      */
     void putInflight( DatabaseQueueMessage queueMessage );
 
+    /**
+     * Write messages to inflight table and remove from available table, with an unlogged batch for each partition
+     * written.  Returns once every batch is written, counters are only updated if all of them succeed.
+     */
+    void putInflight( Collection<DatabaseQueueMessage> queueMessages );
+
+    /**
+     * Lease available messages to the specified owner for a number of seconds. A message can be leased by only one
+     * owner at a time, so messages prefetched by one node are not prefetched and handed out by another.
+     *
+     * @return The messages that were leased to the owner, messages already leased by others are left out.
+     */
+    Collection<DatabaseQueueMessage> leaseMessages(
+        Collection<DatabaseQueueMessage> queueMessages, String owner, int leaseSeconds );
+
     /**
      * Delete all queue messages in the specified queue and in the current "local" region.
      * Impacts messages available and messages inflight.
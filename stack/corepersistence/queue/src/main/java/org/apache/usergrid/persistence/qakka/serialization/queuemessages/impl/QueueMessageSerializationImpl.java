@@ -20,6 +20,8 @@
 package org.apache.usergrid.persistence.qakka.serialization.queuemessages.impl;
 
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.Clause;
@@ -72,6 +74,7 @@ public class QueueMessageSerializationImpl implements QueueMessageSerialization
     public final static String COLUMN_MESSAGE_ID       = "message_id";
     public final static String COLUMN_CONTENT_TYPE     = "content_type";
     public final static String COLUMN_MESSAGE_DATA     = "data";
+    public final static String COLUMN_LEASE_OWNER      = "owner";
 
     public final static String TABLE_MESSAGES_AVAILABLE = "messages_available";
 
@@ -79,6 +82,8 @@ public class QueueMessageSerializationImpl implements QueueMessageSerialization
 
     public final static String TABLE_MESSAGE_DATA = "message_data";
 
+    public final static String TABLE_MESSAGE_LEASES = "message_leases";
+
     static final String MESSAGES_AVAILABLE =
         "CREATE TABLE IF NOT EXISTS messages_available ( " +
                 "queue_name       text, " +
@@ -125,6 +130,22 @@ public class QueueMessageSerializationImpl implements QueueMessageSerialization
                 "PRIMARY KEY ((message_id)) " +
                 "); ";
 
+    // leases are short lived and written with a TTL, one partition per message so each lease is its own LWT
+    static final String MESSAGE_LEASES =
+        "CREATE TABLE IF NOT EXISTS message_leases ( " +
+                "queue_name       text, " +
+                "region           text, " +
+                "queue_message_id timeuuid, " +
+                "owner            text, " +
+                "PRIMARY KEY ((queue_name, region, queue_message_id)) " +
+                ") WITH gc_grace_seconds = 60 AND " +
+                    "compaction = {'class': " + "'LeveledCompactionStrategy', " +
+                        "'sstable_size_in_mb': 5, " +
+                        "'tombstone_compaction_interval': 60, " +
+                        "'tombstone_threshold': 0.05, " +
+                        "'unchecked_tombstone_compaction': true" +
+                    "};";
+
     @Inject
     public QueueMessageSerializationImpl(
             CassandraConfig           cassandraConfig,
@@ -346,6 +367,161 @@ public class QueueMessageSerializationImpl implements QueueMessageSerialization
     }
 
 
+    @Override
+    public void putInflight( Collection<DatabaseQueueMessage> messages ) {
+
+        if ( messages.isEmpty() ) {
+            return;
+        }
+
+        logger.trace("putInflight {} messages", messages.size());
+
+        // an unlogged batch per partition, the writes to one partition are applied together without a batch log
+
+        Map<List<Object>, BatchStatement> partitionBatches = new HashMap<>();
+
+        Map<String, Long> queueCounts = new HashMap<>();
+        Map<String, Map<Long, Long>> shardCounts = new HashMap<>();
+
+        long inflightAt = System.currentTimeMillis();
+
+        for ( DatabaseQueueMessage message : messages ) {
+
+            long inflightShardId = shardStrategy.selectShard( message.getQueueName(), message.getRegion(),
+                Shard.Type.INFLIGHT, message.getQueueMessageId() ).getShardId();
+
+            long availableShardId = shardStrategy.selectShard( message.getQueueName(), message.getRegion(),
+                Shard.Type.DEFAULT, message.getQueueMessageId() ).getShardId();
+
+            DatabaseQueueMessage inflightMessage = new DatabaseQueueMessage(
+                message.getMessageId(),
+                DatabaseQueueMessage.Type.INFLIGHT,
+                message.getQueueName(),
+                message.getRegion(),
+                inflightShardId,
+                message.getQueuedAt(),
+                inflightAt,
+                message.getQueueMessageId() );
+
+            getPartitionBatch( partitionBatches, DatabaseQueueMessage.Type.INFLIGHT, message.getQueueName(),
+                message.getRegion(), inflightShardId ).add( createWriteMessageStatement( inflightMessage ) );
+
+            getPartitionBatch( partitionBatches, DatabaseQueueMessage.Type.DEFAULT, message.getQueueName(),
+                message.getRegion(), availableShardId ).add( createDeleteMessageStatement(
+                    message.getQueueName(),
+                    message.getRegion(),
+                    availableShardId,
+                    DatabaseQueueMessage.Type.DEFAULT,
+                    message.getQueueMessageId()) );
+
+            queueCounts.merge( message.getQueueName(), 1L, Long::sum );
+
+            shardCounts.computeIfAbsent( message.getQueueName(), k -> new HashMap<>() )
+                .merge( message.getShardId(), 1L, Long::sum );
+        }
+
+        // issue every batch at once, the caller only returns the messages once all of them are inflight
+
+        List<ResultSetFuture> futures = new ArrayList<>( partitionBatches.size() );
+        for ( BatchStatement batchStatement : partitionBatches.values() ) {
+            futures.add( cassandraClient.getQueueMessageSession().executeAsync( batchStatement ) );
+        }
+
+        RuntimeException failure = null;
+        for ( ResultSetFuture future : futures ) {
+            try {
+                future.getUninterruptibly();
+            } catch ( RuntimeException e ) {
+                if ( failure == null ) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed( e );
+                }
+            }
+        }
+
+        // counters are only bumped for a complete write, the caller retries the messages one at a time
+        if ( failure != null ) {
+            throw failure;
+        }
+
+        // bump counters once per queue and shard
+
+        for ( Map.Entry<String, Map<Long, Long>> queueShards : shardCounts.entrySet() ) {
+            for ( Map.Entry<Long, Long> shardCount : queueShards.getValue().entrySet() ) {
+                shardCounterSerialization.incrementCounter(
+                    queueShards.getKey(), Shard.Type.INFLIGHT, shardCount.getKey(), shardCount.getValue() );
+            }
+        }
+
+        for ( Map.Entry<String, Long> queueCount : queueCounts.entrySet() ) {
+
+            messageCounterSerialization.incrementCounter(
+                queueCount.getKey(), DatabaseQueueMessage.Type.INFLIGHT, queueCount.getValue() );
+
+            messageCounterSerialization.decrementCounter(
+                queueCount.getKey(), DatabaseQueueMessage.Type.DEFAULT, queueCount.getValue() );
+        }
+    }
+
+
+    /**
+     * Get the unlogged batch of the writes to the partition of a message table
+     */
+    private BatchStatement getPartitionBatch( Map<List<Object>, BatchStatement> partitionBatches,
+                                              DatabaseQueueMessage.Type type,
+                                              String queueName,
+                                              String region,
+                                              long shardId ) {
+
+        return partitionBatches.computeIfAbsent( Arrays.asList( getTableName( type ), queueName, region, shardId ),
+            k -> new BatchStatement( BatchStatement.Type.UNLOGGED ) );
+    }
+
+
+    @Override
+    public Collection<DatabaseQueueMessage> leaseMessages(
+        Collection<DatabaseQueueMessage> messages, String owner, int leaseSeconds ) {
+
+        if ( messages.isEmpty() ) {
+            return Collections.emptyList();
+        }
+
+        // issue every lease at once, each is a lightweight transaction on its own partition
+
+        List<ResultSetFuture> futures = new ArrayList<>( messages.size() );
+
+        for ( DatabaseQueueMessage message : messages ) {
+
+            Statement insert = QueryBuilder.insertInto( TABLE_MESSAGE_LEASES )
+                .value( COLUMN_QUEUE_NAME,       message.getQueueName() )
+                .value( COLUMN_REGION,           message.getRegion() )
+                .value( COLUMN_QUEUE_MESSAGE_ID, message.getQueueMessageId() )
+                .value( COLUMN_LEASE_OWNER,      owner )
+                .ifNotExists()
+                .using( QueryBuilder.ttl( leaseSeconds ) )
+                // table is region local, no need for cross-region paxos
+                .setSerialConsistencyLevel( ConsistencyLevel.LOCAL_SERIAL );
+
+            futures.add( cassandraClient.getQueueMessageSession().executeAsync( insert ) );
+        }
+
+        List<DatabaseQueueMessage> leased = new ArrayList<>( messages.size() );
+
+        Iterator<ResultSetFuture> futureIterator = futures.iterator();
+        for ( DatabaseQueueMessage message : messages ) {
+
+            if ( futureIterator.next().getUninterruptibly().wasApplied() ) {
+                leased.add( message );
+            } else {
+                logger.trace( "Message {} already leased", message.getQueueMessageId() );
+            }
+        }
+
+        return leased;
+    }
+
+
     @Override
     public void deleteAllMessages( String queueName ) {
 
@@ -558,6 +734,9 @@ public class QueueMessageSerializationImpl implements QueueMessageSerialization
             new TableDefinitionStringImpl( cassandraConfig.getApplicationLocalKeyspace(),
                 TABLE_MESSAGES_INFLIGHT, MESSAGES_INFLIGHT ),
 
+            new TableDefinitionStringImpl( cassandraConfig.getApplicationLocalKeyspace(),
+                TABLE_MESSAGE_LEASES, MESSAGE_LEASES ),
+
             new TableDefinitionStringImpl( cassandraConfig.getApplicationKeyspace(),
                 TABLE_MESSAGE_DATA, MESSAGE_DATA )
         );
@@ -17,8 +17,6 @@
  */
 package org.apache.usergrid.persistence.queue.impl;
 
-import com.datastax.driver.core.DataType;
-import com.datastax.driver.core.ProtocolVersion;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.Assisted;
@@ -29,6 +27,7 @@ import org.apache.usergrid.persistence.qakka.serialization.queuemessages.Databas
 import org.apache.usergrid.persistence.queue.LegacyQueueManager;
 import org.apache.usergrid.persistence.queue.LegacyQueueMessage;
 import org.apache.usergrid.persistence.queue.LegacyQueueScope;
+import org.apache.usergrid.persistence.queue.util.QakkaMessageCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,20 +82,13 @@ public class QakkaQueueManager implements LegacyQueueManager {
 
         createQueueIfNecessary();
 
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutputStream oos = new ObjectOutputStream(bos);
-        oos.writeObject(body);
-        oos.flush();
-        oos.close();
-        ByteBuffer byteBuffer = ByteBuffer.wrap( bos.toByteArray() );
-
         queueMessageManager.sendMessages(
             scope.getName(),
             regions,
             null, // delay millis
             null, // expiration seconds
             "application/octet-stream",
-            DataType.serializeValue( byteBuffer, ProtocolVersion.NEWEST_SUPPORTED ));
+            QakkaMessageCodec.encode( body ));
     }
 
 
@@ -129,12 +121,7 @@ public class QakkaQueueManager implements LegacyQueueManager {
             Object body;
             try {
                 ByteBuffer messageData = queueMessageManager.getMessageData( qakkaMessage.getMessageId() );
-                ByteBuffer bb = (ByteBuffer)DataType.blob().deserialize(
-                    messageData, ProtocolVersion.NEWEST_SUPPORTED );
-
-                ByteArrayInputStream bais = new ByteArrayInputStream( bb.array() );
-                ObjectInputStream ios = new ObjectInputStream( bais );
-                body = ios.readObject();
+                body = QakkaMessageCodec.decode( messageData );
 
             } catch (Throwable t) {
                 throw new QakkaRuntimeException( "Error de-serializing object", t );
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.queue.util;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+
+
+/**
+ * Encodes the bodies of the messages sent through qakka: the java serialized body as a blob.
+ */
+public class QakkaMessageCodec {
+
+    private QakkaMessageCodec() {
+    }
+
+
+    /**
+     * @return The message data to send with the queue message manager
+     */
+    public static ByteBuffer encode( final Serializable body ) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        try ( ObjectOutputStream oos = new ObjectOutputStream( bos ) ) {
+            oos.writeObject( body );
+        }
+
+        return DataType.serializeValue( ByteBuffer.wrap( bos.toByteArray() ), ProtocolVersion.NEWEST_SUPPORTED );
+    }
+
+
+    /**
+     * @param messageData The message data read with the queue message manager
+     */
+    public static Object decode( final ByteBuffer messageData ) throws IOException, ClassNotFoundException {
+        final ByteBuffer bb =
+            ( ByteBuffer ) DataType.blob().deserialize( messageData, ProtocolVersion.NEWEST_SUPPORTED );
+
+        try ( ObjectInputStream ois = new ObjectInputStream( new ByteArrayInputStream( bb.array() ) ) ) {
+            return ois.readObject();
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.usergrid.persistence.qakka.exceptions.QakkaRuntimeException;
 import org.apache.usergrid.persistence.qakka.serialization.Result;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLog;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessageBody;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.QueueMessageSerialization;
@@ -124,6 +125,7 @@ public class QueueMessageManagerTest extends AbstractAkkaTest {
                 DatabaseQueueMessage.Type.INFLIGHT, message.getQueueMessageId() ) );
 
             // test that audit log entry was written
+            injector.getInstance( AuditLogWriter.class ).flush(); // audit records are written in the background
             AuditLogSerialization auditLogSerialization = injector.getInstance( AuditLogSerialization.class );
             Result<AuditLog> auditLogs = auditLogSerialization.getAuditLogs( message.getMessageId() );
             Assert.assertEquals( 3, auditLogs.getEntities().size() );
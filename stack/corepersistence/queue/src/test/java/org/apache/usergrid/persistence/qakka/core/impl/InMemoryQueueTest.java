@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.qakka.core.impl;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang.RandomStringUtils;
+import org.apache.usergrid.persistence.qakka.AbstractTest;
+import org.apache.usergrid.persistence.qakka.MetricsService;
+import org.apache.usergrid.persistence.qakka.QakkaFig;
+import org.apache.usergrid.persistence.qakka.core.QakkaUtils;
+import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+public class InMemoryQueueTest extends AbstractTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private InMemoryQueue inMemoryQueue;
+    private String queueName;
+    private int capacity;
+
+
+    @Before
+    public void createQueue() {
+        QakkaFig qakkaFig = getInjector().getInstance( QakkaFig.class );
+        MetricsService metricsService = () -> metricRegistry;
+
+        inMemoryQueue = new InMemoryQueue( qakkaFig, metricsService );
+        queueName = "imqt_queue_" + RandomStringUtils.randomAlphanumeric( 10 );
+        capacity = qakkaFig.getQueueInMemorySize();
+    }
+
+
+    @Test
+    public void testOrdering() {
+
+        long leaseExpiresAt = System.currentTimeMillis() + 60000L;
+
+        List<UUID> added = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            DatabaseQueueMessage message = newMessage();
+            Assert.assertTrue( inMemoryQueue.add( queueName, message, leaseExpiresAt ) );
+            added.add( message.getQueueMessageId() );
+        }
+
+        Assert.assertEquals( 10, inMemoryQueue.size( queueName ) );
+        Assert.assertEquals( added.get( 9 ), inMemoryQueue.getNewest( queueName ) );
+        Assert.assertEquals( added.get( 0 ), inMemoryQueue.peek( queueName ).getQueueMessageId() );
+
+        for ( UUID queueMessageId : added ) {
+            Assert.assertEquals( queueMessageId, inMemoryQueue.poll( queueName ).getQueueMessageId() );
+        }
+
+        Assert.assertNull( inMemoryQueue.poll( queueName ) );
+        Assert.assertEquals( 0, inMemoryQueue.size( queueName ) );
+
+        // the newest marker is cleared once the queue drains
+        Assert.assertNull( inMemoryQueue.getNewest( queueName ) );
+    }
+
+
+    @Test
+    public void testLeaseExpiry() throws Exception {
+
+        long now = System.currentTimeMillis();
+
+        DatabaseQueueMessage expired = newMessage();
+        DatabaseQueueMessage expiring = newMessage();
+        DatabaseQueueMessage leased = newMessage();
+
+        inMemoryQueue.add( queueName, expired, now - 1 );
+        inMemoryQueue.add( queueName, expiring, now + 200 );
+        inMemoryQueue.add( queueName, leased, now + 60000L );
+
+        Thread.sleep( 300 );
+
+        // messages whose leases expired are dropped, not handed out
+        Assert.assertEquals( leased.getQueueMessageId(), inMemoryQueue.poll( queueName ).getQueueMessageId() );
+        Assert.assertNull( inMemoryQueue.poll( queueName ) );
+
+        Assert.assertEquals( 2, metricRegistry.meter( MetricsService.LEASE_EXPIRED ).getCount() );
+        Assert.assertEquals( 0, inMemoryQueue.size( queueName ) );
+        Assert.assertEquals( 0, metricRegistry.getGauges().get( MetricsService.INMEMORY_DEPTH ).getValue() );
+    }
+
+
+    @Test
+    public void testCapacity() {
+
+        long leaseExpiresAt = System.currentTimeMillis() + 60000L;
+
+        for ( int i = 0; i < capacity; i++ ) {
+            Assert.assertTrue( inMemoryQueue.add( queueName, newMessage(), leaseExpiresAt ) );
+        }
+
+        Assert.assertFalse( inMemoryQueue.add( queueName, newMessage(), leaseExpiresAt ) );
+        Assert.assertEquals( capacity, inMemoryQueue.size( queueName ) );
+
+        inMemoryQueue.clear( queueName );
+
+        Assert.assertEquals( 0, inMemoryQueue.size( queueName ) );
+        Assert.assertNull( inMemoryQueue.getNewest( queueName ) );
+    }
+
+
+    @Test
+    public void testNewestWhileAddingAndPolling() throws Exception {
+
+        long leaseExpiresAt = System.currentTimeMillis() + 60000L;
+        int count = capacity * 10;
+
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try {
+            Future<UUID> adder = executor.submit( () -> {
+                UUID last = null;
+                for ( int i = 0; i < count; i++ ) {
+                    DatabaseQueueMessage message = newMessage();
+                    while ( !inMemoryQueue.add( queueName, message, leaseExpiresAt ) ) {
+                        Thread.yield();
+                    }
+                    last = message.getQueueMessageId();
+                }
+                return last;
+            } );
+
+            Future<Integer> poller = executor.submit( () -> {
+                int polled = 0;
+                while ( polled < count - 1 ) {
+                    if ( inMemoryQueue.poll( queueName ) != null ) {
+                        polled++;
+                    }
+                }
+                return polled;
+            } );
+
+            UUID last = adder.get( 30, TimeUnit.SECONDS );
+            poller.get( 30, TimeUnit.SECONDS );
+
+            // one message is left, so the marker must be the last message added and must not have been cleared
+            Assert.assertEquals( 1, inMemoryQueue.size( queueName ) );
+            Assert.assertEquals( last, inMemoryQueue.getNewest( queueName ) );
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    private DatabaseQueueMessage newMessage() {
+        return new DatabaseQueueMessage( QakkaUtils.getTimeUuid(), DatabaseQueueMessage.Type.DEFAULT,
+            queueName, "us-east", 1L, System.currentTimeMillis(), null, QakkaUtils.getTimeUuid() );
+    }
+}
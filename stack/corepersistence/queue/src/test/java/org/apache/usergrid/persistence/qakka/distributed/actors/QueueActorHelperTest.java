@@ -32,6 +32,7 @@ import org.apache.usergrid.persistence.qakka.distributed.DistributedQueueService
 import org.apache.usergrid.persistence.qakka.serialization.Result;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLog;
 import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogWriter;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.DatabaseQueueMessage;
 import org.apache.usergrid.persistence.qakka.serialization.queuemessages.QueueMessageSerialization;
 import org.apache.usergrid.persistence.queue.TestModule;
@@ -196,6 +197,7 @@ public class QueueActorHelperTest extends AbstractAkkaTest {
 
             // there must be an audit log record of the successful get operation
 
+            injector.getInstance( AuditLogWriter.class ).flush(); // audit records are written in the background
             AuditLogSerialization auditLogSerialization = injector.getInstance( AuditLogSerialization.class );
             Result<AuditLog> auditLogs = auditLogSerialization.getAuditLogs( message.getMessageId() );
             Assert.assertEquals( 1, auditLogs.getEntities().size() );
@@ -265,6 +267,7 @@ public class QueueActorHelperTest extends AbstractAkkaTest {
 
             // there should be an audit log record of the successful ack operation
 
+            injector.getInstance( AuditLogWriter.class ).flush(); // audit records are written in the background
             AuditLogSerialization auditLogSerialization = injector.getInstance( AuditLogSerialization.class );
             Result<AuditLog> auditLogs = auditLogSerialization.getAuditLogs( message.getMessageId() );
             Assert.assertEquals( 1, auditLogs.getEntities().size() );
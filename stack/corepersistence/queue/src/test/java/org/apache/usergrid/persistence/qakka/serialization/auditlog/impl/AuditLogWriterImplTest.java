@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.qakka.serialization.auditlog.impl;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.usergrid.persistence.qakka.MetricsService;
+import org.apache.usergrid.persistence.qakka.QakkaFig;
+import org.apache.usergrid.persistence.qakka.core.QakkaUtils;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLog;
+import org.apache.usergrid.persistence.qakka.serialization.auditlog.AuditLogSerialization;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class AuditLogWriterImplTest {
+
+    private static final int BUFFER_SIZE = 5;
+    private static final int BATCH_SIZE  = 3;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final List<List<AuditLog>> batches = Collections.synchronizedList( new ArrayList<>() );
+
+    private AuditLogSerialization auditLogSerialization;
+    private AuditLogWriterImpl    auditLogWriter;
+
+
+    @Before
+    public void createWriter() {
+
+        QakkaFig qakkaFig = mock( QakkaFig.class );
+        when( qakkaFig.getAuditLogAsync() ).thenReturn( true );
+        when( qakkaFig.getAuditLogSampleRate() ).thenReturn( 1.0 );
+        when( qakkaFig.getAuditLogBufferSize() ).thenReturn( BUFFER_SIZE );
+        when( qakkaFig.getAuditLogBatchSize() ).thenReturn( BATCH_SIZE );
+
+        auditLogSerialization = mock( AuditLogSerialization.class );
+        recordBatches( null, null );
+
+        auditLogWriter = new AuditLogWriterImpl( auditLogSerialization, () -> metricRegistry, qakkaFig );
+    }
+
+
+    @Test
+    public void testBatchingAndOverflow() throws Exception {
+
+        CountDownLatch writing = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        recordBatches( writing, release );
+
+        // the writer takes the first record and is held writing it
+        record();
+        Assert.assertTrue( writing.await( 10, TimeUnit.SECONDS ) );
+
+        // these fill the buffer, the last one overflows and is dropped
+        for ( int i = 0; i < BUFFER_SIZE + 1; i++ ) {
+            record();
+        }
+
+        Assert.assertEquals( 1, metricRegistry.meter( MetricsService.AUDIT_LOG_DROPPED ).getCount() );
+
+        release.countDown();
+        auditLogWriter.flush();
+
+        int written = 0;
+        int largest = 0;
+        synchronized ( batches ) {
+            for ( List<AuditLog> batch : batches ) {
+                Assert.assertTrue( "Batch larger than the batch size", batch.size() <= BATCH_SIZE );
+                written += batch.size();
+                largest = Math.max( largest, batch.size() );
+            }
+        }
+
+        Assert.assertEquals( BUFFER_SIZE + 1, written );
+        Assert.assertEquals( "Buffered records written together", BATCH_SIZE, largest );
+
+        auditLogWriter.shutdown();
+    }
+
+
+    @Test
+    public void testShutdownDrains() throws Exception {
+
+        Set<Thread> writersBefore = writerThreads();
+
+        for ( int i = 0; i < BUFFER_SIZE; i++ ) {
+            record();
+        }
+
+        auditLogWriter.shutdown();
+
+        Assert.assertEquals( BUFFER_SIZE, written() );
+        assertWritersStopped( writersBefore );
+
+        // a record after the shutdown is written by the caller, without a new writer
+        record();
+
+        Assert.assertEquals( BUFFER_SIZE + 1, written() );
+        assertWritersStopped( writersBefore );
+    }
+
+
+    private void record() {
+        auditLogWriter.recordAuditLog( AuditLog.Action.GET, AuditLog.Status.SUCCESS, "queue", "us-east",
+            QakkaUtils.getTimeUuid(), QakkaUtils.getTimeUuid() );
+    }
+
+
+    /**
+     * Keep the batches written, optionally holding the first write until released
+     */
+    @SuppressWarnings( "unchecked" )
+    private void recordBatches( CountDownLatch writing, CountDownLatch release ) {
+        doAnswer( invocation -> {
+            batches.add( new ArrayList<>( (Collection<AuditLog>) invocation.getArguments()[0] ) );
+            if ( writing != null && writing.getCount() > 0 ) {
+                writing.countDown();
+                release.await( 10, TimeUnit.SECONDS );
+            }
+            return null;
+        } ).when( auditLogSerialization ).recordAuditLogs( any( Collection.class ) );
+    }
+
+
+    private int written() {
+        synchronized ( batches ) {
+            return batches.stream().mapToInt( List::size ).sum();
+        }
+    }
+
+
+    /**
+     * The executor is terminated once its thread has finished its task, the thread itself exits right after
+     */
+    private static void assertWritersStopped( Set<Thread> writersBefore ) throws InterruptedException {
+        for ( Thread thread : writerThreads() ) {
+            if ( !writersBefore.contains( thread ) ) {
+                thread.join( 10000 );
+            }
+        }
+        Assert.assertTrue( "Writer stopped", writersBefore.containsAll( writerThreads() ) );
+    }
+
+
+    private static Set<Thread> writerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter( thread -> thread.getName().startsWith( "qakka-auditlog-writer" ) && thread.isAlive() )
+            .collect( Collectors.toSet() );
+    }
+}
@@ -31,6 +31,8 @@ import org.junit.Test;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
@@ -107,6 +109,36 @@ public class DatabaseQueueMessageSerializationTest extends AbstractTest {
     }
 
 
+    @Test
+    public void leaseMessage(){
+
+        QueueMessageSerialization queueMessageSerialization =
+            getInjector().getInstance( QueueMessageSerialization.class );
+
+        String queueName = "dqmst_queue_" + RandomStringUtils.randomAlphanumeric( 20 );
+
+        DatabaseQueueMessage message = new DatabaseQueueMessage(
+                QakkaUtils.getTimeUuid(),
+                DatabaseQueueMessage.Type.DEFAULT,
+                queueName,
+                "dummy_region",
+                1L,
+                System.currentTimeMillis(),
+                null,
+                QakkaUtils.getTimeUuid() );
+
+        Collection<DatabaseQueueMessage> leased = queueMessageSerialization.leaseMessages(
+            Collections.singletonList( message ), "owner1", 30 );
+        assertEquals( 1, leased.size() );
+
+        // another owner may not lease the message while the first lease holds
+
+        leased = queueMessageSerialization.leaseMessages(
+            Collections.singletonList( message ), "owner2", 30 );
+        assertEquals( 0, leased.size() );
+    }
+
+
     @Test
     public void loadNullMessage(){
 
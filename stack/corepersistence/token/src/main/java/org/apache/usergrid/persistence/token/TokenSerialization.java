@@ -17,11 +17,18 @@
 package org.apache.usergrid.persistence.token;
 
 
+import org.apache.usergrid.persistence.core.migration.data.VersionedData;
 import org.apache.usergrid.persistence.core.migration.schema.Migration;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -33,7 +40,28 @@ import java.util.UUID;
  *     org.apache.usergrid.security.tokens.cassandra.TokenServiceImpl
  *
  */
-public interface TokenSerialization extends Migration {
+public interface TokenSerialization extends Migration, VersionedData {
+
+    String TOKEN_UUID = "uuid";
+    String TOKEN_TYPE = "type";
+    String TOKEN_CREATED = "created";
+    String TOKEN_ACCESSED = "accessed";
+    String TOKEN_INACTIVE = "inactive";
+    String TOKEN_DURATION = "duration";
+    String TOKEN_PRINCIPAL_TYPE = "principal";
+    String TOKEN_ENTITY = "entity";
+    String TOKEN_APPLICATION = "application";
+    String TOKEN_STATE = "state";
+    String TOKEN_WORKFLOW_ORG_ID = "workflowOrgId";
+    String TOKEN_TYPE_ACCESS = "access";
+
+    Set<String> TOKEN_PROPERTIES = Collections.unmodifiableSet( new HashSet<>( Arrays.asList(
+        TOKEN_UUID, TOKEN_TYPE, TOKEN_CREATED, TOKEN_ACCESSED, TOKEN_INACTIVE, TOKEN_PRINCIPAL_TYPE, TOKEN_ENTITY,
+        TOKEN_APPLICATION, TOKEN_STATE, TOKEN_DURATION, TOKEN_WORKFLOW_ORG_ID ) ) );
+
+    Set<String> REQUIRED_TOKEN_PROPERTIES = Collections.unmodifiableSet( new HashSet<>( Arrays.asList(
+        TOKEN_UUID, TOKEN_TYPE, TOKEN_CREATED, TOKEN_ACCESSED, TOKEN_INACTIVE, TOKEN_DURATION ) ) );
+
 
     void deleteTokens(List<UUID> tokenUUIDs, ByteBuffer principalKeyBuffer);
 
@@ -41,10 +69,26 @@ public interface TokenSerialization extends Migration {
 
     void updateTokenAccessTime(UUID tokenUUID, long accessedTime, long inactiveTime, int ttl );
 
+    /**
+     * Update the access time without waiting for the write
+     */
+    ListenableFuture<Void> updateTokenAccessTimeAsync(UUID tokenUUID, long accessedTime, long inactiveTime, int ttl );
+
     Map<String, Object> getTokenInfo(UUID tokenUUID);
 
+    /**
+     * Read the token without blocking the caller, the map is empty if the token does not exist
+     */
+    ListenableFuture<Map<String, Object>> getTokenInfoAsync(UUID tokenUUID);
+
     void putTokenInfo(UUID tokenUUID, Map<String, Object> tokenInfo, ByteBuffer principalKeyBuffer, int ttl);
 
+    /**
+     * Write the token without waiting for the write
+     */
+    ListenableFuture<Void> putTokenInfoAsync(UUID tokenUUID, Map<String, Object> tokenInfo,
+                                             ByteBuffer principalKeyBuffer, int ttl);
+
     List<UUID> getTokensForPrincipal(ByteBuffer principalKeyBuffer);
 
 }
@@ -18,11 +18,24 @@
 package org.apache.usergrid.persistence.token.guice;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.Key;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
+import org.apache.usergrid.persistence.core.migration.data.DataMigration;
+import org.apache.usergrid.persistence.core.migration.data.MigrationPlugin;
+import org.apache.usergrid.persistence.core.migration.data.MigrationRelationship;
+import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
 import org.apache.usergrid.persistence.core.migration.schema.Migration;
 import org.apache.usergrid.persistence.token.TokenSerialization;
-import org.apache.usergrid.persistence.token.impl.TokenSerializationImpl;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationProxyImpl;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV1Impl;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV2Impl;
+import org.apache.usergrid.persistence.token.impl.migration.TokenDataMigrationImpl;
+import org.apache.usergrid.persistence.token.impl.migration.TokenMigration;
+import org.apache.usergrid.persistence.token.impl.migration.TokenMigrationPlugin;
 
 
 /**
@@ -33,11 +46,41 @@ public class TokenModule extends AbstractModule {
     @Override
     protected void configure() {
 
-        bind( TokenSerialization.class ).to( TokenSerializationImpl.class );
+        bind( TokenSerializationV1Impl.class );
+        bind( TokenSerializationV2Impl.class );
+        bind( TokenSerialization.class ).to( TokenSerializationProxyImpl.class );
 
         Multibinder<Migration> migrationBinding = Multibinder.newSetBinder( binder(), Migration.class );
-        migrationBinding.addBinding().to(  Key.get( TokenSerialization.class ) );
+        migrationBinding.addBinding().to( Key.get( TokenSerializationV1Impl.class ) );
+        migrationBinding.addBinding().to( Key.get( TokenSerializationV2Impl.class ) );
 
+        //migrate the tokens to the single row format
+        Multibinder<DataMigration> dataMigrationMultibinder =
+                Multibinder.newSetBinder( binder(), new TypeLiteral<DataMigration>() {}, TokenMigration.class );
+
+        dataMigrationMultibinder.addBinding().to( TokenDataMigrationImpl.class );
+
+        Multibinder.newSetBinder( binder(), MigrationPlugin.class ).addBinding().to( TokenMigrationPlugin.class );
+
+    }
+
+
+    /**
+     * Configure via explicit declaration the migration path we can follow
+     */
+    @Singleton
+    @Inject
+    @Provides
+    public VersionedMigrationSet<TokenSerialization> getVersions( final TokenSerializationV1Impl v1,
+                                                                  final TokenSerializationV2Impl v2 ) {
+
+        //migrate from v1 to v2
+        MigrationRelationship<TokenSerialization> v1Tov2 = new MigrationRelationship<>( v1, v2 );
+
+        //keep our current tuple, v2, v2
+        MigrationRelationship<TokenSerialization> current = new MigrationRelationship<>( v2, v2 );
+
+        return new VersionedMigrationSet<>( v1Tov2, current );
     }
 }
 
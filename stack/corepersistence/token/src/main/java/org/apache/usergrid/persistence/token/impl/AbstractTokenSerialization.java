@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.token.impl;
+
+import com.datastax.driver.core.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.usergrid.persistence.core.CassandraConfig;
+import org.apache.usergrid.persistence.core.datastax.CQLUtils;
+import org.apache.usergrid.persistence.core.datastax.TableDefinition;
+import org.apache.usergrid.persistence.core.datastax.impl.TableDefinitionImpl;
+import org.apache.usergrid.persistence.token.TokenSerialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * The parts of token serialization every version shares: the principal index of tokens, the serialization of the
+ * token properties, and the synchronous methods that wait on the asynchronous ones.
+ */
+public abstract class AbstractTokenSerialization implements TokenSerialization {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractTokenSerialization.class);
+
+    private static final ObjectMapper smileMapper = new ObjectMapper( new SmileFactory() );
+
+    protected static final String PRINCIPAL_TOKENS_TABLE = CQLUtils.quote("PrincipalTokens");
+    private static final Collection<String> PRINCIPAL_TOKENS_PARTITION_KEYS = Collections.singletonList("key");
+    private static final Collection<String> PRINCIPAL_TOKENS_COLUMN_KEYS = Collections.singletonList("column1");
+    private static final Map<String, DataType.Name> PRINCIPAL_TOKENS_COLUMNS =
+        new HashMap<String, DataType.Name>() {{
+            put( "key", DataType.Name.BLOB );
+            put( "column1", DataType.Name.UUID );
+            put( "value", DataType.Name.BLOB ); }};
+    private static final Map<String, String> PRINCIPAL_TOKENS_CLUSTERING_ORDER =
+        new HashMap<String, String>(){{ put( "column1", "ASC" ); }};
+
+    private static final String INSERT_PRINCIPAL_TOKEN =
+        "INSERT INTO " + PRINCIPAL_TOKENS_TABLE + " (key, column1, value) VALUES (?, ?, ?) USING TTL ?";
+    private static final String DELETE_PRINCIPAL_TOKEN =
+        "DELETE FROM " + PRINCIPAL_TOKENS_TABLE + " WHERE key = ? AND column1 = ?";
+    private static final String DELETE_PRINCIPAL = "DELETE FROM " + PRINCIPAL_TOKENS_TABLE + " WHERE key = ?";
+    private static final String SELECT_PRINCIPAL_TOKENS =
+        "SELECT column1 FROM " + PRINCIPAL_TOKENS_TABLE + " WHERE key = ?";
+
+    private static final ByteBuffer PRINCIPAL_TOKEN_VALUE = ByteBuffer.wrap( new byte[] { 0 } );
+
+
+    protected final Session session;
+    protected final CassandraConfig cassandraConfig;
+
+    private final ConcurrentMap<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+
+    protected AbstractTokenSerialization( final Session session, final CassandraConfig cassandraConfig ) {
+        this.session = session;
+        this.cassandraConfig = cassandraConfig;
+    }
+
+
+    @Override
+    public void updateTokenAccessTime( UUID tokenUUID, long accessedTime, long inactiveTime, int ttl ) {
+        await( updateTokenAccessTimeAsync( tokenUUID, accessedTime, inactiveTime, ttl ) );
+    }
+
+
+    @Override
+    public Map<String, Object> getTokenInfo( UUID tokenUUID ) {
+        return await( getTokenInfoAsync( tokenUUID ) );
+    }
+
+
+    @Override
+    public void putTokenInfo( final UUID tokenUUID, final Map<String, Object> tokenInfo,
+                              final ByteBuffer principalKeyBuffer, final int ttl ) {
+        await( putTokenInfoAsync( tokenUUID, tokenInfo, principalKeyBuffer, ttl ) );
+    }
+
+
+    @Override
+    public List<UUID> getTokensForPrincipal( ByteBuffer principalKeyBuffer ) {
+
+        Preconditions.checkNotNull(principalKeyBuffer, "principal key bytebuffer cannot be null");
+
+        final BoundStatement statement = prepare( SELECT_PRINCIPAL_TOKENS ).bind();
+        statement.setBytesUnsafe( 0, principalKeyBuffer );
+        statement.setConsistencyLevel( cassandraConfig.getDataStaxReadCl() );
+
+        final List<Row> rows = session.execute(statement).all();
+        final List<UUID> tokenUUIDs = new ArrayList<>(rows.size());
+
+        rows.forEach(row -> tokenUUIDs.add(row.getUUID("column1")));
+
+        logger.trace("getTokensForPrincipal, token UUIDs: {}", tokenUUIDs);
+
+        return tokenUUIDs;
+    }
+
+
+    /**
+     * Add the token to the tokens of the principal
+     */
+    protected Statement insertPrincipalToken( final ByteBuffer principalKeyBuffer, final UUID tokenUUID,
+                                              final int ttl ) {
+
+        final BoundStatement statement = prepare( INSERT_PRINCIPAL_TOKEN ).bind();
+        statement.setBytesUnsafe( 0, principalKeyBuffer );
+        statement.setBytesUnsafe( 1, serializeKey( tokenUUID ) );
+        statement.setBytesUnsafe( 2, PRINCIPAL_TOKEN_VALUE );
+        statement.setInt( 3, ttl );
+
+        return write( statement );
+    }
+
+
+    /**
+     * Remove the token from the tokens of the principal
+     */
+    protected Statement deletePrincipalToken( final ByteBuffer principalKeyBuffer, final UUID tokenUUID ) {
+
+        final BoundStatement statement = prepare( DELETE_PRINCIPAL_TOKEN ).bind();
+        statement.setBytesUnsafe( 0, principalKeyBuffer );
+        statement.setBytesUnsafe( 1, serializeKey( tokenUUID ) );
+
+        return write( statement );
+    }
+
+
+    /**
+     * Remove every token of the principal
+     */
+    protected Statement deletePrincipal( final ByteBuffer principalKeyBuffer ) {
+
+        final BoundStatement statement = prepare( DELETE_PRINCIPAL ).bind();
+        statement.setBytesUnsafe( 0, principalKeyBuffer );
+
+        return write( statement );
+    }
+
+
+    /**
+     * Writes of tokens set the same values when they are retried, so the driver may retry them
+     */
+    protected Statement write( final Statement statement ) {
+        statement.setConsistencyLevel( cassandraConfig.getDataStaxWriteCl() );
+        statement.setIdempotent( true );
+        return statement;
+    }
+
+
+    /**
+     * Prepare the statement once, the statements are cached for the life of the session
+     */
+    protected PreparedStatement prepare( final String cql ) {
+
+        PreparedStatement statement = statements.get( cql );
+
+        if ( statement == null ) {
+            if ( logger.isDebugEnabled() ) {
+                logger.debug( "Preparing {}", cql );
+            }
+
+            statement = session.prepare( cql );
+
+            final PreparedStatement existing = statements.putIfAbsent( cql, statement );
+
+            if ( existing != null ) {
+                statement = existing;
+            }
+        }
+
+        return statement;
+    }
+
+
+    protected TableDefinition getPrincipalTokensTable() {
+
+        return new TableDefinitionImpl(
+            cassandraConfig.getApplicationKeyspace(),
+            PRINCIPAL_TOKENS_TABLE,
+            PRINCIPAL_TOKENS_PARTITION_KEYS,
+            PRINCIPAL_TOKENS_COLUMN_KEYS,
+            PRINCIPAL_TOKENS_COLUMNS,
+            TableDefinitionImpl.CacheOption.KEYS,
+            PRINCIPAL_TOKENS_CLUSTERING_ORDER);
+    }
+
+
+    protected static ByteBuffer serializeKey( final UUID tokenUUID ) {
+        return DataType.uuid().serialize( tokenUUID, ProtocolVersion.NEWEST_SUPPORTED );
+    }
+
+
+    protected static ByteBuffer serializeName( final String name ) {
+        return DataType.serializeValue( name, ProtocolVersion.NEWEST_SUPPORTED );
+    }
+
+
+    protected static String deserializeName( final ByteBuffer name ) {
+        return ( String ) DataType.text().deserialize( name, ProtocolVersion.NEWEST_SUPPORTED );
+    }
+
+
+    /**
+     * Serialize the value of a token property, the state is a map serialized with smile
+     */
+    protected static ByteBuffer serializeValue( final String name, final Object value ) {
+
+        if ( name.equalsIgnoreCase( TOKEN_STATE ) ) {
+            return toByteBuffer( value );
+        }
+
+        return DataType.serializeValue( value, ProtocolVersion.NEWEST_SUPPORTED );
+    }
+
+
+    /**
+     * @return The value of a token property, or null if the property is not known
+     */
+    protected static Object deserializeValue( final String name, final ByteBuffer bb ) {
+
+        switch (name) {
+            case TOKEN_TYPE:
+            case TOKEN_PRINCIPAL_TYPE:
+                return DataType.text().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
+            case TOKEN_CREATED:
+            case TOKEN_ACCESSED:
+            case TOKEN_INACTIVE:
+            case TOKEN_DURATION:
+                return DataType.bigint().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
+            case TOKEN_ENTITY:
+            case TOKEN_APPLICATION:
+            case TOKEN_WORKFLOW_ORG_ID:
+            case TOKEN_UUID:
+                return DataType.uuid().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
+            case TOKEN_STATE:
+                return fromByteBuffer(bb, Object.class);
+        }
+
+        return null;
+    }
+
+
+    protected static ByteBuffer toByteBuffer( Object obj ) {
+        if ( obj == null ) {
+            return null;
+        }
+
+        byte[] bytes = null;
+        try {
+            bytes = smileMapper.writeValueAsBytes( obj );
+        }
+        catch ( Exception e ) {
+            logger.error( "Error getting SMILE bytes", e );
+        }
+        if ( bytes != null ) {
+            return ByteBuffer.wrap( bytes );
+        }
+        return null;
+    }
+
+
+    protected static <T> T fromByteBuffer( ByteBuffer byteBuffer, Class<T> clazz ) {
+        if ( ( byteBuffer == null ) || !byteBuffer.hasRemaining() ) {
+            return null;
+        }
+
+        T obj = null;
+        try {
+            obj = smileMapper.readValue( byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+                byteBuffer.remaining(), clazz );
+        }
+        catch ( Exception e ) {
+            logger.error( "Error parsing SMILE bytes", e );
+        }
+        return obj;
+    }
+
+
+    /**
+     * @return A future that completes when all the futures complete, or fails with the first failure
+     */
+    protected static ListenableFuture<Void> whenAll( final List<? extends ListenableFuture<?>> futures ) {
+        return Futures.transform( Futures.<Object>allAsList( futures ), ( Function<List<Object>, Void> ) results -> null );
+    }
+
+
+    /**
+     * Wait for the future, failures are thrown the way a synchronous execute throws them
+     */
+    public static <T> T await( final ListenableFuture<T> future ) {
+        try {
+            return Uninterruptibles.getUninterruptibly( future );
+        }
+        catch ( ExecutionException e ) {
+            Throwables.propagateIfPossible( e.getCause() );
+            throw new RuntimeException( e.getCause() );
+        }
+    }
+}
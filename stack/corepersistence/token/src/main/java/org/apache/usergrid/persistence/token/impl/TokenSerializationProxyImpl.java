@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.token.impl;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.usergrid.persistence.core.astyanax.MultiTenantColumnFamilyDefinition;
+import org.apache.usergrid.persistence.core.datastax.TableDefinition;
+import org.apache.usergrid.persistence.core.migration.data.MigrationInfoCache;
+import org.apache.usergrid.persistence.core.migration.data.MigrationRelationship;
+import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
+import org.apache.usergrid.persistence.token.TokenSerialization;
+import org.apache.usergrid.persistence.token.impl.migration.TokenMigrationPlugin;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+
+@Singleton
+public class TokenSerializationProxyImpl implements TokenSerialization {
+
+    private final VersionedMigrationSet<TokenSerialization> versions;
+    private final MigrationInfoCache migrationInfoCache;
+
+
+    /**
+     * Handles routing data to the right implementation, based on the current system migration version
+     */
+    @Inject
+    public TokenSerializationProxyImpl( final VersionedMigrationSet<TokenSerialization> versions,
+                                        final MigrationInfoCache migrationInfoCache ) {
+        this.versions = versions;
+        this.migrationInfoCache = migrationInfoCache;
+    }
+
+
+    @Override
+    public void deleteTokens( final List<UUID> tokenUUIDs, final ByteBuffer principalKeyBuffer ) {
+
+        final MigrationRelationship<TokenSerialization> migration = getMigrationRelationShip();
+
+        if ( migration.needsMigration() ) {
+            migration.from.deleteTokens( tokenUUIDs, principalKeyBuffer );
+        }
+
+        migration.to.deleteTokens( tokenUUIDs, principalKeyBuffer );
+    }
+
+
+    @Override
+    public void revokeToken( final UUID tokenUUID, final ByteBuffer principalKeyBuffer ) {
+
+        final MigrationRelationship<TokenSerialization> migration = getMigrationRelationShip();
+
+        if ( migration.needsMigration() ) {
+            migration.from.revokeToken( tokenUUID, principalKeyBuffer );
+        }
+
+        migration.to.revokeToken( tokenUUID, principalKeyBuffer );
+    }
+
+
+    @Override
+    public void updateTokenAccessTime( final UUID tokenUUID, final long accessedTime, final long inactiveTime,
+                                       final int ttl ) {
+        AbstractTokenSerialization.await( updateTokenAccessTimeAsync( tokenUUID, accessedTime, inactiveTime, ttl ) );
+    }
+
+
+    @Override
+    public ListenableFuture<Void> updateTokenAccessTimeAsync( final UUID tokenUUID, final long accessedTime,
+                                                              final long inactiveTime, final int ttl ) {
+
+        final MigrationRelationship<TokenSerialization> migration = getMigrationRelationShip();
+
+        if ( migration.needsMigration() ) {
+            return AbstractTokenSerialization.whenAll( Arrays.asList(
+                migration.from.updateTokenAccessTimeAsync( tokenUUID, accessedTime, inactiveTime, ttl ),
+                migration.to.updateTokenAccessTimeAsync( tokenUUID, accessedTime, inactiveTime, ttl ) ) );
+        }
+
+        return migration.to.updateTokenAccessTimeAsync( tokenUUID, accessedTime, inactiveTime, ttl );
+    }
+
+
+    @Override
+    public Map<String, Object> getTokenInfo( final UUID tokenUUID ) {
+        return AbstractTokenSerialization.await( getTokenInfoAsync( tokenUUID ) );
+    }
+
+
+    @Override
+    public ListenableFuture<Map<String, Object>> getTokenInfoAsync( final UUID tokenUUID ) {
+
+        final MigrationRelationship<TokenSerialization> migration = getMigrationRelationShip();
+
+        if ( migration.needsMigration() ) {
+            return migration.from.getTokenInfoAsync( tokenUUID );
+        }
+
+        return migration.to.getTokenInfoAsync( tokenUUID );
+    }
+
+
+    @Override
+    public void putTokenInfo( final UUID tokenUUID, final Map<String, Object> tokenInfo,
+                              final ByteBuffer principalKeyBuffer, final int ttl ) {
+        AbstractTokenSerialization.await( putTokenInfoAsync( tokenUUID, tokenInfo, principalKeyBuffer, ttl ) );
+    }
+
+
+    @Override
+    public ListenableFuture<Void> putTokenInfoAsync( final UUID tokenUUID, final Map<String, Object> tokenInfo,
+                                                     final ByteBuffer principalKeyBuffer, final int ttl ) {
+
+        final MigrationRelationship<TokenSerialization> migration = getMigrationRelationShip();
+
+        if ( migration.needsMigration() ) {
+            return AbstractTokenSerialization.whenAll( Arrays.asList(
+                migration.from.putTokenInfoAsync( tokenUUID, tokenInfo, principalKeyBuffer, ttl ),
+                migration.to.putTokenInfoAsync( tokenUUID, tokenInfo, principalKeyBuffer, ttl ) ) );
+        }
+
+        return migration.to.putTokenInfoAsync( tokenUUID, tokenInfo, principalKeyBuffer, ttl );
+    }
+
+
+    @Override
+    public List<UUID> getTokensForPrincipal( final ByteBuffer principalKeyBuffer ) {
+
+        // every version shares the principal index
+        return getMigrationRelationShip().to.getTokensForPrincipal( principalKeyBuffer );
+    }
+
+
+    @Override
+    public Collection<MultiTenantColumnFamilyDefinition> getColumnFamilies() {
+        return Collections.emptyList();
+    }
+
+
+    @Override
+    public Collection<TableDefinition> getTables() {
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * Return true if we're on an old version
+     */
+    private MigrationRelationship<TokenSerialization> getMigrationRelationShip() {
+        return this.versions.getMigrationRelationship(
+                migrationInfoCache.getVersion( TokenMigrationPlugin.PLUGIN_NAME ) );
+    }
+
+
+    @Override
+    public int getImplementationVersion() {
+        throw new UnsupportedOperationException( "Proxies do not have an implementation version" );
+    }
+}
@@ -18,9 +18,9 @@ package org.apache.usergrid.persistence.token.impl;
 
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.querybuilder.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.apache.usergrid.persistence.core.CassandraConfig;
@@ -28,67 +28,21 @@ import org.apache.usergrid.persistence.core.astyanax.*;
 import org.apache.usergrid.persistence.core.datastax.CQLUtils;
 import org.apache.usergrid.persistence.core.datastax.TableDefinition;
 import org.apache.usergrid.persistence.core.datastax.impl.TableDefinitionImpl;
-import org.apache.usergrid.persistence.token.TokenSerialization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Observable;
 
 import java.nio.ByteBuffer;
 import java.util.*;
 
 
 /**
- * Serialize tokens and their details to Cassandra.
+ * Serialize tokens and their details to Cassandra, one column per token property.
  */
 @Singleton
-public class TokenSerializationImpl implements TokenSerialization {
-
-    public static final Logger logger = LoggerFactory.getLogger(TokenSerializationImpl.class);
-
-    private SmileFactory smile = new SmileFactory();
-
-    private ObjectMapper smileMapper = new ObjectMapper( smile );
-
-    public static final String TOKEN_UUID = "uuid";
-    public static final String TOKEN_TYPE = "type";
-    public static final String TOKEN_CREATED = "created";
-    public static final String TOKEN_ACCESSED = "accessed";
-    public static final String TOKEN_INACTIVE = "inactive";
-    public static final String TOKEN_DURATION = "duration";
-    public static final String TOKEN_PRINCIPAL_TYPE = "principal";
-    public static final String TOKEN_ENTITY = "entity";
-    public static final String TOKEN_APPLICATION = "application";
-    public static final String TOKEN_STATE = "state";
-    public static final String TOKEN_WORKFLOW_ORG_ID = "workflowOrgId";
-    public static final String TOKEN_TYPE_ACCESS = "access";
-
-    private static final Set<String> TOKEN_PROPERTIES;
-
-    static {
-        HashSet<String> set = new HashSet<String>();
-        set.add( TOKEN_UUID );
-        set.add( TOKEN_TYPE );
-        set.add( TOKEN_CREATED );
-        set.add( TOKEN_ACCESSED );
-        set.add( TOKEN_INACTIVE );
-        set.add( TOKEN_PRINCIPAL_TYPE );
-        set.add( TOKEN_ENTITY );
-        set.add( TOKEN_APPLICATION );
-        set.add( TOKEN_STATE );
-        set.add( TOKEN_DURATION );
-        set.add( TOKEN_WORKFLOW_ORG_ID );
-        TOKEN_PROPERTIES = Collections.unmodifiableSet(set);
-    }
-
-    public static final HashSet<String> REQUIRED_TOKEN_PROPERTIES = new HashSet<String>();
+public class TokenSerializationV1Impl extends AbstractTokenSerialization {
 
-    static {
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_UUID );
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_TYPE );
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_CREATED );
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_ACCESSED );
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_INACTIVE );
-        REQUIRED_TOKEN_PROPERTIES.add( TOKEN_DURATION );
-    }
+    public static final Logger logger = LoggerFactory.getLogger(TokenSerializationV1Impl.class);
 
     private static final String TOKENS_TABLE = CQLUtils.quote("Tokens");
     private static final Collection<String> TOKENS_PARTITION_KEYS = Collections.singletonList("key");
@@ -101,28 +55,16 @@ public class TokenSerializationImpl implements TokenSerialization {
     private static final Map<String, String> TOKENS_CLUSTERING_ORDER =
         new HashMap<String, String>(){{ put( "column1", "ASC" ); }};
 
-    private static final String PRINCIPAL_TOKENS_TABLE = CQLUtils.quote("PrincipalTokens");
-    private static final Collection<String> PRINCIPAL_TOKENS_PARTITION_KEYS = Collections.singletonList("key");
-    private static final Collection<String> PRINCIPAL_TOKENS_COLUMN_KEYS = Collections.singletonList("column1");
-    private static final Map<String, DataType.Name> PRINCIPAL_TOKENS_COLUMNS =
-        new HashMap<String, DataType.Name>() {{
-            put( "key", DataType.Name.BLOB );
-            put( "column1", DataType.Name.UUID );
-            put( "value", DataType.Name.BLOB ); }};
-    private static final Map<String, String> PRINCIPAL_TOKENS_CLUSTERING_ORDER =
-        new HashMap<String, String>(){{ put( "column1", "ASC" ); }};
-
+    private static final String SELECT_TOKEN_KEYS = "SELECT DISTINCT key FROM " + TOKENS_TABLE;
+    private static final String SELECT_TOKEN_TTL = "SELECT TTL(value) FROM " + TOKENS_TABLE + " WHERE key = ?";
 
-    private final Session session;
-    private final CassandraConfig cassandraConfig;
+    private static final int KEY_FETCH_SIZE = 1000;
 
 
     @Inject
-    public TokenSerializationImpl(final Session session,
-                                  final CassandraConfig cassandraConfig ) {
-        this.session = session;
-        this.cassandraConfig = cassandraConfig;
-
+    public TokenSerializationV1Impl( final Session session,
+                                     final CassandraConfig cassandraConfig ) {
+        super( session, cassandraConfig );
     }
 
 
@@ -189,7 +131,8 @@ public class TokenSerializationImpl implements TokenSerialization {
 
 
     @Override
-    public void updateTokenAccessTime(UUID tokenUUID, long accessedTime, long inactiveTime, int ttl ){
+    public ListenableFuture<Void> updateTokenAccessTimeAsync(UUID tokenUUID, long accessedTime, long inactiveTime,
+                                                             int ttl ){
 
         Preconditions.checkNotNull(tokenUUID, "token UUID is required");
         Preconditions.checkArgument(accessedTime > -1 , "accessedTime is required to be positive");
@@ -232,13 +175,13 @@ public class TokenSerializationImpl implements TokenSerialization {
             .using(usingTTL)
         );
 
-        session.execute(batchStatement);
+        return whenAll( Collections.singletonList( session.executeAsync(batchStatement) ) );
 
     }
 
 
     @Override
-    public Map<String, Object> getTokenInfo(UUID tokenUUID){
+    public ListenableFuture<Map<String, Object>> getTokenInfoAsync(UUID tokenUUID){
 
         Preconditions.checkNotNull(tokenUUID, "token UUID is required");
 
@@ -256,7 +199,12 @@ public class TokenSerializationImpl implements TokenSerialization {
             .and(inColumn)
             .setConsistencyLevel(cassandraConfig.getDataStaxReadCl());
 
-        final ResultSet resultSet = session.execute(statement);
+        return Futures.transform( session.executeAsync(statement), TokenSerializationV1Impl::toTokenInfo );
+    }
+
+
+    private static Map<String, Object> toTokenInfo( final ResultSet resultSet ) {
+
         final List<Row> rows = resultSet.all();
 
         Map<String, Object> tokenInfo = new HashMap<>();
@@ -265,7 +213,7 @@ public class TokenSerializationImpl implements TokenSerialization {
 
             final String name = (String)DataType.text()
                 .deserialize(row.getBytes("column1"), ProtocolVersion.NEWEST_SUPPORTED);
-            final Object value = deserializeColumnValue(name, row.getBytes("value"));
+            final Object value = deserializeValue(name, row.getBytes("value"));
 
             if (value == null){
                 throw new RuntimeException("error deserializing token info for property: "+name);
@@ -282,8 +230,8 @@ public class TokenSerializationImpl implements TokenSerialization {
 
 
     @Override
-    public void putTokenInfo(final UUID tokenUUID, final Map<String, Object> tokenInfo,
-                             final ByteBuffer principalKeyBuffer, final int ttl){
+    public ListenableFuture<Void> putTokenInfoAsync(final UUID tokenUUID, final Map<String, Object> tokenInfo,
+                                                    final ByteBuffer principalKeyBuffer, final int ttl){
 
         Preconditions.checkNotNull(tokenUUID, "tokenUUID is required");
         Preconditions.checkNotNull(tokenUUID, "tokenInfo is required");
@@ -296,12 +244,7 @@ public class TokenSerializationImpl implements TokenSerialization {
 
         tokenInfo.forEach((key, value) -> {
 
-            ByteBuffer valueBuffer;
-            if(key.equalsIgnoreCase(TOKEN_STATE)){
-                valueBuffer = toByteBuffer(value);
-            }else{
-                valueBuffer = DataType.serializeValue(value, ProtocolVersion.NEWEST_SUPPORTED);
-            }
+            final ByteBuffer valueBuffer = serializeValue(key, value);
 
             batchStatement.add(
                 QueryBuilder.insertInto(TOKENS_TABLE)
@@ -323,95 +266,77 @@ public class TokenSerializationImpl implements TokenSerialization {
 
         }
 
-        session.execute(batchStatement);
+        return whenAll( Collections.singletonList( session.executeAsync(batchStatement) ) );
 
     }
 
 
-    @Override
-    public List<UUID> getTokensForPrincipal(ByteBuffer principalKeyBuffer){
+    /**
+     * Emit the keys of every token, for the migration of the tokens to the next version
+     */
+    public Observable<UUID> getTokenUUIDs() {
 
-        Preconditions.checkNotNull(principalKeyBuffer, "principal key bytebuffer cannot be null");
+        return Observable.create( subscriber -> {
+            try {
+                final Statement statement = new SimpleStatement( SELECT_TOKEN_KEYS )
+                    .setFetchSize( KEY_FETCH_SIZE )
+                    .setConsistencyLevel( cassandraConfig.getDataStaxReadCl() );
 
-        Clause inPrincipal = QueryBuilder.eq("key", principalKeyBuffer);
-        Statement statement = QueryBuilder
-            .select()
-            .column("column1")
-            .from(PRINCIPAL_TOKENS_TABLE)
-            .where(inPrincipal);
+                // the driver fetches the next page as the rows are iterated
+                for ( Row row : session.execute( statement ) ) {
+                    if ( subscriber.isUnsubscribed() ) {
+                        return;
+                    }
+                    subscriber.onNext( ( UUID ) DataType.uuid()
+                        .deserialize( row.getBytes( "key" ), ProtocolVersion.NEWEST_SUPPORTED ) );
+                }
 
-        final List<Row> rows = session.execute(statement).all();
-        final List<UUID> tokenUUIDs = new ArrayList<>(rows.size());
+                subscriber.onCompleted();
+            }
+            catch ( Throwable t ) {
+                subscriber.onError( t );
+            }
+        } );
+    }
 
-        rows.forEach(row -> tokenUUIDs.add(row.getUUID("column1")));
 
-        logger.trace("getTokensForPrincipal, token UUIDs: {}", tokenUUIDs);
+    /**
+     * Get the time to live of the token, the shortest time to live of its columns since the token is no longer
+     * valid once any of them expires
+     *
+     * @return The ttl in seconds, 0 if the token does not expire, or -1 if it does not exist
+     */
+    public ListenableFuture<Integer> getTokenTtlAsync( final UUID tokenUUID ) {
 
-        return tokenUUIDs;
+        final BoundStatement statement = prepare( SELECT_TOKEN_TTL ).bind();
+        statement.setBytesUnsafe( 0, serializeKey( tokenUUID ) );
+        statement.setConsistencyLevel( cassandraConfig.getDataStaxReadCl() );
+
+        return Futures.transform( session.executeAsync( statement ), TokenSerializationV1Impl::toTtl );
     }
 
 
-    private Object deserializeColumnValue(final String name, final ByteBuffer bb){
-
-
-        switch (name) {
-            case TOKEN_TYPE:
-            case TOKEN_PRINCIPAL_TYPE:
-                return DataType.text().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
-            case TOKEN_CREATED:
-            case TOKEN_ACCESSED:
-            case TOKEN_INACTIVE:
-            case TOKEN_DURATION:
-                return DataType.bigint().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
-            case TOKEN_ENTITY:
-            case TOKEN_APPLICATION:
-            case TOKEN_WORKFLOW_ORG_ID:
-            case TOKEN_UUID:
-                return DataType.uuid().deserialize(bb, ProtocolVersion.NEWEST_SUPPORTED);
-            case TOKEN_STATE:
-                return fromByteBuffer(bb, Object.class);
-        }
+    private static Integer toTtl( final ResultSet resultSet ) {
 
-        return null;
-    }
+        int ttl = -1;
 
-
-    private ByteBuffer toByteBuffer( Object obj ) {
-        if ( obj == null ) {
-            return null;
+        for ( Row row : resultSet ) {
+            if ( row.isNull( 0 ) ) {
+                ttl = Math.max( ttl, 0 );
+            }
+            else {
+                final int columnTtl = row.getInt( 0 );
+                ttl = ttl <= 0 ? columnTtl : Math.min( ttl, columnTtl );
+            }
         }
 
-        byte[] bytes = null;
-        try {
-            bytes = smileMapper.writeValueAsBytes( obj );
-        }
-        catch ( Exception e ) {
-            logger.error( "Error getting SMILE bytes", e );
-        }
-        if ( bytes != null ) {
-            return ByteBuffer.wrap( bytes );
-        }
-        return null;
+        return ttl;
     }
 
 
-    private Object fromByteBuffer( ByteBuffer byteBuffer, Class<?> clazz ) {
-        if ( ( byteBuffer == null ) || !byteBuffer.hasRemaining() ) {
-            return null;
-        }
-        if ( clazz == null ) {
-            clazz = Object.class;
-        }
-
-        Object obj = null;
-        try {
-            obj = smileMapper.readValue( byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
-                byteBuffer.remaining(), clazz );
-        }
-        catch ( Exception e ) {
-            logger.error( "Error parsing SMILE bytes", e );
-        }
-        return obj;
+    @Override
+    public int getImplementationVersion() {
+        return TokenDataVersions.INITIAL.getVersion();
     }
 
 
@@ -435,17 +360,7 @@ public class TokenSerializationImpl implements TokenSerialization {
                 TableDefinitionImpl.CacheOption.KEYS,
                 TOKENS_CLUSTERING_ORDER);
 
-        final TableDefinition principalTokens =
-            new TableDefinitionImpl(
-                cassandraConfig.getApplicationKeyspace(),
-                PRINCIPAL_TOKENS_TABLE,
-                PRINCIPAL_TOKENS_PARTITION_KEYS,
-                PRINCIPAL_TOKENS_COLUMN_KEYS,
-                PRINCIPAL_TOKENS_COLUMNS,
-                TableDefinitionImpl.CacheOption.KEYS,
-                PRINCIPAL_TOKENS_CLUSTERING_ORDER);
-
-        return Arrays.asList(tokens, principalTokens);
+        return Arrays.asList(tokens, getPrincipalTokensTable());
     }
 
 }
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.token.impl;
+
+import com.datastax.driver.core.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.usergrid.persistence.core.CassandraConfig;
+import org.apache.usergrid.persistence.core.astyanax.MultiTenantColumnFamilyDefinition;
+import org.apache.usergrid.persistence.core.datastax.CQLUtils;
+import org.apache.usergrid.persistence.core.datastax.TableDefinition;
+import org.apache.usergrid.persistence.core.datastax.impl.TableDefinitionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+
+/**
+ * Serialize tokens to Cassandra with the properties that never change in a single column, so a token is read from
+ * one partition of three columns and written with one unlogged batch of prepared statements.  Only the access times
+ * are columns of their own since they are updated on every use of the token.
+ */
+@Singleton
+public class TokenSerializationV2Impl extends AbstractTokenSerialization {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenSerializationV2Impl.class);
+
+    private static final ObjectMapper smileMapper = new ObjectMapper( new SmileFactory() );
+
+    private static final TypeReference<Map<String, byte[]>> INFO_TYPE = new TypeReference<Map<String, byte[]>>() {};
+
+    private static final String TOKENS_TABLE = CQLUtils.quote("TokensV2");
+    private static final Collection<String> TOKENS_PARTITION_KEYS = Collections.singletonList("key");
+    private static final Collection<String> TOKENS_COLUMN_KEYS = Collections.singletonList("column1");
+    private static final Map<String, DataType.Name> TOKENS_COLUMNS =
+        new HashMap<String, DataType.Name>() {{
+            put( "key", DataType.Name.BLOB );
+            put( "column1", DataType.Name.BLOB );
+            put( "value", DataType.Name.BLOB ); }};
+    private static final Map<String, String> TOKENS_CLUSTERING_ORDER =
+        new HashMap<String, String>(){{ put( "column1", "ASC" ); }};
+
+    private static final String INSERT_TOKEN_COLUMN =
+        "INSERT INTO " + TOKENS_TABLE + " (key, column1, value) VALUES (?, ?, ?) USING TTL ?";
+    private static final String SELECT_TOKEN = "SELECT column1, value FROM " + TOKENS_TABLE + " WHERE key = ?";
+    private static final String DELETE_TOKEN = "DELETE FROM " + TOKENS_TABLE + " WHERE key = ?";
+
+    /**
+     * The column of the properties that never change
+     */
+    private static final String TOKEN_INFO = "info";
+    private static final ByteBuffer TOKEN_INFO_NAME = serializeName( TOKEN_INFO );
+    private static final ByteBuffer TOKEN_ACCESSED_NAME = serializeName( TOKEN_ACCESSED );
+    private static final ByteBuffer TOKEN_INACTIVE_NAME = serializeName( TOKEN_INACTIVE );
+
+
+    @Inject
+    public TokenSerializationV2Impl( final Session session,
+                                     final CassandraConfig cassandraConfig ) {
+        super( session, cassandraConfig );
+    }
+
+
+    @Override
+    public void deleteTokens(final List<UUID> tokenUUIDs, final ByteBuffer principalKeyBuffer){
+
+        Preconditions.checkNotNull(tokenUUIDs, "token UUID list is required");
+        Preconditions.checkNotNull(principalKeyBuffer, "principalKeyBuffer is required");
+
+        logger.trace("deleteTokens, token UUIDs: {}", tokenUUIDs);
+
+        // every token is its own partition, so the deletes are sent in parallel rather than in a multi partition batch
+        final List<ResultSetFuture> deletes = new ArrayList<>( tokenUUIDs.size() + 1 );
+
+        tokenUUIDs.forEach( tokenUUID -> deletes.add( session.executeAsync( deleteToken( tokenUUID ) ) ) );
+        deletes.add( session.executeAsync( deletePrincipal( principalKeyBuffer ) ) );
+
+        await( whenAll( deletes ) );
+    }
+
+
+    @Override
+    public void revokeToken(final UUID tokenUUID, final ByteBuffer principalKeyBuffer){
+
+        Preconditions.checkNotNull(tokenUUID, "token UUID is required");
+
+        logger.trace("revokeToken, token UUID: {}", tokenUUID);
+
+        final List<ResultSetFuture> deletes = new ArrayList<>( 2 );
+
+        deletes.add( session.executeAsync( deleteToken( tokenUUID ) ) );
+
+        if(principalKeyBuffer != null){
+            deletes.add( session.executeAsync( deletePrincipalToken( principalKeyBuffer, tokenUUID ) ) );
+        }
+
+        await( whenAll( deletes ) );
+    }
+
+
+    @Override
+    public ListenableFuture<Void> updateTokenAccessTimeAsync(UUID tokenUUID, long accessedTime, long inactiveTime,
+                                                             int ttl ){
+
+        Preconditions.checkNotNull(tokenUUID, "token UUID is required");
+        Preconditions.checkArgument(accessedTime > -1 , "accessedTime is required to be positive");
+        Preconditions.checkArgument(inactiveTime == Long.MIN_VALUE || inactiveTime > -1 , "inactiveTime is required to be positive");
+        Preconditions.checkArgument(ttl > -1 , "ttl is required to be positive");
+
+        logger.trace("updateTokenAccessTime, token UUID: {}, accessedTime: {}, inactiveTime: {}, ttl: {}",
+            tokenUUID, accessedTime, inactiveTime, ttl);
+
+        final ByteBuffer key = serializeKey( tokenUUID );
+        final BatchStatement batchStatement = new BatchStatement( BatchStatement.Type.UNLOGGED );
+
+        if( inactiveTime != Long.MIN_VALUE){
+            batchStatement.add( insertColumn( key, TOKEN_INACTIVE_NAME, serializeValue( TOKEN_INACTIVE, inactiveTime ),
+                ttl ) );
+        }
+
+        batchStatement.add( insertColumn( key, TOKEN_ACCESSED_NAME, serializeValue( TOKEN_ACCESSED, accessedTime ),
+            ttl ) );
+
+        return whenAll( Collections.singletonList( session.executeAsync( write( batchStatement ) ) ) );
+    }
+
+
+    @Override
+    public ListenableFuture<Map<String, Object>> getTokenInfoAsync(UUID tokenUUID){
+
+        Preconditions.checkNotNull(tokenUUID, "token UUID is required");
+
+        final BoundStatement statement = prepare( SELECT_TOKEN ).bind();
+        statement.setBytesUnsafe( 0, serializeKey( tokenUUID ) );
+        statement.setConsistencyLevel( cassandraConfig.getDataStaxReadCl() );
+
+        return Futures.transform( session.executeAsync( statement ), TokenSerializationV2Impl::toTokenInfo );
+    }
+
+
+    private static Map<String, Object> toTokenInfo( final ResultSet resultSet ) {
+
+        final Map<String, Object> tokenInfo = new HashMap<>();
+
+        for ( Row row : resultSet ) {
+
+            final String name = deserializeName( row.getBytes( "column1" ) );
+
+            if ( TOKEN_INFO.equals( name ) ) {
+                readInfo( row.getBytes( "value" ) ).forEach( ( property, bytes ) ->
+                    tokenInfo.put( property, deserialize( property, ByteBuffer.wrap( bytes ) ) ) );
+            }
+            else {
+                tokenInfo.put( name, deserialize( name, row.getBytes( "value" ) ) );
+            }
+        }
+
+        logger.trace("getTokenInfo, info: {}", tokenInfo);
+
+        return tokenInfo;
+    }
+
+
+    @Override
+    public ListenableFuture<Void> putTokenInfoAsync(final UUID tokenUUID, final Map<String, Object> tokenInfo,
+                                                    final ByteBuffer principalKeyBuffer, final int ttl){
+
+        Preconditions.checkNotNull(tokenUUID, "tokenUUID is required");
+        Preconditions.checkNotNull(tokenInfo, "tokenInfo is required");
+        Preconditions.checkArgument(ttl > -1 , "ttl is required to be positive");
+
+        logger.trace("putTokenInfo, token UUID: {}, tokenInfo: {}, ttl: {}", tokenUUID, tokenInfo, ttl);
+
+        final ByteBuffer key = serializeKey( tokenUUID );
+        final BatchStatement batchStatement = new BatchStatement( BatchStatement.Type.UNLOGGED );
+        final Map<String, byte[]> info = new HashMap<>();
+
+        tokenInfo.forEach( ( name, value ) -> {
+
+            final ByteBuffer valueBuffer = serializeValue( name, value );
+
+            if ( TOKEN_ACCESSED.equals( name ) ) {
+                batchStatement.add( insertColumn( key, TOKEN_ACCESSED_NAME, valueBuffer, ttl ) );
+            }
+            else if ( TOKEN_INACTIVE.equals( name ) ) {
+                batchStatement.add( insertColumn( key, TOKEN_INACTIVE_NAME, valueBuffer, ttl ) );
+            }
+            else if ( valueBuffer != null ) {
+                final byte[] bytes = new byte[valueBuffer.remaining()];
+                valueBuffer.duplicate().get( bytes );
+                info.put( name, bytes );
+            }
+        } );
+
+        batchStatement.add( insertColumn( key, TOKEN_INFO_NAME, toByteBuffer( info ), ttl ) );
+
+        final List<ResultSetFuture> writes = new ArrayList<>( 2 );
+
+        writes.add( session.executeAsync( write( batchStatement ) ) );
+
+        // the principal index is another partition, it is written alongside the token instead of in its batch
+        if(principalKeyBuffer != null){
+            writes.add( session.executeAsync( insertPrincipalToken( principalKeyBuffer, tokenUUID, ttl ) ) );
+        }
+
+        return whenAll( writes );
+    }
+
+
+    private Statement insertColumn( final ByteBuffer key, final ByteBuffer name, final ByteBuffer value,
+                                    final int ttl ) {
+
+        final BoundStatement statement = prepare( INSERT_TOKEN_COLUMN ).bind();
+        statement.setBytesUnsafe( 0, key );
+        statement.setBytesUnsafe( 1, name );
+        statement.setBytesUnsafe( 2, value );
+        statement.setInt( 3, ttl );
+
+        return statement;
+    }
+
+
+    private Statement deleteToken( final UUID tokenUUID ) {
+
+        final BoundStatement statement = prepare( DELETE_TOKEN ).bind();
+        statement.setBytesUnsafe( 0, serializeKey( tokenUUID ) );
+
+        return write( statement );
+    }
+
+
+    private static Map<String, byte[]> readInfo( final ByteBuffer byteBuffer ) {
+
+        try {
+            return smileMapper.readValue( byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+                byteBuffer.remaining(), INFO_TYPE );
+        }
+        catch ( Exception e ) {
+            throw new RuntimeException( "error deserializing token info", e );
+        }
+    }
+
+
+    private static Object deserialize( final String name, final ByteBuffer bb ) {
+
+        final Object value = deserializeValue( name, bb );
+
+        if ( value == null ) {
+            throw new RuntimeException( "error deserializing token info for property: " + name );
+        }
+
+        return value;
+    }
+
+
+    @Override
+    public int getImplementationVersion() {
+        return TokenDataVersions.SINGLE_ROW.getVersion();
+    }
+
+
+    @Override
+    public Collection<MultiTenantColumnFamilyDefinition> getColumnFamilies() {
+
+        return Collections.emptyList();
+    }
+
+
+    @Override
+    public Collection<TableDefinition> getTables() {
+
+        final TableDefinition tokens =
+            new TableDefinitionImpl(
+                cassandraConfig.getApplicationKeyspace(),
+                TOKENS_TABLE,
+                TOKENS_PARTITION_KEYS,
+                TOKENS_COLUMN_KEYS,
+                TOKENS_COLUMNS,
+                TableDefinitionImpl.CacheOption.KEYS,
+                TOKENS_CLUSTERING_ORDER);
+
+        // the principal index is shared with the previous version, which creates it
+        return Collections.singletonList( tokens );
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.token.impl.migration;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.core.migration.data.DataMigration;
+import org.apache.usergrid.persistence.core.migration.data.MigrationRelationship;
+import org.apache.usergrid.persistence.core.migration.data.ProgressObserver;
+import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
+import org.apache.usergrid.persistence.token.TokenSerialization;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV1Impl;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV2Impl;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+
+import static org.apache.usergrid.persistence.token.impl.AbstractTokenSerialization.await;
+
+
+/**
+ * Copies every token to the single row format with the time it has left to live.  The principal index is shared by
+ * both formats so it is not copied.
+ */
+public class TokenDataMigrationImpl implements DataMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger( TokenDataMigrationImpl.class );
+
+    private static final int BATCH_SIZE = 100;
+
+    private final TokenSerializationV1Impl tokenSerializationV1;
+    private final TokenSerializationV2Impl tokenSerializationV2;
+    private final VersionedMigrationSet<TokenSerialization> allVersions;
+
+
+    @Inject
+    public TokenDataMigrationImpl( final TokenSerializationV1Impl tokenSerializationV1,
+                                   final TokenSerializationV2Impl tokenSerializationV2,
+                                   final VersionedMigrationSet<TokenSerialization> allVersions ) {
+        this.tokenSerializationV1 = tokenSerializationV1;
+        this.tokenSerializationV2 = tokenSerializationV2;
+        this.allVersions = allVersions;
+    }
+
+
+    @Override
+    public int migrate( final int currentVersion, final ProgressObserver observer ) {
+
+        final AtomicLong counter = new AtomicLong();
+
+        final MigrationRelationship<TokenSerialization> migration =
+            allVersions.getMigrationRelationship( currentVersion );
+
+        tokenSerializationV1.getTokenUUIDs().buffer( BATCH_SIZE ).doOnNext( tokenUUIDs -> {
+
+            // read the whole batch in parallel before waiting on any of it
+            final List<ListenableFuture<Map<String, Object>>> infos = new ArrayList<>( tokenUUIDs.size() );
+            final List<ListenableFuture<Integer>> ttls = new ArrayList<>( tokenUUIDs.size() );
+
+            for ( UUID tokenUUID : tokenUUIDs ) {
+                infos.add( tokenSerializationV1.getTokenInfoAsync( tokenUUID ) );
+                ttls.add( tokenSerializationV1.getTokenTtlAsync( tokenUUID ) );
+            }
+
+            final List<ListenableFuture<Void>> writes = new ArrayList<>( tokenUUIDs.size() );
+
+            for ( int i = 0; i < tokenUUIDs.size(); i++ ) {
+                final Map<String, Object> info = await( infos.get( i ) );
+                final int ttl = await( ttls.get( i ) );
+
+                //expired since the keys were read
+                if ( info.isEmpty() || ttl < 0 ) {
+                    continue;
+                }
+
+                writes.add( migration.to.putTokenInfoAsync( tokenUUIDs.get( i ), info, null, ttl ) );
+            }
+
+            await( Futures.allAsList( writes ) );
+
+            final long newCount = counter.addAndGet( writes.size() );
+
+            logger.info( "Migrated {} tokens", newCount );
+
+            //update the observer so the admin can see it
+            observer.update( migration.to.getImplementationVersion(),
+                String.format( "Currently running.  Rewritten %d tokens", newCount ) );
+        } ).countLong().toBlocking().last();
+
+        return migration.to.getImplementationVersion();
+    }
+
+
+    @Override
+    public boolean supports( final int currentVersion ) {
+        return currentVersion < tokenSerializationV2.getImplementationVersion();
+    }
+
+
+    @Override
+    public int getMaxVersion() {
+        return tokenSerializationV2.getImplementationVersion();
+    }
+}
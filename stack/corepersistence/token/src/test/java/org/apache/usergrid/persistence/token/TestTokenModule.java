@@ -21,7 +21,6 @@ package org.apache.usergrid.persistence.token;
 
 
 import org.apache.usergrid.persistence.token.guice.TokenModule;
-import org.apache.usergrid.persistence.token.impl.TokenSerializationImpl;
 import org.apache.usergrid.persistence.core.guice.CommonModule;
 
 
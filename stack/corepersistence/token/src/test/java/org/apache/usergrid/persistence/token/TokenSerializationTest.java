@@ -21,7 +21,6 @@ package org.apache.usergrid.persistence.token;
 
 import net.jcip.annotations.NotThreadSafe;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
-import org.apache.usergrid.persistence.token.impl.TokenSerializationImpl;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -56,7 +55,7 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         ByteBuffer principalKeyBuffer = ByteBuffer.wrap("test-principal".getBytes());
 
@@ -69,7 +68,7 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         ByteBuffer principalKeyBuffer = ByteBuffer.wrap("test-principal".getBytes());
 
@@ -78,8 +77,8 @@ public class TokenSerializationTest {
         Map<String, Object> returnedDetails = tokenSerialization.getTokenInfo(uuid);
 
         assertEquals(
-            tokenDetails.get(TokenSerializationImpl.TOKEN_TYPE),
-            returnedDetails.get(TokenSerializationImpl.TOKEN_TYPE)
+            tokenDetails.get(TokenSerialization.TOKEN_TYPE),
+            returnedDetails.get(TokenSerialization.TOKEN_TYPE)
         );
     }
 
@@ -88,13 +87,13 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         long accessedTime = System.currentTimeMillis()-1000000;
         long inactiveTime = accessedTime+2000000;
 
-        tokenDetails.put(TokenSerializationImpl.TOKEN_ACCESSED, accessedTime);
-        tokenDetails.put(TokenSerializationImpl.TOKEN_INACTIVE, inactiveTime);
+        tokenDetails.put(TokenSerialization.TOKEN_ACCESSED, accessedTime);
+        tokenDetails.put(TokenSerialization.TOKEN_INACTIVE, inactiveTime);
 
         ByteBuffer principalKeyBuffer = ByteBuffer.wrap("test-principal".getBytes());
 
@@ -104,7 +103,7 @@ public class TokenSerializationTest {
 
         assertEquals(
             accessedTime,
-            returnedDetails.get(TokenSerializationImpl.TOKEN_ACCESSED)
+            returnedDetails.get(TokenSerialization.TOKEN_ACCESSED)
         );
 
         long newAccessedTime = System.currentTimeMillis();
@@ -116,7 +115,7 @@ public class TokenSerializationTest {
 
         assertEquals(
             newAccessedTime,
-            returnedDetails.get(TokenSerializationImpl.TOKEN_ACCESSED)
+            returnedDetails.get(TokenSerialization.TOKEN_ACCESSED)
         );
     }
 
@@ -125,7 +124,7 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         ByteBuffer principalKeyBuffer = ByteBuffer.wrap("test-principal".getBytes());
 
@@ -134,8 +133,8 @@ public class TokenSerializationTest {
         Map<String, Object> returnedDetails = tokenSerialization.getTokenInfo(uuid);
 
         assertEquals(
-            tokenDetails.get(TokenSerializationImpl.TOKEN_TYPE),
-            returnedDetails.get(TokenSerializationImpl.TOKEN_TYPE)
+            tokenDetails.get(TokenSerialization.TOKEN_TYPE),
+            returnedDetails.get(TokenSerialization.TOKEN_TYPE)
         );
 
         tokenSerialization.deleteTokens(Collections.singletonList(uuid), principalKeyBuffer);
@@ -153,7 +152,7 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         ByteBuffer principalKeyBuffer = ByteBuffer.wrap("test-principal".getBytes());
 
@@ -162,8 +161,8 @@ public class TokenSerializationTest {
         Map<String, Object> returnedDetails = tokenSerialization.getTokenInfo(uuid);
 
         assertEquals(
-            tokenDetails.get(TokenSerializationImpl.TOKEN_TYPE),
-            returnedDetails.get(TokenSerializationImpl.TOKEN_TYPE)
+            tokenDetails.get(TokenSerialization.TOKEN_TYPE),
+            returnedDetails.get(TokenSerialization.TOKEN_TYPE)
         );
 
         tokenSerialization.revokeToken(uuid, principalKeyBuffer);
@@ -181,7 +180,7 @@ public class TokenSerializationTest {
 
         UUID uuid = UUIDGenerator.newTimeUUID();
         Map<String, Object> tokenDetails = new HashMap<>();
-        tokenDetails.put(TokenSerializationImpl.TOKEN_TYPE, "test-token");
+        tokenDetails.put(TokenSerialization.TOKEN_TYPE, "test-token");
 
         String principal = "test-principal-"+System.currentTimeMillis();
 
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.token.impl.migration;
+
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.apache.usergrid.persistence.core.guice.DataMigrationResetRule;
+import org.apache.usergrid.persistence.core.guice.MigrationManagerRule;
+import org.apache.usergrid.persistence.core.migration.data.DataMigrationManager;
+import org.apache.usergrid.persistence.core.migration.data.TestProgressObserver;
+import org.apache.usergrid.persistence.core.migration.data.VersionedMigrationSet;
+import org.apache.usergrid.persistence.core.test.ITRunner;
+import org.apache.usergrid.persistence.core.test.UseModules;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+import org.apache.usergrid.persistence.token.TestTokenModule;
+import org.apache.usergrid.persistence.token.TokenSerialization;
+import org.apache.usergrid.persistence.token.impl.TokenDataVersions;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV1Impl;
+import org.apache.usergrid.persistence.token.impl.TokenSerializationV2Impl;
+
+import com.google.inject.Inject;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+@NotThreadSafe
+@RunWith( ITRunner.class )
+@UseModules( { TestTokenModule.class } )
+public class TokenDataMigrationImplTest implements DataMigrationResetRule.DataMigrationManagerProvider {
+
+    @Inject
+    @Rule
+    public MigrationManagerRule migrationManagerRule;
+
+    @Inject
+    public DataMigrationManager dataMigrationManager;
+
+    @Inject
+    public TokenSerializationV1Impl tokenSerializationV1;
+
+    @Inject
+    public TokenSerializationV2Impl tokenSerializationV2;
+
+    @Inject
+    public VersionedMigrationSet<TokenSerialization> allVersions;
+
+
+    /**
+     * Rule to do the resets we need
+     */
+    @Rule
+    public DataMigrationResetRule migrationTestRule =
+        new DataMigrationResetRule( this, TokenMigrationPlugin.PLUGIN_NAME, TokenDataVersions.INITIAL.getVersion() );
+
+
+    @Test
+    public void migrateTokens() {
+
+        final UUID uuid = UUIDGenerator.newTimeUUID();
+        final ByteBuffer principalKeyBuffer = ByteBuffer.wrap( "test-principal".getBytes() );
+
+        final Map<String, Object> tokenDetails = new HashMap<>();
+        tokenDetails.put( TokenSerialization.TOKEN_TYPE, "test-token" );
+        tokenDetails.put( TokenSerialization.TOKEN_CREATED, 1000L );
+        tokenDetails.put( TokenSerialization.TOKEN_ACCESSED, 2000L );
+        tokenDetails.put( TokenSerialization.TOKEN_INACTIVE, 3000L );
+
+        tokenSerializationV1.putTokenInfo( uuid, tokenDetails, principalKeyBuffer, 3600 );
+
+        final TestProgressObserver progressObserver = new TestProgressObserver();
+
+        final TokenDataMigrationImpl migration =
+            new TokenDataMigrationImpl( tokenSerializationV1, tokenSerializationV2, allVersions );
+
+        final int returned = migration.migrate( TokenDataVersions.INITIAL.getVersion(), progressObserver );
+
+        assertEquals( "Correct version returned", TokenDataVersions.SINGLE_ROW.getVersion(), returned );
+        assertFalse( "Progress observer should not have failed", progressObserver.isFailed() );
+        assertTrue( "Progress observer should have update messages", progressObserver.getUpdates().size() > 0 );
+
+        //the token reads the same from the new format
+        final Map<String, Object> returnedDetails = tokenSerializationV2.getTokenInfo( uuid );
+
+        assertEquals( tokenDetails, returnedDetails );
+
+        //and is still indexed for the principal
+        assertTrue( tokenSerializationV2.getTokensForPrincipal( principalKeyBuffer ).contains( uuid ) );
+    }
+
+
+    @Override
+    public DataMigrationManager getDataMigrationManager() {
+        return dataMigrationManager;
+    }
+}
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.usergrid.management.ManagementService;
 import org.apache.usergrid.mongo.protocol.Message;
 import org.apache.usergrid.mongo.protocol.OpCrud;
+import org.apache.usergrid.mongo.protocol.OpKillCursors;
 import org.apache.usergrid.mongo.protocol.OpReply;
 import org.apache.usergrid.persistence.EntityManagerFactory;
 import org.apache.usergrid.services.ServiceManagerFactory;
@@ -44,12 +45,13 @@ public class MongoChannelHandler extends SimpleChannelUpstreamHandler {
     private final ServiceManagerFactory smf;
     private final ManagementService management;
     private final SessionsSecurityManager securityManager;
+    private final MongoCursorRegistry cursors;
 
     Subject subject = null;
 
 
     public MongoChannelHandler( EntityManagerFactory emf, ServiceManagerFactory smf, ManagementService management,
-                                SessionsSecurityManager securityManager ) {
+                                SessionsSecurityManager securityManager, MongoCursorRegistry cursors ) {
         super();
 
         logger.info( "Starting new client connection..." );
@@ -57,6 +59,7 @@ public class MongoChannelHandler extends SimpleChannelUpstreamHandler {
         this.smf = smf;
         this.management = management;
         this.securityManager = securityManager;
+        this.cursors = cursors;
 
         if ( securityManager != null ) {
             subject = new Subject.Builder( securityManager ).buildSubject();
@@ -84,6 +87,11 @@ public class MongoChannelHandler extends SimpleChannelUpstreamHandler {
     }
 
 
+    public MongoCursorRegistry getCursors() {
+        return cursors;
+    }
+
+
     @Override
     public void messageReceived( ChannelHandlerContext ctx, MessageEvent e ) {
 
@@ -139,6 +147,14 @@ public class MongoChannelHandler extends SimpleChannelUpstreamHandler {
             return ( ( OpCrud ) message ).doOp( this, ctx, e );
         }
 
+        // the client is done with the cursors, there is no reply
+        if ( message instanceof OpKillCursors ) {
+            for ( Long cursorId : ( ( OpKillCursors ) message ).getCursorIDs() ) {
+                cursors.kill( cursorId );
+            }
+            return null;
+        }
+
         OpReply reply = new OpReply( message );
         return reply;
     }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.mongo;
+
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.bson.types.ObjectId;
+import org.apache.usergrid.mongo.protocol.OpReply;
+import org.apache.usergrid.persistence.Entity;
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.Results;
+import org.apache.usergrid.persistence.Schema;
+import org.apache.usergrid.persistence.index.query.Query;
+
+import static org.apache.usergrid.utils.JsonUtils.toJsonMap;
+import static org.apache.usergrid.utils.MapUtils.entry;
+import static org.apache.usergrid.utils.MapUtils.map;
+
+
+/**
+ * A query over a collection that is read a batch at a time.  Each batch is one page of the Usergrid query, the page
+ * cursor is kept between batches so an OP_GET_MORE continues where the last batch stopped.
+ */
+public class MongoCursor {
+
+    private final UUID applicationId;
+    private final String collectionName;
+    private final Query query;
+    private final int batchSize;
+
+    private String pageCursor;
+    private int position;
+    private boolean exhausted;
+
+
+    /**
+     * @param query The query, with its filters and sort, but without a cursor
+     * @param batchSize The number of documents returned when the client doesn't ask for a number
+     */
+    public MongoCursor( UUID applicationId, String collectionName, Query query, int batchSize ) {
+        this.applicationId = applicationId;
+        this.collectionName = collectionName;
+        this.query = query;
+        this.batchSize = batchSize;
+    }
+
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+
+    /**
+     * Read the next batch of the query into the reply
+     *
+     * @param numberToReturn The number of documents asked for, or 0 for the cursor's batch size
+     */
+    public synchronized void nextBatch( EntityManager em, int numberToReturn, OpReply reply ) throws Exception {
+
+        reply.setStartingFrom( position );
+
+        if ( exhausted ) {
+            return;
+        }
+
+        query.setLimit( numberToReturn > 0 ? numberToReturn : batchSize );
+        query.setCursor( pageCursor );
+
+        Results results = em.searchCollection( em.getApplicationRef(), collectionName, query );
+
+        for ( Entity entity : results.getEntities() ) {
+            reply.addDocument( toDocument( entity ) );
+        }
+
+        position += results.size();
+        pageCursor = results.getCursor();
+        exhausted = !results.hasCursor() || results.isEmpty();
+    }
+
+
+    private static Map<?, ?> toDocument( Entity entity ) {
+        Object savedId = entity.getProperty( "_id" );
+        Object mongoId = null;
+
+        //try to parse it into an ObjectId
+        if ( savedId == null ) {
+            mongoId = entity.getUuid();
+        }
+        else {
+            try {
+                mongoId = new ObjectId( savedId.toString() );
+                //it's not a mongo Id, use it as is
+            }
+            catch ( IllegalArgumentException iae ) {
+                mongoId = savedId;
+            }
+        }
+
+        return map( entry( "_id", mongoId ), toJsonMap( entity ),
+                entry( Schema.PROPERTY_UUID, entity.getUuid().toString() ) );
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.mongo;
+
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * The open cursors of the server by Mongo cursor id.  Cursors are shared by every connection, drivers may continue a
+ * cursor on another connection of their pool.  A cursor that isn't read for the idle timeout is dropped, as mongod
+ * does, and the number of open cursors is bounded.
+ */
+public class MongoCursorRegistry {
+
+    private final Cache<Long, MongoCursor> cursors;
+
+    // cursor ids are not guessable, a client can only continue the cursors it was given
+    private final Random random = new SecureRandom();
+
+
+    public MongoCursorRegistry( long idleTimeoutMillis, long maxCursors ) {
+        cursors = CacheBuilder.newBuilder().expireAfterAccess( idleTimeoutMillis, TimeUnit.MILLISECONDS )
+                              .maximumSize( maxCursors ).build();
+    }
+
+
+    /**
+     * @return The id of the cursor, never 0 which means no cursor in the protocol
+     */
+    public long register( MongoCursor cursor ) {
+        while ( true ) {
+            long cursorId = random.nextLong() & Long.MAX_VALUE;
+
+            if ( cursorId != 0 && cursors.asMap().putIfAbsent( cursorId, cursor ) == null ) {
+                return cursorId;
+            }
+        }
+    }
+
+
+    /**
+     * @return The cursor, or null if it was never opened, is exhausted, was killed or timed out
+     */
+    public MongoCursor get( long cursorId ) {
+        return cursors.getIfPresent( cursorId );
+    }
+
+
+    public void kill( long cursorId ) {
+        cursors.invalidate( cursorId );
+    }
+
+
+    public long size() {
+        return cursors.size();
+    }
+}
@@ -148,11 +148,20 @@ public class MongoServer {
         bootstrap.setOption( "child.bufferFactory", HeapChannelBufferFactory.getInstance( ByteOrder.LITTLE_ENDIAN ) );
 
         // Set up the pipeline factory.
-        ExecutionHandler executionHandler =
-                new ExecutionHandler( new OrderedMemoryAwareThreadPoolExecutor( 16, 1048576, 1048576 ) );
+        // Queries run on the bounded worker pool, ordered per connection, never on the I/O threads
+        ExecutionHandler executionHandler = new ExecutionHandler(
+                new OrderedMemoryAwareThreadPoolExecutor( getIntProperty( "usergrid.mongo.threads", 16 ),
+                        getIntProperty( "usergrid.mongo.max_channel_memory", 1048576 ),
+                        getIntProperty( "usergrid.mongo.max_total_memory", 1048576 ) ) );
+
+        // Mongo's default cursor timeout is 10 minutes
+        MongoCursorRegistry cursors =
+                new MongoCursorRegistry( getIntProperty( "usergrid.mongo.cursor_timeout_ms", 600000 ),
+                        getIntProperty( "usergrid.mongo.max_cursors", 10000 ) );
+
         // TODO if config'ed for SSL, start the SslMSPF instead, change port as well?
         bootstrap.setPipelineFactory(
-                new MongoServerPipelineFactory( emf, smf, management, securityManager, executionHandler ) );
+                new MongoServerPipelineFactory( emf, smf, management, securityManager, cursors, executionHandler ) );
 
         // Bind and start to accept incoming connections.
         channel = bootstrap.bind( new InetSocketAddress( 27017 ) );
@@ -161,6 +170,14 @@ public class MongoServer {
     }
 
 
+    private int getIntProperty( String name, int defaultValue ) {
+        if ( properties == null ) {
+            return defaultValue;
+        }
+        return Integer.parseInt( properties.getProperty( name, Integer.toString( defaultValue ) ) );
+    }
+
+
     public void stopServer() {
         logger.info( "Stopping Usergrid Mongo Emulation Server" );
         if ( channel != null ) {
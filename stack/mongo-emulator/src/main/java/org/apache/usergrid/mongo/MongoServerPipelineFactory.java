@@ -35,15 +35,17 @@ public class MongoServerPipelineFactory implements ChannelPipelineFactory {
     private final ServiceManagerFactory smf;
     private final ManagementService management;
     private final SessionsSecurityManager securityManager;
+    private final MongoCursorRegistry cursors;
 
 
     public MongoServerPipelineFactory( EntityManagerFactory emf, ServiceManagerFactory smf,
                                        ManagementService management, SessionsSecurityManager securityManager,
-                                       ExecutionHandler executionHandler ) {
+                                       MongoCursorRegistry cursors, ExecutionHandler executionHandler ) {
         this.emf = emf;
         this.smf = smf;
         this.management = management;
         this.securityManager = securityManager;
+        this.cursors = cursors;
         this.executionHandler = executionHandler;
     }
 
@@ -51,6 +53,6 @@ public class MongoServerPipelineFactory implements ChannelPipelineFactory {
     @Override
     public ChannelPipeline getPipeline() throws Exception {
         return Channels.pipeline( new MongoMessageEncoder(), new MongoMessageDecoder(), executionHandler,
-                new MongoChannelHandler( emf, smf, management, securityManager ) );
+                new MongoChannelHandler( emf, smf, management, securityManager, cursors ) );
     }
 }
@@ -23,11 +23,25 @@ import java.nio.ByteBuffer;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.MessageEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.usergrid.management.ApplicationInfo;
 import org.apache.usergrid.mongo.MongoChannelHandler;
+import org.apache.usergrid.mongo.MongoCursor;
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.index.query.Identifier;
+import org.apache.usergrid.security.shiro.utils.SubjectUtils;
 
 
 public class OpGetMore extends OpCrud {
 
+    private static final Logger logger = LoggerFactory.getLogger( OpGetMore.class );
+
+    /**
+     * The cursor id is unknown, it was exhausted, killed or timed out
+     */
+    static final int CURSOR_NOT_FOUND = 1;
+
     int numberToReturn;
     long cursorID;
 
@@ -97,7 +111,44 @@ public class OpGetMore extends OpCrud {
      */
     @Override
     public OpReply doOp( MongoChannelHandler handler, ChannelHandlerContext ctx, MessageEvent messageEvent ) {
-        return new OpReply( this );
+        OpReply reply = new OpReply( this );
+
+        if ( !SubjectUtils.getSubject().isAuthenticated() ) {
+            reply.setResponseFlags( CURSOR_NOT_FOUND );
+            return reply;
+        }
+
+        MongoCursor cursor = handler.getCursors().get( cursorID );
+
+        // only the application the cursor was opened on can be read through it
+        ApplicationInfo application = SubjectUtils.getApplication( Identifier.from( getDatabaseName() ) );
+
+        if ( cursor == null || application == null || !application.getId().equals( cursor.getApplicationId() )
+                || !cursor.getCollectionName().equals( getCollectionName() ) ) {
+            reply.setResponseFlags( CURSOR_NOT_FOUND );
+            return reply;
+        }
+
+        EntityManager em = handler.getEmf().getEntityManager( application.getId() );
+
+        try {
+            cursor.nextBatch( em, numberToReturn, reply );
+        }
+        catch ( Exception ex ) {
+            logger.error( "Unable to read cursor {}", cursorID, ex );
+            handler.getCursors().kill( cursorID );
+            reply.setResponseFlags( CURSOR_NOT_FOUND );
+            return reply;
+        }
+
+        if ( cursor.isExhausted() ) {
+            handler.getCursors().kill( cursorID );
+        }
+        else {
+            reply.setCursorID( cursorID );
+        }
+
+        return reply;
     }
 
 
@@ -27,7 +27,6 @@ import java.util.Set;
 
 import org.bson.BSONObject;
 import org.bson.BasicBSONObject;
-import org.bson.types.ObjectId;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBufferInputStream;
 import org.jboss.netty.channel.ChannelHandlerContext;
@@ -37,13 +36,12 @@ import org.slf4j.LoggerFactory;
 import org.apache.usergrid.management.ApplicationInfo;
 import org.apache.usergrid.management.UserInfo;
 import org.apache.usergrid.mongo.MongoChannelHandler;
+import org.apache.usergrid.mongo.MongoCursor;
 import org.apache.usergrid.mongo.commands.MongoCommand;
 import org.apache.usergrid.mongo.query.MongoQueryParser;
 import org.apache.usergrid.mongo.utils.BSONUtils;
-import org.apache.usergrid.persistence.Entity;
 import org.apache.usergrid.persistence.EntityManager;
 import org.apache.usergrid.persistence.index.query.Query;
-import org.apache.usergrid.persistence.Results;
 import org.apache.usergrid.persistence.Schema;
 import org.apache.usergrid.security.shiro.PrincipalCredentialsToken;
 import org.apache.usergrid.security.shiro.utils.SubjectUtils;
@@ -54,7 +52,6 @@ import org.apache.shiro.subject.Subject;
 import org.apache.usergrid.persistence.index.query.Identifier;
 import org.apache.usergrid.persistence.index.query.Query.Level;
 
-import static org.apache.usergrid.utils.JsonUtils.toJsonMap;
 import static org.apache.usergrid.utils.MapUtils.entry;
 import static org.apache.usergrid.utils.MapUtils.map;
 
@@ -397,38 +394,18 @@ public class OpQuery extends OpCrud {
         EntityManager em = handler.getEmf().getEntityManager( application.getId() );
 
         try {
-            Results results = null;
             Query q = MongoQueryParser.toNativeQuery( query, returnFieldSelector, numberToReturn );
-            if ( q != null ) {
-                results = em.searchCollection( em.getApplicationRef(), getCollectionName(), q );
+            if ( q == null ) {
+                q = new Query();
+                q.setResultsLevel( Level.ALL_PROPERTIES );
             }
-            else {
-                results = em.getCollection( em.getApplicationRef(), getCollectionName(), null, count,
-                        Level.ALL_PROPERTIES, false );
-            }
-            if ( !results.isEmpty() ) {
-                for ( Entity entity : results.getEntities() ) {
-
-                    Object savedId = entity.getProperty( "_id" );
-                    Object mongoId = null;
-
-                    //try to parse it into an ObjectId
-                    if ( savedId == null ) {
-                        mongoId = entity.getUuid();
-                    }
-                    else {
-                        try {
-                            mongoId = new ObjectId( savedId.toString() );
-                            //it's not a mongo Id, use it as is
-                        }
-                        catch ( IllegalArgumentException iae ) {
-                            mongoId = savedId;
-                        }
-                    }
-
-                    reply.addDocument( map( entry( "_id", mongoId ), toJsonMap( entity ),
-                            entry( Schema.PROPERTY_UUID, entity.getUuid().toString() ) ) );
-                }
+
+            MongoCursor cursor = new MongoCursor( application.getId(), getCollectionName(), q, count );
+            cursor.nextBatch( em, count, reply );
+
+            // a negative number or 1 asks for a single batch, and the cursor is closed
+            if ( !cursor.isExhausted() && numberToReturn >= 0 && numberToReturn != 1 ) {
+                reply.setCursorID( handler.getCursors().register( cursor ) );
             }
         }
         catch ( Exception ex ) {
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.mongo;
+
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.apache.usergrid.mongo.protocol.OpKillCursors;
+import org.apache.usergrid.persistence.index.query.Query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ * Tests the cursors kept between OP_QUERY and OP_GET_MORE are found, killed and expired without a running server
+ */
+public class MongoCursorRegistryTest {
+
+    @Test
+    public void registeredCursorContinued() {
+        MongoCursorRegistry cursors = new MongoCursorRegistry( 60000, 10 );
+
+        MongoCursor first = newCursor();
+        MongoCursor second = newCursor();
+
+        long firstId = cursors.register( first );
+        long secondId = cursors.register( second );
+
+        // 0 means there is nothing more to read in the protocol
+        assertNotEquals( 0, firstId );
+        assertNotEquals( 0, secondId );
+        assertNotEquals( firstId, secondId );
+
+        // every OP_GET_MORE finds the same cursor, on any connection
+        assertSame( first, cursors.get( firstId ) );
+        assertSame( first, cursors.get( firstId ) );
+        assertSame( second, cursors.get( secondId ) );
+        assertEquals( 2, cursors.size() );
+
+        assertNull( cursors.get( firstId + secondId ) );
+    }
+
+
+    @Test
+    public void killCursors() {
+        MongoCursorRegistry cursors = new MongoCursorRegistry( 60000, 10 );
+        MongoChannelHandler handler = new MongoChannelHandler( null, null, null, null, cursors );
+
+        long killedId = cursors.register( newCursor() );
+        long otherId = cursors.register( newCursor() );
+
+        OpKillCursors killCursors = new OpKillCursors();
+        killCursors.addCursorIDs( killedId );
+        // unknown cursors are ignored
+        killCursors.addCursorIDs( killedId + otherId );
+
+        // there is no reply to OP_KILL_CURSORS
+        assertNull( handler.handleMessage( null, null, killCursors ) );
+
+        assertNull( cursors.get( killedId ) );
+        assertNotNull( cursors.get( otherId ) );
+        assertEquals( 1, cursors.size() );
+    }
+
+
+    @Test
+    public void idleCursorExpired() throws Exception {
+        MongoCursorRegistry cursors = new MongoCursorRegistry( 200, 10 );
+
+        long idleId = cursors.register( newCursor() );
+        long readId = cursors.register( newCursor() );
+
+        // reading a cursor keeps it open
+        for ( int i = 0; i < 4; i++ ) {
+            Thread.sleep( 100 );
+            assertNotNull( cursors.get( readId ) );
+        }
+
+        assertNull( cursors.get( idleId ) );
+        assertNotNull( cursors.get( readId ) );
+    }
+
+
+    @Test
+    public void openCursorsBounded() {
+        MongoCursorRegistry cursors = new MongoCursorRegistry( 60000, 5 );
+
+        for ( int i = 0; i < 20; i++ ) {
+            cursors.register( newCursor() );
+        }
+
+        assertEquals( 5, cursors.size() );
+    }
+
+
+    private static MongoCursor newCursor() {
+        return new MongoCursor( UUID.randomUUID(), "things", new Query(), 10 );
+    }
+}
@@ -516,4 +516,72 @@ public class MongoQueryTest extends AbstractMongoTest {
 
         assertTrue( cur.hasNext() );
     }
+
+
+    @Test
+    public void batchedResults() throws Exception {
+
+        UUID appId = emf.lookupApplication( "test-organization/test-app" );
+        EntityManager em = emf.getEntityManager( appId );
+
+        for ( int i = 0; i < 25; i++ ) {
+            Map<String, Object> properties = new LinkedHashMap<String, Object>();
+            properties.put( "name", "batched" + i );
+            properties.put( "index", i );
+            em.create( "batchedresult", properties );
+        }
+
+        DB db = getDb();
+
+        DBCollection coll = db.getCollection( "batchedresults" );
+
+        // the first batch comes with the query, the rest are read with OP_GET_MORE on the cursor
+        DBCursor cur = coll.find().batchSize( 10 );
+
+        int count = 0;
+        while ( cur.hasNext() ) {
+            assertTrue( cur.next().get( "name" ).toString().startsWith( "batched" ) );
+            count++;
+        }
+
+        assertEquals( 25, count );
+    }
+
+
+    @Test
+    public void killedCursor() throws Exception {
+
+        UUID appId = emf.lookupApplication( "test-organization/test-app" );
+        EntityManager em = emf.getEntityManager( appId );
+
+        for ( int i = 0; i < 25; i++ ) {
+            Map<String, Object> properties = new LinkedHashMap<String, Object>();
+            properties.put( "name", "killed" + i );
+            em.create( "killedcursor", properties );
+        }
+
+        DB db = getDb();
+
+        DBCollection coll = db.getCollection( "killedcursors" );
+
+        DBCursor cur = coll.find().batchSize( 10 );
+
+        assertTrue( cur.hasNext() );
+        cur.next();
+
+        // more is left on the server, closing the cursor sends OP_KILL_CURSORS for it
+        assertTrue( cur.getCursorId() != 0 );
+        cur.close();
+
+        // the connection is still usable and a new query starts from the beginning
+        cur = coll.find().batchSize( 10 );
+
+        int count = 0;
+        while ( cur.hasNext() ) {
+            cur.next();
+            count++;
+        }
+
+        assertEquals( 25, count );
+    }
 }
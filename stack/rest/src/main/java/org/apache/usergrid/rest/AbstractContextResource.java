@@ -31,6 +31,7 @@ import org.apache.usergrid.persistence.EntityManagerFactory;
 import org.apache.usergrid.rest.exceptions.RedirectionException;
 import org.apache.usergrid.security.tokens.TokenService;
 import org.apache.usergrid.services.ServiceManagerFactory;
+import org.apache.usergrid.system.ServerEnvironmentProps;
 import org.glassfish.jersey.server.CloseableService;
 import org.glassfish.jersey.server.mvc.Viewable;
 import org.slf4j.Logger;
@@ -242,6 +243,19 @@ public abstract class AbstractContextResource {
         return new ApiResponse(properties, management);
     }
 
+
+    /**
+     * Create a response that streams its entities to the client, if streaming is enabled.  Otherwise a regular
+     * response is returned
+     */
+    protected ApiResponse createStreamingApiResponse() {
+        if ( properties != null
+            && Boolean.parseBoolean( properties.getProperty( ServerEnvironmentProps.API_RESPONSE_STREAMING ) ) ) {
+            return new StreamingApiResponse( properties, management );
+        }
+        return createApiResponse();
+    }
+
     protected EntityManagerFactory getEmf(){
         return emf;
     }
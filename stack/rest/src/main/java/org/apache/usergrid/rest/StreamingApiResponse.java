@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.usergrid.management.ManagementService;
+import org.apache.usergrid.persistence.Entity;
+import org.apache.usergrid.persistence.Results;
+import org.apache.usergrid.services.ServiceResults;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+
+/**
+ * An api response whose entities are not part of the serialized envelope.  The {@link StreamingApiResponseWriter}
+ * writes the envelope, then writes the entities one at a time, releasing each one once it has been written.  Any
+ * further pages are loaded while the response is written.
+ */
+public class StreamingApiResponse extends ApiResponse {
+
+
+    private Callable<List<Entity>> pageLoader;
+
+
+    public StreamingApiResponse( ServerEnvironmentProperties serverProperties, ManagementService management ) {
+        super( serverProperties, management );
+    }
+
+
+    @Override
+    @JsonIgnore
+    public List<Entity> getEntities() {
+        return super.getEntities();
+    }
+
+
+    /**
+     * Takes its own copy of the entities, so written entities can be released without touching the results
+     */
+    @Override
+    public void setEntities( List<Entity> entities ) {
+        super.setEntities( entities != null ? new ArrayList<>( entities ) : null );
+    }
+
+
+    @Override
+    public void setResults( ServiceResults results ) {
+        super.setResults( results );
+        setEntities( super.getEntities() );
+    }
+
+
+    @Override
+    public ApiResponse withResults( Results results ) {
+        super.withResults( results );
+        setEntities( super.getEntities() );
+        return this;
+    }
+
+
+    /**
+     * Set the loader of the pages after the current entities.  It returns null once there are no more pages, and
+     * updates the rest of the response, such as the cursor, as it loads them
+     */
+    public void setPageLoader( Callable<List<Entity>> pageLoader ) {
+        this.pageLoader = pageLoader;
+    }
+
+
+    /**
+     * Load the next page of entities to write, null once every page is loaded
+     */
+    public List<Entity> loadNextPage() throws Exception {
+        if ( pageLoader == null ) {
+            return null;
+        }
+
+        final List<Entity> page = pageLoader.call();
+
+        if ( page == null ) {
+            pageLoader = null;
+        }
+
+        return page;
+    }
+}
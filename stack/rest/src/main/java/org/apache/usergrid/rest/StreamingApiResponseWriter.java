@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.Entity;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+
+/**
+ * Writes a {@link StreamingApiResponse} straight to the output stream.  The envelope is serialized with the
+ * configured mapper, and the entities are written one at a time with the same generator, so the output is the same
+ * as serializing the whole response.  The second page of entities is loaded before anything is written, so a failure
+ * to load it is still sent with an error status.  The later pages are loaded as the earlier ones are written, once the
+ * status is sent a failure to load one ends the entities and is described by the error fields of the response.  Any
+ * interceptors, such as gzip, see a normal output stream.
+ */
+@Provider
+@Produces( { MediaType.APPLICATION_JSON, MediaType.TEXT_HTML, "application/javascript" } )
+public class StreamingApiResponseWriter implements MessageBodyWriter<StreamingApiResponse> {
+
+    private static final Logger logger = LoggerFactory.getLogger( StreamingApiResponseWriter.class );
+
+    private static final String ENTITIES = "entities";
+
+    private static final String ERROR = "error";
+
+    /**
+     * The properties ordered before the entities by the {@link JsonPropertyOrder} of {@link ApiResponse}, the
+     * properties it doesn't order are serialized after every ordered one
+     */
+    private static final Set<String> FIELDS_BEFORE_ENTITIES = fieldsBeforeEntities();
+
+    /**
+     * How many entities to write before flushing them to the client
+     */
+    private static final int FLUSH_INTERVAL = 100;
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    @Context
+    private Providers providers;
+
+
+    @Override
+    public boolean isWriteable( final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                final MediaType mediaType ) {
+        return StreamingApiResponse.class.isAssignableFrom( type );
+    }
+
+
+    @Override
+    public long getSize( final StreamingApiResponse response, final Class<?> type, final Type genericType,
+                         final Annotation[] annotations, final MediaType mediaType ) {
+        return -1;
+    }
+
+
+    @Override
+    public void writeTo( final StreamingApiResponse response, final Class<?> type, final Type genericType,
+                         final Annotation[] annotations, final MediaType mediaType,
+                         final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream )
+        throws IOException, WebApplicationException {
+
+        final ObjectMapper mapper = getMapper( type, mediaType );
+
+        //flushing is ours to control, not once per value
+        final ObjectWriter writer = mapper.writer().without( SerializationFeature.FLUSH_AFTER_WRITE_VALUE );
+
+        final JsonGenerator generator = mapper.getFactory().createGenerator( entityStream );
+        generator.disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+
+        if ( mapper.isEnabled( SerializationFeature.INDENT_OUTPUT ) ) {
+            generator.useDefaultPrettyPrinter();
+        }
+
+        //nothing is written yet, a failure to load the second page is sent as an error response
+        final List<Entity> secondPage = response.getEntities() != null ? loadNextPage( response ) : null;
+
+        generator.writeStartObject();
+
+        writeFields( mapper, writer, response, generator, FIELDS_BEFORE_ENTITIES::contains );
+
+        final boolean complete = response.getEntities() == null || writeEntities( writer, generator, response,
+            secondPage );
+
+        //the fields after the entities are serialized once every page is loaded, they include the cursor of the last.
+        //the error is ordered before the entities, it's only set here when a page failed to load
+        writeFields( mapper, writer, response, generator,
+            name -> !FIELDS_BEFORE_ENTITIES.contains( name ) || ( !complete && ERROR.equals( name ) ) );
+
+        generator.writeEndObject();
+
+        //flushes what remains, the stream itself is closed by the container
+        generator.close();
+    }
+
+
+    /**
+     * Write the fields of the envelope that come before, or after, the entities.  The envelope is small, it's
+     * buffered so the entities can be written in their place
+     */
+    private void writeFields( final ObjectMapper mapper, final ObjectWriter writer, final StreamingApiResponse response,
+                              final JsonGenerator generator, final Predicate<String> fields ) throws IOException {
+
+        final TokenBuffer envelope = new TokenBuffer( mapper, false );
+        writer.writeValue( envelope, response );
+
+        try ( final JsonParser parser = envelope.asParser() ) {
+
+            parser.nextToken();
+
+            while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+
+                if ( !fields.test( name ) ) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                generator.writeFieldName( name );
+                generator.copyCurrentStructure( parser );
+            }
+        }
+    }
+
+
+    /**
+     * Write each entity of each page, releasing it from the response once written.  The pages after the second are
+     * loaded as the previous one is written.  Returns false when a page failed to load, the entities written so far
+     * are ended and the error is set on the response, the cursor is still that of the last page written
+     */
+    private boolean writeEntities( final ObjectWriter writer, final JsonGenerator generator,
+                                   final StreamingApiResponse response, final List<Entity> secondPage )
+        throws IOException {
+
+        generator.writeArrayFieldStart( ENTITIES );
+
+        writePage( writer, generator, response.getEntities() );
+
+        List<Entity> entities = secondPage;
+
+        while ( entities != null ) {
+
+            writePage( writer, generator, entities );
+
+            try {
+                entities = loadNextPage( response );
+            }
+            catch ( IOException | RuntimeException e ) {
+                //the status is already sent, the client can only learn of the failure from the body
+                logger.error( "Unable to load the next page of a streamed response", e );
+
+                response.setError( "Unable to load every page of entities, the cursor continues after the last one",
+                    e );
+
+                generator.writeEndArray();
+
+                return false;
+            }
+        }
+
+        generator.writeEndArray();
+
+        return true;
+    }
+
+
+    /**
+     * Write each entity of the page, flushing them to the client as they're written
+     */
+    private void writePage( final ObjectWriter writer, final JsonGenerator generator, final List<Entity> entities )
+        throws IOException {
+
+        for ( int i = 0; i < entities.size(); i++ ) {
+
+            writer.writeValue( generator, entities.get( i ) );
+            entities.set( i, null );
+
+            if ( ( i + 1 ) % FLUSH_INTERVAL == 0 ) {
+                generator.flush();
+            }
+        }
+
+        //send what's written before waiting on the next page
+        generator.flush();
+    }
+
+
+    private List<Entity> loadNextPage( final StreamingApiResponse response ) throws IOException {
+        try {
+            return response.loadNextPage();
+        }
+        catch ( IOException | RuntimeException e ) {
+            throw e;
+        }
+        catch ( Exception e ) {
+            throw new IOException( "Unable to load the next page of entities", e );
+        }
+    }
+
+
+    /**
+     * The properties {@link ApiResponse} orders before its entities
+     */
+    private static Set<String> fieldsBeforeEntities() {
+        final List<String> order = Arrays.asList( ApiResponse.class.getAnnotation( JsonPropertyOrder.class ).value() );
+
+        final int entities = order.indexOf( ENTITIES );
+
+        if ( entities < 0 ) {
+            throw new IllegalStateException( "The properties of ApiResponse must be ordered around its entities" );
+        }
+
+        return Collections.unmodifiableSet( new HashSet<>( order.subList( 0, entities ) ) );
+    }
+
+
+    private ObjectMapper getMapper( final Class<?> type, final MediaType mediaType ) {
+
+        if ( providers != null ) {
+            final ContextResolver<ObjectMapper> resolver =
+                providers.getContextResolver( ObjectMapper.class, mediaType );
+
+            if ( resolver != null ) {
+                final ObjectMapper mapper = resolver.getContext( type );
+
+                if ( mapper != null ) {
+                    return mapper;
+                }
+            }
+        }
+
+        return DEFAULT_MAPPER;
+    }
+}
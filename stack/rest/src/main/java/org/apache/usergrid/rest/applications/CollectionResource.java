@@ -281,6 +281,8 @@ public class CollectionResource extends ServiceResource {
         response.setProperty( "status", status.getStatus() );
         response.setProperty( "lastUpdatedEpoch", status.getLastUpdated() );
         response.setProperty( "numberCheckedForDeletion", status.getNumberProcessed() );
+        response.setProperty( "percentComplete", status.getPercentComplete() );
+        response.setProperty( "estimatedTimeRemainingMillis", status.getEstimatedTimeRemaining() );
         response.setSuccess();
 
         return response;
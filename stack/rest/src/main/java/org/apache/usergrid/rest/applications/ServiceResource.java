@@ -31,6 +31,7 @@ import org.apache.usergrid.persistence.QueryUtils;
 import org.apache.usergrid.rest.AbstractContextResource;
 import org.apache.usergrid.rest.ApiResponse;
 import org.apache.usergrid.rest.RootResource;
+import org.apache.usergrid.rest.StreamingApiResponse;
 import org.apache.usergrid.rest.applications.assets.AssetsResource;
 import org.apache.usergrid.rest.security.annotations.CheckPermissionsForPath;
 import org.apache.usergrid.security.oauth.AccessInfo;
@@ -56,6 +57,8 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.*;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 import static org.apache.usergrid.management.AccountCreationProps.PROPERTIES_USERGRID_BINARY_UPLOADER;
@@ -72,6 +75,11 @@ public class ServiceResource extends AbstractContextResource {
     protected static final Logger logger = LoggerFactory.getLogger( ServiceResource.class );
     private static final String FILE_FIELD_NAME = "file";
 
+    /**
+     * The size of the pages a streamed response loads its entities in
+     */
+    private static final int STREAMING_PAGE_SIZE = 100;
+
     private BinaryStore binaryStore;
 
     @Autowired
@@ -400,6 +408,9 @@ public class ServiceResource extends AbstractContextResource {
         ServiceRequest r = services.newRequest( action, tree, getServiceParameters(), payload,
             returnInboundConnections, returnOutboundConnections, analyzeQueryOnly, returnQuery);
         response.setServiceRequest( r );
+
+        final int streamedLimit = analyzeQueryOnly || returnQuery ? 0 : getStreamedLimit( response, action, r );
+
         ServiceResults results = r.execute();
         if ( results != null ) {
             if ( results.hasData() ) {
@@ -423,6 +434,10 @@ public class ServiceResource extends AbstractContextResource {
             }
 
             response.setResults( results );
+
+            if ( streamedLimit > 0 && !results.hasData() ) {
+                streamPages( r, results, ( StreamingApiResponse ) response, streamedLimit, collectionGet );
+            }
         }
 
         httpServletRequest.setAttribute( "applicationId", services.getApplicationId() );
@@ -431,6 +446,68 @@ public class ServiceResource extends AbstractContextResource {
     }
 
 
+    /**
+     * A streamed response loads a large page in smaller pages while it's written.  Returns the limit of the request
+     * and lowers the limit of its query to the first page, or 0 when the request isn't streamed
+     */
+    private int getStreamedLimit( ApiResponse response, ServiceAction action, ServiceRequest r ) {
+
+        if ( !( response instanceof StreamingApiResponse ) || action != ServiceAction.GET ) {
+            return 0;
+        }
+
+        final Query query = r.getLastQuery();
+
+        //selections are built from every entity of the page
+        if ( query == null || query.hasSelectSubjects() || query.getLimit() <= STREAMING_PAGE_SIZE ) {
+            return 0;
+        }
+
+        final int limit = query.getLimit();
+        query.setLimit( STREAMING_PAGE_SIZE );
+
+        return limit;
+    }
+
+
+    /**
+     * Load the pages after the first one as the response is written, following the cursor until the limit of the
+     * request is reached.  The cursor and count of the response are those of the last page
+     */
+    private void streamPages( final ServiceRequest r, final ServiceResults firstPage,
+                              final StreamingApiResponse response, final int limit, final boolean collectionGet ) {
+
+        final Query query = r.getLastQuery();
+
+        final AtomicInteger loaded = new AtomicInteger( firstPage.size() );
+        final AtomicReference<String> cursor = new AtomicReference<>( firstPage.getCursor() );
+
+        response.setPageLoader( () -> {
+
+            if ( cursor.get() == null || loaded.get() >= limit ) {
+                return null;
+            }
+
+            query.setCursor( cursor.get() );
+            query.setLimit( Math.min( limit - loaded.get(), STREAMING_PAGE_SIZE ) );
+
+            final ServiceResults page = r.execute();
+
+            loaded.addAndGet( page.size() );
+            cursor.set( page.getCursor() );
+
+            response.setNext( page.getNextResult() );
+            response.setCursor( page.getCursor() );
+
+            if ( collectionGet ) {
+                response.setCount( loaded.get() );
+            }
+
+            return page.getEntities();
+        } );
+    }
+
+
     @CheckPermissionsForPath
     @GET
     @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_HTML, "application/javascript"})
@@ -443,7 +520,8 @@ public class ServiceResource extends AbstractContextResource {
             logger.trace( "ServiceResource.executeGet" );
         }
 
-        ApiResponse response = createApiResponse();
+        //collection and query pages can be large, load and write their entities a page at a time
+        ApiResponse response = createStreamingApiResponse();
 
         response.setAction( "get" );
         response.setApplication( services.getApplication() );
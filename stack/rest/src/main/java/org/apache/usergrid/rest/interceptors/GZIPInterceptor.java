@@ -57,7 +57,8 @@ public class GZIPInterceptor implements ReaderInterceptor, WriterInterceptor {
                 String acceptEncodingHeader = aeHeaders.get(0);
                 if (acceptEncodingHeader.contains(GZIP)) {
                     OutputStream outputStream = context.getOutputStream();
-                    context.setOutputStream(new GZIPOutputStream(outputStream));
+                    // sync flush, so streamed responses reach the client as they are flushed
+                    context.setOutputStream(new GZIPOutputStream(outputStream, true));
                     context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
                 }
             }
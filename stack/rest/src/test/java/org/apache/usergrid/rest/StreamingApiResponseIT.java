@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.usergrid.rest.test.resource.AbstractRestIT;
+import org.apache.usergrid.rest.test.resource.model.Entity;
+import org.apache.usergrid.rest.test.resource.model.QueryParameters;
+import org.apache.usergrid.system.ServerEnvironmentProps;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests a streamed response has the same JSON as the buffered response
+ */
+public class StreamingApiResponseIT extends AbstractRestIT {
+
+    private final String collectionName = "streamedthings";
+
+
+    @Test
+    public void streamedPages() throws Exception {
+
+        for ( int i = 1; i <= 250; i++ ) {
+            this.app().collection( collectionName ).post( new Entity().chainPut( "name", "thing" + i ) );
+        }
+
+        waitForQueueDrainAndRefreshIndex();
+
+        //a page larger than the pages a streamed response loads
+        final QueryParameters firstPage = new QueryParameters().setLimit( 220 );
+
+        final JsonNode streamed = assertSameResponse( firstPage );
+
+        assertEquals( 220, streamed.get( "entities" ).size() );
+        assertTrue( "Streamed response has a cursor", streamed.has( "cursor" ) );
+
+        //the cursor of the streamed response continues where it stopped
+        final QueryParameters lastPage =
+            new QueryParameters().setLimit( 220 ).setCursor( streamed.get( "cursor" ).asText() );
+
+        final JsonNode streamedLast = assertSameResponse( lastPage );
+
+        assertEquals( 30, streamedLast.get( "entities" ).size() );
+        assertFalse( "Last page has no cursor", streamedLast.has( "cursor" ) );
+
+        //a query with a streamed page
+        final JsonNode streamedQuery =
+            assertSameResponse( new QueryParameters().setLimit( 150 ).setQuery( "select * order by name" ) );
+
+        assertEquals( 150, streamedQuery.get( "entities" ).size() );
+    }
+
+
+    @Test
+    public void streamedEmptyPage() throws Exception {
+
+        this.app().collection( collectionName ).post( new Entity().chainPut( "name", "thing" ) );
+
+        waitForQueueDrainAndRefreshIndex();
+
+        final JsonNode streamed =
+            assertSameResponse( new QueryParameters().setLimit( 220 ).setQuery( "select * where name = 'missing'" ) );
+
+        assertEquals( 0, streamed.get( "entities" ).size() );
+        assertFalse( streamed.has( "cursor" ) );
+    }
+
+
+    /**
+     * Get the page buffered and streamed, and check the JSON is the same, field order included.  Returns the streamed
+     * response
+     */
+    private JsonNode assertSameResponse( final QueryParameters queryParameters ) throws Exception {
+
+        final JsonNode buffered = get( queryParameters, false );
+        final JsonNode streamed = get( queryParameters, true );
+
+        assertEquals( fieldNames( buffered ), fieldNames( streamed ) );
+        assertEquals( buffered, streamed );
+
+        return streamed;
+    }
+
+
+    private JsonNode get( final QueryParameters queryParameters, final boolean streaming ) throws Exception {
+
+        setTestProperty( ServerEnvironmentProps.API_RESPONSE_STREAMING, Boolean.toString( streaming ) );
+
+        try {
+            final ObjectNode response = ( ObjectNode ) mapper
+                .readTree( this.app().collection( collectionName ).get( String.class, queryParameters ) );
+
+            //these differ by request
+            response.remove( "timestamp" );
+            response.remove( "duration" );
+
+            return response;
+        }
+        finally {
+            setTestProperty( ServerEnvironmentProps.API_RESPONSE_STREAMING, "false" );
+        }
+    }
+
+
+    private static List<String> fieldNames( final JsonNode node ) {
+        final List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining( names::add );
+        return names;
+    }
+}
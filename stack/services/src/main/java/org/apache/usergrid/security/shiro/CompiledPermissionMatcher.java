@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.security.shiro;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.shiro.authz.Permission;
+
+
+/**
+ * The granted permissions of an authorization info, resolved once and indexed by the first segment of their path.
+ * <p>
+ * A permission whose path starts with a literal segment can only imply a permission whose path starts with the same
+ * segment, so a check only runs {@link CustomPermission#implies(Permission)} on the permissions indexed under the
+ * requested path's first segment, and on the permissions that can't be indexed: those with wildcards or
+ * substitutions in the first segment, or without a path.  The permissions that are skipped can never imply the
+ * request, so the result is the same as checking every permission.
+ */
+public class CompiledPermissionMatcher {
+
+    /**
+     * The index of the path in application permissions, applications:&lt;verbs&gt;:&lt;application id&gt;:&lt;path&gt;
+     */
+    static final int PATH_PART = 3;
+
+    private static final String USER_SUBSTITUTION = "${user}";
+    private static final String ME_PREFIX = "/me/";
+
+    private final Collection<Permission> permissions;
+
+    // checked for every request
+    private final List<Permission> unindexed = new ArrayList<Permission>();
+
+    // by the lower cased first segment of the path
+    private final Map<String, List<Permission>> byFirstSegment = new HashMap<String, List<Permission>>();
+
+
+    public CompiledPermissionMatcher( Collection<Permission> permissions ) {
+        this.permissions = permissions != null ? permissions : Collections.<Permission>emptyList();
+
+        for ( Permission permission : this.permissions ) {
+            Set<String> keys = permission instanceof CustomPermission ?
+                    grantedKeys( ( CustomPermission ) permission ) : null;
+
+            if ( keys == null ) {
+                unindexed.add( permission );
+                continue;
+            }
+
+            for ( String key : keys ) {
+                List<Permission> indexed = byFirstSegment.get( key );
+                if ( indexed == null ) {
+                    indexed = new ArrayList<Permission>();
+                    byFirstSegment.put( key, indexed );
+                }
+                indexed.add( permission );
+            }
+        }
+    }
+
+
+    /**
+     * @return True if any of the granted permissions implies the permission
+     */
+    public boolean implies( Permission permission ) {
+
+        if ( !( permission instanceof CustomPermission ) ) {
+            return impliesAny( permissions, permission );
+        }
+
+        if ( impliesAny( unindexed, permission ) ) {
+            return true;
+        }
+
+        String key = requestedKey( ( CustomPermission ) permission );
+
+        if ( key == null ) {
+            return false;
+        }
+
+        List<Permission> indexed = byFirstSegment.get( key );
+
+        return indexed != null && impliesAny( indexed, permission );
+    }
+
+
+    private static boolean impliesAny( Collection<Permission> granted, Permission permission ) {
+        for ( Permission perm : granted ) {
+            if ( perm.implies( permission ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @return The first segments of the granted paths, or null if the permission has to be checked for every request
+     */
+    static Set<String> grantedKeys( CustomPermission permission ) {
+        List<Set<String>> parts = permission.getParts();
+
+        // permissions without a path imply every path
+        if ( parts.size() <= PATH_PART ) {
+            return null;
+        }
+
+        Set<String> keys = new HashSet<String>();
+
+        for ( String path : parts.get( PATH_PART ) ) {
+            String normalized = CustomPermission.makePath( path );
+
+            // substitutions are resolved against the subject when checked and may change the first segment
+            if ( normalized.contains( USER_SUBSTITUTION ) || normalized.contains( ME_PREFIX ) ) {
+                return null;
+            }
+
+            String segment = firstSegment( normalized );
+
+            if ( segment == null || isPattern( segment ) ) {
+                return null;
+            }
+
+            keys.add( segment );
+        }
+
+        return keys;
+    }
+
+
+    /**
+     * @return The first segment of the requested path, or null if the request has no path segment.  A permission
+     * indexed by a literal segment can only imply a request with a path that starts with the same segment.
+     */
+    static String requestedKey( CustomPermission permission ) {
+        List<Set<String>> parts = permission.getParts();
+
+        if ( parts.size() <= PATH_PART ) {
+            return null;
+        }
+
+        // every requested path has to be implied, it's enough to look up the first
+        Set<String> paths = parts.get( PATH_PART );
+
+        if ( paths.isEmpty() ) {
+            return null;
+        }
+
+        return firstSegment( CustomPermission.makePath( paths.iterator().next() ) );
+    }
+
+
+    /**
+     * The first segment the way the path matcher tokenizes it, empty segments are skipped and segments are trimmed.
+     * The segment is case folded the way {@link String#equalsIgnoreCase(String)} compares characters.
+     */
+    private static String firstSegment( String path ) {
+        for ( String segment : path.split( "/" ) ) {
+            segment = segment.trim();
+            if ( !segment.isEmpty() ) {
+                return fold( segment );
+            }
+        }
+        return null;
+    }
+
+
+    private static String fold( String segment ) {
+        char[] chars = segment.toCharArray();
+        for ( int i = 0; i < chars.length; i++ ) {
+            chars[i] = Character.toLowerCase( Character.toUpperCase( chars[i] ) );
+        }
+        return new String( chars );
+    }
+
+
+    private static boolean isPattern( String segment ) {
+        return segment.indexOf( '*' ) != -1 || segment.indexOf( '?' ) != -1 || segment.indexOf( '{' ) != -1
+                || segment.indexOf( '}' ) != -1;
+    }
+}
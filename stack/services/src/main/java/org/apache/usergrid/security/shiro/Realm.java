@@ -22,6 +22,7 @@ import org.apache.shiro.authc.*;
 import org.apache.shiro.authc.credential.AllowAllCredentialsMatcher;
 import org.apache.shiro.authc.credential.CredentialsMatcher;
 import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.permission.PermissionResolver;
 import org.apache.shiro.cache.CacheManager;
 import org.apache.shiro.realm.AuthorizingRealm;
@@ -221,6 +222,29 @@ public class Realm extends AuthorizingRealm {
     }
 
 
+    /**
+     * Checks the permission against the granted permissions compiled once per authorization info, instead of
+     * resolving and walking every granted permission on each check.
+     */
+    @Override
+    protected boolean isPermitted( Permission permission, AuthorizationInfo info ) {
+        // role permissions are resolved on each check, they can't be compiled with the info
+        if ( !( info instanceof UsergridAuthorizationInfo ) || getRolePermissionResolver() != null ) {
+            return super.isPermitted( permission, info );
+        }
+
+        UsergridAuthorizationInfo usergridInfo = ( UsergridAuthorizationInfo ) info;
+
+        CompiledPermissionMatcher compiled = usergridInfo.getCompiledPermissions();
+        if ( compiled == null ) {
+            compiled = new CompiledPermissionMatcher( getPermissions( info ) );
+            usergridInfo.setCompiledPermissions( compiled );
+        }
+
+        return compiled.implies( permission );
+    }
+
+
     @Override
     public boolean isAuthorizationCachingEnabled() {
         return getCacheManager() != null;
@@ -17,10 +17,13 @@
 
 package org.apache.usergrid.security.shiro;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.usergrid.management.ApplicationInfo;
 import org.apache.usergrid.management.OrganizationInfo;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +40,10 @@ public class UsergridAuthorizationInfo extends SimpleAuthorizationInfo {
     OrganizationInfo organization = null;
     ApplicationInfo application = null;
 
+    // the resolved permissions, compiled on the first check and dropped when permissions are added, the cached
+    // authorization info is stored as json without them
+    transient volatile CompiledPermissionMatcher compiledPermissions = null;
+
 
     /**
      * Default no-argument constructor.
@@ -88,6 +95,52 @@ public class UsergridAuthorizationInfo extends SimpleAuthorizationInfo {
         this.organizationSet.putAll( organizationSet );
     }
 
+    @JsonIgnore
+    public CompiledPermissionMatcher getCompiledPermissions() {
+        return compiledPermissions;
+    }
+
+    @JsonIgnore
+    public void setCompiledPermissions(CompiledPermissionMatcher compiledPermissions) {
+        this.compiledPermissions = compiledPermissions;
+    }
+
+    @Override
+    public void setStringPermissions(Set<String> stringPermissions) {
+        super.setStringPermissions( stringPermissions );
+        compiledPermissions = null;
+    }
+
+    @Override
+    public void addStringPermission(String permission) {
+        super.addStringPermission( permission );
+        compiledPermissions = null;
+    }
+
+    @Override
+    public void addStringPermissions(Collection<String> permissions) {
+        super.addStringPermissions( permissions );
+        compiledPermissions = null;
+    }
+
+    @Override
+    public void setObjectPermissions(Set<Permission> objectPermissions) {
+        super.setObjectPermissions( objectPermissions );
+        compiledPermissions = null;
+    }
+
+    @Override
+    public void addObjectPermission(Permission permission) {
+        super.addObjectPermission( permission );
+        compiledPermissions = null;
+    }
+
+    @Override
+    public void addObjectPermissions(Collection<Permission> permissions) {
+        super.addObjectPermissions( permissions );
+        compiledPermissions = null;
+    }
+
     @Override
     public String toString() {
         String orgName = null;
@@ -17,10 +17,13 @@
 package org.apache.usergrid.security.shiro.principals;
 
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.HashBiMap;
 import org.apache.usergrid.management.ApplicationInfo;
@@ -39,6 +42,8 @@ import org.apache.usergrid.security.tokens.TokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import rx.Observable;
+
 import static org.apache.usergrid.security.shiro.utils.SubjectUtils.getPermissionFromPath;
 import static org.apache.usergrid.security.shiro.utils.SubjectUtils.getSubject;
 
@@ -102,8 +107,27 @@ public class ApplicationUserPrincipal extends UserPrincipal {
         }
 
         EntityManager em = emf.getEntityManager( applicationId );
+        UserInfo user = getUser();
+
+        // none of the reads depend on each other, start them all so a cold authorization costs a few concurrent
+        // round trips instead of one after the other for every group and role
+        Future<String> appNameFuture =
+            async( () -> ( String ) em.getProperty( em.getApplicationRef(), "name" ) ).toBlocking().toFuture();
+
+        Future<Set<String>> defaultPermissionsFuture = async( () -> em.getRolePermissions( "default" ) )
+            .onErrorReturn( t -> failed( "Unable to get user default role permissions", t ) ).toBlocking().toFuture();
+
+        Future<Set<String>> userPermissionsFuture = async( () -> em.getUserPermissions( user.getUuid() ) )
+            .onErrorReturn( t -> failed( "Unable to get user permissions", t ) ).toBlocking().toFuture();
+
+        Future<Set<String>> userRolesFuture = async( () -> em.getUserRoles( user.getUuid() ) )
+            .onErrorReturn( t -> failed( "Unable to get user role permissions", t ) ).toBlocking().toFuture();
+
+        Future<Set<String>> groupRolesFuture = getGroupRoles( em, user.getUuid() )
+            .onErrorReturn( t -> failed( "Unable to get user group role permissions", t ) ).toBlocking().toFuture();
+
         try {
-            String appName = ( String ) em.getProperty( em.getApplicationRef(), "name" );
+            String appName = appNameFuture.get();
             applicationSet.put( applicationId, appName );
             application = new ApplicationInfo( applicationId, appName );
         }
@@ -111,63 +135,53 @@ public class ApplicationUserPrincipal extends UserPrincipal {
         }
 
         try {
-            Set<String> permissions = em.getRolePermissions( "default" );
-            grant( info, applicationId, permissions );
-        }
-        catch ( Exception e ) {
-            logger.error( "Unable to get user default role permissions", e );
-        }
-
-        UserInfo user = getUser();
-        try {
-            Set<String> permissions = em.getUserPermissions( user.getUuid() );
-            grant( info, applicationId, permissions );
-        }
-        catch ( Exception e ) {
-            logger.error( "Unable to get user permissions", e );
-        }
+            grant( info, applicationId, defaultPermissionsFuture.get() );
+            grant( info, applicationId, userPermissionsFuture.get() );
+
+            // the roles of the user and of its groups, granted from the role permissions cache in one pass
+            Set<String> rolenames = new LinkedHashSet<String>();
+            Set<String> userRoles = userRolesFuture.get();
+            if ( userRoles != null ) {
+                rolenames.addAll( userRoles );
+            }
+            rolenames.addAll( groupRolesFuture.get() );
 
-        try {
-            Set<String> rolenames = em.getUserRoles( user.getUuid() );
             grantAppRoles( info, em, applicationId, token, rolenames );
         }
         catch ( Exception e ) {
             logger.error( "Unable to get user role permissions", e );
         }
 
-        try {
-
-            // this is woefully inefficient, thankfully we cache the info object now
+        info.setOrganization(organization);
+        info.addOrganizationSet(organizationSet);
+        info.setApplication(application);
+        info.addApplicationSet(applicationSet);
+    }
 
-            Results r =
-                em.getCollection( new SimpleEntityRef( User.ENTITY_TYPE, user.getUuid() ), "groups", null,
-                    1000, Query.Level.IDS, false );
-            if ( r != null ) {
 
+    /**
+     * Read the names of the roles of every group of the user, the roles of the groups are read concurrently
+     */
+    private static Observable<Set<String>> getGroupRoles( EntityManager em, UUID userId ) {
+        return async( () -> em.getCollection( new SimpleEntityRef( User.ENTITY_TYPE, userId ), "groups", null,
+                1000, Query.Level.IDS, false ) )
+            .flatMap( r -> Observable.merge( Observable.from( r != null ? r.getIds() : Collections.<UUID>emptyList() )
+                .map( groupId -> async( () -> em.getCollection( new SimpleEntityRef( Group.ENTITY_TYPE, groupId ),
+                    "roles", null, 1000, Query.Level.CORE_PROPERTIES, false ) ) ), MAX_CONCURRENT_READS ) )
+            .toList().map( roleResults -> {
                 Set<String> rolenames = new HashSet<String>();
-
-                for ( UUID groupId : r.getIds() ) {
-
-                    Results roleResults =
-                        em.getCollection( new SimpleEntityRef( Group.ENTITY_TYPE, groupId ), "roles", null,
-                            1000, Query.Level.CORE_PROPERTIES, false );
-
-                    for ( Entity entity : roleResults.getEntities() ) {
+                for ( Results results : roleResults ) {
+                    for ( Entity entity : results.getEntities() ) {
                         rolenames.add( entity.getName() );
                     }
                 }
+                return rolenames;
+            } );
+    }
 
 
-                grantAppRoles( info, em, applicationId, token, rolenames );
-            }
-        }
-        catch ( Exception e ) {
-            logger.error( "Unable to get user group role permissions", e );
-        }
-
-        info.setOrganization(organization);
-        info.addOrganizationSet(organizationSet);
-        info.setApplication(application);
-        info.addApplicationSet(applicationSet);
+    private static Set<String> failed( String message, Throwable t ) {
+        logger.error( message, t );
+        return Collections.emptySet();
     }
 }
@@ -31,9 +31,15 @@ import org.apache.usergrid.security.tokens.TokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
 
 import static org.apache.commons.lang.StringUtils.isBlank;
 import static org.apache.commons.lang.StringUtils.isNotBlank;
@@ -45,6 +51,9 @@ public abstract class PrincipalIdentifier {
 
     private static final Logger logger = LoggerFactory.getLogger(PrincipalIdentifier.class);
 
+    /** The most reads of one authorization info in flight at once */
+    protected static final int MAX_CONCURRENT_READS = 10;
+
     AccessTokenCredentials accessTokenCredentials;
 
 
@@ -126,7 +135,32 @@ public abstract class PrincipalIdentifier {
         TokenInfo token,
         Set<String> rolenames ) throws Exception {
 
-        Map<String, Role> app_roles = em.getRolesWithTitles( rolenames );
+        // read the role titles and the permissions of every role concurrently
+        Observable<Map<String, Role>> rolesObservable = async( () -> em.getRolesWithTitles( rolenames ) );
+
+        Observable<Map<String, Set<String>>> permissionsObservable = Observable.merge(
+            Observable.from( rolenames ).map( rolename -> async( () -> em.getRolePermissions( rolename ) )
+                .map( permissions -> new AbstractMap.SimpleEntry<>( rolename, permissions ) ) ),
+            MAX_CONCURRENT_READS ).toMap( Map.Entry::getKey, Map.Entry::getValue );
+
+        Map<String, Set<String>> granted = Observable.zip( rolesObservable, permissionsObservable,
+            ( app_roles, role_permissions ) -> activeRoles( rolenames, app_roles, role_permissions, token ) )
+            .toBlocking().last();
+
+        for ( Map.Entry<String, Set<String>> role : granted.entrySet() ) {
+            grant( info, applicationId, role.getValue() );
+            role( info, "application-role:".concat( applicationId.toString() ).concat( ":" ).concat( role.getKey() ) );
+        }
+    }
+
+
+    /**
+     * @return The permissions of the roles that haven't been inactive for longer than the role allows, in role order
+     */
+    private static Map<String, Set<String>> activeRoles( Set<String> rolenames, Map<String, Role> app_roles,
+                                                         Map<String, Set<String>> role_permissions,
+                                                         TokenInfo token ) {
+        Map<String, Set<String>> active = new LinkedHashMap<>();
 
         for ( String rolename : rolenames ) {
             if ( ( app_roles != null ) && ( token != null ) ) {
@@ -136,9 +170,26 @@ public abstract class PrincipalIdentifier {
                     continue;
                 }
             }
-            Set<String> permissions = em.getRolePermissions( rolename );
-            grant( info, applicationId, permissions );
-            role( info, "application-role:".concat( applicationId.toString() ).concat( ":" ).concat( rolename ) );
+            active.put( rolename, role_permissions.get( rolename ) );
         }
+
+        return active;
+    }
+
+
+    /**
+     * Read on the IO scheduler, so independent reads of the authorization info run concurrently.  Nothing is read
+     * until the observable is subscribed.
+     */
+    protected static <T> Observable<T> async( Callable<T> read ) {
+        return Observable.<T>create( subscriber -> {
+            try {
+                subscriber.onNext( read.call() );
+                subscriber.onCompleted();
+            }
+            catch ( Exception e ) {
+                subscriber.onError( e );
+            }
+        } ).subscribeOn( Schedulers.io() );
     }
 }
@@ -51,7 +51,7 @@ import static java.lang.System.currentTimeMillis;
 import static org.apache.commons.codec.binary.Base64.decodeBase64;
 import static org.apache.commons.codec.binary.Base64.encodeBase64URLSafeString;
 import static org.apache.commons.codec.digest.DigestUtils.sha;
-import static org.apache.usergrid.persistence.token.impl.TokenSerializationImpl.*;
+import static org.apache.usergrid.persistence.token.TokenSerialization.*;
 import static org.apache.usergrid.security.AuthPrincipalType.ADMIN_USER;
 import static org.apache.usergrid.security.tokens.TokenCategory.*;
 import static org.apache.usergrid.utils.ConversionUtils.*;
@@ -18,17 +18,12 @@ package org.apache.usergrid.services;
 
 
 import com.codahale.metrics.Timer;
-import com.google.inject.Injector;
-import com.google.inject.Key;
 import org.apache.commons.lang.NotImplementedException;
 import org.apache.shiro.subject.Subject;
-import org.apache.usergrid.corepersistence.rx.impl.ResponseImportTasks;
 import org.apache.usergrid.corepersistence.service.ServiceSchedulerFig;
 import org.apache.usergrid.persistence.*;
 import org.apache.usergrid.persistence.cache.CacheFactory;
-import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.metrics.ObservableTimer;
-import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.security.shiro.utils.LocalShiroCache;
 import org.apache.usergrid.security.shiro.utils.SubjectUtils;
 import org.apache.usergrid.services.ServiceParameter.IdParameter;
@@ -90,7 +85,6 @@ public abstract class AbstractService implements Service {
 
     private Scheduler rxScheduler;
     private ServiceSchedulerFig rxSchedulerFig;
-    private MetricsFactory metricsFactory;
     private Timer entityGetTimer;
     private Timer entitiesGetTimer;
     private Timer entitiesParallelGetTimer;
@@ -107,18 +101,20 @@ public abstract class AbstractService implements Service {
     public void setServiceManager( ServiceManager sm ) {
         this.sm = sm;
         em = sm.getEntityManager();
-        final Injector injector = sm.getApplicationContext().getBean( Injector.class );
-        rxScheduler = injector.getInstance( Key.get(RxTaskScheduler.class, ResponseImportTasks.class ) )
-            .getAsyncIOScheduler();
-        rxSchedulerFig = injector.getInstance(ServiceSchedulerFig.class );
-        metricsFactory = injector.getInstance(MetricsFactory.class);
-        this.entityGetTimer = metricsFactory.getTimer(this.getClass(), "importEntity.get");
-        this.entitiesGetTimer = metricsFactory.getTimer(this.getClass(), "importEntities.get");
-        this.entitiesParallelGetTimer = metricsFactory.getTimer( this.getClass(),"importEntitiesP.get" );
-        this.invokeTimer = metricsFactory.getTimer( this.getClass(),"service.invoke" );
-
-        this.cacheFactory = injector.getInstance( CacheFactory.class );
-        this.localShiroCache = injector.getInstance( LocalShiroCache.class );
+
+        //shared by every service, resolved once instead of on every request
+        final ServiceResources resources = sm.getServiceResources();
+        rxScheduler = resources.getRxScheduler();
+        rxSchedulerFig = resources.getRxSchedulerFig();
+
+        final ServiceResources.ServiceTimers timers = resources.getTimers( this.getClass() );
+        this.entityGetTimer = timers.getEntityGetTimer();
+        this.entitiesGetTimer = timers.getEntitiesGetTimer();
+        this.entitiesParallelGetTimer = timers.getEntitiesParallelGetTimer();
+        this.invokeTimer = timers.getInvokeTimer();
+
+        this.cacheFactory = resources.getCacheFactory();
+        this.localShiroCache = resources.getLocalShiroCache();
     }
 
 
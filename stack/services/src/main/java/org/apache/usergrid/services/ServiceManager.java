@@ -17,8 +17,13 @@
 package org.apache.usergrid.services;
 
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -79,6 +84,12 @@ public class ServiceManager {
 
     private Properties properties;
 
+    /**
+     * The service instances of this manager. Services hold the manager, its entity manager and application, so they
+     * are only re-used within the request the manager serves
+     */
+    private final ConcurrentMap<ServiceInfo, Service> serviceInstances = new ConcurrentHashMap<>();
+
     // search for commercial packages first for SaaS version
     public static String[] package_prefixes = {
             OSS_PACKAGE_PREFIX
@@ -133,6 +144,11 @@ public class ServiceManager {
     }
 
 
+    public ServiceResources getServiceResources() {
+        return smf.getServiceResources();
+    }
+
+
     private void setServicePackagePrefixes( String packages ) {
         List<String> packagePrefixes = new ArrayList<String>();
         Collections.addAll(packagePrefixes, package_prefixes);
@@ -307,6 +323,17 @@ public class ServiceManager {
     }
 
 
+    /** The no-arg constructors of the service classes, looked up once instead of reflecting on every instance */
+    private static LoadingCache<Class<Service>, MethodHandle> serviceConstructorCache =
+            CacheBuilder.newBuilder().maximumSize( 100 )
+                        .build( new CacheLoader<Class<Service>, MethodHandle>() {
+                            public MethodHandle load( Class<Service> key ) throws Exception {
+                                return MethodHandles.lookup()
+                                              .findConstructor( key, MethodType.methodType( void.class ) );
+                            }
+                        } );
+
+
     private Class<Service> findServiceClass( ServiceInfo info ) {
         Class<Service> cls = null;
 
@@ -330,13 +357,33 @@ public class ServiceManager {
 
     private Service getServiceInstance( ServiceInfo info ) {
 
+        Service service = serviceInstances.get( info );
+
+        if ( service == null ) {
+            service = newServiceInstance( info );
+
+            if ( service != null ) {
+                final Service existing = serviceInstances.putIfAbsent( info, service );
+
+                if ( existing != null ) {
+                    service = existing;
+                }
+            }
+        }
+
+        return service;
+    }
+
+
+    private Service newServiceInstance( ServiceInfo info ) {
+
         Class<Service> cls = findServiceClass( info );
         if ( cls != null ) {
             Service s = null;
             try {
-                s = cls.newInstance();
+                s = ( Service ) serviceConstructorCache.get( cls ).invoke();
             }
-            catch ( Exception e ) {
+            catch ( Throwable e ) {
                 logger.error( "cannot instantiate {}", cls.getName(), e );
             }
             if ( s instanceof AbstractService ) {
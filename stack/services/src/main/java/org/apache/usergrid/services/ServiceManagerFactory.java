@@ -46,6 +46,7 @@ public class ServiceManagerFactory implements ApplicationContextAware {
     private SchedulerService schedulerService;
     private LockManager lockManager;
     private QueueManagerFactory qmf;
+    private volatile ServiceResources serviceResources;
 
     private List<ServiceExecutionEventListener> eventListeners;
     private List<ServiceCollectionEventListener> collectionListeners;
@@ -144,6 +145,21 @@ public class ServiceManagerFactory implements ApplicationContextAware {
         return lockManager;
     }
 
+    /**
+     * Get the dependencies shared by every service, resolving them on first use
+     */
+    public ServiceResources getServiceResources() {
+        if ( serviceResources == null ) {
+            synchronized ( this ) {
+                if ( serviceResources == null ) {
+                    serviceResources = new ServiceResources( applicationContext.getBean( Injector.class ) );
+                }
+            }
+        }
+        return serviceResources;
+    }
+
+
     public UUID getManagementAppId() {
         return emf.getManagementAppId();
     }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.usergrid.corepersistence.rx.impl.ResponseImportTasks;
+import org.apache.usergrid.corepersistence.service.ServiceSchedulerFig;
+import org.apache.usergrid.persistence.cache.CacheFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
+import org.apache.usergrid.security.shiro.utils.LocalShiroCache;
+
+import com.codahale.metrics.Timer;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+
+import rx.Scheduler;
+
+
+/**
+ * The dependencies every service shares.  These are resolved from the injector once per service manager factory
+ * instead of every time a service is created, and the timers are registered once per service class.
+ */
+public class ServiceResources {
+
+    private final Scheduler rxScheduler;
+    private final ServiceSchedulerFig rxSchedulerFig;
+    private final MetricsFactory metricsFactory;
+    private final CacheFactory cacheFactory;
+    private final LocalShiroCache localShiroCache;
+
+    private final ConcurrentMap<Class<?>, ServiceTimers> timers = new ConcurrentHashMap<>();
+
+
+    public ServiceResources( final Injector injector ) {
+        this.rxScheduler = injector.getInstance( Key.get( RxTaskScheduler.class, ResponseImportTasks.class ) )
+                                   .getAsyncIOScheduler();
+        this.rxSchedulerFig = injector.getInstance( ServiceSchedulerFig.class );
+        this.metricsFactory = injector.getInstance( MetricsFactory.class );
+        this.cacheFactory = injector.getInstance( CacheFactory.class );
+        this.localShiroCache = injector.getInstance( LocalShiroCache.class );
+    }
+
+
+    public Scheduler getRxScheduler() {
+        return rxScheduler;
+    }
+
+
+    public ServiceSchedulerFig getRxSchedulerFig() {
+        return rxSchedulerFig;
+    }
+
+
+    public MetricsFactory getMetricsFactory() {
+        return metricsFactory;
+    }
+
+
+    public CacheFactory getCacheFactory() {
+        return cacheFactory;
+    }
+
+
+    public LocalShiroCache getLocalShiroCache() {
+        return localShiroCache;
+    }
+
+
+    /**
+     * Get the timers for the service class, registering them on first use
+     */
+    public ServiceTimers getTimers( final Class<?> serviceClass ) {
+        return timers.computeIfAbsent( serviceClass, cls -> new ServiceTimers( metricsFactory, cls ) );
+    }
+
+
+    /**
+     * The timers recorded by every service
+     */
+    public static final class ServiceTimers {
+
+        private final Timer entityGetTimer;
+        private final Timer entitiesGetTimer;
+        private final Timer entitiesParallelGetTimer;
+        private final Timer invokeTimer;
+
+
+        private ServiceTimers( final MetricsFactory metricsFactory, final Class<?> serviceClass ) {
+            this.entityGetTimer = metricsFactory.getTimer( serviceClass, "importEntity.get" );
+            this.entitiesGetTimer = metricsFactory.getTimer( serviceClass, "importEntities.get" );
+            this.entitiesParallelGetTimer = metricsFactory.getTimer( serviceClass, "importEntitiesP.get" );
+            this.invokeTimer = metricsFactory.getTimer( serviceClass, "service.invoke" );
+        }
+
+
+        public Timer getEntityGetTimer() {
+            return entityGetTimer;
+        }
+
+
+        public Timer getEntitiesGetTimer() {
+            return entitiesGetTimer;
+        }
+
+
+        public Timer getEntitiesParallelGetTimer() {
+            return entitiesParallelGetTimer;
+        }
+
+
+        public Timer getInvokeTimer() {
+            return invokeTimer;
+        }
+    }
+}
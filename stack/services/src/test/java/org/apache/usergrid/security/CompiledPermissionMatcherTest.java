@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.security;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.usergrid.management.UserInfo;
+import org.apache.usergrid.security.shiro.CompiledPermissionMatcher;
+import org.apache.usergrid.security.shiro.CustomPermission;
+import org.apache.usergrid.security.shiro.principals.ApplicationUserPrincipal;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.apache.shiro.util.ThreadState;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class CompiledPermissionMatcherTest {
+
+    private static final String APP = "applications:get,put:00000000-0000-0000-0000-000000000001:";
+
+    private static final String[] GRANTED = {
+            APP + "/foo", APP + "/foo/bar/*", APP + "/foo/bar/**", APP + "/foo/bar/*/boz/*", APP + "/Users/*",
+            APP + "/groups,/roles/*", APP + "/*/assets", APP + "/**", APP + "users/*", APP + "//devices/*",
+            APP + "/dev?ces", APP + "/{name}/x", "applications:get:00000000-0000-0000-0000-000000000001",
+            "applications:delete", "applications:*:00000000-0000-0000-0000-000000000002:*", "users",
+            "notifiers:get:/foo"
+    };
+
+    private static final String[] REQUESTED = {
+            APP + "/foo", APP + "/foo/bar", APP + "/foo/bar/baz", APP + "/foo/bar/baz/boz/biz",
+            APP + "/foo/bar/baz/boz/biz/box", APP + "/users/fred", APP + "/USERS/fred", APP + "users/fred",
+            APP + "/groups", APP + "/roles/admin", APP + "/cats/assets", APP + "/devices/d1", APP + "/devices",
+            APP + "/", APP + "*", "applications:get:00000000-0000-0000-0000-000000000001:/anything",
+            "applications:get:00000000-0000-0000-0000-000000000001", "applications:delete:x:/foo",
+            "applications:get:00000000-0000-0000-0000-000000000002:/foo/bar", "users", "notifiers:get:/foo",
+            "notifiers:get:/bar"
+    };
+
+
+    private ThreadState subjectThreadState;
+
+
+    @After
+    public void clearSubject() {
+        if ( subjectThreadState != null ) {
+            subjectThreadState.clear();
+            subjectThreadState = null;
+        }
+    }
+
+
+    @Test
+    public void sameAsEveryPermission() {
+        // each granted permission alone, all of them, and a few together
+        for ( String granted : GRANTED ) {
+            assertSameAsEveryPermission( permissions( granted ) );
+        }
+
+        assertSameAsEveryPermission( permissions( GRANTED ) );
+        assertSameAsEveryPermission( permissions( APP + "/foo/bar/*", APP + "/Users/*", APP + "//devices/*" ) );
+        assertSameAsEveryPermission( permissions() );
+    }
+
+
+    @Test
+    public void indexedPermissions() {
+        CompiledPermissionMatcher matcher =
+                new CompiledPermissionMatcher( permissions( APP + "/users/*", APP + "/groups/*" ) );
+
+        assertTrue( matcher.implies( new CustomPermission( APP + "/users/fred" ) ) );
+        assertTrue( matcher.implies( new CustomPermission( APP + "/Users/fred" ) ) );
+        assertTrue( matcher.implies( new CustomPermission( APP + "/groups/admins" ) ) );
+        assertFalse( matcher.implies( new CustomPermission( APP + "/roles/admin" ) ) );
+        assertFalse( matcher.implies( new CustomPermission( APP + "/users/fred/devices" ) ) );
+        assertFalse( matcher.implies( new CustomPermission( "applications:get:00000000-0000-0000-0000-000000000001" ) ) );
+    }
+
+
+    @Test
+    public void userSubstitution() {
+        setUser( "fred" );
+
+        assertSubstituted( APP + "/${user}/x" );
+    }
+
+
+    @Test
+    public void mePath() {
+        setUser( "fred" );
+
+        assertSubstituted( APP + "/me/x" );
+    }
+
+
+    @Test
+    public void relativeMePath() {
+        setUser( "fred" );
+
+        assertSubstituted( APP + "me/x" );
+    }
+
+
+    private static void assertSubstituted( String granted ) {
+        List<Permission> perms = permissions( granted );
+        CompiledPermissionMatcher matcher = new CompiledPermissionMatcher( perms );
+
+        assertTrue( perms.get( 0 ).implies( new CustomPermission( APP + "/fred/x" ) ) );
+        assertTrue( matcher.implies( new CustomPermission( APP + "/fred/x" ) ) );
+        assertFalse( matcher.implies( new CustomPermission( APP + "/barney/x" ) ) );
+        assertSameAsEveryPermission( perms );
+    }
+
+
+    private void setUser( String username ) {
+        UUID applicationId = UUID.fromString( "00000000-0000-0000-0000-000000000001" );
+        UserInfo user = new UserInfo( applicationId, UUID.randomUUID(), username, username, username + "@example.com",
+                true, true, false, new HashMap<String, Object>(), false );
+
+        Subject subject = mock( Subject.class );
+        when( subject.getPrincipal() ).thenReturn( new ApplicationUserPrincipal( applicationId, user ) );
+
+        subjectThreadState = new SubjectThreadState( subject );
+        subjectThreadState.bind();
+    }
+
+
+    private static void assertSameAsEveryPermission( List<Permission> granted ) {
+        CompiledPermissionMatcher matcher = new CompiledPermissionMatcher( granted );
+
+        for ( String requested : REQUESTED ) {
+            CustomPermission permission = new CustomPermission( requested );
+
+            boolean expected = false;
+            for ( Permission perm : granted ) {
+                expected |= perm.implies( permission );
+            }
+
+            assertEquals( granted + " implies " + requested, expected, matcher.implies( permission ) );
+        }
+    }
+
+
+    private static List<Permission> permissions( String... permissions ) {
+        List<Permission> perms = new ArrayList<Permission>();
+        for ( String permission : permissions ) {
+            perms.add( new CustomPermission( permission ) );
+        }
+        return perms;
+    }
+}
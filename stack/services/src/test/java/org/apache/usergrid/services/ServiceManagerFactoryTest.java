@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services;
+
+
+import java.util.Properties;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+
+import org.apache.usergrid.corepersistence.rx.impl.ResponseImportTasks;
+import org.apache.usergrid.corepersistence.service.ServiceSchedulerFig;
+import org.apache.usergrid.mq.QueueManagerFactory;
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.EntityManagerFactory;
+import org.apache.usergrid.persistence.cache.CacheFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
+import org.apache.usergrid.persistence.entities.Application;
+import org.apache.usergrid.security.shiro.utils.LocalShiroCache;
+import org.apache.usergrid.utils.UUIDUtils;
+
+import com.codahale.metrics.Timer;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+
+import rx.schedulers.Schedulers;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the service instances are re-used within a service manager only, while their dependencies are shared
+ */
+public class ServiceManagerFactoryTest {
+
+    private ServiceManagerFactory smf;
+    private EntityManagerFactory emf;
+
+
+    @Before
+    public void setup() {
+        final MetricsFactory metricsFactory = mock( MetricsFactory.class );
+        when( metricsFactory.getTimer( any( Class.class ), anyString() ) ).thenAnswer( invocation -> new Timer() );
+
+        final RxTaskScheduler rxTaskScheduler = mock( RxTaskScheduler.class );
+        when( rxTaskScheduler.getAsyncIOScheduler() ).thenReturn( Schedulers.io() );
+
+        final Injector injector = mock( Injector.class );
+        when( injector.getInstance( Key.get( RxTaskScheduler.class, ResponseImportTasks.class ) ) )
+            .thenReturn( rxTaskScheduler );
+        when( injector.getInstance( ServiceSchedulerFig.class ) ).thenReturn( mock( ServiceSchedulerFig.class ) );
+        when( injector.getInstance( MetricsFactory.class ) ).thenReturn( metricsFactory );
+        when( injector.getInstance( CacheFactory.class ) ).thenReturn( mock( CacheFactory.class ) );
+        when( injector.getInstance( LocalShiroCache.class ) ).thenReturn( mock( LocalShiroCache.class ) );
+
+        final ApplicationContext applicationContext = mock( ApplicationContext.class );
+        when( applicationContext.getBean( Injector.class ) ).thenReturn( injector );
+
+        emf = mock( EntityManagerFactory.class );
+
+        smf = new ServiceManagerFactory( emf, new Properties(), null, mock( QueueManagerFactory.class ), injector );
+        smf.setApplicationContext( applicationContext );
+    }
+
+
+    @Test
+    public void servicesScopedToServiceManager() throws Exception {
+        final UUID applicationId = mockApplication();
+
+        final ServiceManager first = smf.getServiceManager( applicationId );
+        final ServiceManager second = smf.getServiceManager( applicationId );
+
+        assertNotSame( "A service manager per call", first, second );
+
+        final Service users = first.getService( "/users" );
+
+        assertNotNull( users );
+        assertSame( "Service re-used within a service manager", users, first.getService( "/users" ) );
+        assertSame( first, ( ( AbstractService ) users ).sm );
+
+        //services hold the request's service manager, so they are never shared with another one
+        final Service secondUsers = second.getService( "/users" );
+
+        assertNotSame( "Service per service manager", users, secondUsers );
+        assertSame( second, ( ( AbstractService ) secondUsers ).sm );
+        assertSame( first, ( ( AbstractService ) users ).sm );
+
+        //the dependencies are still shared
+        assertSame( first.getServiceResources(), second.getServiceResources() );
+    }
+
+
+    private UUID mockApplication() throws Exception {
+        final UUID applicationId = UUIDUtils.newTimeUUID();
+
+        final EntityManager em = mock( EntityManager.class );
+        when( em.getApplication() ).thenReturn( new Application( applicationId ) );
+        when( em.getApplicationId() ).thenReturn( applicationId );
+        when( emf.getEntityManager( applicationId ) ).thenReturn( em );
+
+        return applicationId;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.websocket;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.management.ApplicationInfo;
+import org.apache.usergrid.management.ManagementService;
+import org.apache.usergrid.management.OrganizationInfo;
+import org.apache.usergrid.management.UserInfo;
+import org.apache.usergrid.persistence.EntityManagerFactory;
+import org.apache.usergrid.security.AuthPrincipalInfo;
+import org.apache.usergrid.security.AuthPrincipalType;
+import org.apache.usergrid.security.shiro.PrincipalCredentialsToken;
+import org.apache.usergrid.security.tokens.TokenInfo;
+import org.apache.usergrid.security.tokens.TokenService;
+
+import static org.apache.commons.lang.StringUtils.isEmpty;
+
+
+/**
+ * Resolves the access token a WebSocket client connects with to the credentials its channel's subject logs in with,
+ * the same way the REST API resolves the access token of a request.
+ */
+public class ChangeFeedAuthenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger( ChangeFeedAuthenticator.class );
+
+    private final TokenService tokens;
+    private final ManagementService management;
+    private final EntityManagerFactory emf;
+
+
+    public ChangeFeedAuthenticator( TokenService tokens, ManagementService management, EntityManagerFactory emf ) {
+        this.tokens = tokens;
+        this.management = management;
+        this.emf = emf;
+    }
+
+
+    /**
+     * @return The credentials of the token, or null if the token isn't valid
+     */
+    public PrincipalCredentialsToken getCredentials( String accessToken ) {
+        if ( isEmpty( accessToken ) ) {
+            return null;
+        }
+
+        try {
+            TokenInfo tokenInfo = tokens.getTokenInfo( accessToken, false );
+            AuthPrincipalInfo principal = tokenInfo != null ? tokenInfo.getPrincipal() : null;
+
+            if ( principal == null ) {
+                return null;
+            }
+
+            if ( AuthPrincipalType.ADMIN_USER.equals( principal.getType() ) ) {
+                UserInfo user = management.getAdminUserInfoFromAccessToken( accessToken );
+                return user != null ? PrincipalCredentialsToken
+                        .getFromAdminUserInfoAndAccessToken( user, accessToken, emf.getManagementAppId() ) : null;
+            }
+
+            if ( AuthPrincipalType.APPLICATION_USER.equals( principal.getType() ) ) {
+                UserInfo user = management.getAppUserFromAccessToken( accessToken );
+                return user != null ? PrincipalCredentialsToken.getFromAppUserInfoAndAccessToken( user, accessToken )
+                                    : null;
+            }
+
+            if ( AuthPrincipalType.ORGANIZATION.equals( principal.getType() ) ) {
+                OrganizationInfo organization = management.getOrganizationInfoFromAccessToken( accessToken );
+                return organization != null ? PrincipalCredentialsToken
+                        .getFromOrganizationInfoAndAccessToken( organization, accessToken ) : null;
+            }
+
+            if ( AuthPrincipalType.APPLICATION.equals( principal.getType() ) ) {
+                ApplicationInfo application = management.getApplicationInfoFromAccessToken( accessToken );
+                return application != null ? PrincipalCredentialsToken
+                        .getFromApplicationInfoAndAccessToken( application, accessToken ) : null;
+            }
+        }
+        catch ( Exception e ) {
+            logger.debug( "Unable to verify WebSocket access token", e );
+        }
+
+        return null;
+    }
+}
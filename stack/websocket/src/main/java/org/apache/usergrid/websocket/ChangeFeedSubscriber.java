@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.websocket;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.handler.codec.http.websocket.DefaultWebSocketFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeEvent;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeListener;
+
+import static org.apache.usergrid.utils.JsonUtils.mapToJsonString;
+
+
+/**
+ * Writes the change feed events of a WebSocket channel's subscriptions as JSON frames.  The frames the channel has not
+ * flushed yet are bounded, a subscriber that falls behind by more than the bound is disconnected instead of buffering
+ * without limit, and resumes with the token of the last event it received.
+ */
+public class ChangeFeedSubscriber implements EntityChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger( ChangeFeedSubscriber.class );
+
+    private final Channel channel;
+    private final int maxPendingWrites;
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    private final ChannelFutureListener writeComplete = new ChannelFutureListener() {
+        @Override
+        public void operationComplete( final ChannelFuture future ) {
+            pendingWrites.decrementAndGet();
+        }
+    };
+
+
+    public ChangeFeedSubscriber( final Channel channel, final int maxPendingWrites ) {
+        this.channel = channel;
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+
+    @Override
+    public void onChange( final EntityChangeEvent event ) {
+
+        if ( !channel.isOpen() ) {
+            return;
+        }
+
+        if ( pendingWrites.incrementAndGet() > maxPendingWrites ) {
+            pendingWrites.decrementAndGet();
+
+            logger.warn( "Disconnecting slow change feed subscriber {}, {} events not yet written",
+                channel.getRemoteAddress(), maxPendingWrites );
+
+            channel.close();
+            return;
+        }
+
+        final Map<String, Object> message = new LinkedHashMap<>();
+        message.put( "token", event.getToken() );
+        message.put( "operation", event.getOperation().name().toLowerCase() );
+        message.put( "path", "/" + event.getApplicationId() + "/" + event.getCollection() );
+        message.put( "type", event.getType() );
+        message.put( "uuid", event.getEntityId() );
+        message.put( "timestamp", event.getTimestamp() );
+
+        channel.write( new DefaultWebSocketFrame( mapToJsonString( message ) ) ).addListener( writeComplete );
+    }
+}
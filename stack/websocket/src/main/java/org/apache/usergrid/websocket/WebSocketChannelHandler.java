@@ -18,7 +18,10 @@ package org.apache.usergrid.websocket;
 
 
 import java.security.MessageDigest;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.netty.buffer.ChannelBuffer;
@@ -49,16 +52,23 @@ import org.jboss.netty.handler.codec.http.websocket.WebSocketFrameEncoder;
 import org.jboss.netty.util.CharsetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeFeed;
 import org.apache.usergrid.management.ManagementService;
 import org.apache.usergrid.persistence.EntityManagerFactory;
+import org.apache.usergrid.security.shiro.PrincipalCredentialsToken;
 import org.apache.usergrid.services.ServiceManagerFactory;
 
+import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.mgt.SessionsSecurityManager;
 import org.apache.shiro.subject.Subject;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.apache.commons.lang.StringUtils.removeEnd;
 import static org.apache.commons.lang.StringUtils.split;
+import static org.apache.usergrid.security.shiro.utils.SubjectUtils.getPermissionFromPath;
+import static org.apache.usergrid.utils.JsonUtils.mapToJsonString;
+import static org.apache.usergrid.utils.JsonUtils.parse;
+import static org.apache.usergrid.utils.UUIDUtils.tryGetUUID;
 import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.CONNECTION;
 import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
 import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.ORIGIN;
@@ -87,6 +97,9 @@ public class WebSocketChannelHandler extends SimpleChannelUpstreamHandler {
     private final ServiceManagerFactory smf;
     private final ManagementService management;
     private final SessionsSecurityManager securityManager;
+    private final EntityChangeFeed changeFeed;
+    private final ChangeFeedAuthenticator authenticator;
+    private final int maxPendingWrites;
     private final boolean ssl;
 
     boolean websocket = false;
@@ -95,17 +108,25 @@ public class WebSocketChannelHandler extends SimpleChannelUpstreamHandler {
 
     private static ConcurrentHashMap<String, ChannelGroup> subscribers = new ConcurrentHashMap<String, ChannelGroup>();
 
-    List<String> subscriptions;
+    // change feed subscriptions of this channel by path, only touched by the channel's ordered executor
+    private final Map<String, EntityChangeFeed.Subscription> subscriptions =
+            new LinkedHashMap<String, EntityChangeFeed.Subscription>();
+
+    private ChangeFeedSubscriber changeFeedSubscriber;
 
 
     public WebSocketChannelHandler( EntityManagerFactory emf, ServiceManagerFactory smf, ManagementService management,
-                                    SessionsSecurityManager securityManager, boolean ssl ) {
+                                    SessionsSecurityManager securityManager, EntityChangeFeed changeFeed,
+                                    ChangeFeedAuthenticator authenticator, int maxPendingWrites, boolean ssl ) {
         super();
 
         this.emf = emf;
         this.smf = smf;
         this.management = management;
         this.securityManager = securityManager;
+        this.changeFeed = changeFeed;
+        this.authenticator = authenticator;
+        this.maxPendingWrites = maxPendingWrites;
         this.ssl = ssl;
 
         if ( securityManager != null ) {
@@ -185,6 +206,17 @@ public class WebSocketChannelHandler extends SimpleChannelUpstreamHandler {
     }
 
 
+    @Override
+    public void channelClosed( ChannelHandlerContext ctx, ChannelStateEvent e ) throws Exception {
+        super.channelClosed( ctx, e );
+
+        for ( EntityChangeFeed.Subscription subscription : subscriptions.values() ) {
+            subscription.close();
+        }
+        subscriptions.clear();
+    }
+
+
     @Override
     public void messageReceived( ChannelHandlerContext ctx, MessageEvent e ) throws Exception {
         Object msg = e.getMessage();
@@ -237,6 +269,13 @@ public class WebSocketChannelHandler extends SimpleChannelUpstreamHandler {
             String path = qs.getPath();
             logger.info( path );
 
+            // browsers can't set headers on a WebSocket handshake, the token is passed as a parameter
+            List<String> accessTokens = qs.getParameters().get( "access_token" );
+            if ( accessTokens != null && !accessTokens.isEmpty() && !login( accessTokens.get( 0 ) ) ) {
+                sendHttpResponse( ctx, req, FORBIDDEN );
+                return;
+            }
+
             // Fill in the headers and contents depending on handshake method.
             if ( req.containsHeader( SEC_WEBSOCKET_KEY1 ) && req.containsHeader( SEC_WEBSOCKET_KEY2 ) ) {
 
@@ -310,11 +349,142 @@ public class WebSocketChannelHandler extends SimpleChannelUpstreamHandler {
     }
 
 
+    /**
+     * Log the channel's subject in with the access token
+     *
+     * @return False if the token isn't valid
+     */
+    private boolean login( String accessToken ) {
+        if ( subject == null || authenticator == null ) {
+            return false;
+        }
+
+        PrincipalCredentialsToken credentials = authenticator.getCredentials( accessToken );
+        if ( credentials == null ) {
+            return false;
+        }
+
+        try {
+            subject.login( credentials );
+            return true;
+        }
+        catch ( AuthenticationException e ) {
+            logger.debug( "WebSocket login failed", e );
+            return false;
+        }
+    }
+
+
+    /**
+     * @return True if the channel's subject may read the collection, or every collection when it's null
+     */
+    private boolean isPermittedToRead( UUID applicationId, String collection ) {
+        if ( subject == null || !subject.isAuthenticated() ) {
+            return false;
+        }
+
+        return subject.isPermitted(
+                getPermissionFromPath( applicationId, "get", collection != null ? "/" + collection : "/**" ) );
+    }
+
+
+    /**
+     * Handle the change feed commands of the client, each a JSON object:
+     * <pre>
+     * {"subscribe" : "/&lt;application uuid&gt;/&lt;collection&gt;", "token" : "&lt;token of the last event&gt;"}
+     * {"unsubscribe" : "/&lt;application uuid&gt;/&lt;collection&gt;"}
+     * </pre>
+     * Leaving out the collection subscribes to every collection of the application, and the token is only passed when
+     * resuming.  The events missed since the token are sent before the subscribe response, then events are sent as
+     * they are written, each with the token to resume from.  The client connects with an access_token parameter, and
+     * can only subscribe to the collections it may read.
+     */
     private void handleWebSocketFrame( ChannelHandlerContext ctx, WebSocketFrame frame ) {
-        // Send the uppercased string back.
-        ctx.getChannel().write( new DefaultWebSocketFrame( frame.getTextData().toUpperCase() ) );
+        Channel channel = ctx.getChannel();
+
+        Object command;
+        try {
+            command = parse( frame.getTextData() );
+        }
+        catch ( RuntimeException e ) {
+            command = null;
+        }
+
+        if ( !( command instanceof Map ) ) {
+            sendMessage( channel, "error", "Expected a JSON object" );
+            return;
+        }
+
+        Map<?, ?> map = ( Map<?, ?> ) command;
+
+        if ( map.get( "subscribe" ) instanceof String ) {
+            Object token = map.get( "token" );
+            subscribe( channel, ( String ) map.get( "subscribe" ), token != null ? token.toString() : null );
+        }
+        else if ( map.get( "unsubscribe" ) instanceof String ) {
+            String path = ( String ) map.get( "unsubscribe" );
+            EntityChangeFeed.Subscription subscription = subscriptions.remove( path );
+            if ( subscription != null ) {
+                subscription.close();
+            }
+            sendMessage( channel, "unsubscribed", path );
+        }
+        else {
+            sendMessage( channel, "error", "Expected subscribe or unsubscribe" );
+        }
     }
 
+
+    private void subscribe( Channel channel, String path, String token ) {
+        if ( changeFeed == null ) {
+            sendMessage( channel, "error", "Change feed is not available" );
+            return;
+        }
+
+        String[] segments = split( path, '/' );
+        UUID applicationId = segments.length > 0 ? tryGetUUID( segments[0] ) : null;
+
+        if ( applicationId == null || segments.length > 2 ) {
+            sendMessage( channel, "error", "Expected /<application uuid>/<collection>" );
+            return;
+        }
+
+        String collection = segments.length == 2 ? segments[1] : null;
+
+        if ( !isPermittedToRead( applicationId, collection ) ) {
+            sendMessage( channel, "error", "Not authorized to read " + path );
+            return;
+        }
+
+        if ( changeFeedSubscriber == null ) {
+            changeFeedSubscriber = new ChangeFeedSubscriber( channel, maxPendingWrites );
+        }
+
+        EntityChangeFeed.Subscription previous = subscriptions.remove( path );
+        if ( previous != null ) {
+            previous.close();
+        }
+
+        EntityChangeFeed.Subscription subscription =
+                changeFeed.subscribe( applicationId, collection, token, changeFeedSubscriber );
+
+        subscriptions.put( path, subscription );
+
+        // when reset the events after the token are gone, and the client has to re-read the collection
+        Map<String, Object> response = new LinkedHashMap<String, Object>();
+        response.put( "subscribed", path );
+        response.put( "reset", subscription.isReset() );
+        channel.write( new DefaultWebSocketFrame( mapToJsonString( response ) ) );
+    }
+
+
+    private void sendMessage( Channel channel, String key, Object value ) {
+        Map<String, Object> message = new LinkedHashMap<String, Object>();
+        message.put( key, value );
+        channel.write( new DefaultWebSocketFrame( mapToJsonString( message ) ) );
+    }
+
+
     // TODO Review this for concurrency safety
     // Note: subscriptions are added and removed relatively infrequently
     // during the lifecycle of a connection i.e. typical minimum lifespan
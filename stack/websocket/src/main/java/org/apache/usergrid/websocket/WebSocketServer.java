@@ -32,15 +32,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeFeed;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangePublisher;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeQueueReader;
 import org.apache.usergrid.management.ManagementService;
 import org.apache.usergrid.persistence.EntityManagerFactory;
 import org.apache.usergrid.persistence.cassandra.EntityManagerFactoryImpl;
+import org.apache.usergrid.persistence.queue.LegacyQueueManagerFactory;
+import org.apache.usergrid.security.tokens.TokenService;
 import org.apache.usergrid.services.ServiceManagerFactory;
 
 import org.apache.shiro.mgt.DefaultSecurityManager;
 import org.apache.shiro.mgt.SessionsSecurityManager;
 import org.apache.shiro.realm.Realm;
 
+import com.google.inject.Injector;
+
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -60,10 +67,13 @@ public class WebSocketServer {
     EntityManagerFactory emf;
     ServiceManagerFactory smf;
     ManagementService management;
+    TokenService tokens;
     Realm realm;
+    Injector injector;
     SessionsSecurityManager securityManager;
     boolean ssl = false;
     Channel channel;
+    EntityChangeQueueReader changeFeedReader;
     Properties properties;
 
 
@@ -96,6 +106,12 @@ public class WebSocketServer {
     }
 
 
+    @Autowired
+    public void setTokenService( TokenService tokens ) {
+        this.tokens = tokens;
+    }
+
+
     public void setSsl( boolean ssl ) {
         this.ssl = ssl;
     }
@@ -107,6 +123,12 @@ public class WebSocketServer {
     }
 
 
+    @Autowired
+    public void setInjector( Injector injector ) {
+        this.injector = injector;
+    }
+
+
     public Properties getProperties() {
         return properties;
     }
@@ -159,9 +181,33 @@ public class WebSocketServer {
         ExecutionHandler executionHandler =
                 new ExecutionHandler( new OrderedMemoryAwareThreadPoolExecutor( 16, 1048576, 1048576 ) );
 
+        // Entity changes written on any node are relayed to this server's queue and pushed to the subscribed channels,
+        // the queue has to be one of usergrid.entityManager.change_feed_queues
+        EntityChangeFeed changeFeed = null;
+        String changeFeedQueue = properties != null ? properties.getProperty( "usergrid.websocket.change_feed_queue" )
+                                                    : null;
+        if ( injector != null && changeFeedQueue != null && !changeFeedQueue.trim().isEmpty() ) {
+            changeFeed = injector.getInstance( EntityChangeFeed.class );
+            changeFeedReader = new EntityChangeQueueReader( injector.getInstance( LegacyQueueManagerFactory.class )
+                    .getQueueManager( EntityChangePublisher.getQueueScope( changeFeedQueue.trim() ) ), changeFeed );
+            changeFeedReader.start();
+        }
+        else {
+            logger.info( "No usergrid.websocket.change_feed_queue, the change feed is disabled" );
+        }
+
+        int maxPendingWrites = 1000;
+        if ( properties != null ) {
+            maxPendingWrites =
+                    Integer.parseInt( properties.getProperty( "usergrid.websocket.max_pending_writes", "1000" ) );
+        }
+
+        ChangeFeedAuthenticator authenticator = new ChangeFeedAuthenticator( tokens, management, emf );
+
         // Set up the event pipeline factory.
         bootstrap.setPipelineFactory(
-                new WebSocketServerPipelineFactory( emf, smf, management, securityManager, executionHandler, ssl ) );
+                new WebSocketServerPipelineFactory( emf, smf, management, securityManager, changeFeed, authenticator,
+                        maxPendingWrites, executionHandler, ssl ) );
 
         // Bind and start to accept incoming connections.
         channel = bootstrap.bind( new InetSocketAddress( 8088 ) );
@@ -176,6 +222,10 @@ public class WebSocketServer {
             channel.close();
             channel = null;
         }
+        if ( changeFeedReader != null ) {
+            changeFeedReader.stop();
+            changeFeedReader = null;
+        }
         logger.info( "Usergrid WebSocket Server stopped..." );
     }
 }
@@ -26,6 +26,7 @@ import org.jboss.netty.handler.codec.http.HttpRequestDecoder;
 import org.jboss.netty.handler.codec.http.HttpResponseEncoder;
 import org.jboss.netty.handler.execution.ExecutionHandler;
 import org.jboss.netty.handler.ssl.SslHandler;
+import org.apache.usergrid.corepersistence.changefeed.EntityChangeFeed;
 import org.apache.usergrid.management.ManagementService;
 import org.apache.usergrid.persistence.EntityManagerFactory;
 import org.apache.usergrid.services.ServiceManagerFactory;
@@ -42,16 +43,23 @@ public class WebSocketServerPipelineFactory implements ChannelPipelineFactory {
     private final ServiceManagerFactory smf;
     private final ManagementService management;
     private final SessionsSecurityManager securityManager;
+    private final EntityChangeFeed changeFeed;
+    private final ChangeFeedAuthenticator authenticator;
+    private final int maxPendingWrites;
     private final boolean ssl;
 
 
     public WebSocketServerPipelineFactory( EntityManagerFactory emf, ServiceManagerFactory smf,
                                            ManagementService management, SessionsSecurityManager securityManager,
-                                           ExecutionHandler executionHandler, boolean ssl ) {
+                                           EntityChangeFeed changeFeed, ChangeFeedAuthenticator authenticator,
+                                           int maxPendingWrites, ExecutionHandler executionHandler, boolean ssl ) {
         this.emf = emf;
         this.smf = smf;
         this.management = management;
         this.securityManager = securityManager;
+        this.changeFeed = changeFeed;
+        this.authenticator = authenticator;
+        this.maxPendingWrites = maxPendingWrites;
         this.executionHandler = executionHandler;
         this.ssl = ssl;
     }
@@ -70,7 +78,9 @@ public class WebSocketServerPipelineFactory implements ChannelPipelineFactory {
         pipeline.addLast( "aggregator", new HttpChunkAggregator( 65536 ) );
         pipeline.addLast( "encoder", new HttpResponseEncoder() );
         pipeline.addLast( "execution", executionHandler );
-        pipeline.addLast( "handler", new WebSocketChannelHandler( emf, smf, management, securityManager, ssl ) );
+        pipeline.addLast( "handler",
+                new WebSocketChannelHandler( emf, smf, management, securityManager, changeFeed, authenticator,
+                        maxPendingWrites, ssl ) );
         return pipeline;
     }
 }